@@ -0,0 +1,216 @@
+package lib.io;
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.lang.management.*;
+import java.nio.*;
+import java.util.*;
+
+import com.sun.management.*;
+
+import jdk.incubator.vector.*;
+
+/**
+ * int 列の一括読み込みを {@code jdk.incubator.vector} で行う {@link FastScanner} です。
+ * <p>
+ * {@link #readInts}（とそれを使う {@code nextInt(n)} / {@code readIntMatrix} などの int 配列入力）だけを置き換え、
+ * それ以外は FastScanner と同じです。simdjson の数値パースと同様に 2 段階で処理します。
+ * <ol>
+ * <li>64 バイトずつベクトル比較で空白のビットマスクを作り、ビット演算でトークンの先頭と終端の位置を列挙する。</li>
+ * <li>トークンの終端にそろえた 8 バイトの窓を 2 個読み、トークンより前のバイトを消してから、
+ * 8 桁の SWAR 変換を {@code LongVector} の各レーンで行い、2 つの窓の値をまとめる。</li>
+ * </ol>
+ * どちらの段階も分岐が桁数や符号に依存しないため、桁数のばらつく入力で分岐予測ミスが起きません。
+ * 一方、桁数のそろった短いトークンは FastScanner の分岐がよく当たって速いため、
+ * 呼び出しの先頭 {@value #SAMPLE} バイトのトークンが平均 {@value #MIN_TOKEN_BYTES} バイト未満なら FastScanner の readInts に任せます。
+ * {@code long} 列は 3 つ目の窓が要り FastScanner より遅かったため、置き換えていません。
+ * <p>
+ * {@code src} とは別に {@code --add-modules jdk.incubator.vector} を付けてコンパイルし、実行時にも同じフラグが必要です。
+ * 通常は {@link FastScanner#vectorized(InputStream)} から使い、使えない環境では FastScanner に戻ります。
+ */
+@SuppressWarnings("unused")
+public final class VectorScanner extends FastScanner {
+	private static final VarHandle LONG_HANDLE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	private static final int BLOCK = 64;
+	// 1 回にまとめて変換するトークン数。
+	private static final int BATCH = 256;
+	// トークンの終端から読む範囲。終端がこれより手前のトークンは窓が配列の前にはみ出すため、1 個ずつ読む。
+	private static final int FRAME = 16;
+	// 窓で読める桁数。これを超えるトークン（先頭に 0 が並ぶものなど）は 1 個ずつ読み直す。
+	private static final int MAX_DIGITS = 16;
+	// 入力の形を調べるバイト数と、ベクトル版を使うトークンの平均バイト数（区切りを含む）の下限。
+	private static final int SAMPLE = 4 * BLOCK, MIN_TOKEN_BYTES = 9;
+	// 列挙では 8 個ずつ無条件に書くため、1 ブロックで増えうる 32 個に加えて 8 個の余白を持つ。
+	private final int[] starts = new int[BATCH + BLOCK + 8], ends = new int[BATCH + BLOCK + 8];
+	private final long[] low = new long[BATCH], high = new long[BATCH];
+	private final long[] digits = new long[BATCH], negative = new long[BATCH], values = new long[BATCH];
+
+	public VectorScanner() {
+		super();
+	}
+
+	public VectorScanner(final InputStream in) {
+		super(in);
+	}
+
+	/**
+	 * 空白の判定に 256 ビット以上、変換に 4 レーン以上のベクトルが使え、かつ C2 でコンパイルされるかを返します。
+	 * Vector API は C1 やインタプリタでは組み込み化されず FastScanner の数十倍遅くなるため、
+	 * {@code -XX:TieredStopAtLevel=1} の環境などでは false を返し、{@link FastScanner#vectorized(InputStream)} は FastScanner を選びます。
+	 */
+	public static boolean isSupported() {
+		return BYTES.vectorBitSize() >= 256 && LONGS.length() >= 4 && usesC2();
+	}
+
+	private static boolean usesC2() {
+		try {
+			final HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			if (vm.getVMOption("UseCompiler").getValue().equals("false")) return false;
+			return vm.getVMOption("TieredCompilation").getValue().equals("false") || Integer.parseInt(vm.getVMOption("TieredStopAtLevel").getValue()) >= 4;
+		} catch (final RuntimeException e) {
+			// HotSpot 以外の VM ではフラグを確認できないため、ベクトル幅だけで判断する。
+			return true;
+		}
+	}
+
+	@Override
+	public void readInts(final int[] dst, final int off, final int len) {
+		final int end = off + len;
+		int i = off;
+		while (i < end && pos < FRAME) dst[i++] = nextInt();
+		if (i < end && isShort()) {
+			super.readInts(dst, i, end - i);
+			return;
+		}
+		while (i < end) {
+			while (i < end && pos < FRAME) dst[i++] = nextInt();
+			i = readChunk(dst, i, end);
+			if (i < end && !hasNext()) throw new NoSuchElementException();
+		}
+	}
+
+	// pos から SAMPLE バイトのトークンの平均の長さが MIN_TOKEN_BYTES 未満か。
+	private boolean isShort() {
+		final int to = Math.min(bufferLength, pos + SAMPLE);
+		int tokens = 0;
+		long carry = 1;
+		for (int base = pos; base < to; base += BLOCK) {
+			long space = spaceBits(buffer, base);
+			if (to - base < BLOCK) space |= -1L << (to - base);
+			tokens += Long.bitCount(~space & (space << 1 | carry));
+			carry = space >>> 63;
+		}
+		return (long) tokens * MIN_TOKEN_BYTES > to - pos;
+	}
+
+	/**
+	 * 読み込み済みチャンク [pos, bufferLength) のトークンを {@value #BATCH} 個ずつ変換します。pos は {@value #FRAME} 以上であること。
+	 */
+	private int readChunk(final int[] dst, int i, final int end) {
+		final byte[] buf = buffer;
+		final int limit = bufferLength;
+		final int[] st = starts, en = ends;
+		int p = pos;
+		while (i < end && p < limit) {
+			final int want = Math.min(BATCH, end - i);
+			int n = 0, m = 0;
+			// p の直前は空白とみなす。終端の見つかっていないトークンは次の回に p から数え直す。
+			long carry = 1;
+			for (int base = p; m < want && base < limit; base += BLOCK) {
+				long space = spaceBits(buf, base);
+				if (limit - base < BLOCK) space |= -1L << (limit - base);
+				final long boundary = space << 1 | carry;
+				carry = space >>> 63;
+				n = flatten(~space & boundary, base, st, n);
+				m = flatten(space & ~boundary, base, en, m);
+			}
+			final int count = Math.min(m, want);
+			if (count == 0) {
+				p = limit;
+				break;
+			}
+			convert(buf, count);
+			for (int t = 0; t < count; t++) dst[i + t] = (int) values[t];
+			i += count;
+			p = en[count - 1] + 1;
+		}
+		pos = p;
+		return i;
+	}
+
+	// buf[base, base + 64) のうち空白（32 以下）のバイトのビットマスク。bufferLength の後ろには常に 64 バイト以上の余白がある。
+	private static long spaceBits(final byte[] buf, final int base) {
+		long bits = 0;
+		for (int j = 0; j < BLOCK; j += BYTES.length()) bits |= ByteVector.fromArray(BYTES, buf, base + j).compare(VectorOperators.LE, (byte) 32).toLong() << j;
+		return bits;
+	}
+
+	/**
+	 * bits の立っている位置 {@code base + j} を {@code dst[n]} から順に書き、書いた個数を足した n を返します。
+	 * 8 個ずつ無条件に書くため、分岐の回数はビット数の 1/8 で済みます（余分に書いた値は次の呼び出しで上書きされます）。
+	 */
+	private static int flatten(long bits, final int base, final int[] dst, final int n) {
+		final int count = Long.bitCount(bits);
+		for (int j = n; bits != 0; j += 8) {
+			for (int k = 0; k < 8; k++) {
+				dst[j + k] = base + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+			}
+		}
+		return n + count;
+	}
+
+	/**
+	 * {@code starts[t], ends[t]}（t < count）のトークンを values に変換します。
+	 */
+	private void convert(final byte[] buf, final int count) {
+		final int[] st = starts, en = ends;
+		final long[] lo = low, hi = high, k = digits, neg = negative;
+		boolean tooLong = false;
+		for (int t = 0; t < count; t++) {
+			final int s = st[t], e = en[t];
+			final int sign = buf[s] == '-' ? 1 : 0;
+			k[t] = e - s - sign;
+			neg[t] = -sign;
+			tooLong |= e - s - sign > MAX_DIGITS;
+			lo[t] = (long) LONG_HANDLE.get(buf, e - 8);
+			hi[t] = (long) LONG_HANDLE.get(buf, e - 16);
+		}
+		final long[] v = values;
+		for (int t = 0; t < count; t += LONGS.length()) {
+			final LongVector kv = LongVector.fromArray(LONGS, k, t);
+			final LongVector x = window(LongVector.fromArray(LONGS, hi, t), kv, 8).mul(100_000_000L).add(window(LongVector.fromArray(LONGS, lo, t), kv, 0));
+			// 負数は neg = -1 で、(x ^ -1) - (-1) = -x になる。
+			final LongVector sign = LongVector.fromArray(LONGS, neg, t);
+			x.lanewise(VectorOperators.XOR, sign).sub(sign).intoArray(v, t);
+		}
+		if (!tooLong) return;
+		for (int t = 0; t < count; t++) {
+			if (k[t] > MAX_DIGITS) v[t] = parseSlow(buf, st[t], en[t]);
+		}
+	}
+
+	/**
+	 * トークンの終端の skip バイト手前で終わる 8 バイトの窓 w を、窓に含まれる桁（最大 8 桁）の値に変換します。
+	 * 窓に含まれる桁数は {@code clamp(k - skip, 0, 8)} で、それより前のバイトはトークンの外なので 0 にします。
+	 */
+	private static LongVector window(final LongVector w, final LongVector k, final int skip) {
+		final LongVector d = k.sub(skip).max(0).min(8);
+		final LongVector keep = LongVector.broadcast(LONGS, -1L).lanewise(VectorOperators.LSHL, LongVector.broadcast(LONGS, 8).sub(d).lanewise(VectorOperators.LSHL, 3))
+				.blend(0, d.compare(VectorOperators.EQ, 0));
+		LongVector t = w.lanewise(VectorOperators.XOR, 0x3030303030303030L).and(keep);
+		t = t.mul(10).add(t.lanewise(VectorOperators.LSHR, 8)).and(0x00FF00FF00FF00FFL);
+		t = t.mul(100).add(t.lanewise(VectorOperators.LSHR, 16)).and(0x0000FFFF0000FFFFL);
+		return t.mul(10000).add(t.lanewise(VectorOperators.LSHR, 32)).and(0x00000000FFFFFFFFL);
+	}
+
+	// 窓に収まらない [s, e) のトークンを 1 桁ずつ読みます。
+	private static long parseSlow(final byte[] buf, final int s, final int e) {
+		final boolean minus = buf[s] == '-';
+		int n = 0;
+		for (int p = minus ? s + 1 : s; p < e; p++) n = (n << 3) + (n << 1) + (buf[p] & 15);
+		return minus ? -n : n;
+	}
+}
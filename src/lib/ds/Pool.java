@@ -0,0 +1,70 @@
+package lib.ds;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * 同じ大きさで構築した {@link Resettable} のインスタンスを使い回すオブジェクトプールです。
+ * <p>
+ * {@link #release(Resettable)} で返却したインスタンスは {@link Resettable#reset()} で初期状態に戻してから保持し、
+ * 次の {@link #acquire()} でそのまま払い出します。空のときは {@code factory} で新しく構築します。
+ * スレッドセーフではありません。
+ *
+ * @param <T> 保持するデータ構造の型
+ */
+@SuppressWarnings("unused")
+public final class Pool<T extends Resettable> {
+	private final Supplier<? extends T> factory;
+	private Object[] free;
+	private int size;
+
+	/**
+	 * @param factory 払い出すインスタンスを構築する関数。常に同じ大きさ・設定のインスタンスを返す必要があります。
+	 */
+	public Pool(final Supplier<? extends T> factory) {
+		this(factory, 0);
+	}
+
+	/**
+	 * {@code prepared} 個のインスタンスを先に構築しておきます。
+	 *
+	 * @param factory  払い出すインスタンスを構築する関数
+	 * @param prepared 先に構築しておくインスタンス数
+	 */
+	public Pool(final Supplier<? extends T> factory, final int prepared) {
+		this.factory = factory;
+		free = new Object[Math.max(prepared, 4)];
+		for (int i = 0; i < prepared; i++) free[size++] = factory.get();
+	}
+
+	/**
+	 * 初期状態のインスタンスを払い出します。
+	 *
+	 * @return 初期状態のインスタンス
+	 */
+	@SuppressWarnings("unchecked")
+	public T acquire() {
+		if (size == 0) return factory.get();
+		final T res = (T) free[--size];
+		free[size] = null;
+		return res;
+	}
+
+	/**
+	 * インスタンスを初期状態に戻してプールへ返却します。返却後のインスタンスを使ってはいけません。
+	 *
+	 * @param obj {@link #acquire()} で受け取ったインスタンス
+	 */
+	public void release(final T obj) {
+		obj.reset();
+		if (size == free.length) free = Arrays.copyOf(free, size << 1);
+		free[size++] = obj;
+	}
+
+	/**
+	 * 再構築せずに払い出せるインスタンス数を返します。
+	 */
+	public int available() {
+		return size;
+	}
+}
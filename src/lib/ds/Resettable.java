@@ -0,0 +1,18 @@
+package lib.ds;
+
+/**
+ * 初期状態に戻して再利用できるデータ構造のインターフェースです。
+ * <p>
+ * 複数テストケースの入力で同じインスタンスを使い回すことを想定しています。
+ * 実装は前回の {@link #reset()} 以降に変更した部分だけを戻し、計算量は容量ではなく変更した要素数に比例します。
+ * 容量・演算子・単位元などの構築時の設定は保持されます。
+ *
+ * @see Pool
+ */
+public interface Resettable {
+
+	/**
+	 * 初期状態に戻します。要素を持つ構造では全要素を既定値（単位元や 0）に、集合・マップ・キューでは空に戻します。
+	 */
+	void reset();
+}
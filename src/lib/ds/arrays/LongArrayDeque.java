@@ -3,6 +3,8 @@
 import java.util.*;
 import java.util.function.*;
 
+import lib.ds.*;
+
 /**
  * long型に特化した可変容量の配列deque。
  * <p>
@@ -10,7 +12,7 @@
  * 内部容量を自動的に2のべき乗に正規化することで、剰余演算の代わりに高速なビット演算を利用します。
  */
 @SuppressWarnings("unused")
-public final class LongArrayDeque implements LongMutableArray, Cloneable {
+public final class LongArrayDeque implements LongMutableArray, Cloneable, Resettable {
 	private int capacity;
 	private long[] buf;
 	private int head, size;
@@ -243,6 +245,14 @@ public LongArrayDeque clear() {
 		return this;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * このdequeの独立したコピーを返します。
 	 *
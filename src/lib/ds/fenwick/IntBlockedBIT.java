@@ -0,0 +1,215 @@
+package lib.ds.fenwick;
+
+import java.util.*;
+import java.util.function.*;
+
+import lib.ds.*;
+
+/**
+ * {@link IntBIT} と同じ操作を、16 分木のブロック配置で提供する int 型の累積和構造。
+ * <p>
+ * 要素を 16 個ずつのブロックにまとめ、段 0 にはブロック内の累積和（自身を含む）、段 h ≥ 1 には
+ * 1 つ下の段の 16 ブロックごとに、自身より前のブロックの和（自身を含まない）を持つ。
+ * 累積和 sum(i) は各段から 1 つずつ、合計 ⌈log16 N⌉ 個の値を足すだけで求まる。
+ * IntBIT では log2 N 個の離れた位置を読むのに対し、読み込み回数が約 1/4 になり、上の段は小さいのでキャッシュに残る。
+ * lowerBound も各段で連続した 16 個を調べて 1 段ずつ降りる。
+ * <p>
+ * 代わりに点更新は各段で最大 16 個の連続した値を書き換えるため、更新の多い用途では IntBIT の方が速い。
+ * 読み取りが中心で N が大きい（10^6 以上）用途を想定する。
+ */
+@SuppressWarnings("unused")
+public final class IntBlockedBIT implements IntCollection {
+	private static final int SHIFT = 4;
+	private static final int B = 1 << SHIFT;
+	public final int n;
+	// 全段を 1 つの配列に並べる。offset[h] は段 h の先頭。段 0 が最も大きく、最後の段は 16 個（1 ブロック）。
+	private final int[] tree, offset;
+	private final int levels;
+
+	/**
+	 * サイズ n の構造を構築する。初期値はすべて 0。
+	 *
+	 * @param n 要素数
+	 */
+	public IntBlockedBIT(final int n) {
+		this.n = n;
+		int h = 1;
+		for (int len = roundUp(n); len > B; len = roundUp(len >> SHIFT)) h++;
+		levels = h;
+		offset = new int[levels + 1];
+		for (int k = 0, len = roundUp(n); k < levels; k++, len = roundUp(len >> SHIFT)) offset[k + 1] = offset[k] + len;
+		tree = new int[offset[levels]];
+	}
+
+	/**
+	 * 初期値関数を用いて O(N) で構築する。
+	 *
+	 * @param n    要素数
+	 * @param init 初期値関数 (index -> value)
+	 */
+	public IntBlockedBIT(final int n, final IntUnaryOperator init) {
+		this(n);
+		setAll(init);
+	}
+
+	private static int roundUp(final int len) {
+		return Math.max(B, len + B - 1 & -B);
+	}
+
+	public void fill(final int val) {
+		setAll(i -> val);
+	}
+
+	/**
+	 * 全要素を再構築する。
+	 *
+	 * @param init 初期値関数
+	 */
+	public void setAll(final IntUnaryOperator init) {
+		Arrays.fill(tree, 0);
+		for (int i = 0; i < n; i++) tree[i] = init.applyAsInt(i);
+		// 段 h の各ブロックの和を段 h + 1 の要素とし、段 h をブロック内の累積和に置き換える。
+		for (int h = 0; h < levels; h++) {
+			final int from = offset[h], to = offset[h + 1];
+			for (int b = from; b < to; b += B) {
+				int s = 0;
+				for (int k = b; k < b + B; k++) {
+					final int v = tree[k];
+					tree[k] = h == 0 ? s + v : s;
+					s += v;
+				}
+				if (h + 1 < levels) tree[to + (b - from >> SHIFT)] = s;
+			}
+		}
+	}
+
+	/**
+	 * インデックス i (0-indexed) の現在の値を取得する。
+	 *
+	 * @param i インデックス
+	 * @return 現在の値
+	 */
+	public int get(final int i) {
+		return (i & B - 1) == 0 ? tree[i] : tree[i] - tree[i - 1];
+	}
+
+	/**
+	 * インデックス i (0-indexed) の要素を v に更新する。
+	 *
+	 * @param i インデックス
+	 * @param v 更新後の値
+	 */
+	public int set(final int i, final int v) {
+		add(i, v - get(i));
+		return v;
+	}
+
+	/**
+	 * インデックス i (0-indexed) の要素に v を加算する。
+	 * 段 0 ではブロック内の i 以降、段 h ≥ 1 では同じブロック内で i を含むブロックより後ろの値に v を足す。
+	 *
+	 * @param i インデックス
+	 * @param v 加算する値
+	 */
+	public int add(final int i, final int v) {
+		for (int k = i, end = (i | B - 1) + 1; k < end; k++) tree[k] += v;
+		for (int h = 1, j = i >> SHIFT; h < levels; h++, j >>= SHIFT) {
+			final int base = offset[h];
+			for (int k = base + j + 1, end = base + (j | B - 1) + 1; k < end; k++) tree[k] += v;
+		}
+		return get(i);
+	}
+
+	/**
+	 * 閉区間 [0, r] の和を計算する。
+	 *
+	 * @param r 右端の境界 (includes)
+	 * @return [0, r] の和
+	 */
+	public int sum(final int r) {
+		if (r < 0) return 0;
+		int s = tree[r];
+		for (int h = 1, j = r >> SHIFT; h < levels; h++, j >>= SHIFT) s += tree[offset[h] + j];
+		return s;
+	}
+
+	/**
+	 * 閉区間 [l, r] の和を計算する。
+	 *
+	 * @param l 左端の境界 (includes)
+	 * @param r 右端の境界 (includes)
+	 * @return [l, r] の和
+	 */
+	public int sum(final int l, final int r) {
+		if (l > r) return 0;
+		return sum(r) - sum(l - 1);
+	}
+
+	public int sumAll() {
+		return sum(n - 1);
+	}
+
+	/**
+	 * 累積和が w 以上となる最小のインデックス i (0-indexed) を返す。
+	 * 全ての要素が非負であることを前提とする。
+	 * 存在しない場合は n を返す。
+	 *
+	 * @param w ターゲットとなる累積和
+	 * @return 累積和が w 以上となる最小のインデックス
+	 */
+	public int lowerBound(int w) {
+		if (w <= 0) return 0;
+		if (n == 0 || sumAll() < w) return n;
+		// 各段で、前のブロックの和が w 未満となる最後のブロックへ降りる。ブロックの先頭は常に 0 < w なので必ず 1 つ以上ある。
+		int j = 0;
+		for (int h = levels - 1; h > 0; h--) {
+			final int base = offset[h] + (j << SHIFT);
+			int c = 0;
+			for (int k = 0; k < B; k++) c += tree[base + k] < w ? 1 : 0;
+			j = (j << SHIFT) + c - 1;
+			w -= tree[base + c - 1];
+		}
+		final int base = j << SHIFT;
+		int c = 0;
+		for (int k = 0; k < B; k++) c += tree[base + k] < w ? 1 : 0;
+		return base + c;
+	}
+
+	/**
+	 * 累積和が w より大きくなる最小のインデックス i (0-indexed) を返す。
+	 * 全ての要素が非負であることを前提とする。
+	 * 存在しない場合は n を返す。
+	 *
+	 * @param w ターゲットとなる累積和の上限
+	 * @return 累積和が w より大きくなる最小のインデックス
+	 */
+	public int upperBound(final int w) {
+		return w == Integer.MAX_VALUE ? n : lowerBound(w + 1);
+	}
+
+	public int size() {
+		return n;
+	}
+
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			private int i = 0;
+
+			public boolean hasNext() {
+				return i < n;
+			}
+
+			public int nextInt() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return get(i++);
+			}
+		};
+	}
+
+	public String toString() {
+		final StringBuilder s = new StringBuilder();
+		s.append(get(0));
+		for (int i = 1; i < n; i++) s.append(' ').append(get(i));
+		return s.toString();
+	}
+}
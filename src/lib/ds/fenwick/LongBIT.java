@@ -12,10 +12,14 @@
  * また、BIT上の二分探索による lowerBound を O(log N) で提供する。
  */
 @SuppressWarnings("unused")
-public final class LongBIT implements LongCollection {
+public final class LongBIT implements LongCollection, Resettable {
 	public final int n;
 	private final int headBit;
 	private final long[] tree, raw;
+	// reset() で 0 に戻すインデックス。記録しきれなくなったら touchedAll を立て、全体を戻す。
+	private final int[] touched;
+	private int touchedCount;
+	private boolean touchedAll;
 
 	/**
 	 * サイズ n の BIT を構築する。初期値はすべて 0。
@@ -27,6 +31,8 @@ public LongBIT(final int n) {
 		headBit = Integer.highestOneBit(n);
 		tree = new long[n + 1];
 		raw = new long[n];
+		// 1 インデックスあたり O(log N) 個の頂点を戻すため、記録数の上限を 2N / log N 程度にして O(N) を超えないようにする。
+		touched = new int[Math.max(1, (n << 1) / (32 - Integer.numberOfLeadingZeros(n | 1)))];
 	}
 
 	/**
@@ -47,6 +53,7 @@ public void fill(final long val) {
 			int j = i + (i & -i);
 			if (j <= n) tree[j] += tree[i];
 		}
+		touchedAll = true;
 	}
 
 	/**
@@ -61,6 +68,26 @@ public void setAll(final IntToLongFunction init) {
 			int j = i + (i & -i);
 			if (j <= n) tree[j] += tree[i];
 		}
+		touchedAll = true;
+	}
+
+	/**
+	 * 全要素を 0 に戻す。前回の reset() 以降に更新したインデックスが k 個なら O(min(k log N, N))。
+	 */
+	@Override
+	public void reset() {
+		if (touchedAll) {
+			Arrays.fill(tree, 0);
+			Arrays.fill(raw, 0);
+			touchedAll = false;
+		} else {
+			for (int t = 0; t < touchedCount; t++) {
+				final int i = touched[t];
+				raw[i] = 0;
+				for (int cur = i + 1; cur <= n; cur += cur & -cur) tree[cur] = 0;
+			}
+		}
+		touchedCount = 0;
 	}
 
 	/**
@@ -90,6 +117,8 @@ public long set(final int i, final long v) {
 	 * @param v 加算する値
 	 */
 	public long add(final int i, final long v) {
+		if (touchedCount < touched.length) touched[touchedCount++] = i;
+		else touchedAll = true;
 		raw[i] += v;
 		for (int cur = i + 1; cur <= n; cur += cur & -cur) tree[cur] += v;
 		return raw[i];
@@ -0,0 +1,431 @@
+package lib.ds.map;
+
+import static java.lang.Math.*;
+
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import lib.util.function.*;
+
+/**
+ * {@code int} 型のキーと値を保持する、複数スレッドから同時に更新できるオープンアドレス方式のマップです。
+ * キーのハッシュ値で複数のセグメントに分割し、更新はセグメント単位のロックで直列化します（lock striping）。
+ * 参照系（{@link #get}, {@link #getOrDefault}, {@link #containsKey}）はロックを取らず、セグメントのバージョン番号で
+ * 削除・リサイズと重ならなかったことを確認します。
+ * {@link #add}, {@link #merge}, {@link #computeMin}, {@link #computeMax} などの更新は 1 回の呼び出し全体が原子的です。
+ * 未存在キーの取得では設定済みの既定値を返します。
+ */
+@SuppressWarnings("unused")
+public final class ConcurrentIntIntMap {
+	private static final long SALT64 = ThreadLocalRandom.current().nextLong();
+	private static final VarHandle USED = MethodHandles.arrayElementVarHandle(byte[].class);
+	private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(int[].class);
+	private final Segment[] segments;
+	private final int segmentMask;
+	private volatile int defaultValue;
+
+	public ConcurrentIntIntMap() {
+		this(1024, 0);
+	}
+
+	public ConcurrentIntIntMap(final int expectedSize) {
+		this(expectedSize, 0);
+	}
+
+	public ConcurrentIntIntMap(final int expectedSize, final int defaultValue) {
+		this(expectedSize, defaultValue, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param concurrencyLevel 同時に更新するスレッド数の目安。セグメント数はこの 4 倍以上の 2 冪になります。
+	 */
+	public ConcurrentIntIntMap(final int expectedSize, final int defaultValue, final int concurrencyLevel) {
+		this.defaultValue = defaultValue;
+		final int count = Integer.highestOneBit(max(1, concurrencyLevel) * 4 - 1) << 1;
+		segments = new Segment[count];
+		segmentMask = count - 1;
+		final int perSegment = (int) (((long) max(0, expectedSize) + count - 1) / count);
+		for (int i = 0; i < count; i++) segments[i] = new Segment(normalizeCapacity(perSegment));
+	}
+
+	private static int normalizeCapacity(final int expectedSize) {
+		final int required = (int) (((long) expectedSize * 4 + 2) / 3);
+		if (required <= 16) return 16;
+		int cap = required;
+		if ((cap & (cap - 1)) == 0) return cap;
+		cap |= cap >>> 1;
+		cap |= cap >>> 2;
+		cap |= cap >>> 4;
+		cap |= cap >>> 8;
+		cap |= cap >>> 16;
+		return cap + 1;
+	}
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	public void setDefaultValue(final int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	public int get(final int key) {
+		return getOrDefault(key, defaultValue);
+	}
+
+	public int getOrDefault(final int key, final int defaultValue) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		while (true) {
+			final int version = s.version;
+			if ((version & 1) == 0) {
+				final Table t = s.table;
+				final int slot = t.find(key, (int) h);
+				final int value = slot >= 0 ? (int) VALUES.getAcquire(t.values, slot) : defaultValue;
+				VarHandle.loadLoadFence();
+				if (s.version == version) return value;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	public boolean containsKey(final int key) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		while (true) {
+			final int version = s.version;
+			if ((version & 1) == 0) {
+				final boolean found = s.table.find(key, (int) h) >= 0;
+				VarHandle.loadLoadFence();
+				if (s.version == version) return found;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	public int increment(final int key) {
+		final int base = defaultValue;
+		return addOrDefault(key, 1, base + 1);
+	}
+
+	public int decrement(final int key) {
+		final int base = defaultValue;
+		return addOrDefault(key, -1, base - 1);
+	}
+
+	public int add(final int key, final int delta) {
+		final int base = defaultValue;
+		return addOrDefault(key, delta, base + delta);
+	}
+
+	public int addOrDefault(final int key, final int delta, final int absentValue) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, absentValue);
+			final int value = t.values[slot] + delta;
+			VALUES.setRelease(t.values, slot, value);
+			return value;
+		}
+	}
+
+	public int put(final int key, final int value) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, value);
+			VALUES.setRelease(t.values, slot, value);
+			return value;
+		}
+	}
+
+	public boolean remove(final int key) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final int slot = s.table.find(key, (int) h);
+			if (slot < 0) return false;
+			s.remove(slot);
+			return true;
+		}
+	}
+
+	public int merge(final int key, final int value, final IntBinaryOperator op) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, value);
+			final int merged = op.applyAsInt(t.values[slot], value);
+			VALUES.setRelease(t.values, slot, merged);
+			return merged;
+		}
+	}
+
+	public int putIfAbsent(final int key, final int value) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, value);
+			return t.values[slot];
+		}
+	}
+
+	/**
+	 * キーが存在しなければ {@code op} の結果を格納します。{@code op} はセグメントのロックを保持したまま呼ばれるため、
+	 * このマップを操作してはいけません。
+	 */
+	public int computeIfAbsent(final int key, final IntUnaryOperator op) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, op.applyAsInt(key));
+			return t.values[slot];
+		}
+	}
+
+	public int computeMin(final int key, final int value) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, value);
+			final int current = t.values[slot];
+			if (value < current) VALUES.setRelease(t.values, slot, value);
+			return min(current, value);
+		}
+	}
+
+	public int computeMax(final int key, final int value) {
+		final long h = hash(key);
+		final Segment s = segments[(int) (h >>> 32) & segmentMask];
+		synchronized (s) {
+			final Table t = s.table;
+			final int slot = t.find(key, (int) h);
+			if (slot < 0) return s.insert(~slot, key, value);
+			final int current = t.values[slot];
+			if (value > current) VALUES.setRelease(t.values, slot, value);
+			return max(current, value);
+		}
+	}
+
+	/**
+	 * すべてのエントリを削除します。セグメントごとに順に削除するため、並行して追加されたエントリが残る場合があります。
+	 */
+	public void clear() {
+		for (final Segment s : segments) {
+			synchronized (s) {
+				s.clear();
+			}
+		}
+	}
+
+	/**
+	 * エントリ数を返します。セグメントごとに順に数えるため、並行して更新されている間は近似値です。
+	 */
+	public int size() {
+		int size = 0;
+		for (final Segment s : segments) {
+			synchronized (s) {
+				size += s.size;
+			}
+		}
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * すべてのエントリに {@code action} を適用します。セグメント単位でロックを取って走査するため、{@code action} の中でこのマップを更新してはいけません。
+	 */
+	public void forEach(final IntBinaryConsumer action) {
+		for (final Segment s : segments) {
+			synchronized (s) {
+				final Table t = s.table;
+				for (int i = 0; i <= t.mask; i++) if (t.used[i] != 0) action.accept(t.keys[i], t.values[i]);
+			}
+		}
+	}
+
+	public void forEachKey(final IntConsumer action) {
+		forEach((key, value) -> action.accept(key));
+	}
+
+	public void forEachValue(final IntConsumer action) {
+		forEach((key, value) -> action.accept(value));
+	}
+
+	public int[] keys() {
+		return entries()[0];
+	}
+
+	public int[] values() {
+		return entries()[1];
+	}
+
+	/**
+	 * 全エントリを {@code [keys, values]} の形で返します。各セグメントはロックを取って複製します。
+	 */
+	public int[][] entries() {
+		int[] keys = new int[16], values = new int[16];
+		int n = 0;
+		for (final Segment s : segments) {
+			synchronized (s) {
+				final Table t = s.table;
+				if (n + s.size > keys.length) {
+					keys = Arrays.copyOf(keys, max(n + s.size, keys.length << 1));
+					values = Arrays.copyOf(values, keys.length);
+				}
+				for (int i = 0; i <= t.mask; i++) {
+					if (t.used[i] == 0) continue;
+					keys[n] = t.keys[i];
+					values[n++] = t.values[i];
+				}
+			}
+		}
+		return new int[][] {Arrays.copyOf(keys, n), Arrays.copyOf(values, n)};
+	}
+
+	private static long hash(final int key) {
+		long h = key ^ SALT64;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * 1 つのセグメントが使う配列の組です。リサイズ時は新しい組を作って差し替えるため、参照中の組が途中で変わることはありません。
+	 */
+	private static final class Table {
+		final int[] keys;
+		final int[] values;
+		// 0 は空き、1 は使用中。値とキーを書いた後に release で 1 にする。
+		final byte[] used;
+		final int mask, resizeThreshold;
+
+		Table(final int capacity) {
+			keys = new int[capacity];
+			values = new int[capacity];
+			used = new byte[capacity];
+			mask = capacity - 1;
+			resizeThreshold = capacity - (capacity >>> 2);
+		}
+
+		/**
+		 * キーのスロットを返します。存在しない場合は、挿入位置 {@code slot} を {@code ~slot} として返します。
+		 * ロックを取らずに呼ばれる場合があるため、探索は容量分で打ち切ります。
+		 */
+		int find(final int key, final int h) {
+			int i = h & mask;
+			for (int n = 0; n <= mask; n++, i = (i + 1) & mask) {
+				if ((byte) USED.getAcquire(used, i) == 0) return ~i;
+				if (keys[i] == key) return i;
+			}
+			return ~i;
+		}
+	}
+
+	/**
+	 * ロックの単位です。更新はこのオブジェクトの monitor を保持して行います。
+	 * 削除とリサイズの間は {@code version} を奇数にし、ロックを取らない参照に読み直しを促します。
+	 */
+	private static final class Segment {
+		Table table;
+		int size;
+		volatile int version;
+
+		Segment(final int capacity) {
+			table = new Table(capacity);
+		}
+
+		/**
+		 * 空きスロット {@code slot} に新しいエントリを追加し、格納した値を返します。
+		 */
+		int insert(final int slot, final int key, final int value) {
+			Table t = table;
+			if (size >= t.resizeThreshold) {
+				resize();
+				t = table;
+				final int h = (int) hash(key);
+				int i = h & t.mask;
+				while (t.used[i] != 0) i = (i + 1) & t.mask;
+				store(t, i, key, value);
+			} else store(t, slot, key, value);
+			size++;
+			return value;
+		}
+
+		private static void store(final Table t, final int slot, final int key, final int value) {
+			t.keys[slot] = key;
+			t.values[slot] = value;
+			USED.setRelease(t.used, slot, (byte) 1);
+		}
+
+		void remove(final int slot) {
+			final Table t = table;
+			final int mask = t.mask;
+			beginWrite();
+			int hole = slot;
+			for (int next = (hole + 1) & mask; t.used[next] != 0; next = (next + 1) & mask) {
+				final int home = (int) hash(t.keys[next]) & mask;
+				if (((next - home) & mask) >= ((next - hole) & mask)) {
+					t.keys[hole] = t.keys[next];
+					t.values[hole] = t.values[next];
+					hole = next;
+				}
+			}
+			t.used[hole] = 0;
+			size--;
+			endWrite();
+		}
+
+		void clear() {
+			if (size == 0) return;
+			beginWrite();
+			Arrays.fill(table.used, (byte) 0);
+			size = 0;
+			endWrite();
+		}
+
+		private void resize() {
+			final Table old = table, t = new Table((old.mask + 1) << 1);
+			for (int i = 0; i <= old.mask; i++) {
+				if (old.used[i] == 0) continue;
+				int j = (int) hash(old.keys[i]) & t.mask;
+				while (t.used[j] != 0) j = (j + 1) & t.mask;
+				t.keys[j] = old.keys[i];
+				t.values[j] = old.values[i];
+				t.used[j] = 1;
+			}
+			beginWrite();
+			table = t;
+			endWrite();
+		}
+
+		private void beginWrite() {
+			version++;
+			VarHandle.storeStoreFence();
+		}
+
+		private void endWrite() {
+			version++;
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package lib.ds.map;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import lib.util.function.*;
+
+/**
+ * {@link IntIntMap#freeze()} で作る、{@code int} 型のキーと {@code int} 型の値を保持する読み取り専用のマップです。
+ * <p>
+ * 最小完全ハッシュ（バケットごとに 1 つの pilot を選ぶ CHD / PTHash 方式）で、{@code n} 個のエントリを長さ {@code n} の配列へ衝突なく配置します。
+ * キーと値は隣り合わせに格納し、参照はハッシュ値の計算・pilot の読み込み・エントリの読み込みだけで、探索のループと空きスロットがありません。
+ * 含まれないキーは配置先のキーとの比較で判定し、既定値を返します。
+ * {@link #toByteArray()} / {@link #fromByteArray(byte[])} で、構築し直さずに保存・復元できます。
+ */
+@SuppressWarnings("unused")
+public final class FrozenIntIntMap {
+	// 平均バケットサイズ。大きいほど pilot 配列が小さくなるが、構築時の pilot の探索が長くなる。
+	private static final int BUCKET_SIZE = 2;
+	private static final long STEP_MIX = 0x9E3779B97F4A7C15L;
+	private static final int MAGIC = 0x46494931;
+	private static final int HEADER_BYTES = 32;
+
+	// 下位 32 bit がキー、上位 32 bit が値。
+	private final long[] entries;
+	private final int[] pilots;
+	private final int n, buckets;
+	private final long seed;
+	private final int defaultValue;
+
+	private FrozenIntIntMap(final long[] entries, final int[] pilots, final int n, final long seed, final int defaultValue) {
+		this.entries = entries;
+		this.pilots = pilots;
+		this.n = n;
+		this.seed = seed;
+		this.defaultValue = defaultValue;
+		buckets = pilots.length;
+	}
+
+	/**
+	 * 重複のないキーと、対応する値からマップを構築します。
+	 */
+	static FrozenIntIntMap build(final int[] keys, final int[] values, final int defaultValue) {
+		final int n = keys.length;
+		if (n == 0) {
+			final long[] entries = new long[1];
+			store(entries, 0, 0, defaultValue);
+			return new FrozenIntIntMap(entries, new int[1], 0, 0, defaultValue);
+		}
+		final int buckets = (n + BUCKET_SIZE - 1) / BUCKET_SIZE;
+		final long[] hashes = new long[n], sortedHashes = new long[n];
+		final int[] bucketOf = new int[n], sortedKeys = new int[n], sortedBuckets = new int[buckets], positions = new int[n];
+		final int[] sizes = new int[buckets], pilots = new int[buckets];
+		final long[] taken = new long[(n + 63) >>> 6];
+		while (true) {
+			final long seed = ThreadLocalRandom.current().nextLong();
+			Arrays.fill(sizes, 0);
+			int maxSize = 0;
+			for (int i = 0; i < n; i++) {
+				hashes[i] = hash(keys[i], seed);
+				maxSize = Math.max(maxSize, ++sizes[bucketOf[i] = bucket(hashes[i], buckets)]);
+			}
+			// 大きいバケットから pilot を決めるため、バケットを大きさの降順に並べ（counting sort）、
+			// その順にキーのハッシュ値を連続して並べる。探索中の読み込みが先頭から順になる。
+			final int[] bySize = new int[maxSize + 2];
+			for (int b = 0; b < buckets; b++) bySize[maxSize - sizes[b] + 1]++;
+			for (int k = 0; k <= maxSize; k++) bySize[k + 1] += bySize[k];
+			for (int b = 0; b < buckets; b++) sortedBuckets[bySize[maxSize - sizes[b]]++] = b;
+			final int[] fill = new int[buckets];
+			for (int r = 0, from = 0; r < buckets; r++) {
+				fill[sortedBuckets[r]] = from;
+				from += sizes[sortedBuckets[r]];
+			}
+			for (int i = 0; i < n; i++) {
+				final int t = fill[bucketOf[i]]++;
+				sortedKeys[t] = i;
+				sortedHashes[t] = hashes[i];
+			}
+			Arrays.fill(taken, 0);
+			if (placeAll(sortedHashes, sortedBuckets, sizes, pilots, taken, positions, n)) {
+				final long[] entries = new long[n];
+				for (int t = 0; t < n; t++) store(entries, positions[t], keys[sortedKeys[t]], values[sortedKeys[t]]);
+				return new FrozenIntIntMap(entries, pilots, n, seed, defaultValue);
+			}
+		}
+	}
+
+	/**
+	 * 全バケットの pilot を決めます。pilot が見つからないバケットがあれば {@code false} を返し、別の seed でやり直します。
+	 * {@code hashes} と {@code positions} は、{@code sortedBuckets} の順にバケットのキーを並べたものです。
+	 */
+	private static boolean placeAll(final long[] hashes, final int[] sortedBuckets, final int[] sizes, final int[] pilots, final long[] taken,
+			final int[] positions, final int n) {
+		// 2 要素以上のバケットは pilot を順に試す。空きが少ないほど当たりにくいため、大きいバケットから先に決める。
+		final long limit = 32L * n + 1024;
+		int from = 0, next = 0;
+		for (final int b : sortedBuckets) {
+			final int to = from + sizes[b];
+			if (to - from == 1) {
+				// 残りは 1 要素のバケットだけなので、最も小さい空きスロットに入る pilot を逆算する。
+				while ((taken[next >>> 6] & 1L << next) != 0) next++;
+				pilots[b] = pilotFor(hashes[from], next, n);
+				taken[next >>> 6] |= 1L << next;
+				positions[from] = next;
+			} else if (to - from > 1) {
+				search:
+				for (int pilot = 0; ; pilot++) {
+					if (pilot >= limit) return false;
+					for (int t = from; t < to; t++) {
+						final int pos = position(hashes[t], pilot, n);
+						if ((taken[pos >>> 6] & 1L << pos) != 0) {
+							for (int u = from; u < t; u++) taken[positions[u] >>> 6] &= ~(1L << positions[u]);
+							continue search;
+						}
+						taken[pos >>> 6] |= 1L << pos;
+						positions[t] = pos;
+					}
+					pilots[b] = pilot;
+					break;
+				}
+			}
+			from = to;
+		}
+		return true;
+	}
+
+	/**
+	 * {@code position(h, pilot, n) == target} となる pilot を返します。
+	 * {@code u = (int) h + pilot * step(h)} の上位 32 bit を {@code n} 倍した値が位置なので、{@code target} の区間の左端の {@code u} から逆算する。
+	 */
+	private static int pilotFor(final long h, final int target, final int n) {
+		final int u = (int) ((((long) target << 32) + n - 1) / n);
+		final int step = step(h);
+		// 奇数の逆元（mod 2^32）を Newton 法で求める。
+		int inv = step;
+		for (int k = 0; k < 4; k++) inv *= 2 - step * inv;
+		return (u - (int) h) * inv;
+	}
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	public int get(final int key) {
+		final int i = slot(key);
+		return keyAt(i) == key ? valueAt(i) : defaultValue;
+	}
+
+	public int getOrDefault(final int key, final int defaultValue) {
+		final int i = slot(key);
+		return keyAt(i) == key && n != 0 ? valueAt(i) : defaultValue;
+	}
+
+	public boolean containsKey(final int key) {
+		return keyAt(slot(key)) == key && n != 0;
+	}
+
+	public int size() {
+		return n;
+	}
+
+	public boolean isEmpty() {
+		return n == 0;
+	}
+
+	public void forEach(final IntBinaryConsumer action) {
+		for (int i = 0; i < n; i++) action.accept(keyAt(i), valueAt(i));
+	}
+
+	public void forEachKey(final IntConsumer action) {
+		for (int i = 0; i < n; i++) action.accept(keyAt(i));
+	}
+
+	public void forEachValue(final IntConsumer action) {
+		for (int i = 0; i < n; i++) action.accept(valueAt(i));
+	}
+
+	public int[] keys() {
+		final int[] res = new int[n];
+		for (int i = 0; i < n; i++) res[i] = keyAt(i);
+		return res;
+	}
+
+	public int[] values() {
+		final int[] res = new int[n];
+		for (int i = 0; i < n; i++) res[i] = valueAt(i);
+		return res;
+	}
+
+	/**
+	 * このマップをバイト列に変換します。{@link #fromByteArray(byte[])} で復元できます。
+	 * 形式はリトルエンディアンで、ヘッダ 32 バイト（識別子・要素数・バケット数・seed・既定値）の後に pilot とエントリの配列が続きます。
+	 */
+	public byte[] toByteArray() {
+		final byte[] res = new byte[HEADER_BYTES + buckets * 4 + entries.length * 8];
+		final ByteBuffer buf = ByteBuffer.wrap(res).order(ByteOrder.LITTLE_ENDIAN);
+		buf.putInt(MAGIC).putInt(n).putInt(buckets).putInt(0).putLong(seed).putLong(defaultValue);
+		buf.asIntBuffer().put(pilots);
+		buf.position(buf.position() + buckets * 4);
+		buf.asLongBuffer().put(entries);
+		return res;
+	}
+
+	/**
+	 * {@link #toByteArray()} で変換したバイト列からマップを復元します。
+	 *
+	 * @throws IllegalArgumentException {@code FrozenIntIntMap} のバイト列でない場合
+	 */
+	public static FrozenIntIntMap fromByteArray(final byte[] bytes) {
+		final ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		if (bytes.length < HEADER_BYTES || buf.getInt() != MAGIC) throw new IllegalArgumentException("not a FrozenIntIntMap");
+		final int n = buf.getInt(), buckets = buf.getInt();
+		buf.getInt();
+		final long seed = buf.getLong();
+		final int defaultValue = (int) buf.getLong();
+		final long length = Math.max(n, 1);
+		if (n < 0 || buckets < 1 || bytes.length != HEADER_BYTES + (long) buckets * 4 + length * 8) throw new IllegalArgumentException("invalid length");
+		final int[] pilots = new int[buckets];
+		final long[] entries = new long[(int) length];
+		buf.asIntBuffer().get(pilots);
+		buf.position(buf.position() + buckets * 4);
+		buf.asLongBuffer().get(entries);
+		return new FrozenIntIntMap(entries, pilots, n, seed, defaultValue);
+	}
+
+	@Override
+	public String toString() {
+		final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+		for (int i = 0; i < n; i++) joiner.add(keyAt(i) + "=" + valueAt(i));
+		return joiner.toString();
+	}
+
+	/**
+	 * キーの配置先の添字を返します。空のマップでは常に 0 で、既定値を入れた要素を指します。
+	 */
+	private int slot(final int key) {
+		final long h = hash(key, seed);
+		return position(h, pilots[bucket(h, buckets)], n);
+	}
+
+	private static int bucket(final long h, final int buckets) {
+		return (int) ((h >>> 32) * buckets >>> 32);
+	}
+
+	/**
+	 * {@code (int) h + pilot * step(h)} を {@code [0, n)} に写します。キーごとに pilot に対する増分が異なるため、
+	 * 同じバケットのキーは pilot を変えるとばらばらに動きます。
+	 */
+	private static int position(final long h, final int pilot, final int n) {
+		return (int) (((int) h + pilot * step(h) & 0xFFFFFFFFL) * n >>> 32);
+	}
+
+	private static int step(final long h) {
+		return (int) (h * STEP_MIX >>> 32) | 1;
+	}
+
+	private int keyAt(final int i) {
+		return (int) entries[i];
+	}
+
+	private int valueAt(final int i) {
+		return (int) (entries[i] >>> 32);
+	}
+
+	private static void store(final long[] entries, final int i, final int key, final int value) {
+		entries[i] = (long) value << 32 | key & 0xFFFFFFFFL;
+	}
+
+	private static long hash(final int key, final long seed) {
+		long h = key ^ seed;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -2,22 +2,51 @@
 
 import static java.lang.Math.*;
 
+import java.lang.invoke.*;
+import java.nio.*;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.*;
 
+import lib.ds.*;
 import lib.util.function.*;
 
 /**
  * {@code int} 型のキーと値を保持する、オープンアドレス方式の高速マップです。
- * 線形探索、backward-shift deletion、世代番号による {@code O(1)} の {@link #clear()} を使用し、
+ * 線形探索の各スロットにハッシュ値の上位 7 bit を記録した制御バイトを持ち、8 スロット分を 1 回の {@code long} 読み込みでまとめて照合します。
+ * 一致しない要素のキーを読まずに済むため、負荷率 7/8 まで探索コストを抑えます。
+ * backward-shift deletion と、ブロック単位の世代番号による {@code O(1)} の {@link #clear()} を使用します。
+ * {@link #setIncrementalResize(boolean)} を有効にすると、リサイズ時の再配置を以降の操作に分散し、1 回の操作の最大遅延を抑えます。
  * 未存在キーの取得では設定済みの既定値を返します。
  */
 @SuppressWarnings("unused")
-public final class IntIntMap {
+public final class IntIntMap implements Resettable {
 	private static final int SALT32 = ThreadLocalRandom.current().nextInt();
-
-	int[] keys, values, stamps;
-	private int defaultValue, stamp, size, capacity, resizeThreshold, mask;
+	private static final VarHandle GROUP = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final long LO = 0x0101010101010101L, HI = 0x8080808080808080L;
+	// 世代番号を管理するブロックの大きさ（log2）。clear() 後は、ブロックに初めて書き込むときに制御バイトを初期化する。
+	private static final int BLOCK_SHIFT = 6;
+	private static final int BLOCK = 1 << BLOCK_SHIFT;
+	// 段階的リサイズで 1 回の操作ごとに再配置する旧テーブルのスロット数。挿入だけが続いても次のリサイズまでに再配置を終えられる。
+	private static final int MIGRATE_STEP = 8;
+
+	int[] keys, values;
+	// 空きは 0、使用中は 0x80 | ハッシュ値の上位 7 bit。末尾の 8 バイトは先頭 8 スロットの複製で、折り返しを含む 8 スロットを 1 回で読める。
+	// blockStamps が現在の世代でないブロックは、内容によらず空きとみなす。
+	byte[] ctrl;
+	int[] blockStamps;
+	private int defaultValue;
+	private int stamp, size, capacity, resizeThreshold, mask;
+	// 段階的リサイズ中の旧テーブル（リサイズ中でなければ null）。migrated 未満のスロットは再配置済み。
+	// 再配置前に参照されたエントリは新テーブルへ移し、旧テーブルの制御バイトを 1 にして探索を続けられる削除済みとする。
+	private int[] oldKeys;
+	private int[] oldValues;
+	private byte[] oldCtrl;
+	private int[] oldBlockStamps;
+	private int oldMask, migrated;
+	private boolean incremental;
+	// touch() で読んだ値の合計。結果を使わない読み込みが JIT に削除されないよう、フィールドへ書き出す。
+	private int touchSink;
 
 	public IntIntMap() {
 		this(1024, 0);
@@ -29,18 +58,13 @@ public IntIntMap(final int expectedSize) {
 
 	public IntIntMap(final int expectedSize, final int defaultValue) {
 		this.defaultValue = defaultValue;
-		capacity = normalizeCapacity(expectedSize);
 		size = 0;
 		stamp = 1;
-		resizeThreshold = capacity - (capacity >>> 2);
-		stamps = new int[capacity];
-		keys = new int[capacity];
-		values = new int[capacity];
-		mask = capacity - 1;
+		allocate(normalizeCapacity(expectedSize));
 	}
 
 	private static int normalizeCapacity(final int expectedSize) {
-		final int required = (expectedSize * 4 + 2) / 3;
+		final int required = (int) (((long) expectedSize * 8 + 6) / 7);
 		if (required <= 16) return 16;
 		int cap = required;
 		if ((cap & (cap - 1)) == 0) return cap;
@@ -52,6 +76,17 @@ private static int normalizeCapacity(final int expectedSize) {
 		return cap + 1;
 	}
 
+	private void allocate(final int capacity) {
+		this.capacity = capacity;
+		resizeThreshold = capacity - (capacity >>> 3);
+		keys = new int[capacity];
+		values = new int[capacity];
+		ctrl = new byte[capacity + 8];
+		blockStamps = new int[(capacity + BLOCK - 1) >>> BLOCK_SHIFT];
+		Arrays.fill(blockStamps, stamp);
+		mask = capacity - 1;
+	}
+
 	public int getDefaultValue() {
 		return defaultValue;
 	}
@@ -60,15 +95,27 @@ public void setDefaultValue(final int defaultValue) {
 		this.defaultValue = defaultValue;
 	}
 
+	public boolean isIncrementalResize() {
+		return incremental;
+	}
+
+	/**
+	 * 段階的リサイズを有効にすると、リサイズ時は新しいテーブルの確保のみを行い、旧テーブルのエントリは以降の各操作で
+	 * 一定数ずつ再配置します。再配置中は探索が旧テーブルにも及ぶため、平均的な操作は僅かに遅くなります。
+	 * 無効にした時点で再配置中のエントリはすべて移します。
+	 */
+	public void setIncrementalResize(final boolean incremental) {
+		if (!incremental) completeResize();
+		this.incremental = incremental;
+	}
+
 	public int get(final int key) {
 		return getOrDefault(key, defaultValue);
 	}
 
 	public int getOrDefault(final int key, final int defaultValue) {
-		for (int hash = hash(key); stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash];
-		}
-		return defaultValue;
+		final int slot = find(key);
+		return slot >= 0 ? values[slot] : defaultValue;
 	}
 
 	public int increment(final int key) {
@@ -84,139 +131,87 @@ public int add(final int key, final int delta) {
 	}
 
 	public int addOrDefault(final int key, final int delta, final int absentValue) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash] += delta;
-		}
-		if (size >= resizeThreshold) {
-			resize();
-			hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-		}
-		stamps[hash] = stamp;
-		keys[hash] = key;
-		size++;
-		return values[hash] = absentValue;
+		final int slot = find(key);
+		if (slot >= 0) return values[slot] += delta;
+		insert(slot, key, absentValue);
+		return absentValue;
 	}
 
 	public int put(final int key, final int value) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash] = value;
-		}
-		if (size >= resizeThreshold) {
-			resize();
-			hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-		}
-		stamps[hash] = stamp;
-		keys[hash] = key;
-		size++;
-		return values[hash] = value;
+		final int slot = find(key);
+		if (slot >= 0) return values[slot] = value;
+		insert(slot, key, value);
+		return value;
 	}
 
 	public boolean remove(final int key) {
-		for (int hash = hash(key); stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] != key) continue;
-			int hole = hash;
-			for (int next = (hole + 1) & mask; stamps[next] == stamp; next = (next + 1) & mask) {
-				final int home = hash(keys[next]);
-				if (((next - home) & mask) >= ((next - hole) & mask)) {
-					keys[hole] = keys[next];
-					values[hole] = values[next];
-					stamps[hole] = stamp;
-					hole = next;
-				}
+		final int slot = find(key);
+		if (slot < 0) return false;
+		int hole = slot;
+		for (int next = (hole + 1) & mask; ctrl(next) != 0; next = (next + 1) & mask) {
+			final int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				setCtrl(hole, ctrl[next]);
+				hole = next;
 			}
-			stamps[hole] = 0;
-			size--;
-			return true;
 		}
-		return false;
+		setCtrl(hole, (byte) 0);
+		size--;
+		return true;
 	}
 
 	public boolean containsKey(final int key) {
-		for (int hash = hash(key); stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return true;
-		}
-		return false;
+		return find(key) >= 0;
 	}
 
 	public int merge(final int key, final int value, final IntBinaryOperator op) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash] = op.applyAsInt(values[hash], value);
-		}
-		if (size >= resizeThreshold) {
-			resize();
-			hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-		}
-		stamps[hash] = stamp;
-		keys[hash] = key;
-		size++;
-		return values[hash] = value;
+		final int slot = find(key);
+		if (slot >= 0) return values[slot] = op.applyAsInt(values[slot], value);
+		insert(slot, key, value);
+		return value;
 	}
 
 	public int putIfAbsent(final int key, final int value) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash];
-		}
-		if (size >= resizeThreshold) {
-			resize();
-			hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-		}
-		stamps[hash] = stamp;
-		keys[hash] = key;
-		size++;
-		return values[hash] = value;
+		final int slot = find(key);
+		if (slot >= 0) return values[slot];
+		insert(slot, key, value);
+		return value;
 	}
 
 	public int computeIfAbsent(final int key, final IntUnaryOperator op) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash];
-		}
+		final int slot = find(key);
+		if (slot >= 0) return values[slot];
 		return putIfAbsent(key, op.applyAsInt(key));
 	}
 
 	public int computeMin(final int key, final int value) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash] = min(values[hash], value);
-		}
-		if (size >= resizeThreshold) {
-			resize();
-			hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-		}
-		stamps[hash] = stamp;
-		keys[hash] = key;
-		size++;
-		return values[hash] = value;
+		final int slot = find(key);
+		if (slot >= 0) return values[slot] = min(values[slot], value);
+		insert(slot, key, value);
+		return value;
 	}
 
 	public int computeMax(final int key, final int value) {
-		int hash = hash(key);
-		for (; stamps[hash] == stamp; hash = (hash + 1) & mask) {
-			if (keys[hash] == key) return values[hash] = max(values[hash], value);
-		}
-		if (size >= resizeThreshold) {
-			resize();
-			hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-		}
-		stamps[hash] = stamp;
-		keys[hash] = key;
-		size++;
-		return values[hash] = value;
+		final int slot = find(key);
+		if (slot >= 0) return values[slot] = max(values[slot], value);
+		insert(slot, key, value);
+		return value;
 	}
 
 	public void clear() {
 		size = 0;
 		stamp++;
+		releaseOld();
+	}
+
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
 	}
 
 	public int size() {
@@ -227,76 +222,93 @@ public boolean isEmpty() {
 		return size == 0;
 	}
 
+	/**
+	 * スロット {@code i} にエントリが格納されているかを返します。段階的リサイズ中のエントリは含まないため、
+	 * 走査の前に {@link #completeResize()} を呼んでください。
+	 */
+	boolean occupied(final int i) {
+		return blockStamps[i >>> BLOCK_SHIFT] == stamp && ctrl[i] != 0;
+	}
+
 	public void forEach(final IntBinaryConsumer action) {
+		completeResize();
 		for (int i = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			action.accept(keys[i], values[i]);
 		}
 	}
 
 	public void forEachKey(final IntConsumer action) {
+		completeResize();
 		for (int i = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			action.accept(keys[i]);
 		}
 	}
 
 	public void forEachValue(final IntConsumer action) {
+		completeResize();
 		for (int i = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			action.accept(values[i]);
 		}
 	}
 
 	public long reduce(final long identity, final EntryToLongAccumulator accumulator) {
+		completeResize();
 		long result = identity;
 		for (int i = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			result = accumulator.apply(result, keys[i], values[i]);
 		}
 		return result;
 	}
 
 	public long reduceKeys(final long identity, final LongBinaryOperator accumulator) {
+		completeResize();
 		long result = identity;
 		for (int i = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			result = accumulator.applyAsLong(result, keys[i]);
 		}
 		return result;
 	}
 
 	public long reduceValues(final long identity, final LongBinaryOperator accumulator) {
+		completeResize();
 		long result = identity;
 		for (int i = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			result = accumulator.applyAsLong(result, values[i]);
 		}
 		return result;
 	}
 
 	public int[] keys() {
+		completeResize();
 		final int[] res = new int[size];
 		for (int i = 0, idx = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			res[idx++] = keys[i];
 		}
 		return res;
 	}
 
 	public int[] values() {
+		completeResize();
 		final int[] res = new int[size];
 		for (int i = 0, idx = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			res[idx++] = values[i];
 		}
 		return res;
 	}
 
 	public int[][] entries() {
+		completeResize();
 		final int[][] res = new int[2][size];
 		for (int i = 0, idx = 0; i < capacity; i++) {
-			if (stamps[i] != stamp) continue;
+			if (!occupied(i)) continue;
 			res[0][idx] = keys[i];
 			res[1][idx] = values[i];
 			idx++;
@@ -304,23 +316,199 @@ public int[][] entries() {
 		return res;
 	}
 
+	/**
+	 * 現在の内容を読み取り専用の {@link FrozenIntIntMap} に変換します。変換後にこのマップを変更しても、変換結果には反映されません。
+	 * 最小完全ハッシュの構築に要素数に比例する時間がかかるため、構築後に参照だけを繰り返す場合に使います。
+	 */
+	public FrozenIntIntMap freeze() {
+		return FrozenIntIntMap.build(keys(), values(), defaultValue);
+	}
+
+	private int ctrl(final int i) {
+		return blockStamps[i >>> BLOCK_SHIFT] == stamp ? ctrl[i] : 0;
+	}
+
+	private void setCtrl(final int i, final byte c) {
+		ctrl[i] = c;
+		if (i < 8) ctrl[capacity + i] = c;
+	}
+
+	/**
+	 * スロット {@code i} から始まる 8 スロット分の制御バイトを返します。現在の世代でないブロックの部分は空き（0）とします。
+	 */
+	private long group(final int i) {
+		final int block = i >>> BLOCK_SHIFT;
+		if (blockStamps[block] != stamp) return 0;
+		final long g = (long) GROUP.get(ctrl, i);
+		final int rest = BLOCK - (i & (BLOCK - 1));
+		if (rest >= 8) return g;
+		final int next = ((i + 7) & mask) >>> BLOCK_SHIFT;
+		return next == block || blockStamps[next] == stamp ? g : g & (1L << (rest << 3)) - 1;
+	}
+
+	/**
+	 * キーのスロットを返します。存在しない場合は、挿入位置（最初の空きスロット）{@code slot} を {@code ~slot} として返します。
+	 * 8 スロットずつ制御バイトを照合し、ハッシュ値の上位 7 bit が一致したスロットのキーだけを比較します。
+	 */
+	private int find(final int key) {
+		return oldKeys == null ? probe(key) : findResizing(key);
+	}
+
+	private int probe(final int key) {
+		final int h = hash(key), home = h & mask;
+		// 半数以上のキーはホームスロットにあるため、制御バイトを待たずにキーも読んで先に判定する。
+		if (keys[home] == key && ctrl(home) == (byte) (h >>> 25 | 0x80)) return home;
+		final long tag = (h >>> 25 | 0x80) * LO;
+		for (int i = home; ; i = (i + 8) & mask) {
+			final long g = group(i), x = g ^ tag, empty = ~g & HI;
+			long match = (x - LO) & ~x & HI;
+			if (empty != 0) match &= (empty & -empty) - 1;
+			for (; match != 0; match &= match - 1) {
+				final int j = (i + (Long.numberOfTrailingZeros(match) >>> 3)) & mask;
+				if (keys[j] == key) return j;
+			}
+			if (empty != 0) return ~((i + (Long.numberOfTrailingZeros(empty) >>> 3)) & mask);
+		}
+	}
+
+	/**
+	 * 段階的リサイズ中の {@link #find} です。再配置を進めてから新テーブルを探索し、見つからなければ旧テーブルを探索します。
+	 * 旧テーブルで見つかったエントリは新テーブルの挿入位置へ移して、そのスロットを返します。
+	 */
+	private int findResizing(final int key) {
+		migrate(MIGRATE_STEP);
+		final int slot = probe(key);
+		if (slot >= 0 || oldKeys == null) return slot;
+		final int old = findOld(key);
+		if (old < migrated) return slot;
+		place(~slot, key, oldValues[old]);
+		oldCtrl[old] = 1;
+		return ~slot;
+	}
+
+	/**
+	 * 旧テーブルからキーのスロットを探します。存在しない場合は {@code -1} を返します。
+	 * 参照頻度が低いため、グループ照合は使わず 1 スロットずつ確認します。
+	 */
+	private int findOld(final int key) {
+		final int h = hash(key);
+		final byte tag = (byte) (h >>> 25 | 0x80);
+		for (int i = h & oldMask; ; i = (i + 1) & oldMask) {
+			if (oldBlockStamps[i >>> BLOCK_SHIFT] != stamp) return -1;
+			final byte c = oldCtrl[i];
+			if (c == 0) return -1;
+			if (c == tag && oldKeys[i] == key) return i;
+		}
+	}
+
+	/**
+	 * 旧テーブルのスロットを最大 {@code step} 個再配置し、すべて移し終えたら旧テーブルを解放します。
+	 */
+	private void migrate(final int step) {
+		final int end = migrated + min(step, oldMask + 1 - migrated);
+		for (int i = migrated; i < end; i++) {
+			if (oldBlockStamps[i >>> BLOCK_SHIFT] != stamp || oldCtrl[i] >= 0) continue;
+			place(oldKeys[i], oldValues[i]);
+		}
+		migrated = end;
+		if (end == oldMask + 1) releaseOld();
+	}
+
+	/**
+	 * {@code batch[0, count)} の値を {@code out[offset, offset + count)} に書き込みます。
+	 * 先に全キーのホームスロットを読んでから 1 件ずつ探索するため、キャッシュミスの待ち時間が重なります。
+	 */
+	void getBlock(final int[] batch, final int count, final int[] out, final int offset) {
+		touch(batch, count);
+		for (int i = 0; i < count; i++) out[offset + i] = getOrDefault(batch[i], defaultValue);
+	}
+
+	/**
+	 * {@code batch[0, count)} に {@code in[offset, offset + count)} の値を設定します。同じキーが複数あれば後の値が残ります。
+	 */
+	void putBlock(final int[] batch, final int count, final int[] in, final int offset) {
+		touch(batch, count);
+		for (int i = 0; i < count; i++) put(batch[i], in[offset + i]);
+	}
+
+	/**
+	 * 各キーのホームスロットの世代番号・制御バイト・キー・値を、分岐のない独立した読み込みで先に読みます。
+	 */
+	private void touch(final int[] batch, final int count) {
+		if (oldKeys != null) return;
+		int sum = 0;
+		for (int i = 0; i < count; i++) {
+			final int home = hash(batch[i]) & mask;
+			sum += blockStamps[home >>> BLOCK_SHIFT] + ctrl[home] + keys[home] + values[home];
+		}
+		touchSink = sum;
+	}
+
+	/**
+	 * 段階的リサイズ中であれば、残りのエントリをすべて再配置します。
+	 */
+	void completeResize() {
+		if (oldKeys != null) migrate(oldMask + 1);
+	}
+
+	private void releaseOld() {
+		oldKeys = null;
+		oldValues = null;
+		oldCtrl = null;
+		oldBlockStamps = null;
+	}
+
+	/**
+	 * {@link #find} が返した挿入位置 {@code miss} に新しいエントリを追加します。
+	 */
+	private void insert(final int miss, final int key, final int value) {
+		if (size >= resizeThreshold) {
+			completeResize();
+			resize();
+			place(key, value);
+		} else place(~miss, key, value);
+		size++;
+	}
+
+	private void place(final int key, final int value) {
+		int i = hash(key) & mask;
+		long empty;
+		while ((empty = ~group(i) & HI) == 0) i = (i + 8) & mask;
+		place((i + (Long.numberOfTrailingZeros(empty) >>> 3)) & mask, key, value);
+	}
+
+	private void place(final int slot, final int key, final int value) {
+		final int block = slot >>> BLOCK_SHIFT;
+		if (blockStamps[block] != stamp) {
+			blockStamps[block] = stamp;
+			final int from = block << BLOCK_SHIFT;
+			Arrays.fill(ctrl, from, min(from + BLOCK, capacity), (byte) 0);
+			if (block == 0) Arrays.fill(ctrl, capacity, capacity + 8, (byte) 0);
+		}
+		setCtrl(slot, (byte) (hash(key) >>> 25 | 0x80));
+		keys[slot] = key;
+		values[slot] = value;
+	}
+
 	private void resize() {
 		final int oldCapacity = capacity;
-		final int[] oldKeys = keys, oldValues = values, oldStamps = stamps;
-		capacity <<= 1;
-		resizeThreshold = capacity - (capacity >>> 2);
-		keys = new int[capacity];
-		values = new int[capacity];
-		stamps = new int[capacity];
-		mask = capacity - 1;
+		final int[] prevKeys = keys;
+		final int[] prevValues = values;
+		final byte[] prevCtrl = ctrl;
+		final int[] prevBlockStamps = blockStamps;
+		allocate(capacity << 1);
+		if (incremental) {
+			oldKeys = prevKeys;
+			oldValues = prevValues;
+			oldCtrl = prevCtrl;
+			oldBlockStamps = prevBlockStamps;
+			oldMask = oldCapacity - 1;
+			migrated = 0;
+			return;
+		}
 		for (int i = 0; i < oldCapacity; i++) {
-			if (oldStamps[i] != stamp) continue;
-			final int key = oldKeys[i];
-			int hash = hash(key);
-			while (stamps[hash] == stamp) hash = (hash + 1) & mask;
-			stamps[hash] = stamp;
-			keys[hash] = key;
-			values[hash] = oldValues[i];
+			if (prevBlockStamps[i >>> BLOCK_SHIFT] != stamp || prevCtrl[i] == 0) continue;
+			place(prevKeys[i], prevValues[i]);
 		}
 	}
 
@@ -331,7 +519,7 @@ private int hash(final int key) {
 		h ^= h >>> 15;
 		h *= 0x846ca68b;
 		h ^= h >>> 16;
-		return h & mask;
+		return h;
 	}
 
 	/**
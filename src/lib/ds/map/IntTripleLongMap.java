@@ -2,6 +2,7 @@
 
 import java.util.function.*;
 
+import lib.ds.*;
 import lib.util.function.*;
 
 /**
@@ -11,10 +12,14 @@
  * {@code -1_048_576} 以上 {@code 1_048_575} 以下です。
  */
 @SuppressWarnings("unused")
-public final class IntTripleLongMap {
+public final class IntTripleLongMap implements Resettable {
 	private static final int KEY_OFFSET = 1 << 20;
 	private static final long KEY_MASK = (1L << 21) - 1;
+	// getAll / putAll で 1 度に探索するキーの数。
+	private static final int BATCH = 32;
 	private final LongLongMap baseMap;
+	// getAll / putAll でまとめたキーを置く作業領域。
+	private final long[] batch = new long[BATCH];
 
 	public IntTripleLongMap() {
 		baseMap = new LongLongMap();
@@ -44,6 +49,14 @@ public void setDefaultValue(final long defaultValue) {
 		baseMap.setDefaultValue(defaultValue);
 	}
 
+	public boolean isIncrementalResize() {
+		return baseMap.isIncrementalResize();
+	}
+
+	public void setIncrementalResize(final boolean incremental) {
+		baseMap.setIncrementalResize(incremental);
+	}
+
 	public long put(final int a, final int b, final int c, final long value) {
 		return baseMap.put(pack(a, b, c), value);
 	}
@@ -100,10 +113,45 @@ public long computeMax(final int a, final int b, final int c, final long value)
 		return baseMap.computeMax(pack(a, b, c), value);
 	}
 
+	/**
+	 * {@code out[i] = get(a[i], b[i], c[i])} をまとめて求めます。キーを {@value #BATCH} 件ずつ、先にホームスロットを読んでから探索するため、
+	 * テーブルが CPU キャッシュに収まらない場合に 1 件ずつ {@link #get(int, int, int)} を呼ぶより速くなります。
+	 * 配列の長さがそろっていない場合は {@link IllegalArgumentException} を投げます。
+	 */
+	public void getAll(final int[] a, final int[] b, final int[] c, final long[] out) {
+		if (b.length != a.length || c.length != a.length || out.length != a.length) throw new IllegalArgumentException("length mismatch");
+		for (int from = 0; from < a.length; from += BATCH) {
+			final int count = Math.min(BATCH, a.length - from);
+			for (int i = 0; i < count; i++) batch[i] = pack(a[from + i], b[from + i], c[from + i]);
+			baseMap.getBlock(batch, count, out, from);
+		}
+	}
+
+	/**
+	 * {@code put(a[i], b[i], c[i], values[i])} をまとめて行います。同じキーが複数あれば後の値が残ります。
+	 * 配列の長さがそろっていない場合は {@link IllegalArgumentException} を投げます。
+	 */
+	public void putAll(final int[] a, final int[] b, final int[] c, final long[] values) {
+		if (b.length != a.length || c.length != a.length || values.length != a.length) throw new IllegalArgumentException("length mismatch");
+		for (int from = 0; from < a.length; from += BATCH) {
+			final int count = Math.min(BATCH, a.length - from);
+			for (int i = 0; i < count; i++) batch[i] = pack(a[from + i], b[from + i], c[from + i]);
+			baseMap.putBlock(batch, count, values, from);
+		}
+	}
+
 	public void clear() {
 		baseMap.clear();
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	public int size() {
 		return baseMap.size();
 	}
@@ -157,10 +205,10 @@ public long reduceValues(final long identity, final LongBinaryOperator accumulat
 	}
 
 	public int[][] keys() {
+		baseMap.completeResize();
 		final int[][] res = new int[3][baseMap.size()];
-		final int stamp = baseMap.currentStamp();
 		for (int i = 0, idx = 0; i < baseMap.keys.length; i++) {
-			if (baseMap.stamps[i] != stamp) continue;
+			if (!baseMap.occupied(i)) continue;
 			final long key = baseMap.keys[i];
 			res[0][idx] = unpack(key >>> 42);
 			res[1][idx] = unpack(key >>> 21);
@@ -175,10 +223,10 @@ public long[] values() {
 	}
 
 	public long[][] entries() {
+		baseMap.completeResize();
 		final long[][] res = new long[4][baseMap.size()];
-		final int stamp = baseMap.currentStamp();
 		for (int i = 0, idx = 0; i < baseMap.keys.length; i++) {
-			if (baseMap.stamps[i] != stamp) continue;
+			if (!baseMap.occupied(i)) continue;
 			final long key = baseMap.keys[i];
 			res[0][idx] = unpack(key >>> 42);
 			res[1][idx] = unpack(key >>> 21);
@@ -0,0 +1,416 @@
+package lib.ds.map;
+
+import static java.lang.Math.*;
+
+import java.io.*;
+import java.lang.foreign.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import lib.util.function.*;
+
+/**
+ * {@code long} 型のキーと値をヒープ外のメモリに保持する、オープンアドレス方式の高速マップです。
+ * 制御バイト・キー・値を {@link Arena} で確保した 1 つの {@link MemorySegment} に置くため、GC の対象にならず、
+ * ヒープの上限を超える（{@code 10^9} 要素程度の）テーブルも扱えます。使い終わったら {@link #close()} で解放してください。
+ * {@link #create(Path, long, long)} / {@link #open(Path)} を使うとテーブルをファイルにマップし、閉じたテーブルをそのまま再び開けます。
+ * 探索は {@link LongLongMap} と同じく、制御バイトを 8 スロットずつまとめて照合する線形探索（負荷率 7/8）です。
+ * 未存在キーの取得では設定済みの既定値を返します。
+ */
+@SuppressWarnings("unused")
+public final class OffHeapLongLongMap implements AutoCloseable {
+	private static final ValueLayout.OfLong GROUP_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	private static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG;
+	private static final ValueLayout.OfByte BYTE_LAYOUT = ValueLayout.JAVA_BYTE;
+	private static final long LO = 0x0101010101010101L, HI = 0x8080808080808080L;
+	// ヘッダ: マジック 'O' 'H' 'M' + バージョン、容量、要素数、既定値、ハッシュの salt。残りは予約。
+	private static final int MAGIC = 'O' | 'H' << 8 | 'M' << 16 | 1 << 24;
+	private static final long HEADER = 64, MAGIC_OFFSET = 0, CAPACITY_OFFSET = 8, SIZE_OFFSET = 16, DEFAULT_OFFSET = 24, SALT_OFFSET = 32;
+	// ファイルに対応付けない場合は null。
+	private final Path path;
+	private final long salt;
+	private FileChannel channel;
+	private Arena arena;
+	// [ヘッダ][制御バイト capacity + 8][キーと値の組 16 バイト × capacity]。制御バイトの末尾 8 バイトは先頭 8 スロットの複製。
+	private MemorySegment segment;
+	private long defaultValue, size, capacity, resizeThreshold, mask, entries;
+
+	public OffHeapLongLongMap() {
+		this(1024, 0);
+	}
+
+	public OffHeapLongLongMap(final long expectedSize) {
+		this(expectedSize, 0);
+	}
+
+	public OffHeapLongLongMap(final long expectedSize, final long defaultValue) {
+		path = null;
+		salt = ThreadLocalRandom.current().nextLong();
+		this.defaultValue = defaultValue;
+		final long capacity = normalizeCapacity(expectedSize);
+		arena = Arena.ofShared();
+		attach(arena.allocate(bytes(capacity), 64), capacity);
+	}
+
+	private OffHeapLongLongMap(final Path path, final long salt, final long defaultValue) {
+		this.path = path;
+		this.salt = salt;
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * ファイル {@code path} にマップした空のテーブルを作成します。既存のファイルは上書きします。
+	 */
+	public static OffHeapLongLongMap create(final Path path, final long expectedSize, final long defaultValue) throws IOException {
+		final OffHeapLongLongMap map = new OffHeapLongLongMap(path, ThreadLocalRandom.current().nextLong(), defaultValue);
+		map.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		map.mapFile(normalizeCapacity(expectedSize));
+		return map;
+	}
+
+	/**
+	 * {@link #create} で作成し {@link #close()} したテーブルを開きます。ファイルをマップするだけで、エントリの読み込みは行いません。
+	 */
+	public static OffHeapLongLongMap open(final Path path) throws IOException {
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		final ByteBuffer header = ByteBuffer.allocate((int) HEADER).order(ByteOrder.nativeOrder());
+		while (header.hasRemaining()) if (channel.read(header) < 0) break;
+		final long capacity = header.getLong((int) CAPACITY_OFFSET);
+		if (header.hasRemaining() || header.getInt((int) MAGIC_OFFSET) != MAGIC || capacity < 16 || Long.bitCount(capacity) != 1 || channel.size() != bytes(capacity)) {
+			channel.close();
+			throw new IOException("not an OffHeapLongLongMap file: " + path);
+		}
+		final OffHeapLongLongMap map = new OffHeapLongLongMap(path, header.getLong((int) SALT_OFFSET), header.getLong((int) DEFAULT_OFFSET));
+		map.channel = channel;
+		map.mapFile(capacity);
+		map.size = header.getLong((int) SIZE_OFFSET);
+		return map;
+	}
+
+	private void mapFile(final long capacity) throws IOException {
+		arena = Arena.ofShared();
+		attach(channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes(capacity), arena), capacity);
+		segment.set(ValueLayout.JAVA_INT, MAGIC_OFFSET, MAGIC);
+		segment.set(LONG_LAYOUT, CAPACITY_OFFSET, capacity);
+		segment.set(LONG_LAYOUT, SALT_OFFSET, salt);
+	}
+
+	private static long normalizeCapacity(final long expectedSize) {
+		final long required = (max(0, expectedSize) * 8 + 6) / 7;
+		return required <= 16 ? 16 : Long.highestOneBit(required - 1) << 1;
+	}
+
+	private static long bytes(final long capacity) {
+		return HEADER + capacity + 8 + (capacity << 4);
+	}
+
+	private void attach(final MemorySegment segment, final long capacity) {
+		this.segment = segment;
+		this.capacity = capacity;
+		resizeThreshold = capacity - (capacity >>> 3);
+		mask = capacity - 1;
+		entries = HEADER + capacity + 8;
+	}
+
+	public long getDefaultValue() {
+		return defaultValue;
+	}
+
+	public void setDefaultValue(final long defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	public long get(final long key) {
+		return getOrDefault(key, defaultValue);
+	}
+
+	public long getOrDefault(final long key, final long defaultValue) {
+		final long slot = find(key);
+		return slot >= 0 ? value(slot) : defaultValue;
+	}
+
+	public long increment(final long key) {
+		return addOrDefault(key, 1, defaultValue + 1);
+	}
+
+	public long decrement(final long key) {
+		return addOrDefault(key, -1, defaultValue - 1);
+	}
+
+	public long add(final long key, final long delta) {
+		return addOrDefault(key, delta, defaultValue + delta);
+	}
+
+	public long addOrDefault(final long key, final long delta, final long absentValue) {
+		final long slot = find(key);
+		if (slot >= 0) return setValue(slot, value(slot) + delta);
+		insert(slot, key, absentValue);
+		return absentValue;
+	}
+
+	public long put(final long key, final long value) {
+		final long slot = find(key);
+		if (slot >= 0) return setValue(slot, value);
+		insert(slot, key, value);
+		return value;
+	}
+
+	public boolean remove(final long key) {
+		final long slot = find(key);
+		if (slot < 0) return false;
+		long hole = slot;
+		for (long next = (hole + 1) & mask; ctrl(next) != 0; next = (next + 1) & mask) {
+			final long home = hash(key(next)) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				MemorySegment.copy(segment, entry(next), segment, entry(hole), 16);
+				setCtrl(hole, ctrl(next));
+				hole = next;
+			}
+		}
+		setCtrl(hole, (byte) 0);
+		size--;
+		return true;
+	}
+
+	public boolean containsKey(final long key) {
+		return find(key) >= 0;
+	}
+
+	public long merge(final long key, final long value, final LongBinaryOperator op) {
+		final long slot = find(key);
+		if (slot >= 0) return setValue(slot, op.applyAsLong(value(slot), value));
+		insert(slot, key, value);
+		return value;
+	}
+
+	public long putIfAbsent(final long key, final long value) {
+		final long slot = find(key);
+		if (slot >= 0) return value(slot);
+		insert(slot, key, value);
+		return value;
+	}
+
+	public long computeIfAbsent(final long key, final LongUnaryOperator op) {
+		final long slot = find(key);
+		if (slot >= 0) return value(slot);
+		return putIfAbsent(key, op.applyAsLong(key));
+	}
+
+	public long computeMin(final long key, final long value) {
+		final long slot = find(key);
+		if (slot >= 0) return setValue(slot, min(value(slot), value));
+		insert(slot, key, value);
+		return value;
+	}
+
+	public long computeMax(final long key, final long value) {
+		final long slot = find(key);
+		if (slot >= 0) return setValue(slot, max(value(slot), value));
+		insert(slot, key, value);
+		return value;
+	}
+
+	/**
+	 * すべてのエントリを削除します。制御バイトの領域（容量 + 8 バイト）を 0 で埋めます。
+	 */
+	public void clear() {
+		segment.asSlice(HEADER, capacity + 8).fill((byte) 0);
+		size = 0;
+	}
+
+	/**
+	 * 要素数を返します。{@code int} の範囲を超える場合があるため {@code long} で返します。
+	 */
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long capacity() {
+		return capacity;
+	}
+
+	public void forEach(final LongBinaryConsumer action) {
+		for (long i = 0; i < capacity; i++) {
+			if (ctrl(i) == 0) continue;
+			action.accept(key(i), value(i));
+		}
+	}
+
+	public void forEachKey(final LongConsumer action) {
+		for (long i = 0; i < capacity; i++) {
+			if (ctrl(i) == 0) continue;
+			action.accept(key(i));
+		}
+	}
+
+	public void forEachValue(final LongConsumer action) {
+		for (long i = 0; i < capacity; i++) {
+			if (ctrl(i) == 0) continue;
+			action.accept(value(i));
+		}
+	}
+
+	public long reduce(final long identity, final EntryToLongAccumulator accumulator) {
+		long result = identity;
+		for (long i = 0; i < capacity; i++) {
+			if (ctrl(i) == 0) continue;
+			result = accumulator.apply(result, key(i), value(i));
+		}
+		return result;
+	}
+
+	/**
+	 * ファイルに対応付けている場合、要素数と既定値をヘッダに書き、変更をファイルへ書き出します。
+	 */
+	public void force() {
+		if (path == null) return;
+		segment.set(LONG_LAYOUT, SIZE_OFFSET, size);
+		segment.set(LONG_LAYOUT, DEFAULT_OFFSET, defaultValue);
+		segment.force();
+	}
+
+	/**
+	 * メモリを解放します。ファイルに対応付けている場合は {@link #force()} してから閉じます。閉じた後の操作は
+	 * {@link IllegalStateException} を投げます。
+	 */
+	@Override
+	public void close() {
+		if (!arena.scope().isAlive()) return;
+		force();
+		arena.close();
+		if (channel == null) return;
+		try {
+			channel.close();
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private byte ctrl(final long i) {
+		return segment.get(BYTE_LAYOUT, HEADER + i);
+	}
+
+	private void setCtrl(final long i, final byte c) {
+		segment.set(BYTE_LAYOUT, HEADER + i, c);
+		if (i < 8) segment.set(BYTE_LAYOUT, HEADER + capacity + i, c);
+	}
+
+	private long entry(final long i) {
+		return entries + (i << 4);
+	}
+
+	private long key(final long i) {
+		return segment.get(LONG_LAYOUT, entries + (i << 4));
+	}
+
+	private long value(final long i) {
+		return segment.get(LONG_LAYOUT, entries + (i << 4) + 8);
+	}
+
+	private long setValue(final long i, final long value) {
+		segment.set(LONG_LAYOUT, entries + (i << 4) + 8, value);
+		return value;
+	}
+
+	/**
+	 * キーのスロットを返します。存在しない場合は、挿入位置（最初の空きスロット）{@code slot} を {@code ~slot} として返します。
+	 */
+	private long find(final long key) {
+		final long h = hash(key), home = h & mask;
+		final byte tag = (byte) (h >>> 57 | 0x80);
+		if (key(home) == key && ctrl(home) == tag) return home;
+		final long tags = (tag & 0xFF) * LO;
+		for (long i = home; ; i = (i + 8) & mask) {
+			final long g = segment.get(GROUP_LAYOUT, HEADER + i), x = g ^ tags, empty = ~g & HI;
+			long match = (x - LO) & ~x & HI;
+			if (empty != 0) match &= (empty & -empty) - 1;
+			for (; match != 0; match &= match - 1) {
+				final long j = (i + (Long.numberOfTrailingZeros(match) >>> 3)) & mask;
+				if (key(j) == key) return j;
+			}
+			if (empty != 0) return ~((i + (Long.numberOfTrailingZeros(empty) >>> 3)) & mask);
+		}
+	}
+
+	private void insert(final long miss, final long key, final long value) {
+		if (size >= resizeThreshold) {
+			resize();
+			place(key, value);
+		} else place(~miss, key, value);
+		size++;
+	}
+
+	private void place(final long key, final long value) {
+		long i = hash(key) & mask, empty;
+		while ((empty = ~segment.get(GROUP_LAYOUT, HEADER + i) & HI) == 0) i = (i + 8) & mask;
+		place((i + (Long.numberOfTrailingZeros(empty) >>> 3)) & mask, key, value);
+	}
+
+	private void place(final long slot, final long key, final long value) {
+		setCtrl(slot, (byte) (hash(key) >>> 57 | 0x80));
+		segment.set(LONG_LAYOUT, entries + (slot << 4), key);
+		segment.set(LONG_LAYOUT, entries + (slot << 4) + 8, value);
+	}
+
+	/**
+	 * 容量を 2 倍にします。ファイルに対応付けている場合は隣の一時ファイルに新しいテーブルを作り、置き換えます。
+	 */
+	private void resize() {
+		final MemorySegment old = segment;
+		final Arena oldArena = arena;
+		final FileChannel oldChannel = channel;
+		final long oldCapacity = capacity, oldEntries = entries;
+		try {
+			final Path temp = path == null ? null : path.resolveSibling(path.getFileName() + ".resize");
+			if (temp == null) {
+				arena = Arena.ofShared();
+				attach(arena.allocate(bytes(capacity << 1), 64), capacity << 1);
+			} else {
+				channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+				mapFile(capacity << 1);
+			}
+			for (long i = 0; i < oldCapacity; i++) {
+				if (old.get(BYTE_LAYOUT, HEADER + i) == 0) continue;
+				final long e = oldEntries + (i << 4);
+				place(old.get(LONG_LAYOUT, e), old.get(LONG_LAYOUT, e + 8));
+			}
+			oldArena.close();
+			if (temp != null) {
+				oldChannel.close();
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private long hash(final long key) {
+		long h = key ^ salt;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * 現在の累積値とエントリを受け取り、次の累積値を返します。
+	 */
+	public interface EntryToLongAccumulator {
+		/**
+		 * @param accumulator 現在の累積値
+		 * @param key         キー
+		 * @param value       値
+		 * @return 次の累積値
+		 */
+		long apply(long accumulator, long key, long value);
+	}
+}
@@ -3,6 +3,8 @@
 import java.util.*;
 import java.util.function.*;
 
+import lib.ds.*;
+
 /**
  * genericコストを扱うインデックス付き優先度キューです。
  * Comparatorを省略した場合は自然順序を使用し、costが相互にComparableでなければ比較時に{@link ClassCastException}となります。
@@ -10,7 +12,7 @@
  * @param <T> コスト型
  */
 @SuppressWarnings({"unchecked", "unused"})
-public final class IndexedPriorityQueue<T> implements Iterable<T> {
+public final class IndexedPriorityQueue<T> implements Iterable<T>, Resettable {
 	private final Comparator<? super T> comparator;
 	private final int[] heap, position;
 	private final T[] cost;
@@ -322,6 +324,14 @@ public void clear() {
 		stamp--;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * キューが空か判定します。
 	 */
@@ -11,7 +11,7 @@
  * 競技プログラミング向けのint型優先度キューです。
  */
 @SuppressWarnings("unused")
-public final class IntDoubleEndedPriorityQueue implements IntCollection {
+public final class IntDoubleEndedPriorityQueue implements IntCollection, Resettable {
 	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
 	private final IntComparator comparator;
 	private int[] buf;
@@ -218,6 +218,14 @@ public void clear() {
 		size = unsortedCount = 0;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * 内部順で要素を走査するIteratorを返します。
 	 */
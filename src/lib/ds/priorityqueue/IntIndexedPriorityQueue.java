@@ -9,7 +9,7 @@
 /**
  * int型コストを扱うインデックス付き優先度キューです。
  */
-public final class IntIndexedPriorityQueue implements IntCollection {
+public final class IntIndexedPriorityQueue implements IntCollection, Resettable {
 	private final boolean isDescendingOrder;
 	private final IntComparator comparator;
 	private final int[] heap, position, cost;
@@ -321,6 +321,14 @@ public void clear() {
 		stamp--;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * indexがactiveか判定します。
 	 */
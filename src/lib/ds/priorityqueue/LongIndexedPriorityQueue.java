@@ -9,7 +9,7 @@
 /**
  * long型コストを扱うインデックス付き優先度キューです。
  */
-public final class LongIndexedPriorityQueue implements LongCollection {
+public final class LongIndexedPriorityQueue implements LongCollection, Resettable {
 	private final boolean isDescendingOrder;
 	private final LongComparator comparator;
 	private final int[] heap, position;
@@ -322,6 +322,14 @@ public void clear() {
 		stamp--;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * indexがactiveか判定します。
 	 */
@@ -11,7 +11,7 @@
  * 競技プログラミング向けのlong型優先度キューです。
  */
 @SuppressWarnings("unused")
-public final class LongPriorityQueue implements LongCollection {
+public final class LongPriorityQueue implements LongCollection, Resettable {
 	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
 	private final boolean isDescendingOrder;
 	private final LongComparator comparator;
@@ -212,6 +212,14 @@ public void clear() {
 		size = unsortedCount = 0;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * 内部順で要素を走査するIteratorを返します。
 	 */
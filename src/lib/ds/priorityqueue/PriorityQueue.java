@@ -4,6 +4,8 @@
 
 import java.util.*;
 
+import lib.ds.*;
+
 /**
  * 競技プログラミング向けのgeneric優先度キューです。
  * Comparatorを省略した場合は自然順序を使用し、要素が相互にComparableでなければ比較時に{@link ClassCastException}となります。
@@ -11,7 +13,7 @@
  * @param <T> 要素型
  */
 @SuppressWarnings({"unchecked", "unused"})
-public final class PriorityQueue<T> implements Iterable<T> {
+public final class PriorityQueue<T> implements Iterable<T>, Resettable {
 	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
 	private final Comparator<? super T> comparator;
 	private T[] buf;
@@ -250,6 +252,14 @@ public void clear() {
 		size = unsortedCount = 0;
 	}
 
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
 	/**
 	 * キューが空か判定します。
 	 */
@@ -0,0 +1,152 @@
+package lib.ds.segmenttree;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * 区間最大値（単位元 {@code Integer.MIN_VALUE}）を求める、{@code int} 型の特化済みセグメント木です。
+ */
+@SuppressWarnings("unused")
+public final class IntMaxSegmentTree implements IntSpecializedSegmentTree {
+	private final int n, size;
+	private final int[] tree;
+
+	public IntMaxSegmentTree(final int n) {
+		this.n = n;
+		size = n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+		tree = new int[size << 1];
+		Arrays.fill(tree, Integer.MIN_VALUE);
+	}
+
+	public IntMaxSegmentTree(final int[] data) {
+		this(data.length);
+		System.arraycopy(data, 0, tree, size, n);
+		buildAll();
+	}
+
+	@Override
+	public SegmentTreeOperator operator() {
+		return SegmentTreeOperator.MAX;
+	}
+
+	@Override
+	public int identity() {
+		return Integer.MIN_VALUE;
+	}
+
+	@Override
+	public void fill(final int val) {
+		Arrays.fill(tree, size, size + n, val);
+		buildAll();
+	}
+
+	@Override
+	public void setAll(final IntUnaryOperator func) {
+		for (int i = 0, idx = size; i < n; i++, idx++) tree[idx] = func.applyAsInt(i);
+		buildAll();
+	}
+
+	@Override
+	public int get(final int i) {
+		return tree[size + i];
+	}
+
+	@Override
+	public int set(final int i, final int e) {
+		int j = size + i;
+		tree[j] = e;
+		for (j >>= 1; j > 0; j >>= 1) tree[j] = op(tree[j << 1], tree[(j << 1) | 1]);
+		return e;
+	}
+
+	@Override
+	public int add(final int i, final int d) {
+		return set(i, tree[size + i] + d);
+	}
+
+	@Override
+	public int query(final int l, final int r) {
+		int ans = Integer.MIN_VALUE;
+		for (int cl = l + size, cr = r + size; cl < cr; cl >>= 1, cr >>= 1) {
+			if ((cl & 1) == 1) ans = op(ans, tree[cl++]);
+			if ((cr & 1) == 1) ans = op(ans, tree[--cr]);
+		}
+		return ans;
+	}
+
+	@Override
+	public int queryAll() {
+		return tree[1];
+	}
+
+	@Override
+	public int maxRight(final int l, final IntPredicate tester) {
+		if (l == n) return n;
+		int ans = Integer.MIN_VALUE;
+		int cl = l + size;
+		do {
+			cl >>= Integer.numberOfTrailingZeros(cl);
+			int combined = op(ans, tree[cl]);
+			if (!tester.test(combined)) {
+				while (cl < size) {
+					cl <<= 1;
+					combined = op(ans, tree[cl]);
+					if (tester.test(combined)) {
+						ans = combined;
+						cl++;
+					}
+				}
+				return cl - size;
+			}
+			ans = combined;
+			cl++;
+		} while ((cl & -cl) != cl);
+		return n;
+	}
+
+	@Override
+	public int minLeft(final int r, final IntPredicate tester) {
+		if (r == 0) return 0;
+		int ans = Integer.MIN_VALUE;
+		int cr = r + size - 1;
+		do {
+			while (cr > 1 && (cr & 1) == 1) cr >>= 1;
+			int combined = op(tree[cr], ans);
+			if (!tester.test(combined)) {
+				while (cr < size) {
+					cr = (cr << 1) | 1;
+					combined = op(tree[cr], ans);
+					if (tester.test(combined)) {
+						ans = combined;
+						cr--;
+					}
+				}
+				return cr - size + 1;
+			}
+			ans = combined;
+			cr--;
+		} while ((cr & -cr) != cr);
+		return 0;
+	}
+
+	@Override
+	public int size() {
+		return n;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder s = new StringBuilder();
+		s.append(tree[size]);
+		for (int i = 1; i < n; i++) s.append(' ').append(tree[i + size]);
+		return s.toString();
+	}
+
+	private void buildAll() {
+		for (int i = size - 1; i > 0; i--) tree[i] = op(tree[i << 1], tree[(i << 1) | 1]);
+	}
+
+	private static int op(final int a, final int b) {
+		return Math.max(a, b);
+	}
+}
@@ -6,10 +6,14 @@
 import lib.ds.*;
 
 @SuppressWarnings("unused")
-public final class IntSegmentTree implements IntCollection {
+public final class IntSegmentTree implements IntCollection, Resettable {
 	private final int n, size, identity;
 	private final IntBinaryOperator operator;
 	private final int[] tree;
+	// reset() で単位元に戻す葉。記録しきれなくなったら touchedAll を立て、木全体を戻す。
+	private final int[] touched;
+	private int touchedCount;
+	private boolean touchedAll;
 
 	public IntSegmentTree(final int n, final IntBinaryOperator operator, final int identity) {
 		this.n = n;
@@ -18,6 +22,7 @@ public IntSegmentTree(final int n, final IntBinaryOperator operator, final int i
 		this.operator = operator;
 		tree = new int[size << 1];
 		if (identity != 0) Arrays.fill(tree, identity);
+		touched = newTouched(size);
 	}
 
 	public IntSegmentTree(final int[] data, final IntBinaryOperator operator, final int identity) {
@@ -29,16 +34,44 @@ public IntSegmentTree(final int[] data, final IntBinaryOperator operator, final
 		System.arraycopy(data, 0, tree, size, n);
 		if (identity != 0) Arrays.fill(tree, size + n, size << 1, identity);
 		buildAll();
+		touched = newTouched(size);
+		touchedAll = true;
+	}
+
+	/**
+	 * 葉 1 つあたり根までの O(log N) 個の頂点を戻すため、記録数の上限を 2N / log N 程度にして、
+	 * reset() が木全体を埋め直す O(N) を超えないようにする。
+	 */
+	private static int[] newTouched(final int size) {
+		return new int[(size << 1) / (Integer.numberOfTrailingZeros(size) + 1)];
 	}
 
 	public void fill(final int val) {
 		Arrays.fill(tree, size, size + n, val);
 		buildAll();
+		touchedAll = true;
 	}
 
 	public void setAll(final IntUnaryOperator init) {
 		for (int i = 0, idx = size; i < n; i++, idx++) tree[idx] = init.applyAsInt(i);
 		buildAll();
+		touchedAll = true;
+	}
+
+	/**
+	 * 全要素を単位元に戻します。前回の reset() 以降に更新した葉が k 個なら O(min(k log N, N)) です。
+	 */
+	@Override
+	public void reset() {
+		if (touchedAll) {
+			Arrays.fill(tree, identity);
+			touchedAll = false;
+		} else {
+			for (int t = 0; t < touchedCount; t++) {
+				for (int j = size + touched[t]; j > 0 && tree[j] != identity; j >>= 1) tree[j] = identity;
+			}
+		}
+		touchedCount = 0;
 	}
 
 	public int get(final int i) {
@@ -59,6 +92,8 @@ public int multiply(final int i, final int a) {
 
 	public int apply(final int i, final int a, final int b) {
 		final int idx = size + i;
+		if (touchedCount < touched.length) touched[touchedCount++] = i;
+		else touchedAll = true;
 		tree[idx] = tree[idx] * a + b;
 		for (int j = idx >> 1; j > 0; j >>= 1) tree[j] = operator.applyAsInt(tree[j << 1], tree[(j << 1) | 1]);
 		return tree[idx];
@@ -82,6 +117,49 @@ public int queryAll() {
 		return tree[1];
 	}
 
+	/**
+	 * {@code out[i] = query(l[i], r[i])} をまとめて求めます。
+	 */
+	public void queryAll(final int[] l, final int[] r, final int[] out) {
+		for (int q = 0; q < l.length; q++) out[q] = query(l[q], r[q]);
+	}
+
+	/**
+	 * {@code set(idx[k], val[k])} をまとめて行います。同じ位置が複数あれば後の値が残ります。
+	 * 葉をすべて書き換えてから、影響を受けた頂点だけを下の段から 1 段ずつ再計算するため、共通の祖先は 1 回しか計算しません。
+	 * 更新数が {@code N / log N} 程度より多い場合は木全体を再構築します。
+	 */
+	public void setBatch(final int[] idx, final int[] val) {
+		final int k = idx.length;
+		for (int j = 0; j < k; j++) {
+			final int i = idx[j];
+			if (touchedCount < touched.length) touched[touchedCount++] = i;
+			else touchedAll = true;
+			tree[size + i] = val[j];
+		}
+		final int log = Integer.numberOfTrailingZeros(size);
+		if ((long) k * log >= size) {
+			buildAll();
+			return;
+		}
+		final int[] nodes = new int[k];
+		for (int j = 0; j < k; j++) nodes[j] = (size + idx[j]) >> 1;
+		Arrays.sort(nodes);
+		int count = k;
+		while (count > 0 && nodes[0] > 0) {
+			// nodes[0, count) は同じ段の頂点の昇順。重複を除きながら再計算し、親の段へ進める。
+			int next = 0;
+			for (int j = 0, prev = -1; j < count; j++) {
+				final int v = nodes[j];
+				if (v == prev) continue;
+				prev = v;
+				tree[v] = operator.applyAsInt(tree[v << 1], tree[(v << 1) | 1]);
+				if (next == 0 || nodes[next - 1] != v >> 1) nodes[next++] = v >> 1;
+			}
+			count = next;
+		}
+	}
+
 	public int maxRight(final int l, final IntPredicate tester) {
 		if (l == n) return n;
 		int ans = identity;
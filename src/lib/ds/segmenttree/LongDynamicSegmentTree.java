@@ -0,0 +1,274 @@
+package lib.ds.segmenttree;
+
+import java.util.*;
+import java.util.function.*;
+
+import lib.ds.*;
+
+/**
+ * 添字の範囲 {@code [0, n)}（{@code n} は最大 {@code 2^63 - 1}）のうち、更新した位置の周辺だけ頂点を作る遅延伝播付きセグメント木です。
+ * <p>
+ * 頂点はオブジェクトではなく、番号で参照するプリミティブ配列（左右の子・値・遅延値）に置き、足りなくなったら 2 倍に広げます。
+ * {@code q} 回の更新で作られる頂点は {@code O(q log n)} 個で、座標圧縮なしにオンラインで使えます。
+ * <p>
+ * まだ作られていない部分木の要素はすべて単位元とみなします（{@code operator(identity, identity) = identity} が必要です）。
+ * 遅延値の反映 {@link Mapping} は区間の長さも受け取るため、区間加算と区間和のように長さに依存する更新も扱えます。
+ * {@code query} / {@code maxRight} / {@code minLeft} は遅延値を子へ伝播せず、祖先の遅延値を合成しながら降りるため、頂点を作りません。
+ */
+@SuppressWarnings("unused")
+public final class LongDynamicSegmentTree implements Resettable {
+	/**
+	 * 遅延値 {@code f} を、長さ {@code len} の区間の集約値 {@code x} に反映した値を返す関数です。
+	 * 区間を分割して反映してから集約しても、同じ値になる必要があります。
+	 */
+	@FunctionalInterface
+	public interface Mapping {
+		long apply(long f, long x, long len);
+	}
+
+	private static final Mapping DEFAULT_MAPPING = (f, x, len) -> f;
+	private static final LongBinaryOperator DEFAULT_COMPOSITION = (f, g) -> f;
+	private static final int DEFAULT_CAPACITY = 1 << 10;
+	// 頂点 0 は「まだ作られていない部分木」を表す番兵で、子も 0、値は常に単位元。書き換えない。頂点 1 が根。
+	private static final int ABSENT = 0, ROOT = 1;
+	private final long n, identity;
+	private final LongBinaryOperator operator, composition;
+	private final Mapping mapping;
+	private int[] left, right;
+	private long[] value, lazy;
+	private boolean[] hasLazy;
+	private int nodeCount;
+	// maxRight / minLeft で、確定した区間の集約値。
+	private long acc;
+
+	public LongDynamicSegmentTree(final long n, final LongBinaryOperator operator, final long identity) {
+		this(n, operator, identity, DEFAULT_MAPPING, DEFAULT_COMPOSITION);
+	}
+
+	public LongDynamicSegmentTree(final long n, final LongBinaryOperator operator, final long identity, final Mapping mapping, final LongBinaryOperator composition) {
+		this(n, operator, identity, mapping, composition, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity 最初に確保する頂点数。足りなくなったら 2 倍に広げる
+	 */
+	public LongDynamicSegmentTree(final long n, final LongBinaryOperator operator, final long identity, final Mapping mapping, final LongBinaryOperator composition,
+			final int capacity) {
+		if (n <= 0) throw new IllegalArgumentException("n must be positive: " + n);
+		this.n = n;
+		this.operator = operator;
+		this.identity = identity;
+		this.mapping = mapping;
+		this.composition = composition;
+		final int cap = Math.max(capacity, 2);
+		left = new int[cap];
+		right = new int[cap];
+		value = new long[cap];
+		lazy = new long[cap];
+		hasLazy = new boolean[cap];
+		reset();
+	}
+
+	/**
+	 * 全要素を単位元に戻します。確保した配列は再利用します。O(1) です。
+	 */
+	@Override
+	public void reset() {
+		value[ABSENT] = identity;
+		nodeCount = ROOT;
+		newNode();
+	}
+
+	public void clear() {
+		reset();
+	}
+
+	public long get(final long i) {
+		return query(i, i + 1);
+	}
+
+	public void set(final long i, final long v) {
+		set(ROOT, 0, n, i, v);
+	}
+
+	public void apply(final long i, final long f) {
+		apply(i, i + 1, f);
+	}
+
+	/**
+	 * 半開区間 {@code [l, r)} の各要素に遅延値 {@code f} を作用させます。
+	 */
+	public void apply(final long l, final long r, final long f) {
+		if (l >= r) return;
+		apply(ROOT, 0, n, l, r, f);
+	}
+
+	/**
+	 * 半開区間 {@code [l, r)} の集約値を返します。空区間では単位元です。
+	 */
+	public long query(final long l, final long r) {
+		if (l >= r) return identity;
+		return query(ROOT, 0, n, l, r);
+	}
+
+	public long queryAll() {
+		return value[ROOT];
+	}
+
+	/**
+	 * {@code tester(query(l, r))} が真となる最大の {@code r} を返します。{@code tester(identity)} は真である必要があります。
+	 */
+	public long maxRight(final long l, final LongPredicate tester) {
+		if (l == n) return n;
+		acc = identity;
+		final long r = maxRight(ROOT, 0, n, l, tester, false, 0);
+		return r < 0 ? n : r;
+	}
+
+	/**
+	 * {@code tester(query(l, r))} が真となる最小の {@code l} を返します。{@code tester(identity)} は真である必要があります。
+	 */
+	public long minLeft(final long r, final LongPredicate tester) {
+		if (r == 0) return 0;
+		acc = identity;
+		final long l = minLeft(ROOT, 0, n, r, tester, false, 0);
+		return l < 0 ? 0 : l;
+	}
+
+	public long size() {
+		return n;
+	}
+
+	/**
+	 * 作った頂点の数（根を含む）を返します。
+	 */
+	public int nodeCount() {
+		return nodeCount - 1;
+	}
+
+	private int newNode() {
+		if (nodeCount == left.length) {
+			final int cap = left.length << 1;
+			left = Arrays.copyOf(left, cap);
+			right = Arrays.copyOf(right, cap);
+			value = Arrays.copyOf(value, cap);
+			lazy = Arrays.copyOf(lazy, cap);
+			hasLazy = Arrays.copyOf(hasLazy, cap);
+		}
+		final int v = nodeCount++;
+		left[v] = right[v] = ABSENT;
+		value[v] = identity;
+		hasLazy[v] = false;
+		return v;
+	}
+
+	// newNode() が配列を広げるため、left[v] = newNode() とは書かない（代入先が古い配列になる）。
+	private int leftChild(final int v) {
+		if (left[v] == ABSENT) {
+			final int c = newNode();
+			left[v] = c;
+		}
+		return left[v];
+	}
+
+	private int rightChild(final int v) {
+		if (right[v] == ABSENT) {
+			final int c = newNode();
+			right[v] = c;
+		}
+		return right[v];
+	}
+
+	private void set(final int v, final long lo, final long hi, final long i, final long x) {
+		if (hi - lo == 1) {
+			value[v] = x;
+			return;
+		}
+		push(v, lo, hi);
+		final long mid = lo + (hi - lo >>> 1);
+		if (i < mid) set(leftChild(v), lo, mid, i, x);
+		else set(rightChild(v), mid, hi, i, x);
+		value[v] = operator.applyAsLong(value[left[v]], value[right[v]]);
+	}
+
+	private void apply(final int v, final long lo, final long hi, final long l, final long r, final long f) {
+		if (l <= lo && hi <= r) {
+			allApply(v, f, hi - lo);
+			return;
+		}
+		push(v, lo, hi);
+		final long mid = lo + (hi - lo >>> 1);
+		if (l < mid) apply(leftChild(v), lo, mid, l, r, f);
+		if (mid < r) apply(rightChild(v), mid, hi, l, r, f);
+		value[v] = operator.applyAsLong(value[left[v]], value[right[v]]);
+	}
+
+	private void allApply(final int v, final long f, final long len) {
+		value[v] = mapping.apply(f, value[v], len);
+		if (len == 1) return;
+		lazy[v] = hasLazy[v] ? composition.applyAsLong(f, lazy[v]) : f;
+		hasLazy[v] = true;
+	}
+
+	private void push(final int v, final long lo, final long hi) {
+		if (!hasLazy[v]) return;
+		final long mid = lo + (hi - lo >>> 1);
+		allApply(leftChild(v), lazy[v], mid - lo);
+		allApply(rightChild(v), lazy[v], hi - mid);
+		hasLazy[v] = false;
+	}
+
+	/**
+	 * 頂点 v の区間と [l, r) の共通部分の集約値を返します。v の遅延値は子の結果に共通部分の長さで反映します。
+	 */
+	private long query(final int v, final long lo, final long hi, final long l, final long r) {
+		if (v == ABSENT) return identity;
+		if (l <= lo && hi <= r) return value[v];
+		final long mid = lo + (hi - lo >>> 1);
+		long res = identity;
+		if (l < mid) res = query(left[v], lo, mid, l, r);
+		if (mid < r) res = operator.applyAsLong(res, query(right[v], mid, hi, l, r));
+		return hasLazy[v] ? mapping.apply(lazy[v], res, Math.min(hi, r) - Math.max(lo, l)) : res;
+	}
+
+	/**
+	 * 祖先の遅延値を合成した {@code p}（{@code hasP} が偽なら無し）を反映した、頂点 v の集約値を返します。
+	 */
+	private long seen(final int v, final long len, final boolean hasP, final long p) {
+		return hasP ? mapping.apply(p, value[v], len) : value[v];
+	}
+
+	private long maxRight(final int v, final long lo, final long hi, final long l, final LongPredicate tester, final boolean hasP, final long p) {
+		if (hi <= l) return -1;
+		if (l <= lo) {
+			final long combined = operator.applyAsLong(acc, seen(v, hi - lo, hasP, p));
+			if (tester.test(combined)) {
+				acc = combined;
+				return -1;
+			}
+			if (hi - lo == 1) return lo;
+		}
+		final boolean hasQ = hasP || hasLazy[v];
+		final long q = !hasLazy[v] ? p : hasP ? composition.applyAsLong(p, lazy[v]) : lazy[v];
+		final long mid = lo + (hi - lo >>> 1);
+		final long res = maxRight(left[v], lo, mid, l, tester, hasQ, q);
+		return res >= 0 ? res : maxRight(right[v], mid, hi, l, tester, hasQ, q);
+	}
+
+	private long minLeft(final int v, final long lo, final long hi, final long r, final LongPredicate tester, final boolean hasP, final long p) {
+		if (r <= lo) return -1;
+		if (hi <= r) {
+			final long combined = operator.applyAsLong(seen(v, hi - lo, hasP, p), acc);
+			if (tester.test(combined)) {
+				acc = combined;
+				return -1;
+			}
+			if (hi - lo == 1) return hi;
+		}
+		final boolean hasQ = hasP || hasLazy[v];
+		final long q = !hasLazy[v] ? p : hasP ? composition.applyAsLong(p, lazy[v]) : lazy[v];
+		final long mid = lo + (hi - lo >>> 1);
+		final long res = minLeft(right[v], mid, hi, r, tester, hasQ, q);
+		return res >= 0 ? res : minLeft(left[v], lo, mid, r, tester, hasQ, q);
+	}
+}
@@ -0,0 +1,152 @@
+package lib.ds.segmenttree;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * 区間最小値（単位元 {@code Long.MAX_VALUE}）を求める、{@code long} 型の特化済みセグメント木です。
+ */
+@SuppressWarnings("unused")
+public final class LongMinSegmentTree implements LongSpecializedSegmentTree {
+	private final int n, size;
+	private final long[] tree;
+
+	public LongMinSegmentTree(final int n) {
+		this.n = n;
+		size = n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+		tree = new long[size << 1];
+		Arrays.fill(tree, Long.MAX_VALUE);
+	}
+
+	public LongMinSegmentTree(final long[] data) {
+		this(data.length);
+		System.arraycopy(data, 0, tree, size, n);
+		buildAll();
+	}
+
+	@Override
+	public SegmentTreeOperator operator() {
+		return SegmentTreeOperator.MIN;
+	}
+
+	@Override
+	public long identity() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public void fill(final long val) {
+		Arrays.fill(tree, size, size + n, val);
+		buildAll();
+	}
+
+	@Override
+	public void setAll(final LongUnaryOperator func) {
+		for (int i = 0, idx = size; i < n; i++, idx++) tree[idx] = func.applyAsLong(i);
+		buildAll();
+	}
+
+	@Override
+	public long get(final int i) {
+		return tree[size + i];
+	}
+
+	@Override
+	public long set(final int i, final long e) {
+		int j = size + i;
+		tree[j] = e;
+		for (j >>= 1; j > 0; j >>= 1) tree[j] = op(tree[j << 1], tree[(j << 1) | 1]);
+		return e;
+	}
+
+	@Override
+	public long add(final int i, final long d) {
+		return set(i, tree[size + i] + d);
+	}
+
+	@Override
+	public long query(final int l, final int r) {
+		long ans = Long.MAX_VALUE;
+		for (int cl = l + size, cr = r + size; cl < cr; cl >>= 1, cr >>= 1) {
+			if ((cl & 1) == 1) ans = op(ans, tree[cl++]);
+			if ((cr & 1) == 1) ans = op(ans, tree[--cr]);
+		}
+		return ans;
+	}
+
+	@Override
+	public long queryAll() {
+		return tree[1];
+	}
+
+	@Override
+	public int maxRight(final int l, final LongPredicate tester) {
+		if (l == n) return n;
+		long ans = Long.MAX_VALUE;
+		int cl = l + size;
+		do {
+			cl >>= Integer.numberOfTrailingZeros(cl);
+			long combined = op(ans, tree[cl]);
+			if (!tester.test(combined)) {
+				while (cl < size) {
+					cl <<= 1;
+					combined = op(ans, tree[cl]);
+					if (tester.test(combined)) {
+						ans = combined;
+						cl++;
+					}
+				}
+				return cl - size;
+			}
+			ans = combined;
+			cl++;
+		} while ((cl & -cl) != cl);
+		return n;
+	}
+
+	@Override
+	public int minLeft(final int r, final LongPredicate tester) {
+		if (r == 0) return 0;
+		long ans = Long.MAX_VALUE;
+		int cr = r + size - 1;
+		do {
+			while (cr > 1 && (cr & 1) == 1) cr >>= 1;
+			long combined = op(tree[cr], ans);
+			if (!tester.test(combined)) {
+				while (cr < size) {
+					cr = (cr << 1) | 1;
+					combined = op(tree[cr], ans);
+					if (tester.test(combined)) {
+						ans = combined;
+						cr--;
+					}
+				}
+				return cr - size + 1;
+			}
+			ans = combined;
+			cr--;
+		} while ((cr & -cr) != cr);
+		return 0;
+	}
+
+	@Override
+	public int size() {
+		return n;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder s = new StringBuilder();
+		s.append(tree[size]);
+		for (int i = 1; i < n; i++) s.append(' ').append(tree[i + size]);
+		return s.toString();
+	}
+
+	private void buildAll() {
+		for (int i = size - 1; i > 0; i--) tree[i] = op(tree[i << 1], tree[(i << 1) | 1]);
+	}
+
+	private static long op(final long a, final long b) {
+		return Math.min(a, b);
+	}
+}
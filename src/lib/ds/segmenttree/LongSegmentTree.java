@@ -3,12 +3,18 @@
 import java.util.*;
 import java.util.function.*;
 
+import lib.ds.*;
+
 @SuppressWarnings("unused")
-public final class LongSegmentTree implements Iterable<Long> {
+public final class LongSegmentTree implements Iterable<Long>, Resettable {
 	private final int n, size;
 	private final long identity;
 	private final LongBinaryOperator operator;
 	private final long[] tree;
+	// reset() で単位元に戻す葉。記録しきれなくなったら touchedAll を立て、木全体を戻す。
+	private final int[] touched;
+	private int touchedCount;
+	private boolean touchedAll;
 
 	public LongSegmentTree(final int n, final LongBinaryOperator operator, final long identity) {
 		this.n = n;
@@ -17,6 +23,7 @@ public LongSegmentTree(final int n, final LongBinaryOperator operator, final lon
 		this.operator = operator;
 		tree = new long[size << 1];
 		if (identity != 0) Arrays.fill(tree, identity);
+		touched = newTouched(size);
 	}
 
 	public LongSegmentTree(final long[] data, final LongBinaryOperator operator, final long identity) {
@@ -28,6 +35,32 @@ public LongSegmentTree(final long[] data, final LongBinaryOperator operator, fin
 		System.arraycopy(data, 0, tree, size, n);
 		if (identity != 0) Arrays.fill(tree, size + n, size << 1, identity);
 		buildAll();
+		touched = newTouched(size);
+		touchedAll = true;
+	}
+
+	/**
+	 * 葉 1 つあたり根までの O(log N) 個の頂点を戻すため、記録数の上限を 2N / log N 程度にして、
+	 * reset() が木全体を埋め直す O(N) を超えないようにする。
+	 */
+	private static int[] newTouched(final int size) {
+		return new int[(size << 1) / (Integer.numberOfTrailingZeros(size) + 1)];
+	}
+
+	/**
+	 * 全要素を単位元に戻します。前回の reset() 以降に更新した葉が k 個なら O(min(k log N, N)) です。
+	 */
+	@Override
+	public void reset() {
+		if (touchedAll) {
+			Arrays.fill(tree, identity);
+			touchedAll = false;
+		} else {
+			for (int t = 0; t < touchedCount; t++) {
+				for (int j = size + touched[t]; j > 0 && tree[j] != identity; j >>= 1) tree[j] = identity;
+			}
+		}
+		touchedCount = 0;
 	}
 
 	public long get(final int i) {
@@ -48,6 +81,8 @@ public long multiply(final int i, final long a) {
 
 	public long apply(final int i, final long a, final long b) {
 		final int idx = size + i;
+		if (touchedCount < touched.length) touched[touchedCount++] = i;
+		else touchedAll = true;
 		tree[idx] = tree[idx] * a + b;
 		for (int j = idx >> 1; j > 0; j >>= 1) tree[j] = operator.applyAsLong(tree[j << 1], tree[(j << 1) | 1]);
 		return tree[idx];
@@ -60,11 +95,13 @@ public long apply(final int i, final long v, final LongBinaryOperator op) {
 	public void fill(final long val) {
 		Arrays.fill(tree, size, size + n, val);
 		buildAll();
+		touchedAll = true;
 	}
 
 	public void setAll(final LongUnaryOperator func) {
 		for (int i = 0, idx = size; i < n; i++, idx++) tree[idx] = func.applyAsLong(i);
 		buildAll();
+		touchedAll = true;
 	}
 
 	public long query(final int l, final int r) {
@@ -81,6 +118,49 @@ public long queryAll() {
 		return tree[1];
 	}
 
+	/**
+	 * {@code out[i] = query(l[i], r[i])} をまとめて求めます。
+	 */
+	public void queryAll(final int[] l, final int[] r, final long[] out) {
+		for (int q = 0; q < l.length; q++) out[q] = query(l[q], r[q]);
+	}
+
+	/**
+	 * {@code set(idx[k], val[k])} をまとめて行います。同じ位置が複数あれば後の値が残ります。
+	 * 葉をすべて書き換えてから、影響を受けた頂点だけを下の段から 1 段ずつ再計算するため、共通の祖先は 1 回しか計算しません。
+	 * 更新数が {@code N / log N} 程度より多い場合は木全体を再構築します。
+	 */
+	public void setBatch(final int[] idx, final long[] val) {
+		final int k = idx.length;
+		for (int j = 0; j < k; j++) {
+			final int i = idx[j];
+			if (touchedCount < touched.length) touched[touchedCount++] = i;
+			else touchedAll = true;
+			tree[size + i] = val[j];
+		}
+		final int log = Integer.numberOfTrailingZeros(size);
+		if ((long) k * log >= size) {
+			buildAll();
+			return;
+		}
+		final int[] nodes = new int[k];
+		for (int j = 0; j < k; j++) nodes[j] = (size + idx[j]) >> 1;
+		Arrays.sort(nodes);
+		int count = k;
+		while (count > 0 && nodes[0] > 0) {
+			// nodes[0, count) は同じ段の頂点の昇順。重複を除きながら再計算し、親の段へ進める。
+			int next = 0;
+			for (int j = 0, prev = -1; j < count; j++) {
+				final int v = nodes[j];
+				if (v == prev) continue;
+				prev = v;
+				tree[v] = operator.applyAsLong(tree[v << 1], tree[(v << 1) | 1]);
+				if (next == 0 || nodes[next - 1] != v >> 1) nodes[next++] = v >> 1;
+			}
+			count = next;
+		}
+	}
+
 	public int maxRight(final int l, final LongPredicate tester) {
 		if (l == n) return n;
 		long ans = identity;
@@ -1,10 +1,271 @@
 package lib.ds.segmenttree;
 
+import java.util.*;
+
 /**
  * 永続セグメント木。更新のたびに新しいバージョンを作成し、過去の任意バージョンへの
  * 区間クエリを O(log N) で提供する。
+ * <p>
+ * 点更新では根から葉までの O(log N) 個の頂点だけを複製し、それ以外の頂点は前のバージョンと共有する。
+ * 頂点はオブジェクトではなく、番号で参照するプリミティブ配列（{@code int[] left, right; long[] sum}）に置き、
+ * 足りなくなったら 2 倍に広げる。頂点 0 は左右の子が自身で和が 0 の頂点で、全要素が 0 の部分木を表す。
+ * <p>
+ * 頂点は葉から根の順に作るため、子の番号は常に親より小さい。{@link #compact()} はこの順序を使い、
+ * 破棄していないバージョンから到達できる頂点を、スタックなしの 2 回の走査で配列の先頭へ詰め直す。
  */
 @SuppressWarnings("unused")
 public final class PersistentSegmentTree {
-	// TODO: パス上のノードのみ複製する永続化（add/set/区間取得、バージョン管理）の実装を行う
+	private static final int DEFAULT_CAPACITY = 1 << 10;
+	// 破棄したバージョンの根。
+	private static final int DISCARDED = -1;
+	private final int n, log;
+	private int[] left, right;
+	private long[] sum;
+	private int nodeCount;
+	private int[] roots;
+	private int versionCount;
+	// 点更新で根から葉へたどった頂点。path[d] は葉から d 段上の頂点。
+	private final int[] path;
+
+	/**
+	 * 全要素が 0 のバージョン 0 を持つ永続セグメント木を構築する。頂点は作らない。
+	 *
+	 * @param n 要素数
+	 */
+	public PersistentSegmentTree(final int n) {
+		this(n, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param n        要素数
+	 * @param capacity 最初に確保する頂点数。足りなくなったら 2 倍に広げる
+	 */
+	public PersistentSegmentTree(final int n, final int capacity) {
+		this.n = n;
+		log = n <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+		final int cap = Math.max(capacity, 2);
+		left = new int[cap];
+		right = new int[cap];
+		sum = new long[cap];
+		nodeCount = 1;
+		roots = new int[16];
+		versionCount = 1;
+		path = new int[log + 1];
+	}
+
+	/**
+	 * data を初期値とするバージョン 0 を O(N) で構築する。
+	 *
+	 * @param data 初期値
+	 */
+	public PersistentSegmentTree(final long[] data) {
+		this(data.length, data.length * 2 + 32);
+		// 葉の段から 1 段ずつ作る。要素のない位置は頂点 0 のまま。
+		int[] level = new int[1 << log];
+		for (int i = 0; i < n; i++) level[i] = newNode(0, 0, data[i]);
+		for (int width = 1 << log; width > 1; width >>= 1) {
+			final int[] up = new int[width >> 1];
+			for (int j = 0; j < up.length; j++) {
+				final int a = level[j << 1], b = level[(j << 1) | 1];
+				up[j] = a == 0 && b == 0 ? 0 : newNode(a, b, sum[a] + sum[b]);
+			}
+			level = up;
+		}
+		roots[0] = level[0];
+	}
+
+	/**
+	 * バージョン version の位置 i に v を加算した新しいバージョンを作り、その番号を返す。
+	 *
+	 * @param version 元のバージョン
+	 * @param i       インデックス
+	 * @param v       加算する値
+	 * @return 新しいバージョン
+	 */
+	public int add(final int version, final int i, final long v) {
+		return addVersion(update(root(version), i, v, false));
+	}
+
+	/**
+	 * バージョン version の位置 i を v にした新しいバージョンを作り、その番号を返す。
+	 *
+	 * @param version 元のバージョン
+	 * @param i       インデックス
+	 * @param v       更新後の値
+	 * @return 新しいバージョン
+	 */
+	public int set(final int version, final int i, final long v) {
+		return addVersion(update(root(version), i, v, true));
+	}
+
+	/**
+	 * 最新のバージョンの位置 i に v を加算した新しいバージョンを作り、その番号を返す。
+	 */
+	public int add(final int i, final long v) {
+		return add(latestVersion(), i, v);
+	}
+
+	/**
+	 * 最新のバージョンの位置 i を v にした新しいバージョンを作り、その番号を返す。
+	 */
+	public int set(final int i, final long v) {
+		return set(latestVersion(), i, v);
+	}
+
+	public long get(final int version, final int i) {
+		int node = root(version);
+		for (int d = log; d > 0 && node != 0; d--) node = (i >> d - 1 & 1) == 0 ? left[node] : right[node];
+		return sum[node];
+	}
+
+	/**
+	 * バージョン version の半開区間 [l, r) の和を返す。
+	 */
+	public long query(final int version, final int l, final int r) {
+		if (l >= r) return 0;
+		return query(root(version), 0, 1 << log, l, r);
+	}
+
+	public long queryAll(final int version) {
+		return sum[root(version)];
+	}
+
+	/**
+	 * 2 つのバージョンの差 (toVersion - fromVersion) を各位置の個数とみなし、小さい方から k 番目（0-indexed）の位置を返す。
+	 * <p>
+	 * 配列 a の値を座標とし、a[0], a[1], ... を順に add(x, 1) したバージョンを v_0, v_1, ... とすると、
+	 * {@code kth(v_l, v_r, k)} は a[l, r) の k 番目に小さい値の座標になる。差はすべて非負であることを前提とする。
+	 *
+	 * @return k 番目の位置。差の合計が k 以下なら n
+	 */
+	public int kth(final int fromVersion, final int toVersion, long k) {
+		int a = root(fromVersion), b = root(toVersion);
+		if (k < 0 || sum[b] - sum[a] <= k) return n;
+		int i = 0;
+		for (int d = log; d > 0; d--) {
+			final long c = sum[left[b]] - sum[left[a]];
+			if (k < c) {
+				a = left[a];
+				b = left[b];
+			} else {
+				k -= c;
+				a = right[a];
+				b = right[b];
+				i |= 1 << d - 1;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * 最新のバージョンの番号を返す。
+	 */
+	public int latestVersion() {
+		return versionCount - 1;
+	}
+
+	/**
+	 * 作成したバージョンの数（破棄したものを含む）を返す。
+	 */
+	public int versionCount() {
+		return versionCount;
+	}
+
+	/**
+	 * バージョン version を破棄する。以後このバージョンは参照できず、次の {@link #compact()} で、
+	 * 他のバージョンから到達できない頂点が解放される。バージョンの番号は変わらない。
+	 */
+	public void discard(final int version) {
+		root(version);
+		roots[version] = DISCARDED;
+	}
+
+	/**
+	 * version より前のバージョンをすべて破棄する。
+	 */
+	public void discardBefore(final int version) {
+		for (int v = 0; v < version && v < versionCount; v++) roots[v] = DISCARDED;
+	}
+
+	/**
+	 * 破棄していないバージョンから到達できる頂点だけを残し、配列の先頭へ詰め直す。O(頂点数)。
+	 * 解放した領域は以後の更新で再利用する。
+	 */
+	public void compact() {
+		// 子の番号は親より小さいので、番号の大きい方から印を伝えれば 1 回の走査で到達可能な頂点がわかる。
+		final int[] newId = new int[nodeCount];
+		for (int v = 0; v < versionCount; v++) if (roots[v] > 0) newId[roots[v]] = 1;
+		for (int v = nodeCount - 1; v > 0; v--) {
+			if (newId[v] != 0) newId[left[v]] = newId[right[v]] = 1;
+		}
+		// 番号の小さい方から詰める。書き込み先は読み込み元以下で、子は先に移動済み。
+		int count = 1;
+		newId[0] = 0;
+		for (int v = 1; v < nodeCount; v++) {
+			if (newId[v] == 0) continue;
+			left[count] = newId[left[v]];
+			right[count] = newId[right[v]];
+			sum[count] = sum[v];
+			newId[v] = count++;
+		}
+		for (int v = 0; v < versionCount; v++) if (roots[v] > 0) roots[v] = newId[roots[v]];
+		nodeCount = count;
+	}
+
+	/**
+	 * 使用中の頂点数（頂点 0 を除く）を返す。
+	 */
+	public int nodeCount() {
+		return nodeCount - 1;
+	}
+
+	public int size() {
+		return n;
+	}
+
+	private int root(final int version) {
+		if (version < 0 || version >= versionCount || roots[version] == DISCARDED) throw new IllegalArgumentException("invalid version: " + version);
+		return roots[version];
+	}
+
+	private int addVersion(final int root) {
+		if (versionCount == roots.length) roots = Arrays.copyOf(roots, versionCount << 1);
+		roots[versionCount] = root;
+		return versionCount++;
+	}
+
+	private int newNode(final int l, final int r, final long s) {
+		if (nodeCount == left.length) {
+			final int cap = left.length << 1;
+			left = Arrays.copyOf(left, cap);
+			right = Arrays.copyOf(right, cap);
+			sum = Arrays.copyOf(sum, cap);
+		}
+		left[nodeCount] = l;
+		right[nodeCount] = r;
+		sum[nodeCount] = s;
+		return nodeCount++;
+	}
+
+	/**
+	 * 根から葉までたどった後、葉から根の順に頂点を複製し、新しい根を返す。
+	 */
+	private int update(final int root, final int i, final long v, final boolean assign) {
+		path[log] = root;
+		for (int d = log; d > 0; d--) path[d - 1] = (i >> d - 1 & 1) == 0 ? left[path[d]] : right[path[d]];
+		int cur = newNode(0, 0, assign ? v : sum[path[0]] + v);
+		for (int d = 1; d <= log; d++) {
+			final int old = path[d];
+			if ((i >> d - 1 & 1) == 0) cur = newNode(cur, right[old], sum[cur] + sum[right[old]]);
+			else cur = newNode(left[old], cur, sum[left[old]] + sum[cur]);
+		}
+		return cur;
+	}
+
+	private long query(final int node, final int lo, final int hi, final int l, final int r) {
+		if (node == 0 || r <= lo || hi <= l) return 0;
+		if (l <= lo && hi <= r) return sum[node];
+		final int mid = (lo + hi) >>> 1;
+		return query(left[node], lo, mid, l, r) + query(right[node], mid, hi, l, r);
+	}
 }
@@ -0,0 +1,17 @@
+package lib.ds.segmenttree;
+
+/**
+ * {@link IntSpecializedSegmentTree#of} / {@link LongSpecializedSegmentTree#of} で選ぶ、特化済みセグメント木の演算です。
+ */
+public enum SegmentTreeOperator {
+	/** 和（単位元 0） */
+	SUM,
+	/** 最小値（単位元は型の最大値） */
+	MIN,
+	/** 最大値（単位元は型の最小値） */
+	MAX,
+	/** 排他的論理和（単位元 0） */
+	XOR,
+	/** 最大公約数（単位元 0） */
+	GCD
+}
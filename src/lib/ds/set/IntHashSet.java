@@ -0,0 +1,355 @@
+package lib.ds.set;
+
+import static java.lang.Math.*;
+
+import java.lang.invoke.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import lib.ds.*;
+
+/**
+ * {@code int} 型の値を保持する、オープンアドレス方式のハッシュ集合です。
+ * {@code lib.ds.map} の整数型マップと同じハッシュ関数・制御バイトによる 8 スロット単位の照合（負荷率 7/8）を使い、
+ * 値の配列を持たない分だけメモリを抑えます。ブロック単位の世代番号により {@link #clear()} は {@code O(1)} です。
+ * {@link #forEachInt} と {@link #nextSlot(int)} / {@link #keyAt(int)} による走査はオブジェクトを生成しません。
+ */
+@SuppressWarnings("unused")
+public final class IntHashSet implements IntCollection, Resettable {
+	private static final int SALT32 = ThreadLocalRandom.current().nextInt();
+	private static final VarHandle GROUP = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final long LO = 0x0101010101010101L, HI = 0x8080808080808080L;
+	// 世代番号を管理するブロックの大きさ（log2）。clear() 後は、ブロックに初めて書き込むときに制御バイトを初期化する。
+	private static final int BLOCK_SHIFT = 6;
+	private static final int BLOCK = 1 << BLOCK_SHIFT;
+
+	private int[] keys;
+	// 空きは 0、使用中は 0x80 | ハッシュ値の上位 7 bit。末尾の 8 バイトは先頭 8 スロットの複製。
+	// blockStamps が現在の世代でないブロックは、内容によらず空きとみなす。
+	private byte[] ctrl;
+	private int[] blockStamps;
+	private int stamp, size, capacity, resizeThreshold, mask;
+
+	public IntHashSet() {
+		this(16);
+	}
+
+	public IntHashSet(final int expectedSize) {
+		stamp = 1;
+		allocate(normalizeCapacity(expectedSize));
+	}
+
+	public IntHashSet(final int[] values) {
+		this(values.length);
+		addAll(values);
+	}
+
+	private static int normalizeCapacity(final int expectedSize) {
+		final int required = (int) (((long) expectedSize * 8 + 6) / 7);
+		if (required <= 16) return 16;
+		int cap = required;
+		if ((cap & (cap - 1)) == 0) return cap;
+		cap |= cap >>> 1;
+		cap |= cap >>> 2;
+		cap |= cap >>> 4;
+		cap |= cap >>> 8;
+		cap |= cap >>> 16;
+		return cap + 1;
+	}
+
+	private void allocate(final int capacity) {
+		this.capacity = capacity;
+		resizeThreshold = capacity - (capacity >>> 3);
+		keys = new int[capacity];
+		ctrl = new byte[capacity + 8];
+		blockStamps = new int[(capacity + BLOCK - 1) >>> BLOCK_SHIFT];
+		Arrays.fill(blockStamps, stamp);
+		mask = capacity - 1;
+	}
+
+	/**
+	 * {@code key} を追加します。既に含まれていた場合は {@code false} を返します。
+	 */
+	public boolean add(final int key) {
+		final int slot = find(key);
+		if (slot >= 0) return false;
+		if (size >= resizeThreshold) {
+			resize(capacity << 1);
+			place(key);
+		} else place(~slot, key);
+		size++;
+		return true;
+	}
+
+	/**
+	 * 配列の要素をすべて追加します。1 つでも追加された場合は {@code true} を返します。
+	 */
+	public boolean addAll(final int[] values) {
+		ensureCapacity(size + values.length);
+		boolean changed = false;
+		for (final int v : values) changed |= add(v);
+		return changed;
+	}
+
+	public boolean addAll(final IntHashSet other) {
+		ensureCapacity(size + other.size);
+		boolean changed = false;
+		for (int i = 0; i < other.capacity; i++) if (other.occupied(i)) changed |= add(other.keys[i]);
+		return changed;
+	}
+
+	/**
+	 * 少なくとも {@code expectedSize} 要素をリサイズせずに保持できるよう、必要なら容量を広げます。
+	 */
+	public void ensureCapacity(final int expectedSize) {
+		final int required = normalizeCapacity(expectedSize);
+		if (capacity < required) resize(required);
+	}
+
+	@Override
+	public boolean contains(final int key) {
+		return find(key) >= 0;
+	}
+
+	public boolean remove(final int key) {
+		final int slot = find(key);
+		if (slot < 0) return false;
+		removeAt(slot);
+		return true;
+	}
+
+	public boolean removeAll(final int[] values) {
+		boolean changed = false;
+		for (final int v : values) changed |= remove(v);
+		return changed;
+	}
+
+	/**
+	 * {@code other} に含まれない要素をすべて削除します。1 つでも削除した場合は {@code true} を返します。
+	 */
+	public boolean retainAll(final IntHashSet other) {
+		final int before = size;
+		for (int i = clusterStart(), n = 0; n < capacity; n++) {
+			if (occupied(i) && !other.contains(keys[i])) {
+				removeAt(i);
+				// 後続の要素が i に詰められた可能性があるため、同じスロットを再度確認する。
+				n--;
+				continue;
+			}
+			i = (i + 1) & mask;
+		}
+		return size != before;
+	}
+
+	/**
+	 * {@code filter} を満たす要素をすべて削除します。1 つでも削除した場合は {@code true} を返します。
+	 */
+	public boolean removeIf(final IntPredicate filter) {
+		final int before = size;
+		for (int i = clusterStart(), n = 0; n < capacity; n++) {
+			if (occupied(i) && filter.test(keys[i])) {
+				removeAt(i);
+				n--;
+				continue;
+			}
+			i = (i + 1) & mask;
+		}
+		return size != before;
+	}
+
+	public void clear() {
+		size = 0;
+		stamp++;
+	}
+
+	/**
+	 * {@link #clear()} と同じです。
+	 */
+	@Override
+	public void reset() {
+		clear();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void forEachInt(final IntConsumer action) {
+		for (int i = 0; i < capacity; i++) {
+			if (!occupied(i)) continue;
+			action.accept(keys[i]);
+		}
+	}
+
+	/**
+	 * スロット {@code from} 以降で、最初に要素が格納されているスロット番号を返します。存在しない場合は {@code -1} を返します。
+	 * {@code for (int i = set.nextSlot(0); i >= 0; i = set.nextSlot(i + 1))} の形で、オブジェクトを生成せずに走査できます。
+	 * 走査中に要素を追加・削除してはいけません。
+	 */
+	public int nextSlot(int from) {
+		for (; from < capacity; from++) if (occupied(from)) return from;
+		return -1;
+	}
+
+	/**
+	 * {@link #nextSlot(int)} が返したスロットの要素を返します。
+	 */
+	public int keyAt(final int slot) {
+		return keys[slot];
+	}
+
+	@Override
+	public int[] toArray() {
+		final int[] res = new int[size];
+		for (int i = 0, idx = 0; i < capacity; i++) {
+			if (!occupied(i)) continue;
+			res[idx++] = keys[i];
+		}
+		return res;
+	}
+
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			private int slot = nextSlot(0);
+
+			@Override
+			public boolean hasNext() {
+				return slot >= 0;
+			}
+
+			@Override
+			public int nextInt() {
+				if (slot < 0) throw new NoSuchElementException();
+				final int key = keys[slot];
+				slot = nextSlot(slot + 1);
+				return key;
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		final StringJoiner joiner = new StringJoiner(", ", "[", "]");
+		forEachInt(key -> joiner.add(String.valueOf(key)));
+		return joiner.toString();
+	}
+
+	private boolean occupied(final int i) {
+		return blockStamps[i >>> BLOCK_SHIFT] == stamp && ctrl[i] != 0;
+	}
+
+	/**
+	 * 空きスロットの次のスロットを返します。ここから 1 周走査すると、削除で詰められる要素を走査済みの位置へ戻さずに済みます。
+	 */
+	private int clusterStart() {
+		int i = 0;
+		while (ctrl(i) != 0) i++;
+		return (i + 1) & mask;
+	}
+
+	private void removeAt(final int slot) {
+		int hole = slot;
+		for (int next = (hole + 1) & mask; ctrl(next) != 0; next = (next + 1) & mask) {
+			final int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				setCtrl(hole, ctrl[next]);
+				hole = next;
+			}
+		}
+		setCtrl(hole, (byte) 0);
+		size--;
+	}
+
+	private int ctrl(final int i) {
+		return blockStamps[i >>> BLOCK_SHIFT] == stamp ? ctrl[i] : 0;
+	}
+
+	private void setCtrl(final int i, final byte c) {
+		ctrl[i] = c;
+		if (i < 8) ctrl[capacity + i] = c;
+	}
+
+	/**
+	 * スロット {@code i} から始まる 8 スロット分の制御バイトを返します。現在の世代でないブロックの部分は空き（0）とします。
+	 */
+	private long group(final int i) {
+		final int block = i >>> BLOCK_SHIFT;
+		if (blockStamps[block] != stamp) return 0;
+		final long g = (long) GROUP.get(ctrl, i);
+		final int rest = BLOCK - (i & (BLOCK - 1));
+		if (rest >= 8) return g;
+		final int next = ((i + 7) & mask) >>> BLOCK_SHIFT;
+		return next == block || blockStamps[next] == stamp ? g : g & (1L << (rest << 3)) - 1;
+	}
+
+	/**
+	 * キーのスロットを返します。存在しない場合は、挿入位置（最初の空きスロット）{@code slot} を {@code ~slot} として返します。
+	 */
+	private int find(final int key) {
+		final int h = hash(key), home = h & mask;
+		if (keys[home] == key && ctrl(home) == (byte) (h >>> 25 | 0x80)) return home;
+		final long tag = (h >>> 25 | 0x80) * LO;
+		for (int i = home; ; i = (i + 8) & mask) {
+			final long g = group(i), x = g ^ tag, empty = ~g & HI;
+			long match = (x - LO) & ~x & HI;
+			if (empty != 0) match &= (empty & -empty) - 1;
+			for (; match != 0; match &= match - 1) {
+				final int j = (i + (Long.numberOfTrailingZeros(match) >>> 3)) & mask;
+				if (keys[j] == key) return j;
+			}
+			if (empty != 0) return ~((i + (Long.numberOfTrailingZeros(empty) >>> 3)) & mask);
+		}
+	}
+
+	private void place(final int key) {
+		int i = hash(key) & mask;
+		long empty;
+		while ((empty = ~group(i) & HI) == 0) i = (i + 8) & mask;
+		place((i + (Long.numberOfTrailingZeros(empty) >>> 3)) & mask, key);
+	}
+
+	private void place(final int slot, final int key) {
+		final int block = slot >>> BLOCK_SHIFT;
+		if (blockStamps[block] != stamp) {
+			blockStamps[block] = stamp;
+			final int from = block << BLOCK_SHIFT;
+			Arrays.fill(ctrl, from, min(from + BLOCK, capacity), (byte) 0);
+			if (block == 0) Arrays.fill(ctrl, capacity, capacity + 8, (byte) 0);
+		}
+		setCtrl(slot, (byte) (hash(key) >>> 25 | 0x80));
+		keys[slot] = key;
+	}
+
+	private void resize(final int newCapacity) {
+		final int oldCapacity = capacity;
+		final int[] oldKeys = keys;
+		final byte[] oldCtrl = ctrl;
+		final int[] oldBlockStamps = blockStamps;
+		allocate(newCapacity);
+		for (int i = 0; i < oldCapacity; i++) {
+			if (oldBlockStamps[i >>> BLOCK_SHIFT] != stamp || oldCtrl[i] == 0) continue;
+			place(oldKeys[i]);
+		}
+	}
+
+	private int hash(final int key) {
+		int h = key ^ SALT32;
+		h ^= h >>> 16;
+		h *= 0x7feb352d;
+		h ^= h >>> 15;
+		h *= 0x846ca68b;
+		h ^= h >>> 16;
+		return h;
+	}
+}
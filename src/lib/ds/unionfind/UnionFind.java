@@ -2,13 +2,17 @@
 
 import java.util.*;
 
+import lib.ds.*;
+
 /**
  * UnionFind 総グループ数、各グループの総辺数、頂点数を保持します。
  */
 @SuppressWarnings("unused")
-public final class UnionFind {
+public final class UnionFind implements Resettable {
 	private final int[] root, rank, size, path;
-	private int cnt;
+	// 前回の reset() 以降に代表元・辺数が変わった頂点。各頂点は高々 1 回だけ記録される。
+	private final int[] touched;
+	private int cnt, touchedCount;
 
 	/**
 	 * 大きさ n の UnionFind を構築します。
@@ -21,6 +25,7 @@ public UnionFind(final int n) {
 		rank = new int[n];
 		size = new int[n];
 		path = new int[n];
+		touched = new int[n];
 		for (int i = 0; i < n; i++) {
 			size[i] = 1;
 			root[i] = i;
@@ -59,6 +64,9 @@ public boolean isConnected(final int x, final int y) {
 	public boolean union(final int x, final int y) {
 		int rx = find(x);
 		int ry = find(y);
+		// 辺を持たない単独の代表元は、前回の reset() 以降まだ変更されていない。
+		if (path[rx] == 0 && size[rx] == 1) touched[touchedCount++] = rx;
+		if (rx != ry && path[ry] == 0 && size[ry] == 1) touched[touchedCount++] = ry;
 		path[rx]++;
 		if (rx == ry) return false;
 		if (rank[rx] < rank[ry]) {
@@ -74,6 +82,22 @@ public boolean union(final int x, final int y) {
 		return true;
 	}
 
+	/**
+	 * 全頂点を独立したグループに戻します。
+	 * 前回の reset() 以降に union で変更された頂点だけを戻すため、計算量は {@code O(min(2 * union の呼び出し回数, n))} です。
+	 */
+	@Override
+	public void reset() {
+		for (int t = 0; t < touchedCount; t++) {
+			final int i = touched[t];
+			root[i] = i;
+			rank[i] = path[i] = 0;
+			size[i] = 1;
+		}
+		cnt = root.length;
+		touchedCount = 0;
+	}
+
 	/**
 	 * このUnionFindのグループ数を返します。
 	 *
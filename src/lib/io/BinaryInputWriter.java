@@ -0,0 +1,276 @@
+package lib.io;
+
+import static java.util.Arrays.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+/**
+ * {@link BinaryScanner} が読み込むバイナリ入力形式を書き出すクラスです。
+ * テキスト入力の変換には {@link #convert(Path, Path)} を使います。
+ * <p>
+ * 形式はヘッダ（{@code 'F' 'S' 'B'} とバージョン番号の 4 バイト）のあとに、トークンを順に並べたランが続きます。
+ * 各ランは種別 1 バイトと要素数（varint）に、次のいずれかのペイロードが続きます。
+ * <ul>
+ * <li>{@code 1} / {@code 2}: リトルエンディアン固定長（{@code int} / {@code long}）の整数列</li>
+ * <li>{@code 3}: ZigZag 符号化した varint の整数列</li>
+ * <li>{@code 4}: 長さ（varint）を前置したバイト列の並び</li>
+ * </ul>
+ * ランの後ろには改行の位置を表す行テーブル（種別 {@code 5}、改行数（varint）、直前の改行からのトークン数（varint）の並び）を置き、
+ * 最後の 8 バイトに行テーブルの開始位置をリトルエンディアンで書きます。
+ * 改行をランと別に持つため、1 行に 1 トークンの入力でも整数列は 1 つのランにまとまります。
+ * 整数として書くのは {@code -?(0|[1-9][0-9]*)} の形で {@code long} に収まるトークンのみで、
+ * それ以外（先頭ゼロ付きの数字列なども含む）はバイト列として書くため、{@code next()} で元の文字列を復元できます。
+ */
+public final class BinaryInputWriter implements AutoCloseable {
+	private static final byte INT32 = 1, INT64 = 2, VARINT = 3, BYTES = 4, LINES = 5;
+	private static final byte[] MAX_LONG = "9223372036854775807".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] MIN_LONG = "9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+	// 1 ランの最大要素数。変換時に保持する整数列の大きさを抑える。
+	private static final int RUN_LIMIT = 1 << 20;
+	// int に収まる列と収まらない列が続くとき、この要素数以上溜まっていればランを分けて、それぞれを固定長で読めるようにする。
+	private static final int SPLIT_THRESHOLD = 16;
+	private final OutputStream out;
+	private byte[] staging = new byte[1 << 16];
+	private long[] values = new long[1 << 10];
+	private byte[] bytes = new byte[1 << 10];
+	private int valueCount = 0, byteCount = 0, byteTokens = 0;
+	private boolean runFitsInt;
+	// 行テーブルのペイロード（直前の改行からのトークン数の varint 列）
+	private byte[] lines = new byte[1 << 10];
+	private int lineBytes = 0;
+	private long lineCount = 0, tokenCount = 0, lastBreak = 0, written = 0;
+
+	public BinaryInputWriter(final OutputStream out) {
+		this.out = out;
+		final byte[] header = {'F', 'S', 'B', 2};
+		try {
+			out.write(header);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		written = header.length;
+	}
+
+	public BinaryInputWriter(final Path path) throws IOException {
+		this(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+	}
+
+	/**
+	 * 空白区切りのテキスト入力 {@code text} をバイナリ形式に変換して {@code binary} へ書き出します。
+	 */
+	public static void convert(final Path text, final Path binary) throws IOException {
+		try (final InputStream in = Files.newInputStream(text); final BinaryInputWriter w = new BinaryInputWriter(binary)) {
+			w.writeTokens(in);
+		}
+	}
+
+	public static void convert(final InputStream text, final OutputStream binary) throws IOException {
+		try (final BinaryInputWriter w = new BinaryInputWriter(binary)) {
+			w.writeTokens(text);
+		}
+	}
+
+	/**
+	 * {@code in} の空白区切りトークンをすべて書き出します。改行（{@code '\n'}）は {@link #newLine()} として記録します。
+	 */
+	public void writeTokens(final InputStream in) throws IOException {
+		final byte[] buf = new byte[1 << 16];
+		byte[] token = new byte[64];
+		int tokenLength = 0, n;
+		while ((n = in.read(buf)) > 0) {
+			for (int i = 0; i < n; i++) {
+				final byte b = buf[i];
+				if (b > ' ') {
+					if (tokenLength == token.length) token = copyOf(token, tokenLength << 1);
+					token[tokenLength++] = b;
+				} else {
+					if (tokenLength > 0) {
+						writeToken(token, tokenLength);
+						tokenLength = 0;
+					}
+					if (b == '\n') newLine();
+				}
+			}
+		}
+		if (tokenLength > 0) writeToken(token, tokenLength);
+	}
+
+	private void writeToken(final byte[] token, final int length) {
+		if (isCanonicalLong(token, length)) {
+			long v = 0;
+			final boolean negative = token[0] == '-';
+			for (int i = negative ? 1 : 0; i < length; i++) v = v * 10 - (token[i] & 15);
+			writeLong(negative ? v : -v);
+		} else writeBytes(token, 0, length);
+	}
+
+	private static boolean isCanonicalLong(final byte[] token, final int length) {
+		final int start = token[0] == '-' ? 1 : 0, digits = length - start;
+		if (digits == 0 || digits > 19) return false;
+		for (int i = start; i < length; i++) if (token[i] < '0' || token[i] > '9') return false;
+		if (token[start] == '0') return digits == 1 && start == 0;
+		if (digits < 19) return true;
+		return compare(token, start, length, start == 1 ? MIN_LONG : MAX_LONG, 0, 19) <= 0;
+	}
+
+	public BinaryInputWriter writeInt(final int x) {
+		return writeLong(x);
+	}
+
+	public BinaryInputWriter writeLong(final long x) {
+		if (byteTokens > 0) flushBytes();
+		final boolean fitsInt = x == (int) x;
+		if (valueCount >= SPLIT_THRESHOLD && fitsInt != runFitsInt) flushValues();
+		if (valueCount == 0) runFitsInt = fitsInt;
+		else runFitsInt &= fitsInt;
+		if (valueCount == values.length) values = copyOf(values, valueCount << 1);
+		values[valueCount++] = x;
+		tokenCount++;
+		if (valueCount == RUN_LIMIT) flushValues();
+		return this;
+	}
+
+	public BinaryInputWriter writeString(final String s) {
+		final byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+		return writeBytes(b, 0, b.length);
+	}
+
+	public BinaryInputWriter writeBytes(final byte[] b, final int off, final int len) {
+		if (valueCount > 0) flushValues();
+		ensureBytes(byteCount + len + 5);
+		byteCount = putVarint(bytes, byteCount, len);
+		System.arraycopy(b, off, bytes, byteCount, len);
+		byteCount += len;
+		tokenCount++;
+		if (++byteTokens == RUN_LIMIT) flushBytes();
+		return this;
+	}
+
+	/**
+	 * 直前に書いたトークンの後ろに改行を記録します。{@code BinaryScanner#nextLine()} はこの位置で行を区切ります。
+	 */
+	public BinaryInputWriter newLine() {
+		if (lineBytes + 10 > lines.length) lines = copyOf(lines, lines.length << 1);
+		lineBytes = putVarint(lines, lineBytes, tokenCount - lastBreak);
+		lastBreak = tokenCount;
+		lineCount++;
+		return this;
+	}
+
+	private void ensureBytes(final int capacity) {
+		if (capacity > bytes.length) bytes = copyOf(bytes, Math.max(capacity, bytes.length << 1));
+	}
+
+	/**
+	 * 整数ランを書き出します。varint の合計長が固定長の半分以下なら varint、そうでなければ
+	 * すべて {@code int} に収まる場合は 4 バイト、それ以外は 8 バイトの固定長を選びます。
+	 */
+	private void flushValues() {
+		final long[] v = values;
+		final int n = valueCount;
+		boolean fitsInt = true;
+		long varintSize = 0;
+		for (int i = 0; i < n; i++) {
+			fitsInt &= v[i] == (int) v[i];
+			varintSize += varintLength(v[i] << 1 ^ v[i] >> 63);
+		}
+		final int width = fitsInt ? 4 : 8;
+		final byte kind = varintSize * 2 <= (long) width * n ? VARINT : fitsInt ? INT32 : INT64;
+		int p = runHeader(kind, n, kind == VARINT ? varintSize : (long) width * n);
+		final byte[] s = staging;
+		if (kind == VARINT) for (int i = 0; i < n; i++) p = putVarint(s, p, v[i] << 1 ^ v[i] >> 63);
+		else if (kind == INT32) {
+			for (int i = 0; i < n; i++, p += 4) putInt(s, p, (int) v[i]);
+		} else {
+			for (int i = 0; i < n; i++, p += 8) {
+				putInt(s, p, (int) v[i]);
+				putInt(s, p + 4, (int) (v[i] >>> 32));
+			}
+		}
+		write(p);
+		valueCount = 0;
+	}
+
+	private void flushBytes() {
+		final int p = runHeader(BYTES, byteTokens, byteCount);
+		System.arraycopy(bytes, 0, staging, p, byteCount);
+		write(p + byteCount);
+		byteCount = byteTokens = 0;
+	}
+
+	private int runHeader(final byte kind, final long count, final long payload) {
+		final int size = (int) (payload + 11);
+		if (size > staging.length) staging = new byte[Math.max(size, staging.length << 1)];
+		staging[0] = kind;
+		return putVarint(staging, 1, count);
+	}
+
+	private void write(final int length) {
+		try {
+			out.write(staging, 0, length);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		written += length;
+	}
+
+	/**
+	 * 行テーブルと、その開始位置を書く末尾の 8 バイトを書き出します。
+	 */
+	private void writeLines() {
+		final long start = written;
+		int p = runHeader(LINES, lineCount, lineBytes + 8L);
+		System.arraycopy(lines, 0, staging, p, lineBytes);
+		p += lineBytes;
+		putInt(staging, p, (int) start);
+		putInt(staging, p + 4, (int) (start >>> 32));
+		write(p + 8);
+	}
+
+	private static void putInt(final byte[] b, final int p, final int x) {
+		b[p] = (byte) x;
+		b[p + 1] = (byte) (x >>> 8);
+		b[p + 2] = (byte) (x >>> 16);
+		b[p + 3] = (byte) (x >>> 24);
+	}
+
+	private static int putVarint(final byte[] b, int p, long x) {
+		while ((x & ~0x7FL) != 0) {
+			b[p++] = (byte) (x | 0x80);
+			x >>>= 7;
+		}
+		b[p++] = (byte) x;
+		return p;
+	}
+
+	private static int varintLength(final long x) {
+		return x == 0 ? 1 : (70 - Long.numberOfLeadingZeros(x)) / 7;
+	}
+
+	public void flush() {
+		if (valueCount > 0) flushValues();
+		if (byteTokens > 0) flushBytes();
+		try {
+			out.flush();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * 残りのランと行テーブルを書き出して閉じます。行テーブルを書くため、書き出しの最後に必ず呼びます。
+	 */
+	@Override
+	public void close() {
+		if (valueCount > 0) flushValues();
+		if (byteTokens > 0) flushBytes();
+		writeLines();
+		try {
+			out.close();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
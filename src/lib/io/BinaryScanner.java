@@ -0,0 +1,360 @@
+package lib.io;
+
+import static java.lang.Math.*;
+import static java.util.Arrays.*;
+
+import java.io.*;
+import java.lang.foreign.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * {@link BinaryInputWriter} が書き出したバイナリ入力をメモリマップし、テキストのパースなしに読み込む入力クラスです。
+ * <p>
+ * 1 トークンを読む基本操作と {@link #readInts} / {@link #readLongs} だけをランの上に実装し、配列・行列・コレクションの読み込みは
+ * {@link TokenScanner} を {@code FastScanner} と共有するため、型名を差し替えるだけで既存の解答をそのまま実行できます。
+ * 整数はランごとの固定長列から直接読み出し、{@link #readInts} / {@link #readLongs} は同じ幅のラン内なら一括コピーします。
+ * {@link #nextLine()} は行テーブルに記録した改行の位置で区切り、行内のトークンを空白 1 個で連結して返します。
+ */
+@SuppressWarnings("unused")
+public final class BinaryScanner extends TokenScanner implements AutoCloseable {
+	private static final ValueLayout.OfInt INT_LAYOUT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	private static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	private static final ValueLayout.OfByte BYTE_LAYOUT = ValueLayout.JAVA_BYTE;
+	private static final int HEADER_SIZE = 4, TRAILER_SIZE = 8;
+	private static final int INT32 = 1, INT64 = 2, VARINT = 3, BYTES = 4, LINES = 5;
+	private final Arena arena;
+	private final MemorySegment segment;
+	// ランの終端（行テーブルの開始位置）
+	private long length;
+	private long pos = HEADER_SIZE;
+	// 現在のランの種別と、その残り要素数
+	private int kind;
+	private long remaining = 0;
+	// 現在のランより前のトークン数と、現在のランの要素数
+	private long runStart = 0, runSize = 0;
+	// nextChar で途中まで読んだトークンの残り
+	private byte[] partial;
+	private int partialPos;
+	// 行テーブルの読み位置、未消費の改行数、次の改行の位置（その前にあるトークン数）
+	private long linePos;
+	private long linesLeft, nextBreak;
+	// 最後に nextLine が返した行の終端のトークン数
+	private long lineMark = 0;
+
+	public BinaryScanner() {
+		this(new FileInputStream(FileDescriptor.in));
+	}
+
+	public BinaryScanner(final Path path) {
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			arena = Arena.ofConfined();
+			segment = map(channel, arena);
+			length = segment.byteSize();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		checkHeader();
+	}
+
+	public BinaryScanner(final InputStream in) {
+		Arena a = null;
+		MemorySegment seg = null;
+		try {
+			if (in instanceof final FileInputStream f) {
+				a = Arena.ofConfined();
+				try {
+					seg = map(f.getChannel(), a);
+				} catch (final IOException e) {
+					// パイプ等の seek / mmap できない入力
+				}
+				if (seg == null || seg.byteSize() == 0) {
+					a.close();
+					a = null;
+					seg = null;
+				}
+			}
+			if (seg == null) seg = readFully(in);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		arena = a;
+		segment = seg;
+		length = seg.byteSize();
+		checkHeader();
+	}
+
+	private static MemorySegment map(final FileChannel channel, final Arena arena) throws IOException {
+		final long position = channel.position();
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, channel.size() - position, arena);
+	}
+
+	private static MemorySegment readFully(final InputStream in) throws IOException {
+		byte[] buf = new byte[max(in.available(), 1 << 16)];
+		int len = 0, n;
+		while ((n = in.read(buf, len, buf.length - len)) >= 0) {
+			len += n;
+			if (len == buf.length) buf = copyOf(buf, len << 1);
+		}
+		return MemorySegment.ofArray(buf).asSlice(0, len);
+	}
+
+	/**
+	 * ヘッダと末尾の行テーブルの位置を確かめ、ランの終端を行テーブルの開始位置に合わせます。
+	 */
+	private void checkHeader() {
+		final MemorySegment seg = segment;
+		final long size = length;
+		final long lines = size < HEADER_SIZE + TRAILER_SIZE ? -1 : seg.get(LONG_LAYOUT, size - TRAILER_SIZE);
+		if (lines < HEADER_SIZE || lines >= size - TRAILER_SIZE || seg.get(BYTE_LAYOUT, 0) != 'F' || seg.get(BYTE_LAYOUT, 1) != 'S' || seg.get(BYTE_LAYOUT, 2) != 'B'
+				|| seg.get(BYTE_LAYOUT, 3) != 2 || seg.get(BYTE_LAYOUT, lines) != LINES) {
+			close();
+			throw new IllegalArgumentException("not a binary input");
+		}
+		length = lines;
+		pos = lines + 1;
+		linesLeft = readVarint();
+		if (linesLeft > 0) nextBreak = readVarint();
+		linePos = pos;
+		pos = HEADER_SIZE;
+	}
+
+	@Override
+	public void close() {
+		if (arena != null) arena.close();
+	}
+
+	/**
+	 * 現在のランを使い切っていれば次のランへ進みます。トークンが残っていなければ {@code false} を返します。
+	 */
+	private boolean advance() {
+		while (remaining == 0) {
+			if (pos >= length) return false;
+			kind = segment.get(BYTE_LAYOUT, pos++);
+			runStart += runSize;
+			runSize = remaining = readVarint();
+		}
+		return true;
+	}
+
+	private void require() {
+		if (!advance()) throw new NoSuchElementException();
+		remaining--;
+	}
+
+	// これまでに読み始めたトークンの数
+	private long consumed() {
+		return runStart + runSize - remaining;
+	}
+
+	private long readVarint() {
+		final MemorySegment seg = segment;
+		long p = pos, x = 0;
+		int shift = 0, b;
+		do {
+			b = seg.get(BYTE_LAYOUT, p++);
+			x |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+		pos = p;
+		return x;
+	}
+
+	/**
+	 * 整数ランから 1 要素を読み出します。{@link #require()} の後に呼びます。
+	 */
+	private long readValue() {
+		final long p = pos;
+		if (kind == INT32) {
+			pos = p + 4;
+			return segment.get(INT_LAYOUT, p);
+		}
+		if (kind == INT64) {
+			pos = p + 8;
+			return segment.get(LONG_LAYOUT, p);
+		}
+		final long z = readVarint();
+		return z >>> 1 ^ -(z & 1);
+	}
+
+	private byte[] readBytes() {
+		final int len = (int) readVarint();
+		final byte[] bytes = new byte[len];
+		MemorySegment.copy(segment, BYTE_LAYOUT, pos, bytes, 0, len);
+		pos += len;
+		return bytes;
+	}
+
+	private byte[] takePartial() {
+		final byte[] rest = copyOfRange(partial, partialPos, partial.length);
+		partial = null;
+		return rest;
+	}
+
+	private static long parseLong(final byte[] bytes) {
+		final int len = bytes.length;
+		if (len == 0) throw new NoSuchElementException();
+		final boolean negative = bytes[0] == '-';
+		long n = 0;
+		for (int i = negative ? 1 : 0; i < len; i++) n = (n << 3) + (n << 1) + (bytes[i] & 15);
+		return negative ? -n : n;
+	}
+
+	private byte[] nextBytes() {
+		if (partial != null) return takePartial();
+		require();
+		return kind == BYTES ? readBytes() : Long.toString(readValue()).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	public boolean hasNext() {
+		return partial != null || advance();
+	}
+
+	public boolean nextBoolean() {
+		final byte[] b = nextBytes();
+		return b[0] == 't' || b[0] == 'T';
+	}
+
+	public char nextChar() {
+		if (partial == null) {
+			partial = nextBytes();
+			partialPos = 0;
+		}
+		final char c = (char) partial[partialPos++];
+		if (partialPos == partial.length) partial = null;
+		return c;
+	}
+
+	public int nextInt() {
+		return (int) nextLong();
+	}
+
+	public long nextLong() {
+		if (partial != null) return parseLong(takePartial());
+		require();
+		return kind == BYTES ? parseLong(readBytes()) : readValue();
+	}
+
+	public double nextDouble() {
+		if (partial != null) return Double.parseDouble(new String(takePartial(), StandardCharsets.US_ASCII));
+		require();
+		return kind == BYTES ? Double.parseDouble(new String(readBytes(), StandardCharsets.US_ASCII)) : readValue();
+	}
+
+	public String next() {
+		return new String(nextBytes(), StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * 現在の行の残りのトークンを空白 1 個で連結して返し、次の行へ進みます。
+	 * トークンの直後の改行はそのトークンの区切りとして読まれるため、{@code FastScanner} と同じく
+	 * 行末のトークンを読んだ後の呼び出しは次の行を返します。行頭・行末の空白や行内の連続する空白は保持しません。
+	 */
+	public String nextLine() {
+		final long c = consumed();
+		final boolean inToken = partial != null;
+		if (c > lineMark) {
+			// 前回の呼び出し以降に読んだトークンの前の改行は空白として読み飛ばされている。
+			while (linesLeft > 0 && nextBreak < c) takeBreak();
+			if (!inToken && linesLeft > 0 && nextBreak == c) takeBreak();
+		}
+		final long end;
+		if (linesLeft > 0) end = nextBreak;
+		else if (inToken || hasNext()) end = Long.MAX_VALUE;
+		else throw new NoSuchElementException();
+		final StringBuilder sb = new StringBuilder();
+		if (inToken) sb.append(next());
+		while (consumed() < end && advance()) {
+			if (!sb.isEmpty()) sb.append(' ');
+			sb.append(next());
+		}
+		if (linesLeft > 0) takeBreak();
+		lineMark = consumed();
+		return sb.toString();
+	}
+
+	private void takeBreak() {
+		if (--linesLeft == 0) return;
+		final long p = pos;
+		pos = linePos;
+		nextBreak += readVarint();
+		linePos = pos;
+		pos = p;
+	}
+
+	public char[] nextChars() {
+		final byte[] bytes = nextBytes();
+		final int len = bytes.length;
+		final char[] c = new char[len];
+		for (int i = 0; i < len; i++) c[i] = (char) bytes[i];
+		return c;
+	}
+
+	/**
+	 * 次の {@code n} 個の整数を、コピーせずにマップ領域を参照する {@link IntBuffer} として返します。
+	 * 4 バイト固定長のラン 1 つに収まっている必要があります。{@link #close()} 後は参照できません。
+	 */
+	public IntBuffer nextIntView(final int n) {
+		if (partial != null || n > 0 && (!advance() || kind != INT32 || remaining < n)) throw new IllegalStateException("next " + n + " tokens are not a 32-bit column");
+		final IntBuffer view = segment.asSlice(pos, 4L * n).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		pos += 4L * n;
+		remaining -= n;
+		return view;
+	}
+
+	/**
+	 * 次の {@code n} 個の整数を、コピーせずにマップ領域を参照する {@link LongBuffer} として返します。
+	 * 8 バイト固定長のラン 1 つに収まっている必要があります。{@link #close()} 後は参照できません。
+	 */
+	public LongBuffer nextLongView(final int n) {
+		if (partial != null || n > 0 && (!advance() || kind != INT64 || remaining < n)) throw new IllegalStateException("next " + n + " tokens are not a 64-bit column");
+		final LongBuffer view = segment.asSlice(pos, 8L * n).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+		pos += 8L * n;
+		remaining -= n;
+		return view;
+	}
+
+	@Override
+	public void readInts(final int[] dst, final int off, final int len) {
+		for (int i = off, end = off + len; i < end; ) {
+			if (partial == null && advance() && kind == INT32) {
+				final int m = (int) min(end - i, remaining);
+				MemorySegment.copy(segment, INT_LAYOUT, pos, dst, i, m);
+				pos += 4L * m;
+				remaining -= m;
+				i += m;
+			} else dst[i++] = nextInt();
+		}
+	}
+
+	@Override
+	public void readLongs(final long[] dst, final int off, final int len) {
+		for (int i = off, end = off + len; i < end; ) {
+			if (partial == null && advance() && kind == INT64) {
+				final int m = (int) min(end - i, remaining);
+				MemorySegment.copy(segment, LONG_LAYOUT, pos, dst, i, m);
+				pos += 8L * m;
+				remaining -= m;
+				i += m;
+			} else dst[i++] = nextLong();
+		}
+	}
+
+	/**
+	 * {@code FastScanner#parallelReadInts(int)} と同じ名前で呼べるように用意しています。
+	 * パースがなく一括コピーの方が速いため、{@link #nextInt(int)} と同じく 1 スレッドで読み込みます。
+	 */
+	public int[] parallelReadInts(final int n) {
+		return nextInt(n);
+	}
+
+	/**
+	 * {@link #parallelReadInts(int)} の {@code long} 版です。
+	 */
+	public long[] parallelReadLongs(final int n) {
+		return nextLong(n);
+	}
+}
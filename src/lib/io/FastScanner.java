@@ -1,51 +1,147 @@
 package lib.io;
 
+import static java.lang.Math.*;
 import static java.util.Arrays.*;
 
 import java.io.*;
 import java.lang.invoke.*;
-import java.math.*;
 import java.nio.*;
 import java.nio.charset.*;
 import java.util.*;
-import java.util.ArrayList;
-import java.util.function.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
 
 @SuppressWarnings("unused")
-public final class FastScanner {
+public class FastScanner extends TokenScanner {
 	private static final VarHandle LONG_HANDLE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
-	private final byte[] buffer;
-	private final int bufferLength;
-	private int pos = 0;
+	private static final int MIN_BUFFER_SIZE = 1 << 16;
+	private static final int PADDING = 64;
+	private static final int MIN_PARALLEL_BYTES = 1 << 20;
+	private InputStream in;
+	// buffer / pos / bufferLength は incubator/ の VectorScanner からも読み書きする。
+	byte[] buffer;
+	int pos = 0, bufferLength = 0;
+	private int tail = 0;
 
 	public FastScanner() {
 		this(System.in);
 	}
 
 	public FastScanner(final InputStream in) {
+		this(in, available(in));
+	}
+
+	public FastScanner(final InputStream in, final int bufferSize) {
+		this.in = in;
+		this.buffer = new byte[max(bufferSize, 1) + PADDING];
+		refill();
+	}
+
+	/**
+	 * 標準入力から読み込む {@link #vectorized(InputStream)} です。
+	 */
+	public static FastScanner vectorized() {
+		return vectorized(System.in);
+	}
+
+	/**
+	 * {@code jdk.incubator.vector} で int 列を一括パースする {@code VectorScanner} が使えればそれを、使えなければ FastScanner を返します。
+	 * {@code VectorScanner} は {@code incubator/lib/io} にあり、{@code --add-modules jdk.incubator.vector} を付けて別にコンパイルします。
+	 * クラスがない、実行時にモジュールがない、ベクトル幅が 256 ビット未満、または C2 が無効の場合は FastScanner を使います。
+	 */
+	public static FastScanner vectorized(final InputStream in) {
+		final Class<?> c;
+		try {
+			c = Class.forName("lib.io.VectorScanner");
+		} catch (final ClassNotFoundException | LinkageError e) {
+			return new FastScanner(in);
+		}
 		try {
-			int capacity = in.available() + 64;
-			buffer = new byte[capacity];
-			bufferLength = in.read(buffer, 0, capacity);
+			if (!(boolean) c.getMethod("isSupported").invoke(null)) return new FastScanner(in);
+			return (FastScanner) c.getConstructor(InputStream.class).newInstance(in);
+		} catch (final ReflectiveOperationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static int available(final InputStream in) {
+		try {
+			return max(in.available(), MIN_BUFFER_SIZE);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	// [0, bufferLength) は必ず空白で終わる完全なトークン列、[bufferLength, tail) は読みかけのトークン。
+	// トークンがチャンク境界を跨がないため、数値パースの高速パスは境界判定なしで走れる。
+	private boolean refill() {
+		final int keep = pos, oldLength = bufferLength - keep;
+		byte[] buf = buffer;
+		int t = tail - keep;
+		if (keep > 0) System.arraycopy(buf, keep, buf, 0, t);
+		pos = 0;
+		bufferLength = oldLength;
+		tail = t;
+		if (in == null) return false;
+		try {
+			while (true) {
+				if (buf.length - PADDING - t <= 0) buffer = buf = copyOf(buf, buf.length << 1);
+				final int n = in.read(buf, t, buf.length - PADDING - t);
+				if (n < 0) {
+					in = null;
+					if (t > bufferLength) {
+						buf[t++] = '\n';
+						bufferLength = tail = t;
+					}
+					return bufferLength > oldLength;
+				}
+				final int from = t;
+				t += n;
+				tail = t;
+				for (int i = t - 1; i >= from; i--) {
+					if (buf[i] <= 32) {
+						bufferLength = i + 1;
+						return true;
+					}
+				}
+			}
 		} catch (final IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
 	private int skipSpaces() {
+		final byte[] buf = buffer;
+		final int len = bufferLength;
 		int p = pos, b;
 		do {
-			b = buffer[p++];
+			if (p == len) return skipSpacesSlow(p);
+			b = buf[p++];
 		} while (b <= 32);
 		pos = p;
 		return b;
 	}
 
+	private int skipSpacesSlow(final int p) {
+		pos = p;
+		if (!hasNext()) throw new NoSuchElementException();
+		return buffer[pos++];
+	}
+
 	public boolean hasNext() {
-		while (pos < bufferLength) {
-			if (buffer[pos] > 32) return true;
-			pos++;
-		}
+		do {
+			final byte[] buf = buffer;
+			final int len = bufferLength;
+			int p = pos;
+			while (p < len) {
+				if (buf[p] > 32) {
+					pos = p;
+					return true;
+				}
+				p++;
+			}
+			pos = p;
+		} while (refill());
 		return false;
 	}
 
@@ -57,30 +153,6 @@ public boolean nextBoolean() {
 		return flag;
 	}
 
-	public boolean nextBoolean(final char c) {
-		return nextChar() == c;
-	}
-
-	public boolean nextBoolean(final int i) {
-		return nextInt() == i;
-	}
-
-	public boolean nextBoolean(final long l) {
-		return nextLong() == l;
-	}
-
-	public boolean nextBoolean(final CharPredicate p) {
-		return p.test(nextChar());
-	}
-
-	public boolean nextBoolean(final IntPredicate p) {
-		return p.test(nextInt());
-	}
-
-	public boolean nextBoolean(final LongPredicate p) {
-		return p.test(nextLong());
-	}
-
 	public char nextChar() {
 		if (!hasNext()) throw new NoSuchElementException();
 		return (char) buffer[pos++];
@@ -92,13 +164,10 @@ public int nextInt() {
 		final byte[] buf = buffer;
 		int p = pos, n = 0;
 		if (negative) b = buf[p++];
-		long a = (long) LONG_HANDLE.get(buf, p - 1) ^ 0x3030303030303030L;
+		final long a = (long) LONG_HANDLE.get(buf, p - 1) ^ 0x3030303030303030L;
 		final long check = a & 0xF0F0F0F0F0F0F0F0L;
 		if (check == 0) {
-			a = (a * 10 + (a >>> 8)) & 0x00FF00FF00FF00FFL;
-			a = (a * 100 + (a >>> 16)) & 0x0000FFFF0000FFFFL;
-			a = (a * 10000 + (a >>> 32)) & 0x00000000FFFFFFFFL;
-			n = (int) a;
+			n = (int) eightDigits(a);
 			p += 7;
 			b = buf[p++];
 		}
@@ -117,22 +186,16 @@ public long nextLong() {
 		int p = pos;
 		if (negative) b = buf[p++];
 		long n = 0;
-		long a = (long) LONG_HANDLE.get(buf, p - 1) ^ 0x3030303030303030L;
+		final long a = (long) LONG_HANDLE.get(buf, p - 1) ^ 0x3030303030303030L;
 		final long check = a & 0xF0F0F0F0F0F0F0F0L;
 		if (check == 0) {
-			a = (a * 10 + (a >>> 8)) & 0x00FF00FF00FF00FFL;
-			a = (a * 100 + (a >>> 16)) & 0x0000FFFF0000FFFFL;
-			a = (a * 10000 + (a >>> 32)) & 0x00000000FFFFFFFFL;
-			n = a;
+			n = eightDigits(a);
 			p += 7;
 			b = buf[p++];
-			long a2 = (long) LONG_HANDLE.get(buf, p - 1) ^ 0x3030303030303030L;
+			final long a2 = (long) LONG_HANDLE.get(buf, p - 1) ^ 0x3030303030303030L;
 			final long check2 = a2 & 0xF0F0F0F0F0F0F0F0L;
 			if (check2 == 0) {
-				a2 = (a2 * 10 + (a2 >>> 8)) & 0x00FF00FF00FF00FFL;
-				a2 = (a2 * 100 + (a2 >>> 16)) & 0x0000FFFF0000FFFFL;
-				a2 = (a2 * 10000 + (a2 >>> 32)) & 0x00000000FFFFFFFFL;
-				n = n * 100000000L + a2;
+				n = n * 100000000L + eightDigits(a2);
 				p += 7;
 				b = buf[p++];
 			}
@@ -145,33 +208,108 @@ public long nextLong() {
 		return negative ? -n : n;
 	}
 
+	/**
+	 * 浮動小数点値を読み込みます。指数部（{@code 1e-9}, {@code 2.5E+10}）にも対応し、結果は常に正しく丸められます。
+	 * 仮数の上位 19 桁を {@code long} に集め、{@link TokenScanner#doubleBits(long, int)}（Clinger の高速経路、Eisel-Lemire）、
+	 * {@link Double#parseDouble(String)} の順に試します。
+	 * {@code NaN} や {@code Infinity} など数字の並びとして読めないトークンは {@link Double#parseDouble(String)} に任せます。
+	 */
 	public double nextDouble() {
 		int b = skipSpaces();
-		final boolean negative = b == '-';
 		final byte[] buf = buffer;
 		int p = pos;
-		if (negative) b = buf[p++];
-		long intPart = 0;
-		do {
-			intPart = (intPart << 3) + (intPart << 1) + (b & 15);
+		final int start = p - 1;
+		final boolean negative = b == '-';
+		if (negative || b == '+') b = buf[p++];
+		long w = 0;
+		final int intStart = p;
+		while ('0' <= b && b <= '9') {
+			w = (w << 3) + (w << 1) + (b & 15);
 			b = buf[p++];
-		} while ('0' <= b && b <= '9');
-		double result = intPart;
-		if (b == '.') result += parseFracPart(p, buf);
-		else pos = p;
-		return negative ? -result : result;
+		}
+		int digits = p - intStart, e10 = 0;
+		if (b == '.') {
+			b = buf[p++];
+			final int fracStart = p;
+			while ('0' <= b && b <= '9') {
+				w = (w << 3) + (w << 1) + (b & 15);
+				b = buf[p++];
+			}
+			e10 = fracStart - p;
+			digits -= e10;
+		}
+		if (digits == 0 || digits > 19) return nextDoubleSlow(start);
+		if ((b | 32) == 'e') {
+			b = buf[p++];
+			final boolean negativeExp = b == '-';
+			if (negativeExp || b == '+') b = buf[p++];
+			int exp = 0;
+			while ('0' <= b && b <= '9') {
+				if (exp < 100_000) exp = exp * 10 + (b & 15);
+				b = buf[p++];
+			}
+			e10 += negativeExp ? -exp : exp;
+		}
+		if (b > ' ') return nextDoubleSlow(start);
+		pos = p;
+		final long bits = doubleBits(w, e10);
+		if (bits == -1) return Double.parseDouble(new String(buf, start, p - 1 - start, StandardCharsets.US_ASCII));
+		return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
 	}
 
-	private double parseFracPart(int p, final byte[] buf) {
+	/**
+	 * 仮数が 19 桁を超えるトークンや、数字の並びとして読めないトークンを {@code buf[start]} から読み直します。
+	 * 仮数の上位 19 桁を使い、切り捨てた桁がある場合は {@code w} と {@code w + 1} の結果が一致するときだけ Eisel-Lemire の結果を採用します。
+	 */
+	private double nextDoubleSlow(final int start) {
+		final byte[] buf = buffer;
+		int p = start;
 		int b = buf[p++];
-		long fracPart = 0, divisor = 1;
-		do {
-			fracPart = fracPart * 10 + (b & 15);
-			divisor *= 10;
+		final boolean negative = b == '-';
+		if (negative || b == '+') b = buf[p++];
+		long w = 0;
+		int e10 = 0;
+		boolean truncated = false;
+		while ('0' <= b && b <= '9') {
+			if (Long.compareUnsigned(w, 1_000_000_000_000_000_000L) < 0) w = w * 10 + (b & 15);
+			else {
+				e10++;
+				truncated |= b != '0';
+			}
+			b = buf[p++];
+		}
+		if (b == '.') {
+			b = buf[p++];
+			while ('0' <= b && b <= '9') {
+				if (Long.compareUnsigned(w, 1_000_000_000_000_000_000L) < 0) {
+					w = w * 10 + (b & 15);
+					e10--;
+				} else truncated |= b != '0';
+				b = buf[p++];
+			}
+		}
+		if ((b | 32) == 'e') {
 			b = buf[p++];
-		} while ('0' <= b && b <= '9');
+			final boolean negativeExp = b == '-';
+			if (negativeExp || b == '+') b = buf[p++];
+			int exp = 0;
+			while ('0' <= b && b <= '9') {
+				if (exp < 100_000) exp = exp * 10 + (b & 15);
+				b = buf[p++];
+			}
+			e10 += negativeExp ? -exp : exp;
+		}
+		long bits = -1;
+		if (b <= ' ') {
+			bits = eiselLemire(w, e10);
+			if (truncated && bits != eiselLemire(w + 1, e10)) bits = -1;
+		} else {
+			while (buf[p] > ' ') p++;
+			p++;
+		}
 		pos = p;
-		return (double) fracPart / divisor;
+		if (bits == -1) return Double.parseDouble(new String(buf, start, p - 1 - start, StandardCharsets.US_ASCII));
+		return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
 	}
 
 	public String next() {
@@ -185,103 +323,204 @@ public String next() {
 		return s;
 	}
 
-	public StringBuilder nextStringBuilder() {
-		return new StringBuilder(next());
-	}
-
 	public String nextLine() {
-		final byte[] buf = buffer;
 		int p = pos;
-		final int start = p;
-		while (p < bufferLength) {
-			final int b = buf[p];
-			if (b == '\n' || b == '\r') break;
-			p++;
+		while (true) {
+			final byte[] buf = buffer;
+			final int len = bufferLength;
+			while (p < len) {
+				final int b = buf[p];
+				if (b == '\n' || b == '\r') break;
+				p++;
+			}
+			if (p + 1 < len || (p < len && buf[p] == '\n')) break;
+			final int start = pos;
+			if (!refill()) break;
+			p -= start;
 		}
-		pos = p + (buf[p] == '\r' && buf[p + 1] == '\n' ? 2 : 1);
-		return new String(buf, start, p - start, StandardCharsets.US_ASCII);
-	}
-
-	public BigInteger nextBigInteger() {
-		return new BigInteger(next());
-	}
-
-	public BigDecimal nextBigDecimal() {
-		return new BigDecimal(next());
-	}
-
-	public boolean[] nextBoolean(final int n, final char c) {
-		final boolean[] a = new boolean[n];
-		for (int i = 0; i < n; i++) a[i] = nextBoolean(c);
-		return a;
-	}
-
-	public boolean[] nextBoolean(final int n, final int i) {
-		final boolean[] a = new boolean[n];
-		for (int j = 0; j < n; j++) a[j] = nextBoolean(i);
-		return a;
-	}
-
-	public boolean[] nextBoolean(final int n, final long l) {
-		final boolean[] a = new boolean[n];
-		for (int i = 0; i < n; i++) a[i] = nextBoolean(l);
-		return a;
-	}
-
-	public boolean[] nextBoolean(final int n, final CharPredicate p) {
-		final boolean[] a = new boolean[n];
-		for (int i = 0; i < n; i++) a[i] = nextBoolean(p);
-		return a;
+		final byte[] buf = buffer;
+		final int start = pos, len = bufferLength;
+		final String s = new String(buf, start, p - start, StandardCharsets.US_ASCII);
+		if (p < len) p += buf[p] == '\r' && p + 1 < len && buf[p + 1] == '\n' ? 2 : 1;
+		pos = p;
+		return s;
 	}
 
-	public boolean[] nextBoolean(final int n, final IntPredicate p) {
-		final boolean[] a = new boolean[n];
-		for (int i = 0; i < n; i++) a[i] = nextBoolean(p);
-		return a;
+	@Override
+	public void readInts(final int[] dst, final int off, final int len) {
+		final int end = off + len;
+		int i = off;
+		while (i < end) {
+			final byte[] buf = buffer;
+			final int limit = bufferLength;
+			int p = pos;
+			scan:
+			while (i < end) {
+				int b;
+				do {
+					if (p == limit) break scan;
+					b = buf[p++];
+				} while (b <= 32);
+				final boolean negative = b == '-';
+				if (!negative) p--;
+				long t = (long) LONG_HANDLE.get(buf, p) ^ 0x3030303030303030L;
+				final int k = digitCount(t);
+				int n = (int) eightDigits(t << ((8 - k) << 3));
+				p += k;
+				if (k == 8) {
+					for (int c; (c = buf[p]) > 32; p++) n = (n << 3) + (n << 1) + (c & 15);
+				}
+				dst[i++] = negative ? -n : n;
+				p++;
+			}
+			pos = p;
+			if (i < end && !hasNext()) throw new NoSuchElementException();
+		}
 	}
 
-	public boolean[] nextBoolean(final int n, final LongPredicate p) {
-		final boolean[] a = new boolean[n];
-		for (int i = 0; i < n; i++) a[i] = nextBoolean(p);
-		return a;
+	@Override
+	public void readLongs(final long[] dst, final int off, final int len) {
+		final int end = off + len;
+		int i = off;
+		while (i < end) {
+			final byte[] buf = buffer;
+			final int limit = bufferLength;
+			int p = pos;
+			scan:
+			while (i < end) {
+				int b;
+				do {
+					if (p == limit) break scan;
+					b = buf[p++];
+				} while (b <= 32);
+				final boolean negative = b == '-';
+				if (!negative) p--;
+				long t = (long) LONG_HANDLE.get(buf, p) ^ 0x3030303030303030L;
+				final int k = digitCount(t);
+				long n = eightDigits(t << ((8 - k) << 3));
+				p += k;
+				if (k == 8) {
+					t = (long) LONG_HANDLE.get(buf, p) ^ 0x3030303030303030L;
+					if ((t & 0xF0F0F0F0F0F0F0F0L) == 0) {
+						n = n * 100000000L + eightDigits(t);
+						p += 8;
+					}
+					for (int c; (c = buf[p]) > 32; p++) n = (n << 3) + (n << 1) + (c & 15);
+				}
+				dst[i++] = negative ? -n : n;
+				p++;
+			}
+			pos = p;
+			if (i < end && !hasNext()) throw new NoSuchElementException();
+		}
 	}
 
-	public int[] nextInt(final int n) {
+	public int[] parallelReadInts(final int n) {
 		final int[] a = new int[n];
-		for (int i = 0; i < n; i++) a[i] = nextInt();
+		for (int i = 0; i < n; ) {
+			i += parallelRead(a, null, i, n);
+			if (i < n && !hasNext()) throw new NoSuchElementException();
+		}
 		return a;
 	}
 
-	public long[] nextLong(final int n) {
+	public long[] parallelReadLongs(final int n) {
 		final long[] a = new long[n];
-		for (int i = 0; i < n; i++) a[i] = nextLong();
-		return a;
-	}
-
-	public double[] nextDouble(final int n) {
-		final double[] a = new double[n];
-		for (int i = 0; i < n; i++) a[i] = nextDouble();
+		for (int i = 0; i < n; ) {
+			i += parallelRead(null, a, i, n);
+			if (i < n && !hasNext()) throw new NoSuchElementException();
+		}
 		return a;
 	}
 
-	public int nextInt0() {
-		return nextInt() - 1;
-	}
-
-	public long nextLong0() {
-		return nextLong() - 1;
+	// 読み込み済みチャンク [pos, bufferLength) を空白位置で分割し、トークン数の数え上げと変換をそれぞれ並列に行う。
+	private int parallelRead(final int[] ints, final long[] longs, final int off, final int end) {
+		final byte[] buf = buffer;
+		final int from = pos, limit = bufferLength;
+		final int parts = max(1, min(ForkJoinPool.getCommonPoolParallelism(), (limit - from) / MIN_PARALLEL_BYTES));
+		if (parts == 1) {
+			if (ints != null) readInts(ints, off, end - off);
+			else readLongs(longs, off, end - off);
+			return end - off;
+		}
+		final int[] bounds = new int[parts + 1];
+		bounds[0] = from;
+		bounds[parts] = limit;
+		for (int k = 1; k < parts; k++) {
+			int b = max(bounds[k - 1], from + (int) ((long) (limit - from) * k / parts));
+			while (buf[b] > 32) b++;
+			bounds[k] = b;
+		}
+		final int[] offsets = new int[parts + 1];
+		IntStream.range(0, parts).parallel().forEach(k -> offsets[k + 1] = countTokens(buf, bounds[k], bounds[k + 1]));
+		for (int k = 0; k < parts; k++) offsets[k + 1] += offsets[k];
+		final int count = min(offsets[parts], end - off);
+		final int[] stop = {limit};
+		IntStream.range(0, parts).parallel().forEach(k -> {
+			final int s = off + offsets[k], e = off + min(offsets[k + 1], count);
+			if (s >= e) return;
+			final int p = ints != null ? parseInts(buf, bounds[k], ints, s, e) : parseLongs(buf, bounds[k], longs, s, e);
+			if (offsets[k] < count && count <= offsets[k + 1]) stop[0] = p;
+		});
+		pos = stop[0];
+		return count;
+	}
+
+	private static int countTokens(final byte[] buf, final int from, final int to) {
+		int count = 0, prev = 32;
+		for (int p = from; p < to; p++) {
+			final int b = buf[p];
+			if (b > 32 && prev <= 32) count++;
+			prev = b;
+		}
+		return count;
 	}
 
-	public int[] nextInt0(final int n) {
-		final int[] a = new int[n];
-		for (int i = 0; i < n; i++) a[i] = nextInt() - 1;
-		return a;
+	private static int parseInts(final byte[] buf, int p, final int[] dst, int i, final int end) {
+		while (i < end) {
+			int b;
+			do {
+				b = buf[p++];
+			} while (b <= 32);
+			final boolean negative = b == '-';
+			if (!negative) p--;
+			long t = (long) LONG_HANDLE.get(buf, p) ^ 0x3030303030303030L;
+			final int k = digitCount(t);
+			int n = (int) eightDigits(t << ((8 - k) << 3));
+			p += k;
+			if (k == 8) {
+				for (int c; (c = buf[p]) > 32; p++) n = (n << 3) + (n << 1) + (c & 15);
+			}
+			dst[i++] = negative ? -n : n;
+			p++;
+		}
+		return p;
 	}
 
-	public long[] nextLong0(final int n) {
-		final long[] a = new long[n];
-		for (int i = 0; i < n; i++) a[i] = nextLong() - 1;
-		return a;
+	private static int parseLongs(final byte[] buf, int p, final long[] dst, int i, final int end) {
+		while (i < end) {
+			int b;
+			do {
+				b = buf[p++];
+			} while (b <= 32);
+			final boolean negative = b == '-';
+			if (!negative) p--;
+			long t = (long) LONG_HANDLE.get(buf, p) ^ 0x3030303030303030L;
+			final int k = digitCount(t);
+			long n = eightDigits(t << ((8 - k) << 3));
+			p += k;
+			if (k == 8) {
+				t = (long) LONG_HANDLE.get(buf, p) ^ 0x3030303030303030L;
+				if ((t & 0xF0F0F0F0F0F0F0F0L) == 0) {
+					n = n * 100000000L + eightDigits(t);
+					p += 8;
+				}
+				for (int c; (c = buf[p]) > 32; p++) n = (n << 3) + (n << 1) + (c & 15);
+			}
+			dst[i++] = negative ? -n : n;
+			p++;
+		}
+		return p;
 	}
 
 	public char[] nextChars() {
@@ -297,340 +536,4 @@ public char[] nextChars() {
 		pos = p + 1;
 		return c;
 	}
-
-	public char[] nextChars(final int n) {
-		final char[] c = new char[n];
-		for (int i = 0; i < n; i++) c[i] = nextChar();
-		return c;
-	}
-
-	public String[] nextStrings(final int n) {
-		final String[] s = new String[n];
-		for (int i = 0; i < n; i++) s[i] = next();
-		return s;
-	}
-
-	public boolean[][] nextBooleanMat(final int h, final int w, final char c) {
-		final boolean[][] a = new boolean[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextBoolean(c);
-		return a;
-	}
-
-	public boolean[][] nextBooleanMat(final int h, final int w, final int n) {
-		final boolean[][] a = new boolean[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextBoolean(n);
-		return a;
-	}
-
-	public boolean[][] nextBooleanMat(final int h, final int w, final long l) {
-		final boolean[][] a = new boolean[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextBoolean(l);
-		return a;
-	}
-
-	public boolean[][] nextBooleanMat(final int h, final int w, final CharPredicate p) {
-		final boolean[][] a = new boolean[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextBoolean(p);
-		return a;
-	}
-
-	public boolean[][] nextBooleanMat(final int h, final int w, final IntPredicate p) {
-		final boolean[][] a = new boolean[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextBoolean(p);
-		return a;
-	}
-
-	public boolean[][] nextBooleanMat(final int h, final int w, final LongPredicate p) {
-		final boolean[][] a = new boolean[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextBoolean(p);
-		return a;
-	}
-
-	public int[][] nextIntMat(final int h, final int w) {
-		final int[][] a = new int[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextInt();
-		return a;
-	}
-
-	public long[][] nextLongMat(final int h, final int w) {
-		final long[][] a = new long[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextLong();
-		return a;
-	}
-
-	public double[][] nextDoubleMat(final int h, final int w) {
-		final double[][] a = new double[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				a[i][j] = nextDouble();
-		return a;
-	}
-
-	public char[][] nextCharMat(final int n) {
-		final char[][] c = new char[n][];
-		for (int i = 0; i < n; i++) c[i] = nextChars();
-		return c;
-	}
-
-	public char[][] nextCharMat(final int h, final int w) {
-		final char[][] c = new char[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				c[i][j] = nextChar();
-		return c;
-	}
-
-	public String[][] nextStringMat(final int h, final int w) {
-		final String[][] s = new String[h][w];
-		for (int i = 0; i < h; i++)
-			for (int j = 0; j < w; j++)
-				s[i][j] = next();
-		return s;
-	}
-
-	public int[][][] nextInt3D(final int x, final int y, final int z) {
-		final int[][][] a = new int[x][y][z];
-		for (int i = 0; i < x; i++)
-			for (int j = 0; j < y; j++)
-				for (int k = 0; k < z; k++)
-					a[i][j][k] = nextInt();
-		return a;
-	}
-
-	public long[][][] nextLong3D(final int x, final int y, final int z) {
-		final long[][][] a = new long[x][y][z];
-		for (int i = 0; i < x; i++)
-			for (int j = 0; j < y; j++)
-				for (int k = 0; k < z; k++)
-					a[i][j][k] = nextLong();
-		return a;
-	}
-
-	public int[] nextSortedInt(final int n) {
-		final int[] a = nextInt(n);
-		sort(a);
-		return a;
-	}
-
-	public long[] nextSortedLong(final int n) {
-		final long[] a = nextLong(n);
-		sort(a);
-		return a;
-	}
-
-	public double[] nextSortedDouble(final int n) {
-		final double[] a = nextDouble(n);
-		sort(a);
-		return a;
-	}
-
-	public char[] nextSortedChars() {
-		final char[] c = nextChars();
-		sort(c);
-		return c;
-	}
-
-	public char[] nextSortedChars(final int n) {
-		final char[] c = nextChars(n);
-		sort(c);
-		return c;
-	}
-
-	public String[] nextSortedStrings(final int n) {
-		final String[] s = nextStrings(n);
-		sort(s);
-		return s;
-	}
-
-	public int[] nextIntPrefixSum(final int n) {
-		final int[] ps = new int[n];
-		ps[0] = nextInt();
-		for (int i = 1; i < n; i++) ps[i] = nextInt() + ps[i - 1];
-		return ps;
-	}
-
-	public long[] nextLongPrefixSum(final int n) {
-		final long[] ps = new long[n];
-		ps[0] = nextLong();
-		for (int i = 1; i < n; i++) ps[i] = nextLong() + ps[i - 1];
-		return ps;
-	}
-
-	public int[][] nextIntPrefixSum(final int h, final int w) {
-		final int[][] ps = new int[h + 1][w + 1];
-		for (int i = 1; i <= h; i++)
-			for (int j = 1; j <= w; j++)
-				ps[i][j] = nextInt() + ps[i - 1][j] + ps[i][j - 1] - ps[i - 1][j - 1];
-		return ps;
-	}
-
-	public long[][] nextLongPrefixSum(final int h, final int w) {
-		final long[][] ps = new long[h + 1][w + 1];
-		for (int i = 1; i <= h; i++)
-			for (int j = 1; j <= w; j++)
-				ps[i][j] = nextLong() + ps[i - 1][j] + ps[i][j - 1] - ps[i - 1][j - 1];
-		return ps;
-	}
-
-	public int[][][] nextIntPrefixSum(final int x, final int y, final int z) {
-		final int[][][] ps = new int[x + 1][y + 1][z + 1];
-		for (int a = 1; a <= x; a++)
-			for (int b = 1; b <= y; b++)
-				for (int c = 1; c <= z; c++)
-					ps[a][b][c] = nextInt() + ps[a - 1][b][c] + ps[a][b - 1][c] + ps[a][b][c - 1] - ps[a - 1][b - 1][c] - ps[a - 1][b][c - 1] - ps[a][b - 1][c - 1] + ps[a - 1][b - 1][c - 1];
-		return ps;
-	}
-
-	public long[][][] nextLongPrefixSum(final int x, final int y, final int z) {
-		final long[][][] ps = new long[x + 1][y + 1][z + 1];
-		for (int a = 1; a <= x; a++)
-			for (int b = 1; b <= y; b++)
-				for (int c = 1; c <= z; c++)
-					ps[a][b][c] = nextLong() + ps[a - 1][b][c] + ps[a][b - 1][c] + ps[a][b][c - 1] - ps[a - 1][b - 1][c] - ps[a - 1][b][c - 1] - ps[a][b - 1][c - 1] + ps[a - 1][b - 1][c - 1];
-		return ps;
-	}
-
-	public int[] nextIntInverseMapping(final int n) {
-		final int[] inv = new int[n];
-		for (int i = 0; i < n; i++) inv[nextInt() - 1] = i;
-		return inv;
-	}
-
-	public ArrayList<Integer> nextIntAL(final int n) {
-		return nextCollection(n, this::nextInt, () -> new ArrayList<>(n));
-	}
-
-	public HashSet<Integer> nextIntHS(final int n) {
-		return nextCollection(n, this::nextInt, () -> new HashSet<>(n));
-	}
-
-	public TreeSet<Integer> nextIntTS(final int n) {
-		return nextCollection(n, this::nextInt, TreeSet::new);
-	}
-
-	public ArrayList<Long> nextLongAL(final int n) {
-		return nextCollection(n, this::nextLong, () -> new ArrayList<>(n));
-	}
-
-	public HashSet<Long> nextLongHS(final int n) {
-		return nextCollection(n, this::nextLong, () -> new HashSet<>(n));
-	}
-
-	public TreeSet<Long> nextLongTS(final int n) {
-		return nextCollection(n, this::nextLong, TreeSet::new);
-	}
-
-	public ArrayList<Character> nextCharacterAL(final int n) {
-		return nextCollection(n, this::nextChar, () -> new ArrayList<>(n));
-	}
-
-	public HashSet<Character> nextCharacterHS(final int n) {
-		return nextCollection(n, this::nextChar, () -> new HashSet<>(n));
-	}
-
-	public TreeSet<Character> nextCharacterTS(final int n) {
-		return nextCollection(n, this::nextChar, TreeSet::new);
-	}
-
-	public ArrayList<String> nextStringAL(final int n) {
-		return nextCollection(n, this::next, () -> new ArrayList<>(n));
-	}
-
-	public HashSet<String> nextStringHS(final int n) {
-		return nextCollection(n, this::next, () -> new HashSet<>(n));
-	}
-
-	public TreeSet<String> nextStringTS(final int n) {
-		return nextCollection(n, this::next, TreeSet::new);
-	}
-
-	private <S, T extends Collection<S>> T nextCollection(int n, final Supplier<S> input, final Supplier<T> collection) {
-		final T t = collection.get();
-		while (n-- > 0) t.add(input.get());
-		return t;
-	}
-
-	public HashMap<Integer, Integer> nextIntMultisetHM(final int n) {
-		return nextMultiset(n, this::nextInt, () -> new HashMap<>(n));
-	}
-
-	public TreeMap<Integer, Integer> nextIntMultisetTM(final int n) {
-		return nextMultiset(n, this::nextInt, TreeMap::new);
-	}
-
-	public HashMap<Long, Integer> nextLongMultisetHM(final int n) {
-		return nextMultiset(n, this::nextLong, () -> new HashMap<>(n));
-	}
-
-	public TreeMap<Long, Integer> nextLongMultisetTM(final int n) {
-		return nextMultiset(n, this::nextLong, TreeMap::new);
-	}
-
-	public HashMap<Character, Integer> nextCharMultisetHM(final int n) {
-		return nextMultiset(n, this::nextChar, () -> new HashMap<>(n));
-	}
-
-	public TreeMap<Character, Integer> nextCharMultisetTM(final int n) {
-		return nextMultiset(n, this::nextChar, TreeMap::new);
-	}
-
-	public HashMap<String, Integer> nextStringMultisetHM(final int n) {
-		return nextMultiset(n, this::next, () -> new HashMap<>(n));
-	}
-
-	public TreeMap<String, Integer> nextStringMultisetTM(final int n) {
-		return nextMultiset(n, this::next, TreeMap::new);
-	}
-
-	private <S, T extends Map<S, Integer>> T nextMultiset(int n, final Supplier<S> input, final Supplier<T> map) {
-		final T multiSet = map.get();
-		while (n-- > 0) {
-			final S i = input.get();
-			multiSet.put(i, multiSet.getOrDefault(i, 0) + 1);
-		}
-		return multiSet;
-	}
-
-	public int[] nextIntMultiset(final int n, final int m) {
-		final int[] multiset = new int[m];
-		for (int i = 0; i < n; i++) multiset[nextInt() - 1]++;
-		return multiset;
-	}
-
-	public int[] nextUpperCharMultiset(final int n) {
-		return nextCharMultiset(n, 'A', 'Z');
-	}
-
-	public int[] nextLowerCharMultiset(final int n) {
-		return nextCharMultiset(n, 'a', 'z');
-	}
-
-	public int[] nextCharMultiset(int n, final char l, final char r) {
-		final int[] multiset = new int[r - l + 1];
-		while (n-- > 0) {
-			final int c = nextChar() - l;
-			multiset[c]++;
-		}
-		return multiset;
-	}
-
-	public interface CharPredicate {
-		boolean test(char value);
-	}
 }
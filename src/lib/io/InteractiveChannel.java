@@ -0,0 +1,417 @@
+package lib.io;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
+
+/**
+ * NIO チャネル上でジャッジと対話するための入出力クラスです。
+ * 出力したクエリはバッファに溜め、{@link #flush()} を呼ぶか、入力が尽きて応答を待つ直前にまとめて 1 回で書き込みます。
+ * 入力が {@link SelectableChannel}（{@link Pipe.SourceChannel} など）の場合は非ブロッキングに切り替え、
+ * 届いている分をまとめて読み込み、何も届いていないときだけ {@link Selector} で待機します。
+ * 送信から最初の応答バイトが届くまでを 1 往復とし、往復回数と遅延を計測します。
+ */
+@SuppressWarnings("unused")
+public final class InteractiveChannel implements AutoCloseable {
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	private static final byte[] MIN_LONG = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+	private final ReadableByteChannel in;
+	private final WritableByteChannel out;
+	private final SelectableChannel selectable;
+	private Selector selector;
+	private final byte[] input, output;
+	private final ByteBuffer inputView, outputView;
+	private int pos = 0, bufferLength = 0, outPos = 0;
+	// 応答待ちの送信時刻。応答待ちでなければ -1。
+	private long sentAt = -1;
+	private long roundTrips, totalLatency, maxLatency, minLatency = Long.MAX_VALUE;
+	private long batches, reads, writes, bytesRead, bytesWritten;
+
+	public InteractiveChannel() {
+		this(new FileInputStream(FileDescriptor.in).getChannel(), new FileOutputStream(FileDescriptor.out).getChannel());
+	}
+
+	/**
+	 * ローカルのジャッジプロセスの標準出力を入力、標準入力を出力として接続します。
+	 */
+	public InteractiveChannel(final Process judge) {
+		this(Channels.newChannel(judge.getInputStream()), Channels.newChannel(judge.getOutputStream()));
+	}
+
+	public InteractiveChannel(final ReadableByteChannel in, final WritableByteChannel out) {
+		this(in, out, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * {@code in} が {@link SelectableChannel} の場合は非ブロッキングモードに切り替えます。
+	 * {@code out} のモードは変更しません（ブロッキングモードのまま渡してください）。
+	 */
+	public InteractiveChannel(final ReadableByteChannel in, final WritableByteChannel out, final int bufferSize) {
+		this.in = in;
+		this.out = out;
+		if (in instanceof final SelectableChannel s) {
+			try {
+				s.configureBlocking(false);
+			} catch (final IOException e) {
+				throw new RuntimeException(e);
+			}
+			this.selectable = s;
+		} else this.selectable = null;
+		this.input = new byte[bufferSize];
+		this.output = new byte[Math.max(bufferSize, 32)];
+		this.inputView = ByteBuffer.wrap(input);
+		this.outputView = ByteBuffer.wrap(output);
+	}
+
+	@Override
+	public void close() {
+		flush();
+		try {
+			if (selector != null) selector.close();
+			in.close();
+			out.close();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	// ------------------------------------------------------------------
+	// 入力
+	// ------------------------------------------------------------------
+
+	/**
+	 * 未読バイトを使い切ったときに呼びます。未送信のクエリを先に送信してから、届いている分をまとめて読み込みます。
+	 */
+	private boolean fill() {
+		flush();
+		try {
+			final ByteBuffer view = inputView;
+			view.clear();
+			int n;
+			while ((n = in.read(view)) == 0) await();
+			pos = 0;
+			if (n < 0) {
+				bufferLength = 0;
+				return false;
+			}
+			received(n);
+			bufferLength = n;
+			return true;
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void await() throws IOException {
+		if (selectable == null) return;
+		if (selector == null) {
+			selector = Selector.open();
+			selectable.register(selector, SelectionKey.OP_READ);
+		}
+		selector.select();
+		selector.selectedKeys().clear();
+	}
+
+	private void received(final int n) {
+		reads++;
+		bytesRead += n;
+		if (sentAt >= 0) {
+			final long latency = System.nanoTime() - sentAt;
+			sentAt = -1;
+			roundTrips++;
+			totalLatency += latency;
+			if (latency > maxLatency) maxLatency = latency;
+			if (latency < minLatency) minLatency = latency;
+		}
+	}
+
+	/**
+	 * ブロックせずに読める分を取り込み、未読のバイト数を返します。
+	 * 入力が {@link SelectableChannel} でない場合は、取り込み済みの未読バイト数のみを返します。
+	 */
+	public int available() {
+		if (selectable == null || bufferLength == input.length && pos == 0) return bufferLength - pos;
+		final int rest = bufferLength - pos;
+		System.arraycopy(input, pos, input, 0, rest);
+		pos = 0;
+		bufferLength = rest;
+		try {
+			final ByteBuffer view = inputView;
+			view.clear().position(rest);
+			final int n = in.read(view);
+			if (n > 0) {
+				received(n);
+				bufferLength += n;
+			}
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		return bufferLength - pos;
+	}
+
+	private int read() {
+		if (pos == bufferLength && !fill()) return -1;
+		return input[pos++];
+	}
+
+	private int skipSpaces() {
+		int b;
+		do {
+			if ((b = read()) < 0) throw new NoSuchElementException();
+		} while (b <= 32);
+		return b;
+	}
+
+	public boolean hasNext() {
+		while (pos < bufferLength || fill()) {
+			if (input[pos] > 32) return true;
+			pos++;
+		}
+		return false;
+	}
+
+	public char nextChar() {
+		return (char) skipSpaces();
+	}
+
+	public int nextInt() {
+		return (int) nextLong();
+	}
+
+	public long nextLong() {
+		int b = skipSpaces();
+		final boolean negative = b == '-';
+		if (negative) b = read();
+		long n = 0;
+		while (true) {
+			final byte[] buf = input;
+			int p = pos;
+			final int len = bufferLength;
+			while (b > 32) {
+				n = (n << 3) + (n << 1) + (b & 15);
+				if (p == len) break;
+				b = buf[p++];
+			}
+			pos = p;
+			if (b <= 32) break;
+			b = read();
+		}
+		return negative ? -n : n;
+	}
+
+	public String next() {
+		final int b = skipSpaces();
+		final byte[] buf = input;
+		int p = pos;
+		final int len = bufferLength, start = p - 1;
+		while (p < len && buf[p] > 32) p++;
+		if (p < len) {
+			pos = p + 1;
+			return new String(buf, start, p - start, StandardCharsets.US_ASCII);
+		}
+		final StringBuilder sb = new StringBuilder(p - start + 16);
+		for (int i = start; i < p; i++) sb.append((char) buf[i]);
+		pos = p;
+		int c;
+		while ((c = read()) > 32) sb.append((char) c);
+		return sb.toString();
+	}
+
+	public String nextLine() {
+		if (pos == bufferLength && !fill()) throw new NoSuchElementException();
+		final StringBuilder sb = new StringBuilder();
+		while (true) {
+			final byte[] buf = input;
+			int p = pos;
+			final int start = p, len = bufferLength;
+			while (p < len && buf[p] != '\n') p++;
+			int end = p;
+			if (p < len) {
+				if (end > start && buf[end - 1] == '\r') end--;
+				else if (end == start && sb.length() > 0 && sb.charAt(sb.length() - 1) == '\r') sb.setLength(sb.length() - 1);
+				pos = p + 1;
+				if (sb.isEmpty()) return new String(buf, start, end - start, StandardCharsets.US_ASCII);
+				for (int i = start; i < end; i++) sb.append((char) buf[i]);
+				return sb.toString();
+			}
+			for (int i = start; i < len; i++) sb.append((char) buf[i]);
+			pos = len;
+			if (!fill()) return sb.toString();
+		}
+	}
+
+	public int[] nextInt(final int n) {
+		final int[] a = new int[n];
+		for (int i = 0; i < n; i++) a[i] = nextInt();
+		return a;
+	}
+
+	public long[] nextLong(final int n) {
+		final long[] a = new long[n];
+		for (int i = 0; i < n; i++) a[i] = nextLong();
+		return a;
+	}
+
+	// ------------------------------------------------------------------
+	// 出力
+	// ------------------------------------------------------------------
+
+	/**
+	 * 溜めたクエリをまとめて書き込みます。応答待ちでなければ、この時刻を往復遅延の起点にします。
+	 * 入力が尽きたときは自動で呼ばれるため、クエリのたびに呼ぶ必要はありません。
+	 */
+	public InteractiveChannel flush() {
+		if (outPos == 0) return this;
+		write();
+		batches++;
+		if (sentAt < 0) sentAt = System.nanoTime();
+		return this;
+	}
+
+	private void write() {
+		try {
+			final ByteBuffer view = outputView;
+			view.clear().limit(outPos);
+			while (view.hasRemaining()) out.write(view);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		writes++;
+		bytesWritten += outPos;
+		outPos = 0;
+	}
+
+	private void ensureCapacity(final int n) {
+		if (outPos + n > output.length) write();
+	}
+
+	public InteractiveChannel print(final char c) {
+		ensureCapacity(1);
+		output[outPos++] = (byte) c;
+		return this;
+	}
+
+	public InteractiveChannel print(final int x) {
+		return print((long) x);
+	}
+
+	public InteractiveChannel print(long x) {
+		ensureCapacity(20);
+		final byte[] buf = output;
+		if (x == Long.MIN_VALUE) {
+			System.arraycopy(MIN_LONG, 0, buf, outPos, MIN_LONG.length);
+			outPos += MIN_LONG.length;
+			return this;
+		}
+		int p = outPos;
+		if (x < 0) {
+			buf[p++] = '-';
+			x = -x;
+		}
+		final int start = p;
+		do {
+			final long q = x / 10;
+			buf[p++] = (byte) ('0' + (x - q * 10));
+			x = q;
+		} while (x > 0);
+		for (int l = start, r = p - 1; l < r; l++, r--) {
+			final byte t = buf[l];
+			buf[l] = buf[r];
+			buf[r] = t;
+		}
+		outPos = p;
+		return this;
+	}
+
+	public InteractiveChannel print(final String s) {
+		final byte[] buf = output;
+		final int n = s.length();
+		int i = 0;
+		while (i < n) {
+			if (outPos == buf.length) write();
+			final int end = Math.min(n, i + buf.length - outPos);
+			int p = outPos;
+			while (i < end) buf[p++] = (byte) s.charAt(i++);
+			outPos = p;
+		}
+		return this;
+	}
+
+	public InteractiveChannel println() {
+		return print('\n');
+	}
+
+	public InteractiveChannel println(final char c) {
+		return print(c).print('\n');
+	}
+
+	public InteractiveChannel println(final int x) {
+		return print(x).print('\n');
+	}
+
+	public InteractiveChannel println(final long x) {
+		return print(x).print('\n');
+	}
+
+	public InteractiveChannel println(final String s) {
+		return print(s).print('\n');
+	}
+
+	// ------------------------------------------------------------------
+	// 計測
+	// ------------------------------------------------------------------
+
+	/** 送信後に応答が届いた回数を返します。 */
+	public long roundTrips() {
+		return roundTrips;
+	}
+
+	/** 往復遅延の合計（ナノ秒）を返します。 */
+	public long totalLatencyNanos() {
+		return totalLatency;
+	}
+
+	public long maxLatencyNanos() {
+		return maxLatency;
+	}
+
+	/** 往復遅延の最小値（ナノ秒）を返します。往復がなければ 0 を返します。 */
+	public long minLatencyNanos() {
+		return roundTrips == 0 ? 0 : minLatency;
+	}
+
+	public double averageLatencyNanos() {
+		return roundTrips == 0 ? 0 : (double) totalLatency / roundTrips;
+	}
+
+	/** {@link #flush()} でまとめて送信した回数を返します。 */
+	public long batches() {
+		return batches;
+	}
+
+	/** 入力チャネルから 1 バイト以上読み込んだ回数を返します。 */
+	public long reads() {
+		return reads;
+	}
+
+	/** 出力バッファを書き込んだ回数を返します（バッファ満杯による書き込みを含みます）。 */
+	public long writes() {
+		return writes;
+	}
+
+	public long bytesRead() {
+		return bytesRead;
+	}
+
+	public long bytesWritten() {
+		return bytesWritten;
+	}
+
+	public void resetCounters() {
+		roundTrips = totalLatency = maxLatency = 0;
+		minLatency = Long.MAX_VALUE;
+		batches = reads = writes = bytesRead = bytesWritten = 0;
+	}
+}
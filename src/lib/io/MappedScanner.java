@@ -0,0 +1,281 @@
+package lib.io;
+
+import static java.lang.Math.*;
+import static java.util.Arrays.*;
+
+import java.io.*;
+import java.lang.foreign.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 通常ファイルを {@link FileChannel#map} でメモリマップし、ヒープへコピーせずに直接パースする入力クラスです。
+ * マップできない入力（パイプなど）は全体を読み込み、ヒープ上のセグメントとして扱います。
+ * <p>
+ * 1 トークンを読む基本操作だけをセグメント上に実装し、配列・行列・コレクションの読み込みと数字の変換は
+ * {@link TokenScanner} を {@code FastScanner} と共有します。セグメントの末尾には空白や余白がないため、
+ * 8 バイト読み込みは入力内に収まるときだけ行い、それ以外の読み込みはすべて終端を確かめます。
+ */
+@SuppressWarnings("unused")
+public final class MappedScanner extends TokenScanner implements AutoCloseable {
+	private static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	private static final ValueLayout.OfByte BYTE_LAYOUT = ValueLayout.JAVA_BYTE;
+	private final Arena arena;
+	private final MemorySegment segment;
+	private final long length;
+	private long pos = 0;
+
+	public MappedScanner() {
+		this(new FileInputStream(FileDescriptor.in));
+	}
+
+	public MappedScanner(final Path path) {
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			arena = Arena.ofConfined();
+			segment = map(channel, arena);
+			length = segment.byteSize();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public MappedScanner(final InputStream in) {
+		Arena a = null;
+		MemorySegment seg = null;
+		try {
+			if (in instanceof final FileInputStream f) {
+				a = Arena.ofConfined();
+				try {
+					seg = map(f.getChannel(), a);
+				} catch (final IOException e) {
+					// パイプ等の seek / mmap できない入力
+				}
+				if (seg == null || seg.byteSize() == 0) {
+					a.close();
+					a = null;
+					seg = null;
+				}
+			}
+			if (seg == null) seg = readFully(in);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		arena = a;
+		segment = seg;
+		length = seg.byteSize();
+	}
+
+	private static MemorySegment map(final FileChannel channel, final Arena arena) throws IOException {
+		final long position = channel.position();
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, channel.size() - position, arena);
+	}
+
+	private static MemorySegment readFully(final InputStream in) throws IOException {
+		byte[] buf = new byte[max(in.available(), 1 << 16)];
+		int len = 0, n;
+		while ((n = in.read(buf, len, buf.length - len)) >= 0) {
+			len += n;
+			if (len == buf.length) buf = copyOf(buf, len << 1);
+		}
+		return MemorySegment.ofArray(buf).asSlice(0, len);
+	}
+
+	@Override
+	public void close() {
+		if (arena != null) arena.close();
+	}
+
+	private int skipSpaces() {
+		final MemorySegment seg = segment;
+		final long len = length;
+		long p = pos;
+		int b;
+		do {
+			if (p == len) throw new NoSuchElementException();
+			b = seg.get(BYTE_LAYOUT, p++);
+		} while (b <= 32);
+		pos = p;
+		return b;
+	}
+
+	public boolean hasNext() {
+		final MemorySegment seg = segment;
+		final long len = length;
+		long p = pos;
+		while (p < len && seg.get(BYTE_LAYOUT, p) <= 32) p++;
+		pos = p;
+		return p < len;
+	}
+
+	public boolean nextBoolean() {
+		final int b = skipSpaces();
+		final boolean flag = b == 't' || b == 'T';
+		pos = min(pos + (flag ? 3 : 4), length);
+		return flag;
+	}
+
+	public char nextChar() {
+		if (!hasNext()) throw new NoSuchElementException();
+		return (char) segment.get(BYTE_LAYOUT, pos++);
+	}
+
+	public int nextInt() {
+		int b = skipSpaces();
+		final boolean negative = b == '-';
+		final MemorySegment seg = segment;
+		final long len = length;
+		long p = pos;
+		if (negative) {
+			if (p == len) throw new NoSuchElementException();
+			b = seg.get(BYTE_LAYOUT, p++);
+		}
+		int n = 0;
+		// 8 バイト読み込みは [p - 1, p + 7) が入力内に収まるときだけ行う。残りの桁は終端を確かめながら 1 バイトずつ読む。
+		if (p + 7 <= len) {
+			final long a = seg.get(LONG_LAYOUT, p - 1) ^ 0x3030303030303030L;
+			if ((a & 0xF0F0F0F0F0F0F0F0L) == 0) {
+				n = (int) eightDigits(a);
+				p += 7;
+				b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+			}
+		}
+		while (b > 32) {
+			n = (n << 3) + (n << 1) + (b & 15);
+			b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+		}
+		pos = p;
+		return negative ? -n : n;
+	}
+
+	public long nextLong() {
+		int b = skipSpaces();
+		final boolean negative = b == '-';
+		final MemorySegment seg = segment;
+		final long len = length;
+		long p = pos;
+		if (negative) {
+			if (p == len) throw new NoSuchElementException();
+			b = seg.get(BYTE_LAYOUT, p++);
+		}
+		long n = 0;
+		if (p + 7 <= len) {
+			final long a = seg.get(LONG_LAYOUT, p - 1) ^ 0x3030303030303030L;
+			if ((a & 0xF0F0F0F0F0F0F0F0L) == 0) {
+				n = eightDigits(a);
+				p += 7;
+				b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+				if (p + 7 <= len) {
+					final long a2 = seg.get(LONG_LAYOUT, p - 1) ^ 0x3030303030303030L;
+					if ((a2 & 0xF0F0F0F0F0F0F0F0L) == 0) {
+						n = n * 100000000L + eightDigits(a2);
+						p += 7;
+						b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+					}
+				}
+			}
+		}
+		while (b > 32) {
+			n = (n << 3) + (n << 1) + (b & 15);
+			b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+		}
+		pos = p;
+		return negative ? -n : n;
+	}
+
+	/**
+	 * 浮動小数点値を読み込みます。{@code FastScanner#nextDouble()} と同じく指数部に対応し、結果は常に正しく丸められます。
+	 * 仮数が 19 桁を超えるトークンや、数字の並びとして読めないトークンは {@link Double#parseDouble(String)} に任せます。
+	 */
+	public double nextDouble() {
+		int b = skipSpaces();
+		final MemorySegment seg = segment;
+		final long len = length, start = pos - 1;
+		long p = pos;
+		final boolean negative = b == '-';
+		if (negative || b == '+') b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+		long w = 0;
+		int digits = 0, e10 = 0;
+		while ('0' <= b && b <= '9') {
+			w = (w << 3) + (w << 1) + (b & 15);
+			digits++;
+			b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+		}
+		if (b == '.') {
+			b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+			while ('0' <= b && b <= '9') {
+				w = (w << 3) + (w << 1) + (b & 15);
+				e10--;
+				b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+			}
+			digits -= e10;
+		}
+		if (digits == 0 || digits > 19) return parseDouble(start);
+		if ((b | 32) == 'e') {
+			b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+			final boolean negativeExp = b == '-';
+			if (negativeExp || b == '+') b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+			int exp = 0;
+			while ('0' <= b && b <= '9') {
+				if (exp < 100_000) exp = exp * 10 + (b & 15);
+				b = p < len ? seg.get(BYTE_LAYOUT, p++) : -1;
+			}
+			e10 += negativeExp ? -exp : exp;
+		}
+		if (b > ' ') return parseDouble(start);
+		final long bits = doubleBits(w, e10);
+		if (bits == -1) return parseDouble(start);
+		pos = p;
+		return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+	}
+
+	private double parseDouble(final long start) {
+		return Double.parseDouble(new String(token(start), StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * {@code start} から次の空白の手前までを返し、{@code pos} を区切りの空白の次へ進めます。
+	 */
+	private byte[] token(final long start) {
+		final MemorySegment seg = segment;
+		final long len = length;
+		long p = start;
+		while (p < len && seg.get(BYTE_LAYOUT, p) > 32) p++;
+		final byte[] bytes = new byte[(int) (p - start)];
+		MemorySegment.copy(seg, BYTE_LAYOUT, start, bytes, 0, bytes.length);
+		pos = min(p + 1, len);
+		return bytes;
+	}
+
+	public String next() {
+		skipSpaces();
+		return new String(token(pos - 1), StandardCharsets.US_ASCII);
+	}
+
+	public String nextLine() {
+		final MemorySegment seg = segment;
+		final long len = length, start = pos;
+		long p = start;
+		while (p < len) {
+			final int b = seg.get(BYTE_LAYOUT, p);
+			if (b == '\n' || b == '\r') break;
+			p++;
+		}
+		final byte[] bytes = new byte[(int) (p - start)];
+		MemorySegment.copy(seg, BYTE_LAYOUT, start, bytes, 0, bytes.length);
+		if (p < len) p += seg.get(BYTE_LAYOUT, p) == '\r' && p + 1 < len && seg.get(BYTE_LAYOUT, p + 1) == '\n' ? 2 : 1;
+		pos = p;
+		return new String(bytes, StandardCharsets.US_ASCII);
+	}
+
+	public char[] nextChars() {
+		skipSpaces();
+		final byte[] bytes = token(pos - 1);
+		final int len = bytes.length;
+		final char[] c = new char[len];
+		for (int i = 0; i < len; i++) c[i] = (char) bytes[i];
+		return c;
+	}
+}
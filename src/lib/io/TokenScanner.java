@@ -0,0 +1,911 @@
+package lib.io;
+
+import static java.util.Arrays.*;
+
+import java.math.*;
+import java.util.*;
+import java.util.ArrayList;
+import java.util.function.*;
+
+/**
+ * 空白区切りのトークンを読み込む入力クラスの基底クラスです。
+ * <p>
+ * サブクラスは入力の持ち方（ヒープ上のバッファ、メモリマップなど）に応じて、1 トークンを読む基本操作
+ * （{@link #nextInt()}, {@link #nextLong()}, {@link #nextDouble()}, {@link #next()} など）だけを実装します。
+ * 配列・行列・コレクションなどの読み込みは基本操作の上にこのクラスで実装し、
+ * 数字の並びから値への変換（8 桁の SWAR 変換、{@code double} の丸め）はサブクラス共通の静的メソッドとして提供します。
+ */
+@SuppressWarnings("unused")
+public abstract class TokenScanner {
+	private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	public abstract boolean hasNext();
+
+	public abstract boolean nextBoolean();
+
+	public abstract char nextChar();
+
+	public abstract int nextInt();
+
+	public abstract long nextLong();
+
+	public abstract double nextDouble();
+
+	public abstract String next();
+
+	public abstract String nextLine();
+
+	public abstract char[] nextChars();
+
+	public boolean nextBoolean(final char c) {
+		return nextChar() == c;
+	}
+
+	public boolean nextBoolean(final int i) {
+		return nextInt() == i;
+	}
+
+	public boolean nextBoolean(final long l) {
+		return nextLong() == l;
+	}
+
+	public boolean nextBoolean(final CharPredicate p) {
+		return p.test(nextChar());
+	}
+
+	public boolean nextBoolean(final IntPredicate p) {
+		return p.test(nextInt());
+	}
+
+	public boolean nextBoolean(final LongPredicate p) {
+		return p.test(nextLong());
+	}
+
+	public StringBuilder nextStringBuilder() {
+		return new StringBuilder(next());
+	}
+
+	public BigInteger nextBigInteger() {
+		return new BigInteger(next());
+	}
+
+	public BigDecimal nextBigDecimal() {
+		return new BigDecimal(next());
+	}
+
+	public boolean[] nextBoolean(final int n, final char c) {
+		final boolean[] a = new boolean[n];
+		for (int i = 0; i < n; i++) a[i] = nextBoolean(c);
+		return a;
+	}
+
+	public boolean[] nextBoolean(final int n, final int i) {
+		final boolean[] a = new boolean[n];
+		for (int j = 0; j < n; j++) a[j] = nextBoolean(i);
+		return a;
+	}
+
+	public boolean[] nextBoolean(final int n, final long l) {
+		final boolean[] a = new boolean[n];
+		for (int i = 0; i < n; i++) a[i] = nextBoolean(l);
+		return a;
+	}
+
+	public boolean[] nextBoolean(final int n, final CharPredicate p) {
+		final boolean[] a = new boolean[n];
+		for (int i = 0; i < n; i++) a[i] = nextBoolean(p);
+		return a;
+	}
+
+	public boolean[] nextBoolean(final int n, final IntPredicate p) {
+		final boolean[] a = new boolean[n];
+		for (int i = 0; i < n; i++) a[i] = nextBoolean(p);
+		return a;
+	}
+
+	public boolean[] nextBoolean(final int n, final LongPredicate p) {
+		final boolean[] a = new boolean[n];
+		for (int i = 0; i < n; i++) a[i] = nextBoolean(p);
+		return a;
+	}
+
+	public int[] nextInt(final int n) {
+		final int[] a = new int[n];
+		readInts(a, 0, n);
+		return a;
+	}
+
+	public long[] nextLong(final int n) {
+		final long[] a = new long[n];
+		readLongs(a, 0, n);
+		return a;
+	}
+
+	/**
+	 * {@code dst[off, off + len)} に整数を {@code len} 個読み込みます。
+	 */
+	public void readInts(final int[] dst, final int off, final int len) {
+		for (int i = off, end = off + len; i < end; i++) dst[i] = nextInt();
+	}
+
+	/**
+	 * {@code dst[off, off + len)} に整数を {@code len} 個読み込みます。
+	 */
+	public void readLongs(final long[] dst, final int off, final int len) {
+		for (int i = off, end = off + len; i < end; i++) dst[i] = nextLong();
+	}
+
+	public int[] readIntMatrix(final int h, final int w) {
+		final int[] a = new int[h * w];
+		readInts(a, 0, a.length);
+		return a;
+	}
+
+	public long[] readLongMatrix(final int h, final int w) {
+		final long[] a = new long[h * w];
+		readLongs(a, 0, a.length);
+		return a;
+	}
+
+	public double[] nextDouble(final int n) {
+		final double[] a = new double[n];
+		for (int i = 0; i < n; i++) a[i] = nextDouble();
+		return a;
+	}
+
+	public int nextInt0() {
+		return nextInt() - 1;
+	}
+
+	public long nextLong0() {
+		return nextLong() - 1;
+	}
+
+	public int[] nextInt0(final int n) {
+		final int[] a = new int[n];
+		for (int i = 0; i < n; i++) a[i] = nextInt() - 1;
+		return a;
+	}
+
+	public long[] nextLong0(final int n) {
+		final long[] a = new long[n];
+		for (int i = 0; i < n; i++) a[i] = nextLong() - 1;
+		return a;
+	}
+
+	public char[] nextChars(final int n) {
+		final char[] c = new char[n];
+		for (int i = 0; i < n; i++) c[i] = nextChar();
+		return c;
+	}
+
+	public String[] nextStrings(final int n) {
+		final String[] s = new String[n];
+		for (int i = 0; i < n; i++) s[i] = next();
+		return s;
+	}
+
+	public boolean[][] nextBooleanMat(final int h, final int w, final char c) {
+		final boolean[][] a = new boolean[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextBoolean(c);
+		return a;
+	}
+
+	public boolean[][] nextBooleanMat(final int h, final int w, final int n) {
+		final boolean[][] a = new boolean[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextBoolean(n);
+		return a;
+	}
+
+	public boolean[][] nextBooleanMat(final int h, final int w, final long l) {
+		final boolean[][] a = new boolean[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextBoolean(l);
+		return a;
+	}
+
+	public boolean[][] nextBooleanMat(final int h, final int w, final CharPredicate p) {
+		final boolean[][] a = new boolean[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextBoolean(p);
+		return a;
+	}
+
+	public boolean[][] nextBooleanMat(final int h, final int w, final IntPredicate p) {
+		final boolean[][] a = new boolean[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextBoolean(p);
+		return a;
+	}
+
+	public boolean[][] nextBooleanMat(final int h, final int w, final LongPredicate p) {
+		final boolean[][] a = new boolean[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextBoolean(p);
+		return a;
+	}
+
+	public int[][] nextIntMat(final int h, final int w) {
+		final int[][] a = new int[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextInt();
+		return a;
+	}
+
+	public long[][] nextLongMat(final int h, final int w) {
+		final long[][] a = new long[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextLong();
+		return a;
+	}
+
+	public double[][] nextDoubleMat(final int h, final int w) {
+		final double[][] a = new double[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				a[i][j] = nextDouble();
+		return a;
+	}
+
+	public char[][] nextCharMat(final int n) {
+		final char[][] c = new char[n][];
+		for (int i = 0; i < n; i++) c[i] = nextChars();
+		return c;
+	}
+
+	public char[][] nextCharMat(final int h, final int w) {
+		final char[][] c = new char[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				c[i][j] = nextChar();
+		return c;
+	}
+
+	public String[][] nextStringMat(final int h, final int w) {
+		final String[][] s = new String[h][w];
+		for (int i = 0; i < h; i++)
+			for (int j = 0; j < w; j++)
+				s[i][j] = next();
+		return s;
+	}
+
+	public int[][][] nextInt3D(final int x, final int y, final int z) {
+		final int[][][] a = new int[x][y][z];
+		for (int i = 0; i < x; i++)
+			for (int j = 0; j < y; j++)
+				for (int k = 0; k < z; k++)
+					a[i][j][k] = nextInt();
+		return a;
+	}
+
+	public long[][][] nextLong3D(final int x, final int y, final int z) {
+		final long[][][] a = new long[x][y][z];
+		for (int i = 0; i < x; i++)
+			for (int j = 0; j < y; j++)
+				for (int k = 0; k < z; k++)
+					a[i][j][k] = nextLong();
+		return a;
+	}
+
+	public int[] nextSortedInt(final int n) {
+		final int[] a = nextInt(n);
+		sort(a);
+		return a;
+	}
+
+	public long[] nextSortedLong(final int n) {
+		final long[] a = nextLong(n);
+		sort(a);
+		return a;
+	}
+
+	public double[] nextSortedDouble(final int n) {
+		final double[] a = nextDouble(n);
+		sort(a);
+		return a;
+	}
+
+	public char[] nextSortedChars() {
+		final char[] c = nextChars();
+		sort(c);
+		return c;
+	}
+
+	public char[] nextSortedChars(final int n) {
+		final char[] c = nextChars(n);
+		sort(c);
+		return c;
+	}
+
+	public String[] nextSortedStrings(final int n) {
+		final String[] s = nextStrings(n);
+		sort(s);
+		return s;
+	}
+
+	public int[] nextIntPrefixSum(final int n) {
+		final int[] ps = new int[n];
+		ps[0] = nextInt();
+		for (int i = 1; i < n; i++) ps[i] = nextInt() + ps[i - 1];
+		return ps;
+	}
+
+	public long[] nextLongPrefixSum(final int n) {
+		final long[] ps = new long[n];
+		ps[0] = nextLong();
+		for (int i = 1; i < n; i++) ps[i] = nextLong() + ps[i - 1];
+		return ps;
+	}
+
+	public int[][] nextIntPrefixSum(final int h, final int w) {
+		final int[][] ps = new int[h + 1][w + 1];
+		for (int i = 1; i <= h; i++)
+			for (int j = 1; j <= w; j++)
+				ps[i][j] = nextInt() + ps[i - 1][j] + ps[i][j - 1] - ps[i - 1][j - 1];
+		return ps;
+	}
+
+	public long[][] nextLongPrefixSum(final int h, final int w) {
+		final long[][] ps = new long[h + 1][w + 1];
+		for (int i = 1; i <= h; i++)
+			for (int j = 1; j <= w; j++)
+				ps[i][j] = nextLong() + ps[i - 1][j] + ps[i][j - 1] - ps[i - 1][j - 1];
+		return ps;
+	}
+
+	public int[][][] nextIntPrefixSum(final int x, final int y, final int z) {
+		final int[][][] ps = new int[x + 1][y + 1][z + 1];
+		for (int a = 1; a <= x; a++)
+			for (int b = 1; b <= y; b++)
+				for (int c = 1; c <= z; c++)
+					ps[a][b][c] = nextInt() + ps[a - 1][b][c] + ps[a][b - 1][c] + ps[a][b][c - 1] - ps[a - 1][b - 1][c] - ps[a - 1][b][c - 1] - ps[a][b - 1][c - 1] + ps[a - 1][b - 1][c - 1];
+		return ps;
+	}
+
+	public long[][][] nextLongPrefixSum(final int x, final int y, final int z) {
+		final long[][][] ps = new long[x + 1][y + 1][z + 1];
+		for (int a = 1; a <= x; a++)
+			for (int b = 1; b <= y; b++)
+				for (int c = 1; c <= z; c++)
+					ps[a][b][c] = nextLong() + ps[a - 1][b][c] + ps[a][b - 1][c] + ps[a][b][c - 1] - ps[a - 1][b - 1][c] - ps[a - 1][b][c - 1] - ps[a][b - 1][c - 1] + ps[a - 1][b - 1][c - 1];
+		return ps;
+	}
+
+	public int[] nextIntInverseMapping(final int n) {
+		final int[] inv = new int[n];
+		for (int i = 0; i < n; i++) inv[nextInt() - 1] = i;
+		return inv;
+	}
+
+	public ArrayList<Integer> nextIntAL(final int n) {
+		return nextCollection(n, this::nextInt, () -> new ArrayList<>(n));
+	}
+
+	public HashSet<Integer> nextIntHS(final int n) {
+		return nextCollection(n, this::nextInt, () -> new HashSet<>(n));
+	}
+
+	public TreeSet<Integer> nextIntTS(final int n) {
+		return nextCollection(n, this::nextInt, TreeSet::new);
+	}
+
+	public ArrayList<Long> nextLongAL(final int n) {
+		return nextCollection(n, this::nextLong, () -> new ArrayList<>(n));
+	}
+
+	public HashSet<Long> nextLongHS(final int n) {
+		return nextCollection(n, this::nextLong, () -> new HashSet<>(n));
+	}
+
+	public TreeSet<Long> nextLongTS(final int n) {
+		return nextCollection(n, this::nextLong, TreeSet::new);
+	}
+
+	public ArrayList<Character> nextCharacterAL(final int n) {
+		return nextCollection(n, this::nextChar, () -> new ArrayList<>(n));
+	}
+
+	public HashSet<Character> nextCharacterHS(final int n) {
+		return nextCollection(n, this::nextChar, () -> new HashSet<>(n));
+	}
+
+	public TreeSet<Character> nextCharacterTS(final int n) {
+		return nextCollection(n, this::nextChar, TreeSet::new);
+	}
+
+	public ArrayList<String> nextStringAL(final int n) {
+		return nextCollection(n, this::next, () -> new ArrayList<>(n));
+	}
+
+	public HashSet<String> nextStringHS(final int n) {
+		return nextCollection(n, this::next, () -> new HashSet<>(n));
+	}
+
+	public TreeSet<String> nextStringTS(final int n) {
+		return nextCollection(n, this::next, TreeSet::new);
+	}
+
+	private <S, T extends Collection<S>> T nextCollection(int n, final Supplier<S> input, final Supplier<T> collection) {
+		final T t = collection.get();
+		while (n-- > 0) t.add(input.get());
+		return t;
+	}
+
+	public HashMap<Integer, Integer> nextIntMultisetHM(final int n) {
+		return nextMultiset(n, this::nextInt, () -> new HashMap<>(n));
+	}
+
+	public TreeMap<Integer, Integer> nextIntMultisetTM(final int n) {
+		return nextMultiset(n, this::nextInt, TreeMap::new);
+	}
+
+	public HashMap<Long, Integer> nextLongMultisetHM(final int n) {
+		return nextMultiset(n, this::nextLong, () -> new HashMap<>(n));
+	}
+
+	public TreeMap<Long, Integer> nextLongMultisetTM(final int n) {
+		return nextMultiset(n, this::nextLong, TreeMap::new);
+	}
+
+	public HashMap<Character, Integer> nextCharMultisetHM(final int n) {
+		return nextMultiset(n, this::nextChar, () -> new HashMap<>(n));
+	}
+
+	public TreeMap<Character, Integer> nextCharMultisetTM(final int n) {
+		return nextMultiset(n, this::nextChar, TreeMap::new);
+	}
+
+	public HashMap<String, Integer> nextStringMultisetHM(final int n) {
+		return nextMultiset(n, this::next, () -> new HashMap<>(n));
+	}
+
+	public TreeMap<String, Integer> nextStringMultisetTM(final int n) {
+		return nextMultiset(n, this::next, TreeMap::new);
+	}
+
+	private <S, T extends Map<S, Integer>> T nextMultiset(int n, final Supplier<S> input, final Supplier<T> map) {
+		final T multiSet = map.get();
+		while (n-- > 0) {
+			final S i = input.get();
+			multiSet.put(i, multiSet.getOrDefault(i, 0) + 1);
+		}
+		return multiSet;
+	}
+
+	public int[] nextIntMultiset(final int n, final int m) {
+		final int[] multiset = new int[m];
+		for (int i = 0; i < n; i++) multiset[nextInt() - 1]++;
+		return multiset;
+	}
+
+	public int[] nextUpperCharMultiset(final int n) {
+		return nextCharMultiset(n, 'A', 'Z');
+	}
+
+	public int[] nextLowerCharMultiset(final int n) {
+		return nextCharMultiset(n, 'a', 'z');
+	}
+
+	public int[] nextCharMultiset(int n, final char l, final char r) {
+		final int[] multiset = new int[r - l + 1];
+		while (n-- > 0) {
+			final int c = nextChar() - l;
+			multiset[c]++;
+		}
+		return multiset;
+	}
+
+	public interface CharPredicate {
+		boolean test(char value);
+	}
+
+	// t は 8 バイトを 0x30 と XOR したもので、すべて数字であること。10 進 8 桁として読んだ値を返す。
+	static long eightDigits(long t) {
+		t = (t * 10 + (t >>> 8)) & 0x00FF00FF00FF00FFL;
+		t = (t * 100 + (t >>> 16)) & 0x0000FFFF0000FFFFL;
+		return (t * 10000 + (t >>> 32)) & 0x00000000FFFFFFFFL;
+	}
+
+	// t は 8 バイトを 0x30 と XOR したもの。先頭から連続する数字バイトの個数（0〜8）を返す。
+	static int digitCount(final long t) {
+		return Long.numberOfTrailingZeros((((t & 0x7F7F7F7F7F7F7F7FL) + 0x7676767676767676L) | t) & 0x8080808080808080L) >>> 3;
+	}
+
+	/**
+	 * 符号なし 64 ビットの仮数 {@code w}（19 桁以下）と 10 進指数 {@code e10} から、{@code w × 10^e10} に最も近い {@code double} のビット列を求めます。
+	 * Clinger の高速経路（仮数 {@code < 2^53} かつ {@code |指数| <= 22}）、Eisel-Lemire の順に試し、判定できない場合は {@code -1} を返します。
+	 */
+	static long doubleBits(final long w, final int e10) {
+		if (-22 <= e10 && e10 <= 22 && (w & -(1L << 53)) == 0) return Double.doubleToRawLongBits(e10 < 0 ? w / POW10[-e10] : w * POW10[e10]);
+		return eiselLemire(w, e10);
+	}
+
+	/**
+	 * 符号なし 64 ビットの仮数 {@code w} と 10 進指数 {@code q} から {@code w × 10^q} に最も近い {@code double} のビット列を求めます。
+	 * 判定できない場合は {@code -1} を返します。
+	 */
+	static long eiselLemire(long w, final int q) {
+		if (w == 0 || q < DoubleCache.Q_MIN) return 0;
+		if (q > DoubleCache.Q_MAX) return 0x7FF0000000000000L;
+		final int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		final long[] pow5 = DoubleCache.POW5;
+		final int index = q - DoubleCache.Q_MIN << 1;
+		long hi = Math.unsignedMultiplyHigh(w, pow5[index]);
+		long lo = w * pow5[index];
+		if ((hi & 0x1FF) == 0x1FF) {
+			final long secondHi = Math.unsignedMultiplyHigh(w, pow5[index + 1]);
+			lo += secondHi;
+			if (Long.compareUnsigned(secondHi, lo) > 0) hi++;
+			if (lo == -1 && (q < -27 || q > 55)) return -1;
+		}
+		final int upper = (int) (hi >>> 63);
+		long mantissa = hi >>> upper + 9;
+		int power2 = (int) ((152_170L + 65_536L) * q >> 16) + 63 + upper - lz + 1023;
+		if (power2 <= 0) {
+			if (-power2 + 1 >= 64) return 0;
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			return mantissa;
+		}
+		if ((lo == 0 || lo == 1) && q >= -4 && q <= 23 && (mantissa & 3) == 1 && mantissa << upper + 9 == hi) mantissa &= ~1L;
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if (mantissa >= 2L << 52) {
+			mantissa = 1L << 52;
+			power2++;
+		}
+		mantissa &= ~(1L << 52);
+		if (power2 >= 0x7FF) return 0x7FF0000000000000L;
+		return mantissa | (long) power2 << 52;
+	}
+
+	/**
+	 * Eisel-Lemire で使う 5 の冪の 128 ビット近似表です。{@code q = Q_MIN, ..., Q_MAX} について、
+	 * {@code 5^q} を最上位ビットが 127 ビット目にくるよう正規化した値（負の {@code q} は切り上げ）の上位・下位 64 ビットを交互に保持します。
+	 * Clinger の高速経路で判定できない値を初めて読んだときに初期化されます。
+	 */
+	private static final class DoubleCache {
+		private static final int Q_MIN = -342;
+		private static final int Q_MAX = 308;
+		private static final long[] POW5 = {
+			0xEEF4_53D6_923B_D65AL, 0x113F_AA29_06A1_3B3FL, 0x9558_B466_1B65_65F8L, 0x4AC7_CA59_A424_C507L,
+			0xBAAE_E17F_A23E_BF76L, 0x5D79_BCF0_0D2D_F649L, 0xE95A_99DF_8ACE_6F53L, 0xF4D8_2C2C_1079_73DCL,
+			0x91D8_A02B_B6C1_0594L, 0x7907_1B9B_8A4B_E869L, 0xB64E_C836_A471_46F9L, 0x9748_E282_6CDE_E284L,
+			0xE3E2_7A44_4D8D_98B7L, 0xFD1B_1B23_0816_9B25L, 0x8E6D_8C6A_B078_7F72L, 0xFE30_F0F5_E50E_20F7L,
+			0xB208_EF85_5C96_9F4FL, 0xBDBD_2D33_5E51_A935L, 0xDE8B_2B66_B3BC_4723L, 0xAD2C_7880_35E6_1382L,
+			0x8B16_FB20_3055_AC76L, 0x4C3B_CB50_21AF_CC31L, 0xADDC_B9E8_3C6B_1793L, 0xDF4A_BE24_2A1B_BF3DL,
+			0xD953_E862_4B85_DD78L, 0xD71D_6DAD_34A2_AF0DL, 0x87D4_713D_6F33_AA6BL, 0x8672_648C_40E5_AD68L,
+			0xA9C9_8D8C_CB00_9506L, 0x680E_FDAF_511F_18C2L, 0xD43B_F0EF_FDC0_BA48L, 0x0212_BD1B_2566_DEF2L,
+			0x84A5_7695_FE98_746DL, 0x014B_B630_F760_4B57L, 0xA5CE_D43B_7E3E_9188L, 0x419E_A3BD_3538_5E2DL,
+			0xCF42_894A_5DCE_35EAL, 0x5206_4CAC_8286_75B9L, 0x8189_95CE_7AA0_E1B2L, 0x7343_EFEB_D194_0993L,
+			0xA1EB_FB42_1949_1A1FL, 0x1014_EBE6_C5F9_0BF8L, 0xCA66_FA12_9F9B_60A6L, 0xD41A_26E0_7777_4EF6L,
+			0xFD00_B897_4782_38D0L, 0x8920_B098_9555_22B4L, 0x9E20_735E_8CB1_6382L, 0x55B4_6E5F_5D55_35B0L,
+			0xC5A8_9036_2FDD_BC62L, 0xEB21_89F7_34AA_831DL, 0xF712_B443_BBD5_2B7BL, 0xA5E9_EC75_01D5_23E4L,
+			0x9A6B_B0AA_5565_3B2DL, 0x47B2_33C9_2125_366EL, 0xC106_9CD4_EABE_89F8L, 0x999E_C0BB_696E_840AL,
+			0xF148_440A_256E_2C76L, 0xC006_70EA_43CA_250DL, 0x96CD_2A86_5764_DBCAL, 0x3804_0692_6A5E_5728L,
+			0xBC80_7527_ED3E_12BCL, 0xC605_0837_04F5_ECF2L, 0xEBA0_9271_E88D_976BL, 0xF786_4A44_C633_682EL,
+			0x9344_5B87_3158_7EA3L, 0x7AB3_EE6A_FBE0_211DL, 0xB815_7268_FDAE_9E4CL, 0x5960_EA05_BAD8_2964L,
+			0xE61A_CF03_3D1A_45DFL, 0x6FB9_2487_298E_33BDL, 0x8FD0_C162_0630_6BABL, 0xA5D3_B6D4_79F8_E056L,
+			0xB3C4_F1BA_87BC_8696L, 0x8F48_A489_9877_186CL, 0xE0B6_2E29_29AB_A83CL, 0x331A_CDAB_FE94_DE87L,
+			0x8C71_DCD9_BA0B_4925L, 0x9FF0_C08B_7F1D_0B14L, 0xAF8E_5410_288E_1B6FL, 0x07EC_F0AE_5EE4_4DD9L,
+			0xDB71_E914_32B1_A24AL, 0xC9E8_2CD9_F69D_6150L, 0x8927_31AC_9FAF_056EL, 0xBE31_1C08_3A22_5CD2L,
+			0xAB70_FE17_C79A_C6CAL, 0x6DBD_630A_48AA_F406L, 0xD64D_3D9D_B981_787DL, 0x092C_BBCC_DAD5_B108L,
+			0x85F0_4682_93F0_EB4EL, 0x25BB_F560_08C5_8EA5L, 0xA76C_5823_38ED_2621L, 0xAF2A_F2B8_0AF6_F24EL,
+			0xD147_6E2C_0728_6FAAL, 0x1AF5_AF66_0DB4_AEE1L, 0x82CC_A4DB_8479_45CAL, 0x50D9_8D9F_C890_ED4DL,
+			0xA37F_CE12_6597_973CL, 0xE50F_F107_BAB5_28A0L, 0xCC5F_C196_FEFD_7D0CL, 0x1E53_ED49_A962_72C8L,
+			0xFF77_B1FC_BEBC_DC4FL, 0x25E8_E89C_13BB_0F7AL, 0x9FAA_CF3D_F736_09B1L, 0x77B1_9161_8C54_E9ACL,
+			0xC795_830D_7503_8C1DL, 0xD59D_F5B9_EF6A_2417L, 0xF97A_E3D0_D244_6F25L, 0x4B05_7328_6B44_AD1DL,
+			0x9BEC_CE62_836A_C577L, 0x4EE3_67F9_430A_EC32L, 0xC2E8_01FB_2445_76D5L, 0x229C_41F7_93CD_A73FL,
+			0xF3A2_0279_ED56_D48AL, 0x6B43_5275_78C1_110FL, 0x9845_418C_3456_44D6L, 0x830A_1389_6B78_AAA9L,
+			0xBE56_91EF_416B_D60CL, 0x23CC_986B_C656_D553L, 0xEDEC_366B_11C6_CB8FL, 0x2CBF_BE86_B7EC_8AA8L,
+			0x94B3_A202_EB1C_3F39L, 0x7BF7_D714_32F3_D6A9L, 0xB9E0_8A83_A5E3_4F07L, 0xDAF5_CCD9_3FB0_CC53L,
+			0xE858_AD24_8F5C_22C9L, 0xD1B3_400F_8F9C_FF68L, 0x9137_6C36_D999_95BEL, 0x2310_0809_B9C2_1FA1L,
+			0xB585_4744_8FFF_FB2DL, 0xABD4_0A0C_2832_A78AL, 0xE2E6_9915_B3FF_F9F9L, 0x16C9_0C8F_323F_516CL,
+			0x8DD0_1FAD_907F_FC3BL, 0xAE3D_A7D9_7F67_92E3L, 0xB144_2798_F49F_FB4AL, 0x99CD_11CF_DF41_779CL,
+			0xDD95_317F_31C7_FA1DL, 0x4040_5643_D711_D583L, 0x8A7D_3EEF_7F1C_FC52L, 0x4828_35EA_666B_2572L,
+			0xAD1C_8EAB_5EE4_3B66L, 0xDA32_4365_0005_EECFL, 0xD863_B256_369D_4A40L, 0x90BE_D43E_4007_6A82L,
+			0x873E_4F75_E222_4E68L, 0x5A77_44A6_E804_A291L, 0xA90D_E353_5AAA_E202L, 0x7115_15D0_A205_CB36L,
+			0xD351_5C28_3155_9A83L, 0x0D5A_5B44_CA87_3E03L, 0x8412_D999_1ED5_8091L, 0xE858_790A_FE94_86C2L,
+			0xA517_8FFF_668A_E0B6L, 0x626E_974D_BE39_A872L, 0xCE5D_73FF_402D_98E3L, 0xFB0A_3D21_2DC8_128FL,
+			0x80FA_687F_881C_7F8EL, 0x7CE6_6634_BC9D_0B99L, 0xA139_029F_6A23_9F72L, 0x1C1F_FFC1_EBC4_4E80L,
+			0xC987_4347_44AC_874EL, 0xA327_FFB2_66B5_6220L, 0xFBE9_1419_15D7_A922L, 0x4BF1_FF9F_0062_BAA8L,
+			0x9D71_AC8F_ADA6_C9B5L, 0x6F77_3FC3_603D_B4A9L, 0xC4CE_17B3_9910_7C22L, 0xCB55_0FB4_384D_21D3L,
+			0xF601_9DA0_7F54_9B2BL, 0x7E2A_53A1_4660_6A48L, 0x99C1_0284_4F94_E0FBL, 0x2EDA_7444_CBFC_426DL,
+			0xC031_4325_637A_1939L, 0xFA91_1155_FEFB_5308L, 0xF03D_93EE_BC58_9F88L, 0x7935_55AB_7EBA_27CAL,
+			0x9626_7C75_35B7_63B5L, 0x4BC1_558B_2F34_58DEL, 0xBBB0_1B92_8325_3CA2L, 0x9EB1_AAED_FB01_6F16L,
+			0xEA9C_2277_23EE_8BCBL, 0x465E_15A9_79C1_CADCL, 0x92A1_958A_7675_175FL, 0x0BFA_CD89_EC19_1EC9L,
+			0xB749_FAED_1412_5D36L, 0xCEF9_80EC_671F_667BL, 0xE51C_79A8_5916_F484L, 0x82B7_E127_80E7_401AL,
+			0x8F31_CC09_37AE_58D2L, 0xD1B2_ECB8_B090_8810L, 0xB2FE_3F0B_8599_EF07L, 0x861F_A7E6_DCB4_AA15L,
+			0xDFBD_CECE_6700_6AC9L, 0x67A7_91E0_93E1_D49AL, 0x8BD6_A141_0060_42BDL, 0xE0C8_BB2C_5C6D_24E0L,
+			0xAECC_4991_4078_536DL, 0x58FA_E9F7_7388_6E18L, 0xDA7F_5BF5_9096_6848L, 0xAF39_A475_506A_899EL,
+			0x888F_9979_7A5E_012DL, 0x6D84_06C9_5242_9603L, 0xAAB3_7FD7_D8F5_8178L, 0xC8E5_087B_A6D3_3B83L,
+			0xD560_5FCD_CF32_E1D6L, 0xFB1E_4A9A_9088_0A64L, 0x855C_3BE0_A17F_CD26L, 0x5CF2_EEA0_9A55_067FL,
+			0xA6B3_4AD8_C9DF_C06FL, 0xF42F_AA48_C0EA_481EL, 0xD060_1D8E_FC57_B08BL, 0xF13B_94DA_F124_DA26L,
+			0x823C_1279_5DB6_CE57L, 0x76C5_3D08_D6B7_0858L, 0xA2CB_1717_B524_81EDL, 0x5476_8C4B_0C64_CA6EL,
+			0xCB7D_DCDD_A26D_A268L, 0xA994_2F5D_CF7D_FD09L, 0xFE5D_5415_0B09_0B02L, 0xD3F9_3B35_435D_7C4CL,
+			0x9EFA_548D_26E5_A6E1L, 0xC47B_C501_4A1A_6DAFL, 0xC6B8_E9B0_709F_109AL, 0x359A_B641_9CA1_091BL,
+			0xF867_241C_8CC6_D4C0L, 0xC301_63D2_03C9_4B62L, 0x9B40_7691_D7FC_44F8L, 0x79E0_DE63_425D_CF1DL,
+			0xC210_9436_4DFB_5636L, 0x9859_15FC_12F5_42E4L, 0xF294_B943_E17A_2BC4L, 0x3E6F_5B7B_17B2_939DL,
+			0x979C_F3CA_6CEC_5B5AL, 0xA705_992C_EECF_9C42L, 0xBD84_30BD_0827_7231L, 0x50C6_FF78_2A83_8353L,
+			0xECE5_3CEC_4A31_4EBDL, 0xA4F8_BF56_3524_6428L, 0x940F_4613_AE5E_D136L, 0x871B_7795_E136_BE99L,
+			0xB913_1798_99F6_8584L, 0x28E2_557B_5984_6E3FL, 0xE757_DD7E_C074_26E5L, 0x331A_EADA_2FE5_89CFL,
+			0x9096_EA6F_3848_984FL, 0x3FF0_D2C8_5DEF_7621L, 0xB4BC_A50B_065A_BE63L, 0x0FED_077A_756B_53A9L,
+			0xE1EB_CE4D_C7F1_6DFBL, 0xD3E8_4959_12C6_2894L, 0x8D33_60F0_9CF6_E4BDL, 0x6471_2DD7_ABBB_D95CL,
+			0xB080_392C_C434_9DECL, 0xBD8D_794D_96AA_CFB3L, 0xDCA0_4777_F541_C567L, 0xECF0_D7A0_FC55_83A0L,
+			0x89E4_2CAA_F949_1B60L, 0xF416_86C4_9DB5_7244L, 0xAC5D_37D5_B79B_6239L, 0x311C_2875_C522_CED5L,
+			0xD774_85CB_2582_3AC7L, 0x7D63_3293_366B_828BL, 0x86A8_D39E_F771_64BCL, 0xAE5D_FF9C_0203_3197L,
+			0xA853_0886_B54D_BDEBL, 0xD9F5_7F83_0283_FDFCL, 0xD267_CAA8_62A1_2D66L, 0xD072_DF63_C324_FD7BL,
+			0x8380_DEA9_3DA4_BC60L, 0x4247_CB9E_59F7_1E6DL, 0xA461_1653_8D0D_EB78L, 0x52D9_BE85_F074_E608L,
+			0xCD79_5BE8_7051_6656L, 0x6790_2E27_6C92_1F8BL, 0x806B_D971_4632_DFF6L, 0x00BA_1CD8_A3DB_53B6L,
+			0xA086_CFCD_97BF_97F3L, 0x80E8_A40E_CCD2_28A4L, 0xC8A8_83C0_FDAF_7DF0L, 0x6122_CD12_8006_B2CDL,
+			0xFAD2_A4B1_3D1B_5D6CL, 0x796B_8057_2008_5F81L, 0x9CC3_A6EE_C631_1A63L, 0xCBE3_3036_7405_3BB0L,
+			0xC3F4_90AA_77BD_60FCL, 0xBEDB_FC44_1106_8A9CL, 0xF4F1_B4D5_15AC_B93BL, 0xEE92_FB55_1548_2D44L,
+			0x9917_1105_2D8B_F3C5L, 0x751B_DD15_2D4D_1C4AL, 0xBF5C_D546_78EE_F0B6L, 0xD262_D45A_78A0_635DL,
+			0xEF34_0A98_172A_ACE4L, 0x86FB_8971_16C8_7C34L, 0x9580_869F_0E7A_AC0EL, 0xD45D_35E6_AE3D_4DA0L,
+			0xBAE0_A846_D219_5712L, 0x8974_8360_59CC_A109L, 0xE998_D258_869F_ACD7L, 0x2BD1_A438_703F_C94BL,
+			0x91FF_8377_5423_CC06L, 0x7B63_06A3_4627_DDCFL, 0xB67F_6455_292C_BF08L, 0x1A3B_C84C_17B1_D542L,
+			0xE41F_3D6A_7377_EECAL, 0x20CA_BA5F_1D9E_4A93L, 0x8E93_8662_882A_F53EL, 0x547E_B47B_7282_EE9CL,
+			0xB238_67FB_2A35_B28DL, 0xE99E_619A_4F23_AA43L, 0xDEC6_81F9_F4C3_1F31L, 0x6405_FA00_E2EC_94D4L,
+			0x8B3C_113C_38F9_F37EL, 0xDE83_BC40_8DD3_DD04L, 0xAE0B_158B_4738_705EL, 0x9624_AB50_B148_D445L,
+			0xD98D_DAEE_1906_8C76L, 0x3BAD_D624_DD9B_0957L, 0x87F8_A8D4_CFA4_17C9L, 0xE54C_A5D7_0A80_E5D6L,
+			0xA9F6_D30A_038D_1DBCL, 0x5E9F_CF4C_CD21_1F4CL, 0xD474_87CC_8470_652BL, 0x7647_C320_0069_671FL,
+			0x84C8_D4DF_D2C6_3F3BL, 0x29EC_D9F4_0041_E073L, 0xA5FB_0A17_C777_CF09L, 0xF468_1071_0052_5890L,
+			0xCF79_CC9D_B955_C2CCL, 0x7182_148D_4066_EEB4L, 0x81AC_1FE2_93D5_99BFL, 0xC6F1_4CD8_4840_5530L,
+			0xA217_27DB_38CB_002FL, 0xB8AD_A00E_5A50_6A7CL, 0xCA9C_F1D2_06FD_C03BL, 0xA6D9_0811_F0E4_851CL,
+			0xFD44_2E46_88BD_304AL, 0x908F_4A16_6D1D_A663L, 0x9E4A_9CEC_1576_3E2EL, 0x9A59_8E4E_0432_87FEL,
+			0xC5DD_4427_1AD3_CDBAL, 0x40EF_F1E1_853F_29FDL, 0xF754_9530_E188_C128L, 0xD12B_EE59_E68E_F47CL,
+			0x9A94_DD3E_8CF5_78B9L, 0x82BB_74F8_3019_58CEL, 0xC13A_148E_3032_D6E7L, 0xE36A_5236_3C1F_AF01L,
+			0xF188_99B1_BC3F_8CA1L, 0xDC44_E6C3_CB27_9AC1L, 0x96F5_600F_15A7_B7E5L, 0x29AB_103A_5EF8_C0B9L,
+			0xBCB2_B812_DB11_A5DEL, 0x7415_D448_F6B6_F0E7L, 0xEBDF_6617_91D6_0F56L, 0x111B_495B_3464_AD21L,
+			0x936B_9FCE_BB25_C995L, 0xCAB1_0DD9_00BE_EC34L, 0xB846_87C2_69EF_3BFBL, 0x3D5D_514F_40EE_A742L,
+			0xE658_29B3_046B_0AFAL, 0x0CB4_A5A3_112A_5112L, 0x8FF7_1A0F_E2C2_E6DCL, 0x47F0_E785_EABA_72ABL,
+			0xB3F4_E093_DB73_A093L, 0x59ED_2167_6569_0F56L, 0xE0F2_18B8_D250_88B8L, 0x3068_69C1_3EC3_532CL,
+			0x8C97_4F73_8372_5573L, 0x1E41_4218_C73A_13FBL, 0xAFBD_2350_644E_EACFL, 0xE5D1_929E_F908_98FAL,
+			0xDBAC_6C24_7D62_A583L, 0xDF45_F746_B74A_BF39L, 0x894B_C396_CE5D_A772L, 0x6B8B_BA8C_328E_B783L,
+			0xAB9E_B47C_81F5_114FL, 0x066E_A92F_3F32_6564L, 0xD686_619B_A272_55A2L, 0xC80A_537B_0EFE_FEBDL,
+			0x8613_FD01_4587_7585L, 0xBD06_742C_E95F_5F36L, 0xA798_FC41_96E9_52E7L, 0x2C48_1138_23B7_3704L,
+			0xD17F_3B51_FCA3_A7A0L, 0xF75A_1586_2CA5_04C5L, 0x82EF_8513_3DE6_48C4L, 0x9A98_4D73_DBE7_22FBL,
+			0xA3AB_6658_0D5F_DAF5L, 0xC13E_60D0_D2E0_EBBAL, 0xCC96_3FEE_10B7_D1B3L, 0x318D_F905_0799_26A8L,
+			0xFFBB_CFE9_94E5_C61FL, 0xFDF1_7746_497F_7052L, 0x9FD5_61F1_FD0F_9BD3L, 0xFEB6_EA8B_EDEF_A633L,
+			0xC7CA_BA6E_7C53_82C8L, 0xFE64_A52E_E96B_8FC0L, 0xF9BD_690A_1B68_637BL, 0x3DFD_CE7A_A3C6_73B0L,
+			0x9C16_61A6_5121_3E2DL, 0x06BE_A10C_A65C_084EL, 0xC31B_FA0F_E569_8DB8L, 0x486E_494F_CFF3_0A62L,
+			0xF3E2_F893_DEC3_F126L, 0x5A89_DBA3_C3EF_CCFAL, 0x986D_DB5C_6B3A_76B7L, 0xF896_2946_5A75_E01CL,
+			0xBE89_5233_8609_1465L, 0xF6BB_B397_F113_5823L, 0xEE2B_A6C0_678B_597FL, 0x746A_A07D_ED58_2E2CL,
+			0x94DB_4838_40B7_17EFL, 0xA8C2_A44E_B457_1CDCL, 0xBA12_1A46_50E4_DDEBL, 0x92F3_4D62_616C_E413L,
+			0xE896_A0D7_E51E_1566L, 0x77B0_20BA_F9C8_1D17L, 0x915E_2486_EF32_CD60L, 0x0ACE_1474_DC1D_122EL,
+			0xB5B5_ADA8_AAFF_80B8L, 0x0D81_9992_1324_56BAL, 0xE323_1912_D5BF_60E6L, 0x10E1_FFF6_97ED_6C69L,
+			0x8DF5_EFAB_C597_9C8FL, 0xCA8D_3FFA_1EF4_63C1L, 0xB173_6B96_B6FD_83B3L, 0xBD30_8FF8_A6B1_7CB2L,
+			0xDDD0_467C_64BC_E4A0L, 0xAC7C_B3F6_D05D_DBDEL, 0x8AA2_2C0D_BEF6_0EE4L, 0x6BCD_F07A_423A_A96BL,
+			0xAD4A_B711_2EB3_929DL, 0x86C1_6C98_D2C9_53C6L, 0xD89D_64D5_7A60_7744L, 0xE871_C7BF_077B_A8B7L,
+			0x8762_5F05_6C7C_4A8BL, 0x1147_1CD7_64AD_4972L, 0xA93A_F6C6_C79B_5D2DL, 0xD598_E40D_3DD8_9BCFL,
+			0xD389_B478_7982_3479L, 0x4AFF_1D10_8D4E_C2C3L, 0x8436_10CB_4BF1_60CBL, 0xCEDF_722A_5851_39BAL,
+			0xA543_94FE_1EED_B8FEL, 0xC297_4EB4_EE65_8828L, 0xCE94_7A3D_A6A9_273EL, 0x733D_2262_29FE_EA32L,
+			0x811C_CC66_8829_B887L, 0x0806_357D_5A3F_525FL, 0xA163_FF80_2A34_26A8L, 0xCA07_C2DC_B0CF_26F7L,
+			0xC9BC_FF60_34C1_3052L, 0xFC89_B393_DD02_F0B5L, 0xFC2C_3F38_41F1_7C67L, 0xBBAC_2078_D443_ACE2L,
+			0x9D9B_A783_2936_EDC0L, 0xD54B_944B_84AA_4C0DL, 0xC502_9163_F384_A931L, 0x0A9E_795E_65D4_DF11L,
+			0xF643_35BC_F065_D37DL, 0x4D46_17B5_FF4A_16D5L, 0x99EA_0196_163F_A42EL, 0x504B_CED1_BF8E_4E45L,
+			0xC064_81FB_9BCF_8D39L, 0xE45E_C286_2F71_E1D6L, 0xF07D_A27A_82C3_7088L, 0x5D76_7327_BB4E_5A4CL,
+			0x964E_858C_91BA_2655L, 0x3A6A_07F8_D510_F86FL, 0xBBE2_26EF_B628_AFEAL, 0x8904_89F7_0A55_368BL,
+			0xEADA_B0AB_A3B2_DBE5L, 0x2B45_AC74_CCEA_842EL, 0x92C8_AE6B_464F_C96FL, 0x3B0B_8BC9_0012_929DL,
+			0xB77A_DA06_17E3_BBCBL, 0x09CE_6EBB_4017_3744L, 0xE559_9087_9DDC_AABDL, 0xCC42_0A6A_101D_0515L,
+			0x8F57_FA54_C2A9_EAB6L, 0x9FA9_4682_4A12_232DL, 0xB32D_F8E9_F354_6564L, 0x4793_9822_DC96_ABF9L,
+			0xDFF9_7724_7029_7EBDL, 0x5978_7E2B_93BC_56F7L, 0x8BFB_EA76_C619_EF36L, 0x57EB_4EDB_3C55_B65AL,
+			0xAEFA_E514_77A0_6B03L, 0xEDE6_2292_0B6B_23F1L, 0xDAB9_9E59_9588_85C4L, 0xE95F_AB36_8E45_ECEDL,
+			0x88B4_02F7_FD75_539BL, 0x11DB_CB02_18EB_B414L, 0xAAE1_03B5_FCD2_A881L, 0xD652_BDC2_9F26_A119L,
+			0xD599_44A3_7C07_52A2L, 0x4BE7_6D33_46F0_495FL, 0x857F_CAE6_2D84_93A5L, 0x6F70_A440_0C56_2DDBL,
+			0xA6DF_BD9F_B8E5_B88EL, 0xCB4C_CD50_0F6B_B952L, 0xD097_AD07_A71F_26B2L, 0x7E20_00A4_1346_A7A7L,
+			0x825E_CC24_C873_782FL, 0x8ED4_0066_8C0C_28C8L, 0xA2F6_7F2D_FA90_563BL, 0x7289_0080_2F0F_32FAL,
+			0xCBB4_1EF9_7934_6BCAL, 0x4F2B_40A0_3AD2_FFB9L, 0xFEA1_26B7_D781_86BCL, 0xE2F6_10C8_4987_BFA8L,
+			0x9F24_B832_E6B0_F436L, 0x0DD9_CA7D_2DF4_D7C9L, 0xC6ED_E63F_A05D_3143L, 0x9150_3D1C_7972_0DBBL,
+			0xF8A9_5FCF_8874_7D94L, 0x75A4_4C63_97CE_912AL, 0x9B69_DBE1_B548_CE7CL, 0xC986_AFBE_3EE1_1ABAL,
+			0xC244_52DA_229B_021BL, 0xFBE8_5BAD_CE99_6168L, 0xF2D5_6790_AB41_C2A2L, 0xFAE2_7299_423F_B9C3L,
+			0x97C5_60BA_6B09_19A5L, 0xDCCD_879F_C967_D41AL, 0xBDB6_B8E9_05CB_600FL, 0x5400_E987_BBC1_C920L,
+			0xED24_6723_473E_3813L, 0x2901_23E9_AAB2_3B68L, 0x9436_C076_0C86_E30BL, 0xF9A0_B672_0AAF_6521L,
+			0xB944_7093_8FA8_9BCEL, 0xF808_E40E_8D5B_3E69L, 0xE795_8CB8_7392_C2C2L, 0xB60B_1D12_30B2_0E04L,
+			0x90BD_77F3_483B_B9B9L, 0xB1C6_F22B_5E6F_48C2L, 0xB4EC_D5F0_1A4A_A828L, 0x1E38_AEB6_360B_1AF3L,
+			0xE228_0B6C_20DD_5232L, 0x25C6_DA63_C38D_E1B0L, 0x8D59_0723_948A_535FL, 0x579C_487E_5A38_AD0EL,
+			0xB0AF_48EC_79AC_E837L, 0x2D83_5A9D_F0C6_D851L, 0xDCDB_1B27_9818_2244L, 0xF8E4_3145_6CF8_8E65L,
+			0x8A08_F0F8_BF0F_156BL, 0x1B8E_9ECB_641B_58FFL, 0xAC8B_2D36_EED2_DAC5L, 0xE272_467E_3D22_2F3FL,
+			0xD7AD_F884_AA87_9177L, 0x5B0E_D81D_CC6A_BB0FL, 0x86CC_BB52_EA94_BAEAL, 0x98E9_4712_9FC2_B4E9L,
+			0xA87F_EA27_A539_E9A5L, 0x3F23_98D7_47B3_6224L, 0xD29F_E4B1_8E88_640EL, 0x8EEC_7F0D_19A0_3AADL,
+			0x83A3_EEEE_F915_3E89L, 0x1953_CF68_3004_24ACL, 0xA48C_EAAA_B75A_8E2BL, 0x5FA8_C342_3C05_2DD7L,
+			0xCDB0_2555_6531_31B6L, 0x3792_F412_CB06_794DL, 0x808E_1755_5F3E_BF11L, 0xE2BB_D88B_BEE4_0BD0L,
+			0xA0B1_9D2A_B70E_6ED6L, 0x5B6A_CEAE_AE9D_0EC4L, 0xC8DE_0475_64D2_0A8BL, 0xF245_825A_5A44_5275L,
+			0xFB15_8592_BE06_8D2EL, 0xEED6_E2F0_F0D5_6712L, 0x9CED_737B_B6C4_183DL, 0x5546_4DD6_9685_606BL,
+			0xC428_D05A_A475_1E4CL, 0xAA97_E14C_3C26_B886L, 0xF533_0471_4D92_65DFL, 0xD53D_D99F_4B30_66A8L,
+			0x993F_E2C6_D07B_7FABL, 0xE546_A803_8EFE_4029L, 0xBF8F_DB78_849A_5F96L, 0xDE98_5204_72BD_D033L,
+			0xEF73_D256_A5C0_F77CL, 0x963E_6685_8F6D_4440L, 0x95A8_6376_2798_9AADL, 0xDDE7_0013_79A4_4AA8L,
+			0xBB12_7C53_B17E_C159L, 0x5560_C018_580D_5D52L, 0xE9D7_1B68_9DDE_71AFL, 0xAAB8_F01E_6E10_B4A6L,
+			0x9226_7121_62AB_070DL, 0xCAB3_9613_04CA_70E8L, 0xB6B0_0D69_BB55_C8D1L, 0x3D60_7B97_C5FD_0D22L,
+			0xE45C_10C4_2A2B_3B05L, 0x8CB8_9A7D_B77C_506AL, 0x8EB9_8A7A_9A5B_04E3L, 0x77F3_608E_92AD_B242L,
+			0xB267_ED19_40F1_C61CL, 0x55F0_38B2_3759_1ED3L, 0xDF01_E85F_912E_37A3L, 0x6B6C_46DE_C52F_6688L,
+			0x8B61_313B_BABC_E2C6L, 0x2323_AC4B_3B3D_A015L, 0xAE39_7D8A_A96C_1B77L, 0xABEC_975E_0A0D_081AL,
+			0xD9C7_DCED_53C7_2255L, 0x96E7_BD35_8C90_4A21L, 0x881C_EA14_545C_7575L, 0x7E50_D641_77DA_2E54L,
+			0xAA24_2499_6973_92D2L, 0xDDE5_0BD1_D5D0_B9E9L, 0xD4AD_2DBF_C3D0_7787L, 0x955E_4EC6_4B44_E864L,
+			0x84EC_3C97_DA62_4AB4L, 0xBD5A_F13B_EF0B_113EL, 0xA627_4BBD_D0FA_DD61L, 0xECB1_AD8A_EACD_D58EL,
+			0xCFB1_1EAD_4539_94BAL, 0x67DE_18ED_A581_4AF2L, 0x81CE_B32C_4B43_FCF4L, 0x80EA_CF94_8770_CED7L,
+			0xA242_5FF7_5E14_FC31L, 0xA125_8379_A94D_028DL, 0xCAD2_F7F5_359A_3B3EL, 0x096E_E458_13A0_4330L,
+			0xFD87_B5F2_8300_CA0DL, 0x8BCA_9D6E_1888_53FCL, 0x9E74_D1B7_91E0_7E48L, 0x775E_A264_CF55_347EL,
+			0xC612_0625_7658_9DDAL, 0x9536_4AFE_032A_819EL, 0xF796_87AE_D3EE_C551L, 0x3A83_DDBD_83F5_2205L,
+			0x9ABE_14CD_4475_3B52L, 0xC492_6A96_7279_3543L, 0xC16D_9A00_9592_8A27L, 0x75B7_053C_0F17_8294L,
+			0xF1C9_0080_BAF7_2CB1L, 0x5324_C68B_12DD_6339L, 0x971D_A050_74DA_7BEEL, 0xD3F6_FC16_EBCA_5E04L,
+			0xBCE5_0864_9211_1AEAL, 0x88F4_BB1C_A6BC_F585L, 0xEC1E_4A7D_B695_61A5L, 0x2B31_E9E3_D06C_32E6L,
+			0x9392_EE8E_921D_5D07L, 0x3AFF_322E_6243_9FD0L, 0xB877_AA32_36A4_B449L, 0x09BE_FEB9_FAD4_87C3L,
+			0xE695_94BE_C44D_E15BL, 0x4C2E_BE68_7989_A9B4L, 0x901D_7CF7_3AB0_ACD9L, 0x0F9D_3701_4BF6_0A11L,
+			0xB424_DC35_095C_D80FL, 0x5384_84C1_9EF3_8C95L, 0xE12E_1342_4BB4_0E13L, 0x2865_A5F2_06B0_6FBAL,
+			0x8CBC_CC09_6F50_88CBL, 0xF93F_87B7_442E_45D4L, 0xAFEB_FF0B_CB24_AAFEL, 0xF78F_69A5_1539_D749L,
+			0xDBE6_FECE_BDED_D5BEL, 0xB573_440E_5A88_4D1CL, 0x8970_5F41_36B4_A597L, 0x3168_0A88_F895_3031L,
+			0xABCC_7711_8461_CEFCL, 0xFDC2_0D2B_36BA_7C3EL, 0xD6BF_94D5_E57A_42BCL, 0x3D32_9076_0469_1B4DL,
+			0x8637_BD05_AF6C_69B5L, 0xA63F_9A49_C2C1_B110L, 0xA7C5_AC47_1B47_8423L, 0x0FCF_80DC_3372_1D54L,
+			0xD1B7_1758_E219_652BL, 0xD3C3_6113_404E_A4A9L, 0x8312_6E97_8D4F_DF3BL, 0x645A_1CAC_0831_26EAL,
+			0xA3D7_0A3D_70A3_D70AL, 0x3D70_A3D7_0A3D_70A4L, 0xCCCC_CCCC_CCCC_CCCCL, 0xCCCC_CCCC_CCCC_CCCDL,
+			0x8000_0000_0000_0000L, 0x0000_0000_0000_0000L, 0xA000_0000_0000_0000L, 0x0000_0000_0000_0000L,
+			0xC800_0000_0000_0000L, 0x0000_0000_0000_0000L, 0xFA00_0000_0000_0000L, 0x0000_0000_0000_0000L,
+			0x9C40_0000_0000_0000L, 0x0000_0000_0000_0000L, 0xC350_0000_0000_0000L, 0x0000_0000_0000_0000L,
+			0xF424_0000_0000_0000L, 0x0000_0000_0000_0000L, 0x9896_8000_0000_0000L, 0x0000_0000_0000_0000L,
+			0xBEBC_2000_0000_0000L, 0x0000_0000_0000_0000L, 0xEE6B_2800_0000_0000L, 0x0000_0000_0000_0000L,
+			0x9502_F900_0000_0000L, 0x0000_0000_0000_0000L, 0xBA43_B740_0000_0000L, 0x0000_0000_0000_0000L,
+			0xE8D4_A510_0000_0000L, 0x0000_0000_0000_0000L, 0x9184_E72A_0000_0000L, 0x0000_0000_0000_0000L,
+			0xB5E6_20F4_8000_0000L, 0x0000_0000_0000_0000L, 0xE35F_A931_A000_0000L, 0x0000_0000_0000_0000L,
+			0x8E1B_C9BF_0400_0000L, 0x0000_0000_0000_0000L, 0xB1A2_BC2E_C500_0000L, 0x0000_0000_0000_0000L,
+			0xDE0B_6B3A_7640_0000L, 0x0000_0000_0000_0000L, 0x8AC7_2304_89E8_0000L, 0x0000_0000_0000_0000L,
+			0xAD78_EBC5_AC62_0000L, 0x0000_0000_0000_0000L, 0xD8D7_26B7_177A_8000L, 0x0000_0000_0000_0000L,
+			0x8786_7832_6EAC_9000L, 0x0000_0000_0000_0000L, 0xA968_163F_0A57_B400L, 0x0000_0000_0000_0000L,
+			0xD3C2_1BCE_CCED_A100L, 0x0000_0000_0000_0000L, 0x8459_5161_4014_84A0L, 0x0000_0000_0000_0000L,
+			0xA56F_A5B9_9019_A5C8L, 0x0000_0000_0000_0000L, 0xCECB_8F27_F420_0F3AL, 0x0000_0000_0000_0000L,
+			0x813F_3978_F894_0984L, 0x4000_0000_0000_0000L, 0xA18F_07D7_36B9_0BE5L, 0x5000_0000_0000_0000L,
+			0xC9F2_C9CD_0467_4EDEL, 0xA400_0000_0000_0000L, 0xFC6F_7C40_4581_2296L, 0x4D00_0000_0000_0000L,
+			0x9DC5_ADA8_2B70_B59DL, 0xF020_0000_0000_0000L, 0xC537_1912_364C_E305L, 0x6C28_0000_0000_0000L,
+			0xF684_DF56_C3E0_1BC6L, 0xC732_0000_0000_0000L, 0x9A13_0B96_3A6C_115CL, 0x3C7F_4000_0000_0000L,
+			0xC097_CE7B_C907_15B3L, 0x4B9F_1000_0000_0000L, 0xF0BD_C21A_BB48_DB20L, 0x1E86_D400_0000_0000L,
+			0x9676_9950_B50D_88F4L, 0x1314_4480_0000_0000L, 0xBC14_3FA4_E250_EB31L, 0x17D9_55A0_0000_0000L,
+			0xEB19_4F8E_1AE5_25FDL, 0x5DCF_AB08_0000_0000L, 0x92EF_D1B8_D0CF_37BEL, 0x5AA1_CAE5_0000_0000L,
+			0xB7AB_C627_0503_05ADL, 0xF14A_3D9E_4000_0000L, 0xE596_B7B0_C643_C719L, 0x6D9C_CD05_D000_0000L,
+			0x8F7E_32CE_7BEA_5C6FL, 0xE482_0023_A200_0000L, 0xB35D_BF82_1AE4_F38BL, 0xDDA2_802C_8A80_0000L,
+			0xE035_2F62_A19E_306EL, 0xD50B_2037_AD20_0000L, 0x8C21_3D9D_A502_DE45L, 0x4526_F422_CC34_0000L,
+			0xAF29_8D05_0E43_95D6L, 0x9670_B12B_7F41_0000L, 0xDAF3_F046_51D4_7B4CL, 0x3C0C_DD76_5F11_4000L,
+			0x88D8_762B_F324_CD0FL, 0xA588_0A69_FB6A_C800L, 0xAB0E_93B6_EFEE_0053L, 0x8EEA_0D04_7A45_7A00L,
+			0xD5D2_38A4_ABE9_8068L, 0x72A4_9045_98D6_D880L, 0x85A3_6366_EB71_F041L, 0x47A6_DA2B_7F86_4750L,
+			0xA70C_3C40_A64E_6C51L, 0x9990_90B6_5F67_D924L, 0xD0CF_4B50_CFE2_0765L, 0xFFF4_B4E3_F741_CF6DL,
+			0x8281_8F12_81ED_449FL, 0xBFF8_F10E_7A89_21A4L, 0xA321_F2D7_2268_95C7L, 0xAFF7_2D52_192B_6A0DL,
+			0xCBEA_6F8C_EB02_BB39L, 0x9BF4_F8A6_9F76_4490L, 0xFEE5_0B70_25C3_6A08L, 0x02F2_36D0_4753_D5B4L,
+			0x9F4F_2726_179A_2245L, 0x01D7_6242_2C94_6590L, 0xC722_F0EF_9D80_AAD6L, 0x424D_3AD2_B7B9_7EF5L,
+			0xF8EB_AD2B_84E0_D58BL, 0xD2E0_8987_65A7_DEB2L, 0x9B93_4C3B_330C_8577L, 0x63CC_55F4_9F88_EB2FL,
+			0xC278_1F49_FFCF_A6D5L, 0x3CBF_6B71_C76B_25FBL, 0xF316_271C_7FC3_908AL, 0x8BEF_464E_3945_EF7AL,
+			0x97ED_D871_CFDA_3A56L, 0x9775_8BF0_E3CB_B5ACL, 0xBDE9_4E8E_43D0_C8ECL, 0x3D52_EEED_1CBE_A317L,
+			0xED63_A231_D4C4_FB27L, 0x4CA7_AAA8_63EE_4BDDL, 0x945E_455F_24FB_1CF8L, 0x8FE8_CAA9_3E74_EF6AL,
+			0xB975_D6B6_EE39_E436L, 0xB3E2_FD53_8E12_2B44L, 0xE7D3_4C64_A9C8_5D44L, 0x60DB_BCA8_7196_B616L,
+			0x90E4_0FBE_EA1D_3A4AL, 0xBC89_55E9_46FE_31CDL, 0xB51D_13AE_A4A4_88DDL, 0x6BAB_AB63_98BD_BE41L,
+			0xE264_589A_4DCD_AB14L, 0xC696_963C_7EED_2DD1L, 0x8D7E_B760_70A0_8AECL, 0xFC1E_1DE5_CF54_3CA2L,
+			0xB0DE_6538_8CC8_ADA8L, 0x3B25_A55F_4329_4BCBL, 0xDD15_FE86_AFFA_D912L, 0x49EF_0EB7_13F3_9EBEL,
+			0x8A2D_BF14_2DFC_C7ABL, 0x6E35_6932_6C78_4337L, 0xACB9_2ED9_397B_F996L, 0x49C2_C37F_0796_5404L,
+			0xD7E7_7A8F_87DA_F7FBL, 0xDC33_745E_C97B_E906L, 0x86F0_AC99_B4E8_DAFDL, 0x69A0_28BB_3DED_71A3L,
+			0xA8AC_D7C0_2223_11BCL, 0xC408_32EA_0D68_CE0CL, 0xD2D8_0DB0_2AAB_D62BL, 0xF50A_3FA4_90C3_0190L,
+			0x83C7_088E_1AAB_65DBL, 0x7926_67C6_DA79_E0FAL, 0xA4B8_CAB1_A156_3F52L, 0x5770_01B8_9118_5938L,
+			0xCDE6_FD5E_09AB_CF26L, 0xED4C_0226_B55E_6F86L, 0x80B0_5E5A_C60B_6178L, 0x544F_8158_315B_05B4L,
+			0xA0DC_75F1_778E_39D6L, 0x6963_61AE_3DB1_C721L, 0xC913_936D_D571_C84CL, 0x03BC_3A19_CD1E_38E9L,
+			0xFB58_7849_4ACE_3A5FL, 0x04AB_48A0_4065_C723L, 0x9D17_4B2D_CEC0_E47BL, 0x62EB_0D64_283F_9C76L,
+			0xC45D_1DF9_4271_1D9AL, 0x3BA5_D0BD_324F_8394L, 0xF574_6577_930D_6500L, 0xCA8F_44EC_7EE3_6479L,
+			0x9968_BF6A_BBE8_5F20L, 0x7E99_8B13_CF4E_1ECBL, 0xBFC2_EF45_6AE2_76E8L, 0x9E3F_EDD8_C321_A67EL,
+			0xEFB3_AB16_C59B_14A2L, 0xC5CF_E94E_F3EA_101EL, 0x95D0_4AEE_3B80_ECE5L, 0xBBA1_F1D1_5872_4A12L,
+			0xBB44_5DA9_CA61_281FL, 0x2A8A_6E45_AE8E_DC97L, 0xEA15_7514_3CF9_7226L, 0xF52D_09D7_1A32_93BDL,
+			0x924D_692C_A61B_E758L, 0x593C_2626_705F_9C56L, 0xB6E0_C377_CFA2_E12EL, 0x6F8B_2FB0_0C77_836CL,
+			0xE498_F455_C38B_997AL, 0x0B6D_FB9C_0F95_6447L, 0x8EDF_98B5_9A37_3FECL, 0x4724_BD41_89BD_5EACL,
+			0xB297_7EE3_00C5_0FE7L, 0x58ED_EC91_EC2C_B657L, 0xDF3D_5E9B_C0F6_53E1L, 0x2F29_67B6_6737_E3EDL,
+			0x8B86_5B21_5899_F46CL, 0xBD79_E0D2_0082_EE74L, 0xAE67_F1E9_AEC0_7187L, 0xECD8_5906_80A3_AA11L,
+			0xDA01_EE64_1A70_8DE9L, 0xE80E_6F48_20CC_9495L, 0x8841_34FE_9086_58B2L, 0x3109_058D_147F_DCDDL,
+			0xAA51_823E_34A7_EEDEL, 0xBD4B_46F0_599F_D415L, 0xD4E5_E2CD_C1D1_EA96L, 0x6C9E_18AC_7007_C91AL,
+			0x850F_ADC0_9923_329EL, 0x03E2_CF6B_C604_DDB0L, 0xA653_9930_BF6B_FF45L, 0x84DB_8346_B786_151CL,
+			0xCFE8_7F7C_EF46_FF16L, 0xE612_6418_6567_9A63L, 0x81F1_4FAE_158C_5F6EL, 0x4FCB_7E8F_3F60_C07EL,
+			0xA26D_A399_9AEF_7749L, 0xE3BE_5E33_0F38_F09DL, 0xCB09_0C80_01AB_551CL, 0x5CAD_F5BF_D307_2CC5L,
+			0xFDCB_4FA0_0216_2A63L, 0x73D9_732F_C7C8_F7F6L, 0x9E9F_11C4_014D_DA7EL, 0x2867_E7FD_DCDD_9AFAL,
+			0xC646_D635_01A1_511DL, 0xB281_E1FD_5415_01B8L, 0xF7D8_8BC2_4209_A565L, 0x1F22_5A7C_A91A_4226L,
+			0x9AE7_5759_6946_075FL, 0x3375_788D_E9B0_6958L, 0xC1A1_2D2F_C397_8937L, 0x0052_D6B1_641C_83AEL,
+			0xF209_787B_B47D_6B84L, 0xC067_8C5D_BD23_A49AL, 0x9745_EB4D_50CE_6332L, 0xF840_B7BA_9636_46E0L,
+			0xBD17_6620_A501_FBFFL, 0xB650_E5A9_3BC3_D898L, 0xEC5D_3FA8_CE42_7AFFL, 0xA3E5_1F13_8AB4_CEBEL,
+			0x93BA_47C9_80E9_8CDFL, 0xC66F_336C_36B1_0137L, 0xB8A8_D9BB_E123_F017L, 0xB80B_0047_445D_4184L,
+			0xE6D3_102A_D96C_EC1DL, 0xA60D_C059_1574_91E5L, 0x9043_EA1A_C7E4_1392L, 0x87C8_9837_AD68_DB2FL,
+			0xB454_E4A1_79DD_1877L, 0x29BA_BE45_98C3_11FBL, 0xE16A_1DC9_D854_5E94L, 0xF429_6DD6_FEF3_D67AL,
+			0x8CE2_529E_2734_BB1DL, 0x1899_E4A6_5F58_660CL, 0xB01A_E745_B101_E9E4L, 0x5EC0_5DCF_F72E_7F8FL,
+			0xDC21_A117_1D42_645DL, 0x7670_7543_F4FA_1F73L, 0x8995_04AE_7249_7EBAL, 0x6A06_494A_791C_53A8L,
+			0xABFA_45DA_0EDB_DE69L, 0x0487_DB9D_1763_6892L, 0xD6F8_D750_9292_D603L, 0x45A9_D284_5D3C_42B6L,
+			0x865B_8692_5B9B_C5C2L, 0x0B8A_2392_BA45_A9B2L, 0xA7F2_6836_F282_B732L, 0x8E6C_AC77_68D7_141EL,
+			0xD1EF_0244_AF23_64FFL, 0x3207_D795_430C_D926L, 0x8335_616A_ED76_1F1FL, 0x7F44_E6BD_49E8_07B8L,
+			0xA402_B9C5_A8D3_A6E7L, 0x5F16_206C_9C62_09A6L, 0xCD03_6837_1308_90A1L, 0x36DB_A887_C37A_8C0FL,
+			0x8022_2122_6BE5_5A64L, 0xC249_4954_DA2C_9789L, 0xA02A_A96B_06DE_B0FDL, 0xF2DB_9BAA_10B7_BD6CL,
+			0xC835_53C5_C896_5D3DL, 0x6F92_8294_94E5_ACC7L, 0xFA42_A8B7_3ABB_F48CL, 0xCB77_2339_BA1F_17F9L,
+			0x9C69_A972_84B5_78D7L, 0xFF2A_7604_1453_6EFBL, 0xC384_13CF_25E2_D70DL, 0xFEF5_1385_1968_4ABAL,
+			0xF465_18C2_EF5B_8CD1L, 0x7EB2_5866_5FC2_5D69L, 0x98BF_2F79_D599_3802L, 0xEF2F_773F_FBD9_7A61L,
+			0xBEEE_FB58_4AFF_8603L, 0xAAFB_550F_FACF_D8FAL, 0xEEAA_BA2E_5DBF_6784L, 0x95BA_2A53_F983_CF38L,
+			0x952A_B45C_FA97_A0B2L, 0xDD94_5A74_7BF2_6183L, 0xBA75_6174_393D_88DFL, 0x94F9_7111_9AEE_F9E4L,
+			0xE912_B9D1_478C_EB17L, 0x7A37_CD56_01AA_B85DL, 0x91AB_B422_CCB8_12EEL, 0xAC62_E055_C10A_B33AL,
+			0xB616_A12B_7FE6_17AAL, 0x577B_986B_314D_6009L, 0xE39C_4976_5FDF_9D94L, 0xED5A_7E85_FDA0_B80BL,
+			0x8E41_ADE9_FBEB_C27DL, 0x1458_8F13_BE84_7307L, 0xB1D2_1964_7AE6_B31CL, 0x596E_B2D8_AE25_8FC8L,
+			0xDE46_9FBD_99A0_5FE3L, 0x6FCA_5F8E_D9AE_F3BBL, 0x8AEC_23D6_8004_3BEEL, 0x25DE_7BB9_480D_5854L,
+			0xADA7_2CCC_2005_4AE9L, 0xAF56_1AA7_9A10_AE6AL, 0xD910_F7FF_2806_9DA4L, 0x1B2B_A151_8094_DA04L,
+			0x87AA_9AFF_7904_2286L, 0x90FB_44D2_F05D_0842L, 0xA995_41BF_5745_2B28L, 0x353A_1607_AC74_4A53L,
+			0xD3FA_922F_2D16_75F2L, 0x4288_9B89_9791_5CE8L, 0x847C_9B5D_7C2E_09B7L, 0x6995_6135_FEBA_DA11L,
+			0xA59B_C234_DB39_8C25L, 0x43FA_B983_7E69_9095L, 0xCF02_B2C2_1207_EF2EL, 0x94F9_67E4_5E03_F4BBL,
+			0x8161_AFB9_4B44_F57DL, 0x1D1B_E0EE_BAC2_78F5L, 0xA1BA_1BA7_9E16_32DCL, 0x6462_D92A_6973_1732L,
+			0xCA28_A291_859B_BF93L, 0x7D7B_8F75_03CF_DCFEL, 0xFCB2_CB35_E702_AF78L, 0x5CDA_7352_44C3_D43EL,
+			0x9DEF_BF01_B061_ADABL, 0x3A08_8813_6AFA_64A7L, 0xC56B_AEC2_1C7A_1916L, 0x088A_AA18_45B8_FDD0L,
+			0xF6C6_9A72_A398_9F5BL, 0x8AAD_549E_5727_3D45L, 0x9A3C_2087_A63F_6399L, 0x36AC_54E2_F678_864BL,
+			0xC0CB_28A9_8FCF_3C7FL, 0x8457_6A1B_B416_A7DDL, 0xF0FD_F2D3_F3C3_0B9FL, 0x656D_44A2_A11C_51D5L,
+			0x969E_B7C4_7859_E743L, 0x9F64_4AE5_A4B1_B325L, 0xBC46_65B5_9670_6114L, 0x873D_5D9F_0DDE_1FEEL,
+			0xEB57_FF22_FC0C_7959L, 0xA90C_B506_D155_A7EAL, 0x9316_FF75_DD87_CBD8L, 0x09A7_F124_42D5_88F2L,
+			0xB7DC_BF53_54E9_BECEL, 0x0C11_ED6D_538A_EB2FL, 0xE5D3_EF28_2A24_2E81L, 0x8F16_68C8_A86D_A5FAL,
+			0x8FA4_7579_1A56_9D10L, 0xF96E_017D_6944_87BCL, 0xB38D_92D7_60EC_4455L, 0x37C9_81DC_C395_A9ACL,
+			0xE070_F78D_3927_556AL, 0x85BB_E253_F47B_1417L, 0x8C46_9AB8_43B8_9562L, 0x9395_6D74_78CC_EC8EL,
+			0xAF58_4166_54A6_BABBL, 0x387A_C8D1_9700_27B2L, 0xDB2E_51BF_E9D0_696AL, 0x0699_7B05_FCC0_319EL,
+			0x88FC_F317_F222_41E2L, 0x441F_ECE3_BDF8_1F03L, 0xAB3C_2FDD_EEAA_D25AL, 0xD527_E81C_AD76_26C3L,
+			0xD60B_3BD5_6A55_86F1L, 0x8A71_E223_D8D3_B074L, 0x85C7_0565_6275_7456L, 0xF687_2D56_6784_4E49L,
+			0xA738_C6BE_BB12_D16CL, 0xB428_F8AC_0165_61DBL, 0xD106_F86E_69D7_85C7L, 0xE133_36D7_01BE_BA52L,
+			0x82A4_5B45_0226_B39CL, 0xECC0_0246_6117_3473L, 0xA34D_7216_42B0_6084L, 0x27F0_02D7_F95D_0190L,
+			0xCC20_CE9B_D35C_78A5L, 0x31EC_038D_F7B4_41F4L, 0xFF29_0242_C833_96CEL, 0x7E67_0471_75A1_5271L,
+			0x9F79_A169_BD20_3E41L, 0x0F00_62C6_E984_D386L, 0xC758_09C4_2C68_4DD1L, 0x52C0_7B78_A3E6_0868L,
+			0xF92E_0C35_3782_6145L, 0xA770_9A56_CCDF_8A82L, 0x9BBC_C7A1_42B1_7CCBL, 0x88A6_6076_400B_B691L,
+			0xC2AB_F989_935D_DBFEL, 0x6ACF_F893_D00E_A435L, 0xF356_F7EB_F835_52FEL, 0x0583_F6B8_C412_4D43L,
+			0x9816_5AF3_7B21_53DEL, 0xC372_7A33_7A8B_704AL, 0xBE1B_F1B0_59E9_A8D6L, 0x744F_18C0_592E_4C5CL,
+			0xEDA2_EE1C_7064_130CL, 0x1162_DEF0_6F79_DF73L, 0x9485_D4D1_C63E_8BE7L, 0x8ADD_CB56_45AC_2BA8L,
+			0xB9A7_4A06_37CE_2EE1L, 0x6D95_3E2B_D717_3692L, 0xE811_1C87_C5C1_BA99L, 0xC8FA_8DB6_CCDD_0437L,
+			0x910A_B1D4_DB99_14A0L, 0x1D9C_9892_400A_22A2L, 0xB54D_5E4A_127F_59C8L, 0x2503_BEB6_D00C_AB4BL,
+			0xE2A0_B5DC_971F_303AL, 0x2E44_AE64_840F_D61DL, 0x8DA4_71A9_DE73_7E24L, 0x5CEA_ECFE_D289_E5D2L,
+			0xB10D_8E14_5610_5DADL, 0x7425_A83E_872C_5F47L, 0xDD50_F199_6B94_7518L, 0xD12F_124E_28F7_7719L,
+			0x8A52_96FF_E33C_C92FL, 0x82BD_6B70_D99A_AA6FL, 0xACE7_3CBF_DC0B_FB7BL, 0x636C_C64D_1001_550BL,
+			0xD821_0BEF_D30E_FA5AL, 0x3C47_F7E0_5401_AA4EL, 0x8714_A775_E3E9_5C78L, 0x65AC_FAEC_3481_0A71L,
+			0xA8D9_D153_5CE3_B396L, 0x7F18_39A7_41A1_4D0DL, 0xD310_45A8_341C_A07CL, 0x1EDE_4811_1209_A050L,
+			0x83EA_2B89_2091_E44DL, 0x934A_ED0A_AB46_0432L, 0xA4E4_B66B_68B6_5D60L, 0xF81D_A84D_5617_853FL,
+			0xCE1D_E406_42E3_F4B9L, 0x3625_1260_AB9D_668EL, 0x80D2_AE83_E9CE_78F3L, 0xC1D7_2B7C_6B42_6019L,
+			0xA107_5A24_E442_1730L, 0xB24C_F65B_8612_F81FL, 0xC949_30AE_1D52_9CFCL, 0xDEE0_33F2_6797_B627L,
+			0xFB9B_7CD9_A4A7_443CL, 0x1698_40EF_017D_A3B1L, 0x9D41_2E08_06E8_8AA5L, 0x8E1F_2895_60EE_864EL,
+			0xC491_798A_08A2_AD4EL, 0xF1A6_F2BA_B92A_27E2L, 0xF5B5_D7EC_8ACB_58A2L, 0xAE10_AF69_6774_B1DBL,
+			0x9991_A6F3_D6BF_1765L, 0xACCA_6DA1_E0A8_EF29L, 0xBFF6_10B0_CC6E_DD3FL, 0x17FD_090A_58D3_2AF3L,
+			0xEFF3_94DC_FF8A_948EL, 0xDDFC_4B4C_EF07_F5B0L, 0x95F8_3D0A_1FB6_9CD9L, 0x4ABD_AF10_1564_F98EL,
+			0xBB76_4C4C_A7A4_440FL, 0x9D6D_1AD4_1ABE_37F1L, 0xEA53_DF5F_D18D_5513L, 0x84C8_6189_216D_C5EDL,
+			0x9274_6B9B_E2F8_552CL, 0x32FD_3CF5_B4E4_9BB4L, 0xB711_8682_DBB6_6A77L, 0x3FBC_8C33_221D_C2A1L,
+			0xE4D5_E823_92A4_0515L, 0x0FAB_AF3F_EAA5_334AL, 0x8F05_B116_3BA6_832DL, 0x29CB_4D87_F2A7_400EL,
+			0xB2C7_1D5B_CA90_23F8L, 0x743E_20E9_EF51_1012L, 0xDF78_E4B2_BD34_2CF6L, 0x914D_A924_6B25_5416L,
+			0x8BAB_8EEF_B640_9C1AL, 0x1AD0_89B6_C2F7_548EL, 0xAE96_72AB_A3D0_C320L, 0xA184_AC24_73B5_29B1L,
+			0xDA3C_0F56_8CC4_F3E8L, 0xC9E5_D72D_90A2_741EL, 0x8865_8996_17FB_1871L, 0x7E2F_A67C_7A65_8892L,
+			0xAA7E_EBFB_9DF9_DE8DL, 0xDDBB_901B_98FE_EAB7L, 0xD51E_A6FA_8578_5631L, 0x552A_7422_7F3E_A565L,
+			0x8533_285C_936B_35DEL, 0xD53A_8895_8F87_275FL, 0xA67F_F273_B846_0356L, 0x8A89_2ABA_F368_F137L,
+			0xD01F_EF10_A657_842CL, 0x2D2B_7569_B043_2D85L, 0x8213_F56A_67F6_B29BL, 0x9C3B_2962_0E29_FC73L,
+			0xA298_F2C5_01F4_5F42L, 0x8349_F3BA_91B4_7B8FL, 0xCB3F_2F76_4271_7713L, 0x241C_70A9_3621_9A73L,
+			0xFE0E_FB53_D30D_D4D7L, 0xED23_8CD3_83AA_0110L, 0x9EC9_5D14_63E8_A506L, 0xF436_3804_324A_40AAL,
+			0xC67B_B459_7CE2_CE48L, 0xB143_C605_3EDC_D0D5L, 0xF81A_A16F_DC1B_81DAL, 0xDD94_B786_8E94_050AL,
+			0x9B10_A4E5_E991_3128L, 0xCA7C_F2B4_191C_8326L, 0xC1D4_CE1F_63F5_7D72L, 0xFD1C_2F61_1F63_A3F0L,
+			0xF24A_01A7_3CF2_DCCFL, 0xBC63_3B39_673C_8CECL, 0x976E_4108_8617_CA01L, 0xD5BE_0503_E085_D813L,
+			0xBD49_D14A_A79D_BC82L, 0x4B2D_8644_D8A7_4E18L, 0xEC9C_459D_5185_2BA2L, 0xDDF8_E7D6_0ED1_219EL,
+			0x93E1_AB82_52F3_3B45L, 0xCABB_90E5_C942_B503L, 0xB8DA_1662_E7B0_0A17L, 0x3D6A_751F_3B93_6243L,
+			0xE710_9BFB_A19C_0C9DL, 0x0CC5_1267_0A78_3AD4L, 0x906A_617D_4501_87E2L, 0x27FB_2B80_668B_24C5L,
+			0xB484_F9DC_9641_E9DAL, 0xB1F9_F660_802D_EDF6L, 0xE1A6_3853_BBD2_6451L, 0x5E78_73F8_A039_6973L,
+			0x8D07_E334_5563_7EB2L, 0xDB0B_487B_6423_E1E8L, 0xB049_DC01_6ABC_5E5FL, 0x91CE_1A9A_3D2C_DA62L,
+			0xDC5C_5301_C56B_75F7L, 0x7641_A140_CC78_10FBL, 0x89B9_B3E1_1B63_29BAL, 0xA9E9_04C8_7FCB_0A9DL,
+			0xAC28_20D9_623B_F429L, 0x5463_45FA_9FBD_CD44L, 0xD732_290F_BACA_F133L, 0xA97C_1779_47AD_4095L,
+			0x867F_59A9_D4BE_D6C0L, 0x49ED_8EAB_CCCC_485DL, 0xA81F_3014_49EE_8C70L, 0x5C68_F256_BFFF_5A74L,
+			0xD226_FC19_5C6A_2F8CL, 0x7383_2EEC_6FFF_3111L, 0x8358_5D8F_D9C2_5DB7L, 0xC831_FD53_C5FF_7EABL,
+			0xA42E_74F3_D032_F525L, 0xBA3E_7CA8_B77F_5E55L, 0xCD3A_1230_C43F_B26FL, 0x28CE_1BD2_E55F_35EBL,
+			0x8044_4B5E_7AA7_CF85L, 0x7980_D163_CF5B_81B3L, 0xA055_5E36_1951_C366L, 0xD7E1_05BC_C332_621FL,
+			0xC86A_B5C3_9FA6_3440L, 0x8DD9_472B_F3FE_FAA7L, 0xFA85_6334_878F_C150L, 0xB14F_98F6_F0FE_B951L,
+			0x9C93_5E00_D4B9_D8D2L, 0x6ED1_BF9A_569F_33D3L, 0xC3B8_3581_09E8_4F07L, 0x0A86_2F80_EC47_00C8L,
+			0xF4A6_42E1_4C62_62C8L, 0xCD27_BB61_2758_C0FAL, 0x98E7_E9CC_CFBD_7DBDL, 0x8038_D51C_B897_789CL,
+			0xBF21_E440_03AC_DD2CL, 0xE047_0A63_E6BD_56C3L, 0xEEEA_5D50_0498_1478L, 0x1858_CCFC_E06C_AC74L,
+			0x9552_7A52_02DF_0CCBL, 0x0F37_801E_0C43_EBC8L, 0xBAA7_18E6_8396_CFFDL, 0xD305_6025_8F54_E6BAL,
+			0xE950_DF20_247C_83FDL, 0x47C6_B82E_F32A_2069L, 0x91D2_8B74_16CD_D27EL, 0x4CDC_331D_57FA_5441L,
+			0xB647_2E51_1C81_471DL, 0xE013_3FE4_ADF8_E952L, 0xE3D8_F9E5_63A1_98E5L, 0x5818_0FDD_D977_23A6L,
+			0x8E67_9C2F_5E44_FF8FL, 0x570F_09EA_A7EA_7648L,
+		};
+	}
+}
@@ -0,0 +1,128 @@
+package verify.ds.fenwick.intblockedbit;
+
+import java.util.*;
+
+import lib.ds.fenwick.*;
+import lib.ds.segmenttree.*;
+
+/**
+ * {@link IntBIT}・{@link IntSumSegmentTree}・{@link IntBlockedBIT} の区間和・lowerBound・点更新の時間を比べます。
+ * 引数は {@code <N> [構造]} で、構造（bit / segtree / blocked）を省略するとすべて計測します。N = 10^8 では構造ごとに別の JVM で実行してください。
+ * 出力は {@code RESULT,Bench,<構造>,<操作>,<N>,<最良の ns/操作>} です。
+ */
+public final class Bench {
+	private static final int OPS = 1 << 22;
+	private static final int WARMUP = 3;
+	private static final int MEASURE = 5;
+
+	private interface Structure {
+		int sum(int l, int r);
+
+		int lowerBound(int w);
+
+		void add(int i, int v);
+	}
+
+	public static void main(final String[] args) {
+		final int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		final String only = args.length > 1 ? args[1] : null;
+		final Random rnd = new Random(1);
+		final int[] l = new int[OPS], r = new int[OPS], w = new int[OPS], v = new int[OPS];
+		for (int k = 0; k < OPS; k++) {
+			final int a = rnd.nextInt(n), b = rnd.nextInt(n);
+			l[k] = Math.min(a, b);
+			r[k] = Math.max(a, b);
+			// 値はすべて 1 なので、累積和 w の位置は w - 1。
+			w[k] = 1 + rnd.nextInt(n);
+			v[k] = rnd.nextInt(2);
+		}
+		for (final String kind : new String[] {"bit", "segtree", "blocked"}) {
+			if (only != null && !only.equals(kind)) continue;
+			final Structure s = create(kind, n);
+			measure(kind, "sum", n, () -> {
+				long x = 0;
+				for (int k = 0; k < OPS; k++) x += s.sum(l[k], r[k]);
+				return x;
+			});
+			measure(kind, "lowerBound", n, () -> {
+				long x = 0;
+				for (int k = 0; k < OPS; k++) x += s.lowerBound(w[k]);
+				return x;
+			});
+			measure(kind, "add", n, () -> {
+				for (int k = 0; k < OPS; k++) s.add(l[k], v[k] - v[k ^ 1]);
+				return 0;
+			});
+		}
+	}
+
+	private static Structure create(final String kind, final int n) {
+		return switch (kind) {
+			case "bit" -> {
+				final IntBIT bit = new IntBIT(n, i -> 1);
+				yield new Structure() {
+					public int sum(final int l, final int r) {
+						return bit.sum(l, r);
+					}
+
+					public int lowerBound(final int w) {
+						return bit.lowerBound(w);
+					}
+
+					public void add(final int i, final int v) {
+						bit.add(i, v);
+					}
+				};
+			}
+			case "segtree" -> {
+				final int[] ones = new int[n];
+				Arrays.fill(ones, 1);
+				final IntSumSegmentTree tree = new IntSumSegmentTree(ones);
+				yield new Structure() {
+					public int sum(final int l, final int r) {
+						return tree.query(l, r + 1);
+					}
+
+					public int lowerBound(final int w) {
+						return tree.maxRight(0, x -> x < w);
+					}
+
+					public void add(final int i, final int v) {
+						tree.add(i, v);
+					}
+				};
+			}
+			default -> {
+				final IntBlockedBIT bit = new IntBlockedBIT(n, i -> 1);
+				yield new Structure() {
+					public int sum(final int l, final int r) {
+						return bit.sum(l, r);
+					}
+
+					public int lowerBound(final int w) {
+						return bit.lowerBound(w);
+					}
+
+					public void add(final int i, final int v) {
+						bit.add(i, v);
+					}
+				};
+			}
+		};
+	}
+
+	private interface Body {
+		long run();
+	}
+
+	private static void measure(final String kind, final String op, final int n, final Body body) {
+		long best = Long.MAX_VALUE, check = 0;
+		for (int rep = 0; rep < WARMUP + MEASURE; rep++) {
+			final long t = System.nanoTime();
+			check += body.run();
+			final long ns = System.nanoTime() - t;
+			if (rep >= WARMUP) best = Math.min(best, ns);
+		}
+		System.out.println("RESULT,Bench," + kind + "," + op + "," + n + "," + best / OPS + (check == 42 ? " " : ""));
+	}
+}
@@ -0,0 +1,50 @@
+package verify.ds.fenwick.intblockedbit;
+
+import java.util.*;
+
+import lib.ds.fenwick.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		// ブロック境界（16, 256, 4096）の前後を含める。
+		for (final int n : new int[] {1, 2, 15, 16, 17, 255, 256, 257, 1000, 4096, 4097, 70000}) test(n);
+	}
+
+	private static void test(final int n) {
+		final Random rnd = new Random(n);
+		final IntBIT expected = new IntBIT(n, i -> i % 7);
+		final IntBlockedBIT bit = new IntBlockedBIT(n, i -> i % 7);
+		for (int round = 0; round < 3000; round++) {
+			final int i = rnd.nextInt(n);
+			switch (round % 4) {
+				case 0 -> {
+					final int v = rnd.nextInt(10);
+					check(bit.add(i, v) == expected.add(i, v), "add n=" + n);
+				}
+				case 1 -> {
+					final int v = rnd.nextInt(100);
+					bit.set(i, v);
+					expected.set(i, v);
+				}
+				default -> {
+					final int l = rnd.nextInt(n), r = rnd.nextInt(n);
+					check(bit.sum(l, r) == expected.sum(l, r) && bit.sum(r) == expected.sum(r), "sum n=" + n);
+					final int w = rnd.nextInt(expected.sumAll() + 2) - 1;
+					check(bit.lowerBound(w) == expected.lowerBound(w), "lowerBound n=" + n + " w=" + w);
+					check(bit.upperBound(w) == expected.upperBound(w), "upperBound n=" + n + " w=" + w);
+				}
+			}
+			check(bit.get(i) == expected.get(i), "get n=" + n);
+		}
+		check(bit.sumAll() == expected.sumAll() && bit.sum(-1) == 0, "sumAll n=" + n);
+		check(bit.lowerBound(bit.sumAll() + 1) == n && bit.upperBound(bit.sumAll()) == n, "not found n=" + n);
+		check(bit.toString().equals(expected.toString()), "toString n=" + n);
+		bit.fill(3);
+		for (int r = 0; r < n; r += 1 + r / 3) check(bit.sum(r) == 3 * (r + 1), "fill n=" + n);
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,194 @@
+package verify.ds.map;
+
+import java.util.*;
+
+import lib.ds.map.*;
+
+/**
+ * 整数型Mapの1操作ごとの遅延を、一括リサイズと段階的リサイズで比較します。
+ * 既定サイズから {@code N} 個のキーを追加しつつ、追加済みのキーを同数取得し、各操作の所要時間の分位点を出力します。
+ * 引数で要素数を指定できます（既定 {@code 4,000,000}）。
+ */
+public final class TestResizeLatency {
+	private static final int DEFAULT_COUNT = 4_000_000;
+	private static final int WARMUP_COUNT = 200_000;
+	private static final int WARMUP_ROUNDS = 3;
+	private static volatile long blackhole;
+
+	private TestResizeLatency() {
+	}
+
+	public static void main(final String[] args) {
+		final int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COUNT;
+		final Random rnd = new Random(1);
+		final int[] a = new int[n], b = new int[n], c = new int[n];
+		final long[] l = new long[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = rnd.nextInt();
+			b[i] = rnd.nextInt();
+			c[i] = rnd.nextInt();
+			l[i] = rnd.nextLong();
+		}
+		final int[] gets = new int[n];
+		for (int i = 1; i < n; i++) gets[i] = rnd.nextInt(i);
+		System.out.printf(Locale.ROOT, "count=%,d (put %,d + get %,d)%n", n, n, n);
+		System.out.printf(Locale.ROOT, "%-17s %-11s %8s %8s %8s %10s %10s %9s%n", "class", "resize", "p50", "p99", "p999", "p9999", "max", "total");
+
+		benchmark("IntIntMap", n, gets, incremental -> {
+			final IntIntMap map = new IntIntMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(a[i], i);
+				}
+
+				public long get(final int i) {
+					return map.get(a[i]);
+				}
+			};
+		});
+		benchmark("IntLongMap", n, gets, incremental -> {
+			final IntLongMap map = new IntLongMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(a[i], i);
+				}
+
+				public long get(final int i) {
+					return map.get(a[i]);
+				}
+			};
+		});
+		benchmark("LongIntMap", n, gets, incremental -> {
+			final LongIntMap map = new LongIntMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(l[i], i);
+				}
+
+				public long get(final int i) {
+					return map.get(l[i]);
+				}
+			};
+		});
+		benchmark("LongLongMap", n, gets, incremental -> {
+			final LongLongMap map = new LongLongMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(l[i], i);
+				}
+
+				public long get(final int i) {
+					return map.get(l[i]);
+				}
+			};
+		});
+		benchmark("IntPairIntMap", n, gets, incremental -> {
+			final IntPairIntMap map = new IntPairIntMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(a[i], b[i], i);
+				}
+
+				public long get(final int i) {
+					return map.get(a[i], b[i]);
+				}
+			};
+		});
+		benchmark("IntPairLongMap", n, gets, incremental -> {
+			final IntPairLongMap map = new IntPairLongMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(a[i], b[i], i);
+				}
+
+				public long get(final int i) {
+					return map.get(a[i], b[i]);
+				}
+			};
+		});
+		benchmark("IntTripleIntMap", n, gets, incremental -> {
+			final IntTripleIntMap map = new IntTripleIntMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(a[i] & 0x1FFFFF, b[i] & 0x1FFFFF, c[i] & 0x1FFFFF, i);
+				}
+
+				public long get(final int i) {
+					return map.get(a[i] & 0x1FFFFF, b[i] & 0x1FFFFF, c[i] & 0x1FFFFF);
+				}
+			};
+		});
+		benchmark("IntTripleLongMap", n, gets, incremental -> {
+			final IntTripleLongMap map = new IntTripleLongMap();
+			map.setIncrementalResize(incremental);
+			return new Target() {
+				public void put(final int i) {
+					map.put(a[i] & 0x1FFFFF, b[i] & 0x1FFFFF, c[i] & 0x1FFFFF, i);
+				}
+
+				public long get(final int i) {
+					return map.get(a[i] & 0x1FFFFF, b[i] & 0x1FFFFF, c[i] & 0x1FFFFF);
+				}
+			};
+		});
+		System.out.println("blackhole=" + blackhole);
+	}
+
+	private static void benchmark(final String className, final int n, final int[] gets, final Factory factory) {
+		final long[] latencies = new long[n << 1];
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			measure(factory.create(false), Math.min(n, WARMUP_COUNT), gets, latencies);
+			measure(factory.create(true), Math.min(n, WARMUP_COUNT), gets, latencies);
+		}
+		for (final boolean incremental : new boolean[] {false, true}) {
+			System.gc();
+			final long total = measure(factory.create(incremental), n, gets, latencies);
+			Arrays.sort(latencies);
+			System.out.printf(Locale.ROOT, "%-17s %-11s %6dns %6dns %6dns %8dns %8.2fms %7dms%n", className, incremental ? "incremental" : "bulk",
+				percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999), percentile(latencies, 0.9999),
+				latencies[latencies.length - 1] / 1e6, total / 1_000_000);
+		}
+	}
+
+	/**
+	 * {@code n} 回の追加と取得を交互に行い、各操作の所要時間を {@code latencies} に記録して合計時間を返します。
+	 */
+	private static long measure(final Target target, final int n, final int[] gets, final long[] latencies) {
+		long sum = 0;
+		final long start = System.nanoTime();
+		long prev = start;
+		for (int i = 0; i < n; i++) {
+			target.put(i);
+			final long afterPut = System.nanoTime();
+			sum += target.get(gets[i]);
+			final long afterGet = System.nanoTime();
+			latencies[i << 1] = afterPut - prev;
+			latencies[i << 1 | 1] = afterGet - afterPut;
+			prev = afterGet;
+		}
+		Arrays.fill(latencies, n << 1, latencies.length, 0);
+		blackhole += sum;
+		return prev - start;
+	}
+
+	private static long percentile(final long[] sorted, final double p) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+	}
+
+	private interface Factory {
+		Target create(boolean incremental);
+	}
+
+	private interface Target {
+		void put(int i);
+
+		long get(int i);
+	}
+}
@@ -0,0 +1,192 @@
+package verify.ds.map.concurrentmap;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import lib.ds.map.*;
+
+public final class Test {
+	private static final int THREADS = 4;
+
+	public static void main(final String[] args) throws InterruptedException {
+		testSequentialInt();
+		testSequentialLong();
+		testParallelCounting();
+		testParallelMinMax();
+		testReadersDuringRemoval();
+	}
+
+	private static void testSequentialInt() {
+		final ConcurrentIntIntMap map = new ConcurrentIntIntMap(4, -1, 2);
+		final HashMap<Integer, Integer> expected = new HashMap<>();
+		final Random rnd = new Random(1);
+		for (int step = 0; step < 200000; step++) {
+			final int key = rnd.nextInt(3000) - 1500, value = rnd.nextInt(1000);
+			final int op = rnd.nextInt(8);
+			if (op == 0) {
+				check(map.put(key, value) == value, "put");
+				expected.put(key, value);
+			} else if (op == 1) {
+				final int next = expected.getOrDefault(key, -1) + value;
+				check(map.add(key, value) == next, "add");
+				expected.put(key, next);
+			} else if (op == 2) {
+				check(map.remove(key) == (expected.remove(key) != null), "remove");
+			} else if (op == 3) {
+				check(map.merge(key, value, Integer::sum) == expected.merge(key, value, Integer::sum), "merge");
+			} else if (op == 4) {
+				check(map.computeMin(key, value) == expected.merge(key, value, Math::min), "computeMin");
+			} else if (op == 5) {
+				check(map.computeMax(key, value) == expected.merge(key, value, Math::max), "computeMax");
+			} else if (op == 6) {
+				final Integer old = expected.putIfAbsent(key, value);
+				check(map.putIfAbsent(key, value) == (old == null ? value : old), "putIfAbsent");
+			} else {
+				check(map.get(key) == expected.getOrDefault(key, -1), "get");
+				check(map.containsKey(key) == expected.containsKey(key), "contains");
+			}
+			check(map.size() == expected.size(), "size step=" + step);
+		}
+		final int[][] entries = map.entries();
+		check(entries[0].length == expected.size());
+		for (int i = 0; i < entries[0].length; i++) check(expected.get(entries[0][i]) == entries[1][i], "entries");
+		final HashMap<Integer, Integer> seen = new HashMap<>();
+		map.forEach(seen::put);
+		check(seen.equals(expected), "forEach");
+		map.clear();
+		check(map.isEmpty() && map.get(0) == -1 && !map.containsKey(entries[0][0]));
+		check(map.increment(5) == 0 && map.decrement(5) == -1);
+	}
+
+	private static void testSequentialLong() {
+		final ConcurrentLongLongMap map = new ConcurrentLongLongMap(4, 7, 1);
+		final HashMap<Long, Long> expected = new HashMap<>();
+		final Random rnd = new Random(2);
+		for (int step = 0; step < 200000; step++) {
+			final long key = rnd.nextInt(3000) * 0x1_0000_0001L, value = rnd.nextLong();
+			final int op = rnd.nextInt(5);
+			if (op == 0) {
+				map.put(key, value);
+				expected.put(key, value);
+			} else if (op == 1) {
+				check(map.add(key, value) == expected.merge(key, 7 + value, (a, b) -> a + b - 7), "add");
+			} else if (op == 2) {
+				check(map.remove(key) == (expected.remove(key) != null), "remove");
+			} else if (op == 3) {
+				check(map.computeIfAbsent(key, k -> k * 3) == expected.computeIfAbsent(key, k -> k * 3), "computeIfAbsent");
+			} else {
+				check(map.get(key) == expected.getOrDefault(key, 7L), "get");
+				check(map.getOrDefault(key, 123) == expected.getOrDefault(key, 123L), "getOrDefault");
+			}
+		}
+		check(map.size() == expected.size(), "size");
+		final long[] keys = map.keys(), values = map.values();
+		for (int i = 0; i < keys.length; i++) check(expected.get(keys[i]) == values[i], "keys/values");
+	}
+
+	/**
+	 * 複数スレッドが同じマップでカウントし、スレッドごとの乱数列を逐次に再生した結果と一致することを確認します。
+	 */
+	private static void testParallelCounting() throws InterruptedException {
+		final ConcurrentIntIntMap ints = new ConcurrentIntIntMap(16);
+		final ConcurrentLongLongMap longs = new ConcurrentLongLongMap(16);
+		runParallel(id -> {
+			final Random rnd = new Random(100 + id);
+			for (int i = 0; i < 200000; i++) {
+				final int key = rnd.nextInt(5000);
+				ints.increment(key);
+				longs.add((long) key << 32, key);
+			}
+		});
+		final int[] counts = new int[5000];
+		for (int id = 0; id < THREADS; id++) {
+			final Random rnd = new Random(100 + id);
+			for (int i = 0; i < 200000; i++) counts[rnd.nextInt(5000)]++;
+		}
+		for (int key = 0; key < 5000; key++) {
+			check(ints.get(key) == counts[key], "count key=" + key);
+			check(longs.get((long) key << 32) == (long) counts[key] * key, "sum key=" + key);
+		}
+	}
+
+	private static void testParallelMinMax() throws InterruptedException {
+		final ConcurrentLongLongMap min = new ConcurrentLongLongMap(), max = new ConcurrentLongLongMap();
+		runParallel(id -> {
+			final Random rnd = new Random(200 + id);
+			for (int i = 0; i < 100000; i++) {
+				final long key = rnd.nextInt(1000), value = rnd.nextLong();
+				min.computeMin(key, value);
+				max.computeMax(key, value);
+			}
+		});
+		final long[] lo = new long[1000], hi = new long[1000];
+		Arrays.fill(lo, Long.MAX_VALUE);
+		Arrays.fill(hi, Long.MIN_VALUE);
+		for (int id = 0; id < THREADS; id++) {
+			final Random rnd = new Random(200 + id);
+			for (int i = 0; i < 100000; i++) {
+				final int key = rnd.nextInt(1000);
+				final long value = rnd.nextLong();
+				lo[key] = Math.min(lo[key], value);
+				hi[key] = Math.max(hi[key], value);
+			}
+		}
+		for (int key = 0; key < 1000; key++) check(min.get(key) == lo[key] && max.get(key) == hi[key], "min/max key=" + key);
+	}
+
+	/**
+	 * 削除とリサイズが続く間も、削除されないキーをロックなしの参照で正しく読めることを確認します。
+	 */
+	private static void testReadersDuringRemoval() throws InterruptedException {
+		final ConcurrentIntIntMap map = new ConcurrentIntIntMap(16, -1, 1);
+		for (int key = 0; key < 1000; key++) map.put(key * 2, key);
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicInteger errors = new AtomicInteger();
+		final Thread writer = new Thread(() -> {
+			final Random rnd = new Random(3);
+			for (int round = 0; round < 200; round++) {
+				for (int i = 0; i < 2000; i++) map.put(rnd.nextInt(20000) * 2 + 1, i);
+				for (int key = 1; key < 40000; key += 2) map.remove(key);
+			}
+			done.set(true);
+		});
+		final Thread[] readers = new Thread[THREADS - 1];
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread(() -> {
+				final Random rnd = new Random();
+				while (!done.get()) {
+					final int key = rnd.nextInt(1000);
+					if (map.get(key * 2) != key || !map.containsKey(key * 2)) errors.incrementAndGet();
+				}
+			});
+			readers[r].start();
+		}
+		writer.start();
+		writer.join();
+		for (final Thread reader : readers) reader.join();
+		check(errors.get() == 0, "lock-free read errors=" + errors.get());
+		check(map.size() == 1000, "size");
+	}
+
+	private static void runParallel(final IntConsumerTask task) throws InterruptedException {
+		final Thread[] threads = new Thread[THREADS];
+		for (int id = 0; id < THREADS; id++) {
+			final int taskId = id;
+			threads[id] = new Thread(() -> task.run(taskId));
+			threads[id].start();
+		}
+		for (final Thread thread : threads) thread.join();
+	}
+
+	private interface IntConsumerTask {
+		void run(int id);
+	}
+
+	private static void check(final boolean condition) {
+		if (!condition) throw new AssertionError();
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
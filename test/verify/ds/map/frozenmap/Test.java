@@ -0,0 +1,73 @@
+package verify.ds.map.frozenmap;
+
+import java.util.*;
+
+import lib.ds.map.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		for (final int n : new int[] {0, 1, 2, 3, 7, 100, 4097, 200000}) testInt(n);
+		testLong();
+		testInvalidBytes();
+	}
+
+	private static void testInt(final int n) {
+		final IntIntMap map = new IntIntMap(16, -1);
+		final Random rnd = new Random(n);
+		while (map.size() < n) map.put(rnd.nextInt(), rnd.nextInt());
+		final FrozenIntIntMap frozen = map.freeze();
+		check(frozen.size() == n && frozen.isEmpty() == (n == 0) && frozen.getDefaultValue() == -1, "size n=" + n);
+		for (final FrozenIntIntMap m : new FrozenIntIntMap[] {frozen, FrozenIntIntMap.fromByteArray(frozen.toByteArray())}) {
+			map.forEach((key, value) -> check(m.get(key) == value && m.containsKey(key) && m.getOrDefault(key, 5) == value, "get n=" + n));
+			for (int k = 0; k < 10000; k++) {
+				final int key = rnd.nextInt();
+				check(m.get(key) == map.get(key) && m.containsKey(key) == map.containsKey(key), "random key n=" + n);
+				check(m.getOrDefault(key, 5) == map.getOrDefault(key, 5), "getOrDefault n=" + n);
+			}
+			// 空のマップの配置先（添字 0）のキーは 0 になっている。
+			check(m.containsKey(0) == map.containsKey(0) && m.getOrDefault(0, 5) == map.getOrDefault(0, 5), "zero key n=" + n);
+			final HashMap<Integer, Integer> seen = new HashMap<>();
+			m.forEach(seen::put);
+			check(seen.size() == n, "forEach n=" + n);
+			seen.forEach((key, value) -> check(map.get(key) == value, "forEach value n=" + n));
+			final int[] keys = m.keys(), values = m.values();
+			check(keys.length == n && values.length == n, "keys n=" + n);
+			for (int i = 0; i < n; i++) check(map.get(keys[i]) == values[i], "keys/values n=" + n);
+		}
+		map.put(Integer.MIN_VALUE, 1);
+		check(frozen.size() == n, "snapshot n=" + n);
+	}
+
+	private static void testLong() {
+		// 下位 32 bit が等しいキーと、上位 32 bit が等しいキーを混ぜる。
+		final LongLongMap map = new LongLongMap();
+		for (long i = 0; i < 50000; i++) {
+			map.put(i << 32, i);
+			map.put(i | 0x7FFF_FFFF_0000_0000L, ~i);
+			map.put(i * 0x9E3779B97F4A7C15L, i * 3);
+		}
+		final FrozenLongLongMap frozen = map.freeze();
+		final FrozenLongLongMap loaded = FrozenLongLongMap.fromByteArray(frozen.toByteArray());
+		check(frozen.size() == map.size() && loaded.size() == map.size(), "long size");
+		map.forEach((key, value) -> check(frozen.get(key) == value && loaded.get(key) == value, "long get"));
+		for (long i = 50000; i < 60000; i++) check(!frozen.containsKey(i << 32) && loaded.get(i << 32) == 0, "long absent");
+		check(frozen.toString().equals(loaded.toString()), "toString");
+	}
+
+	private static void testInvalidBytes() {
+		final byte[] bytes = new IntIntMap().freeze().toByteArray();
+		for (final byte[] b : new byte[][] {new byte[3], Arrays.copyOf(bytes, bytes.length - 1), new LongLongMap().freeze().toByteArray()}) {
+			try {
+				FrozenIntIntMap.fromByteArray(b);
+				check(false, "invalid bytes");
+			} catch (final IllegalArgumentException e) {
+				// 期待どおり
+			}
+		}
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -11,6 +11,8 @@ public static void main(final String[] args) {
 		testResizeAndDeletion();
 		testViewsAndReducers();
 		testRandomized();
+		testClearReuse();
+		testIncrementalResize();
 	}
 
 	private static void testDefaultsAndUpdates() {
@@ -198,6 +200,85 @@ private static void testRandomized() {
 		}
 	}
 
+	/**
+	 * {@code clear()} 後に一部のブロックだけ書き込まれた状態で、前の世代のエントリが見えないことを確認します。
+	 */
+	private static void testClearReuse() {
+		final LongLongMap map = new LongLongMap(5000, -1);
+		final HashMap<Long, Long> expected = new HashMap<>();
+		final Random rnd = new Random(13);
+		for (int round = 0; round < 200; round++) {
+			map.clear();
+			expected.clear();
+			final int count = rnd.nextInt(round % 10 == 0 ? 6000 : 200);
+			final long base = rnd.nextInt(4) * 1000;
+			for (int i = 0; i < count; i++) {
+				final long key = (i & 1) == 0 ? base + i : rnd.nextInt(1 << 16);
+				final long value = (round * 10000L + i);
+				map.put(key, value);
+				expected.put(key, value);
+			}
+			for (int i = 0; i < count; i += 5) {
+				final long key = base + i;
+				check(map.remove(key) == (expected.remove(key) != null), "remove round=" + round);
+			}
+			checkEquivalent(map, expected, -1, base - 64, base + 6064);
+			final HashMap<Long, Long> seen = new HashMap<>();
+			map.forEach(seen::put);
+			check(seen.equals(expected), "forEach round=" + round);
+		}
+	}
+
+	private static void testIncrementalResize() {
+		final LongLongMap resizing = new LongLongMap(16, -1);
+		resizing.setIncrementalResize(true);
+		// 容量 1024 のしきい値を超えた直後から、再配置の途中で削除と参照を繰り返す。
+		for (int i = 0; i <= 896; i++) resizing.put(i, i);
+		for (long key = 0; key < 896; key++) {
+			check(resizing.remove(key), "resizing remove key=" + key);
+			check(!resizing.containsKey(key), "resizing contains key=" + key);
+			check(resizing.get(key + 1) == key + 1, "resizing get key=" + key);
+		}
+		check(resizing.size() == 1 && resizing.get(896) == 896);
+		final Random rnd = new Random(17);
+		for (int round = 0; round < 10; round++) {
+			final LongLongMap map = new LongLongMap(16, -1);
+			map.setIncrementalResize(true);
+			check(map.isIncrementalResize());
+			final HashMap<Long, Long> expected = new HashMap<>();
+			for (int step = 0; step < 20000; step++) {
+				// 同じキーを繰り返し参照し、再配置済み・移動済みのエントリへの操作も含める。
+				final long key = rnd.nextInt(16 + step / 4);
+				final int op = rnd.nextInt(8);
+				if (op < 4) {
+					final long value = rnd.nextInt();
+					check(map.put(key, value) == value, "put step=" + step);
+					expected.put(key, value);
+				} else if (op == 4) {
+					final long value = expected.getOrDefault(key, -1L) + 3;
+					check(map.add(key, 3) == value, "add step=" + step);
+					expected.put(key, value);
+				} else if (op == 5) {
+					check(map.remove(key) == (expected.remove(key) != null), "remove step=" + step);
+				} else if (op == 6) {
+					check(map.get(key) == expected.getOrDefault(key, -1L), "get step=" + step);
+				} else {
+					check(map.containsKey(key) == expected.containsKey(key), "contains step=" + step);
+				}
+				check(map.size() == expected.size(), "size step=" + step);
+				if (round == 5 && step == 10000) {
+					map.clear();
+					expected.clear();
+				}
+			}
+			final HashMap<Long, Long> seen = new HashMap<>();
+			map.forEach(seen::put);
+			check(seen.equals(expected), "forEach round=" + round);
+			map.setIncrementalResize(false);
+			checkEquivalent(map, expected, -1, 0, 5016);
+		}
+	}
+
 	private static void checkEquivalent(final LongLongMap map, final Map<Long, Long> expected, final long defaultValue, final long from, final long to) {
 		check(map.size() == expected.size(), "size");
 		check(map.isEmpty() == expected.isEmpty(), "empty");
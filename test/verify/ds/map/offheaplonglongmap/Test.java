@@ -0,0 +1,109 @@
+package verify.ds.map.offheaplonglongmap;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import lib.ds.map.*;
+
+public final class Test {
+
+	public static void main(final String[] args) throws IOException {
+		testRandomized();
+		testFileRoundTrip();
+		testClose();
+	}
+
+	private static void testRandomized() {
+		try (final OffHeapLongLongMap map = new OffHeapLongLongMap(4, -1)) {
+			final HashMap<Long, Long> expected = new HashMap<>();
+			final Random rnd = new Random(1);
+			for (int step = 0; step < 300000; step++) {
+				final long key = (rnd.nextInt(20000) - 10000) * 0x9E3779B97F4A7C15L, value = rnd.nextLong();
+				final int op = rnd.nextInt(9);
+				if (op < 2) {
+					check(map.put(key, value) == value, "put");
+					expected.put(key, value);
+				} else if (op == 2) {
+					check(map.add(key, value) == expected.merge(key, value - 1, (a, b) -> a + b + 1), "add");
+				} else if (op == 3) {
+					check(map.remove(key) == (expected.remove(key) != null), "remove");
+				} else if (op == 4) {
+					check(map.merge(key, value, Long::sum) == expected.merge(key, value, Long::sum), "merge");
+				} else if (op == 5) {
+					check(map.computeMin(key, value) == expected.merge(key, value, Math::min), "computeMin");
+				} else if (op == 6) {
+					check(map.computeMax(key, value) == expected.merge(key, value, Math::max), "computeMax");
+				} else if (op == 7) {
+					final Long old = expected.putIfAbsent(key, value);
+					check(map.putIfAbsent(key, value) == (old == null ? value : old), "putIfAbsent");
+				} else {
+					check(map.get(key) == expected.getOrDefault(key, -1L), "get");
+					check(map.containsKey(key) == expected.containsKey(key), "contains");
+				}
+				check(map.size() == expected.size(), "size step=" + step);
+			}
+			final HashMap<Long, Long> seen = new HashMap<>();
+			map.forEach(seen::put);
+			check(seen.equals(expected), "forEach");
+			check(map.reduce(0, (acc, key, value) -> acc + value) == expected.values().stream().mapToLong(Long::longValue).sum(), "reduce");
+			map.clear();
+			check(map.isEmpty() && map.get(seen.keySet().iterator().next()) == -1);
+			check(map.increment(3) == 0 && map.decrement(3) == -1);
+		}
+	}
+
+	private static void testFileRoundTrip() throws IOException {
+		final Path dir = Files.createTempDirectory("offheap");
+		final Path path = dir.resolve("table.bin");
+		try {
+			try (final OffHeapLongLongMap map = OffHeapLongLongMap.create(path, 16, 5)) {
+				for (long key = 0; key < 50000; key++) map.add(key * key, key);
+				for (long key = 0; key < 50000; key += 3) map.remove(key * key);
+				map.setDefaultValue(-9);
+			}
+			check(!Files.exists(dir.resolve("table.bin.resize")), "temp file");
+			try (final OffHeapLongLongMap map = OffHeapLongLongMap.open(path)) {
+				check(map.getDefaultValue() == -9, "default");
+				check(map.size() == 50000 - 16667, "size " + map.size());
+				for (long key = 0; key < 50000; key++) check(map.get(key * key) == (key % 3 == 0 ? -9 : key + 5), "value key=" + key);
+				for (long key = 50000; key < 100000; key++) map.put(key * key, key);
+			}
+			try (final OffHeapLongLongMap map = OffHeapLongLongMap.open(path)) {
+				check(map.size() == 100000 - 16667, "size after reopen");
+				check(map.get(99999L * 99999L) == 99999 && map.get(1) == 6);
+			}
+			Files.write(path, new byte[100]);
+			try {
+				OffHeapLongLongMap.open(path).close();
+				check(false, "open invalid file");
+			} catch (final IOException e) {
+				// 期待どおり
+			}
+		} finally {
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(dir);
+		}
+	}
+
+	private static void testClose() {
+		final OffHeapLongLongMap map = new OffHeapLongLongMap();
+		map.put(1, 2);
+		map.close();
+		map.close();
+		try {
+			map.get(1);
+			check(false, "get after close");
+		} catch (final IllegalStateException e) {
+			// 期待どおり
+		}
+	}
+
+	private static void check(final boolean condition) {
+		if (!condition) throw new AssertionError();
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
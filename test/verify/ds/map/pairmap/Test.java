@@ -0,0 +1,87 @@
+package verify.ds.map.pairmap;
+
+import java.util.*;
+
+import lib.ds.map.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		testPairBatch(false);
+		testPairBatch(true);
+		testTripleBatch();
+		testLengthMismatch();
+	}
+
+	private static void testPairBatch(final boolean incremental) {
+		final IntPairIntMap map = new IntPairIntMap(16, -7);
+		map.setIncrementalResize(incremental);
+		final HashMap<Long, Integer> expected = new HashMap<>();
+		final Random rnd = new Random(incremental ? 2 : 1);
+		for (int round = 0; round < 50; round++) {
+			// 32 の倍数でない長さと、同じキーの重複を含める。
+			final int len = rnd.nextInt(3000);
+			final int[] a = new int[len], b = new int[len], values = new int[len];
+			for (int i = 0; i < len; i++) {
+				a[i] = rnd.nextInt(300) - 150;
+				b[i] = rnd.nextInt(300) - 150;
+				values[i] = rnd.nextInt();
+			}
+			if (round % 2 == 0) {
+				map.putAll(a, b, values);
+				for (int i = 0; i < len; i++) expected.put((long) a[i] << 32 | b[i] & 0xFFFFFFFFL, values[i]);
+			}
+			final int[] out = new int[len];
+			map.getAll(a, b, out);
+			for (int i = 0; i < len; i++) {
+				check(out[i] == expected.getOrDefault((long) a[i] << 32 | b[i] & 0xFFFFFFFFL, -7), "getAll round=" + round);
+				check(out[i] == map.get(a[i], b[i]), "get round=" + round);
+			}
+			check(map.size() == expected.size(), "size round=" + round);
+		}
+	}
+
+	private static void testTripleBatch() {
+		final IntTripleLongMap map = new IntTripleLongMap();
+		final int n = 100000;
+		final int[] a = new int[n], b = new int[n], c = new int[n];
+		final long[] values = new long[n], out = new long[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = i % 97 - 48;
+			b[i] = i / 97 % 101;
+			c[i] = i / 9797 - 5;
+			values[i] = (long) i * i;
+		}
+		map.putAll(a, b, c, values);
+		check(map.size() == n, "triple size");
+		map.getAll(a, b, c, out);
+		check(Arrays.equals(out, values), "triple getAll");
+		final int[] missing = new int[n];
+		Arrays.fill(missing, 1_000_000);
+		map.getAll(a, b, missing, out);
+		for (final long v : out) check(v == 0, "triple missing");
+	}
+
+	private static void testLengthMismatch() {
+		final IntPairIntMap pair = new IntPairIntMap();
+		final IntTripleLongMap triple = new IntTripleLongMap();
+		expectMismatch(() -> pair.getAll(new int[3], new int[3], new int[2]), "pair getAll out");
+		expectMismatch(() -> pair.putAll(new int[3], new int[2], new int[3]), "pair putAll b");
+		expectMismatch(() -> triple.getAll(new int[3], new int[3], new int[4], new long[3]), "triple getAll c");
+		expectMismatch(() -> triple.putAll(new int[3], new int[3], new int[3], new long[4]), "triple putAll values");
+		check(pair.size() == 0 && triple.size() == 0, "no partial update");
+	}
+
+	private static void expectMismatch(final Runnable call, final String message) {
+		try {
+			call.run();
+		} catch (final IllegalArgumentException e) {
+			return;
+		}
+		throw new AssertionError(message);
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,236 @@
+package verify.ds.reset;
+
+import java.util.*;
+
+import lib.ds.*;
+import lib.ds.arrays.*;
+import lib.ds.fenwick.*;
+import lib.ds.map.*;
+import lib.ds.priorityqueue.*;
+import lib.ds.segmenttree.*;
+import lib.ds.unionfind.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		testSegmentTree();
+		testLongSegmentTree();
+		testBIT();
+		testUnionFind();
+		testPool();
+	}
+
+	private static void testSegmentTree() {
+		final int n = 1000;
+		final IntSegmentTree sum = new IntSegmentTree(n, Integer::sum, 0);
+		final IntSegmentTree min = new IntSegmentTree(n, Math::min, Integer.MAX_VALUE);
+		final Random rnd = new Random(1);
+		for (int round = 0; round < 300; round++) {
+			// 少数の更新（記録から戻す）と大量の更新・fill（全体を戻す）を混ぜる。
+			final int updates = round % 7 == 0 ? 5000 : rnd.nextInt(20);
+			if (round % 11 == 0) sum.fill(3);
+			final int[] a = new int[n], b = new int[n];
+			if (round % 11 == 0) Arrays.fill(a, 3);
+			Arrays.fill(b, Integer.MAX_VALUE);
+			for (int k = 0; k < updates; k++) {
+				final int i = rnd.nextInt(n), v = rnd.nextInt(5) - 2;
+				// 和が 0 に戻る（単位元と一致する）頂点も作る。
+				sum.add(i, v);
+				a[i] += v;
+				min.set(i, v);
+				b[i] = v;
+			}
+			for (int k = 0; k < 50; k++) {
+				final int l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+				int s = 0, m = Integer.MAX_VALUE;
+				for (int i = l; i < r; i++) {
+					s += a[i];
+					m = Math.min(m, b[i]);
+				}
+				check(sum.query(l, r) == s && min.query(l, r) == m, "query round=" + round);
+			}
+			sum.reset();
+			min.reset();
+			for (int i = 0; i < n; i++) check(sum.get(i) == 0 && min.get(i) == Integer.MAX_VALUE, "reset leaf round=" + round);
+			check(sum.queryAll() == 0 && min.queryAll() == Integer.MAX_VALUE, "reset root round=" + round);
+			check(sum.maxRight(0, x -> x == 0) == n, "reset internal round=" + round);
+		}
+	}
+
+	private static void testLongSegmentTree() {
+		final int n = 600;
+		final LongSegmentTree sum = new LongSegmentTree(n, Long::sum, 0);
+		final LongSegmentTree max = new LongSegmentTree(n, Math::max, Long.MIN_VALUE);
+		final Random rnd = new Random(4);
+		for (int round = 0; round < 300; round++) {
+			final long[] a = new long[n], b = new long[n];
+			Arrays.fill(b, Long.MIN_VALUE);
+			if (round % 11 == 0) {
+				sum.setAll(i -> i);
+				for (int i = 0; i < n; i++) a[i] = i;
+			}
+			final int updates = round % 7 == 0 ? 3000 : rnd.nextInt(20);
+			for (int k = 0; k < updates; k++) {
+				final int i = rnd.nextInt(n);
+				final long v = rnd.nextInt(5) - 2;
+				sum.add(i, v);
+				a[i] += v;
+				max.set(i, v);
+				b[i] = v;
+			}
+			if (round % 3 == 0) {
+				// setBatch で書き換えた葉も記録されること。
+				final int[] idx = new int[1 + rnd.nextInt(round % 9 == 0 ? 500 : 10)];
+				final long[] val = new long[idx.length];
+				for (int k = 0; k < idx.length; k++) {
+					idx[k] = rnd.nextInt(n);
+					val[k] = rnd.nextInt(1000) - 500;
+				}
+				sum.setBatch(idx, val);
+				max.setBatch(idx, val);
+				for (int k = 0; k < idx.length; k++) a[idx[k]] = b[idx[k]] = val[k];
+			}
+			for (int k = 0; k < 50; k++) {
+				final int l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+				long s = 0, m = Long.MIN_VALUE;
+				for (int i = l; i < r; i++) {
+					s += a[i];
+					m = Math.max(m, b[i]);
+				}
+				check(sum.query(l, r) == s && max.query(l, r) == m, "long query round=" + round);
+			}
+			sum.reset();
+			max.reset();
+			for (int i = 0; i < n; i++) check(sum.get(i) == 0 && max.get(i) == Long.MIN_VALUE, "long reset leaf round=" + round);
+			check(sum.queryAll() == 0 && max.queryAll() == Long.MIN_VALUE, "long reset root round=" + round);
+			check(sum.maxRight(0, x -> x == 0) == n, "long reset internal round=" + round);
+		}
+	}
+
+	private static void testBIT() {
+		final int n = 777;
+		final LongBIT bit = new LongBIT(n);
+		final Random rnd = new Random(2);
+		for (int round = 0; round < 300; round++) {
+			final long[] a = new long[n];
+			if (round % 13 == 0) {
+				bit.setAll(i -> i);
+				for (int i = 0; i < n; i++) a[i] = i;
+			}
+			final int updates = round % 5 == 0 ? 3000 : rnd.nextInt(30);
+			for (int k = 0; k < updates; k++) {
+				final int i = rnd.nextInt(n);
+				final long v = rnd.nextInt(100) - 50;
+				bit.add(i, v);
+				a[i] += v;
+			}
+			long s = 0;
+			for (int i = 0; i < n; i++) {
+				s += a[i];
+				check(bit.sum(i) == s, "sum round=" + round);
+			}
+			bit.reset();
+			for (int i = 0; i < n; i++) check(bit.get(i) == 0 && bit.sum(i) == 0, "reset round=" + round);
+		}
+	}
+
+	private static void testUnionFind() {
+		final int n = 500;
+		final UnionFind uf = new UnionFind(n);
+		final Random rnd = new Random(3);
+		for (int round = 0; round < 200; round++) {
+			final UnionFind expected = new UnionFind(n);
+			final int edges = round % 10 == 0 ? 2000 : rnd.nextInt(50);
+			for (int k = 0; k < edges; k++) {
+				final int x = rnd.nextInt(n), y = rnd.nextInt(n);
+				check(uf.union(x, y) == expected.union(x, y), "union round=" + round);
+			}
+			check(uf.groupCount() == expected.groupCount(), "groupCount round=" + round);
+			for (int i = 0; i < n; i++) {
+				check(uf.size(i) == expected.size(i) && uf.pathCount(i) == expected.pathCount(i), "group round=" + round);
+				check(uf.isConnected(i, 0) == expected.isConnected(i, 0), "connected round=" + round);
+			}
+			uf.reset();
+			check(uf.groupCount() == n, "reset count round=" + round);
+			for (int i = 0; i < n; i++) check(uf.find(i) == i && uf.size(i) == 1 && uf.pathCount(i) == 0, "reset round=" + round);
+		}
+	}
+
+	private static void testPool() {
+		final int[] built = new int[1];
+		final Pool<IntSegmentTree> trees = new Pool<>(() -> {
+			built[0]++;
+			return new IntSegmentTree(64, Integer::sum, 0);
+		}, 2);
+		check(built[0] == 2 && trees.available() == 2);
+		final IntSegmentTree a = trees.acquire(), b = trees.acquire(), c = trees.acquire();
+		check(built[0] == 3 && trees.available() == 0 && a != b && b != c);
+		a.set(5, 10);
+		trees.release(a);
+		check(trees.available() == 1);
+		final IntSegmentTree d = trees.acquire();
+		check(d == a && d.queryAll() == 0 && d.get(5) == 0, "pooled tree");
+
+		final Pool<IntIntMap> maps = new Pool<>(() -> new IntIntMap(1 << 10));
+		final IntIntMap map = maps.acquire();
+		map.put(1, 2);
+		maps.release(map);
+		check(maps.acquire().isEmpty(), "pooled map");
+
+		final Pool<IntArrayDeque> deques = new Pool<>(() -> new IntArrayDeque(16));
+		final IntArrayDeque deque = deques.acquire();
+		deque.addLast(1);
+		deques.release(deque);
+		check(deques.acquire().isEmpty(), "pooled deque");
+
+		final Pool<IntPriorityQueue> queues = new Pool<>(IntPriorityQueue::new);
+		final IntPriorityQueue queue = queues.acquire();
+		queue.add(3);
+		queue.add(1);
+		queues.release(queue);
+		final IntPriorityQueue reused = queues.acquire();
+		check(reused.isEmpty(), "pooled queue");
+		reused.add(2);
+		check(reused.peek() == 2 && reused.size() == 1, "pooled queue reuse");
+
+		final LongPriorityQueue longQueue = new LongPriorityQueue(true);
+		longQueue.add(5);
+		longQueue.reset();
+		check(longQueue.isEmpty(), "long queue reset");
+		final lib.ds.priorityqueue.PriorityQueue<String> objectQueue = new lib.ds.priorityqueue.PriorityQueue<>();
+		objectQueue.add("a");
+		objectQueue.reset();
+		check(objectQueue.isEmpty(), "object queue reset");
+		final IntDoubleEndedPriorityQueue deque2 = new IntDoubleEndedPriorityQueue();
+		deque2.add(4);
+		deque2.reset();
+		check(deque2.isEmpty(), "double ended queue reset");
+
+		final Pool<IntPairIntMap> pairs = new Pool<>(() -> new IntPairIntMap(16, -1));
+		final IntPairIntMap pair = pairs.acquire();
+		pair.put(1, 2, 3);
+		pairs.release(pair);
+		final IntPairIntMap pair2 = pairs.acquire();
+		check(pair2.isEmpty() && pair2.get(1, 2) == -1, "pooled pair map");
+		final IntPairLongMap pairLong = new IntPairLongMap();
+		pairLong.put(1, 2, 3L);
+		pairLong.reset();
+		check(pairLong.isEmpty(), "pair long map reset");
+		final IntTripleIntMap triple = new IntTripleIntMap();
+		triple.put(1, 2, 3, 4);
+		triple.reset();
+		check(triple.isEmpty(), "triple map reset");
+		final IntTripleLongMap tripleLong = new IntTripleLongMap();
+		tripleLong.put(1, 2, 3, 4L);
+		tripleLong.reset();
+		check(tripleLong.isEmpty() && !tripleLong.containsKey(1, 2, 3), "triple long map reset");
+	}
+
+	private static void check(final boolean condition) {
+		if (!condition) throw new AssertionError();
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
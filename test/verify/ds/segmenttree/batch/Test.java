@@ -0,0 +1,90 @@
+package verify.ds.segmenttree.batch;
+
+import java.util.*;
+
+import lib.ds.segmenttree.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		for (final int n : new int[] {1, 2, 5, 64, 1000, 4097}) {
+			testInt(n);
+			testLong(n);
+		}
+	}
+
+	private static void testInt(final int n) {
+		final IntSegmentTree sum = new IntSegmentTree(n, Integer::sum, 0);
+		final IntSegmentTree min = new IntSegmentTree(n, Math::min, Integer.MAX_VALUE);
+		final int[] a = new int[n], b = new int[n];
+		Arrays.fill(b, Integer.MAX_VALUE);
+		final Random rnd = new Random(n);
+		for (int round = 0; round < 40; round++) {
+			// 少数の更新（影響を受けた祖先だけを再計算）と大量の更新（全体を再構築）を混ぜ、同じ位置の重複も含める。
+			final int k = round % 5 == 0 ? n * 2 : rnd.nextInt(Math.max(1, n / 20) + 1);
+			final int[] idx = new int[k], val = new int[k];
+			for (int j = 0; j < k; j++) {
+				idx[j] = rnd.nextInt(n);
+				val[j] = rnd.nextInt(2001) - 1000;
+				a[idx[j]] = b[idx[j]] = val[j];
+			}
+			sum.setBatch(idx, val);
+			min.setBatch(idx, val);
+			final int q = rnd.nextInt(300);
+			final int[] l = new int[q], r = new int[q], outSum = new int[q], outMin = new int[q];
+			for (int j = 0; j < q; j++) {
+				l[j] = rnd.nextInt(n + 1);
+				r[j] = rnd.nextInt(n + 1);
+			}
+			sum.queryAll(l, r, outSum);
+			min.queryAll(l, r, outMin);
+			for (int j = 0; j < q; j++) {
+				int s = 0, m = Integer.MAX_VALUE;
+				for (int i = l[j]; i < r[j]; i++) {
+					s += a[i];
+					m = Math.min(m, b[i]);
+				}
+				check(outSum[j] == s && outSum[j] == sum.query(l[j], r[j]), "int sum n=" + n);
+				check(outMin[j] == m && outMin[j] == min.query(l[j], r[j]), "int min n=" + n);
+			}
+			for (int i = 0; i < n; i++) check(sum.get(i) == a[i], "int get n=" + n);
+		}
+		sum.reset();
+		check(sum.queryAll() == 0 && sum.query(0, n) == 0, "reset after setBatch n=" + n);
+	}
+
+	private static void testLong(final int n) {
+		final LongSegmentTree max = new LongSegmentTree(n, Math::max, Long.MIN_VALUE);
+		final long[] a = new long[n];
+		Arrays.fill(a, Long.MIN_VALUE);
+		final Random rnd = new Random(-n);
+		for (int round = 0; round < 40; round++) {
+			final int k = round % 7 == 0 ? n : rnd.nextInt(Math.max(1, n / 10) + 1);
+			final int[] idx = new int[k];
+			final long[] val = new long[k];
+			for (int j = 0; j < k; j++) {
+				idx[j] = rnd.nextInt(n);
+				val[j] = rnd.nextLong();
+				a[idx[j]] = val[j];
+			}
+			max.setBatch(idx, val);
+			final int q = rnd.nextInt(300);
+			final int[] l = new int[q], r = new int[q];
+			final long[] out = new long[q];
+			for (int j = 0; j < q; j++) {
+				l[j] = rnd.nextInt(n + 1);
+				r[j] = l[j] + rnd.nextInt(n + 1 - l[j]);
+			}
+			max.queryAll(l, r, out);
+			for (int j = 0; j < q; j++) {
+				long m = Long.MIN_VALUE;
+				for (int i = l[j]; i < r[j]; i++) m = Math.max(m, a[i]);
+				check(out[j] == m, "long max n=" + n);
+			}
+		}
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
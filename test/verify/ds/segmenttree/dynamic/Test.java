@@ -0,0 +1,129 @@
+package verify.ds.segmenttree.dynamic;
+
+import java.util.*;
+
+import lib.ds.segmenttree.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		for (final int n : new int[] {1, 2, 3, 10, 100, 257}) {
+			testAddSum(n);
+			testAssignMin(n);
+		}
+		testLargeRange();
+	}
+
+	/**
+	 * 区間加算・区間和を、素朴な配列と比べる。
+	 */
+	private static void testAddSum(final int n) {
+		final LongDynamicSegmentTree tree = new LongDynamicSegmentTree(n, Long::sum, 0, (f, x, len) -> x + f * len, Long::sum, 2);
+		final long[] a = new long[n];
+		final Random rnd = new Random(n);
+		for (int round = 0; round < 3000; round++) {
+			final int l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+			switch (rnd.nextInt(4)) {
+				case 0 -> {
+					final long f = rnd.nextInt(21) - 5;
+					tree.apply(l, r, f);
+					for (int i = l; i < r; i++) a[i] += f;
+				}
+				case 1 -> {
+					if (l == n) continue;
+					final long v = rnd.nextInt(100);
+					tree.set(l, v);
+					a[l] = v;
+				}
+				default -> {
+					long s = 0;
+					for (int i = l; i < r; i++) s += a[i];
+					check(tree.query(l, r) == s, "sum n=" + n);
+					if (l < n) check(tree.get(l) == a[l], "get n=" + n);
+				}
+			}
+			long all = 0;
+			for (final long v : a) all += v;
+			check(tree.queryAll() == all, "queryAll n=" + n);
+		}
+	}
+
+	/**
+	 * 区間代入・区間最小値と maxRight / minLeft を、素朴な配列と比べる。
+	 */
+	private static void testAssignMin(final int n) {
+		final LongDynamicSegmentTree tree = new LongDynamicSegmentTree(n, Math::min, Long.MAX_VALUE);
+		final long[] a = new long[n];
+		Arrays.fill(a, Long.MAX_VALUE);
+		final Random rnd = new Random(-n);
+		for (int round = 0; round < 3000; round++) {
+			final int l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+			if (rnd.nextInt(3) == 0) {
+				final long f = rnd.nextInt(1000);
+				tree.apply(l, r, f);
+				for (int i = l; i < r; i++) a[i] = f;
+				continue;
+			}
+			long m = Long.MAX_VALUE;
+			for (int i = l; i < r; i++) m = Math.min(m, a[i]);
+			check(tree.query(l, r) == m, "min n=" + n);
+			final long bound = rnd.nextInt(1000);
+			int right = l;
+			while (right < n && a[right] >= bound) right++;
+			check(tree.maxRight(l, x -> x >= bound) == right, "maxRight n=" + n);
+			int leftEnd = r;
+			while (leftEnd > 0 && a[leftEnd - 1] >= bound) leftEnd--;
+			check(tree.minLeft(r, x -> x >= bound) == leftEnd, "minLeft n=" + n);
+		}
+		final int before = tree.nodeCount();
+		tree.reset();
+		check(tree.nodeCount() == 1 && tree.queryAll() == Long.MAX_VALUE && tree.query(0, n) == Long.MAX_VALUE, "reset n=" + n);
+		check(before >= 1, "nodeCount n=" + n);
+	}
+
+	/**
+	 * [0, 10^18) で、点更新の位置だけを記録した TreeMap と比べる。頂点数が O(q log U) に収まり、参照で頂点が増えないことも確かめる。
+	 */
+	private static void testLargeRange() {
+		final long u = 1_000_000_000_000_000_000L;
+		final LongDynamicSegmentTree tree = new LongDynamicSegmentTree(u, Long::sum, 0, (f, x, len) -> x + f * len, Long::sum, 2);
+		final TreeMap<Long, Long> points = new TreeMap<>();
+		final Random rnd = new Random(1);
+		final int q = 5000;
+		for (int k = 0; k < q; k++) {
+			final long i = Math.floorMod(rnd.nextLong(), u), v = rnd.nextInt(1000);
+			tree.set(i, v);
+			points.put(i, v);
+		}
+		check(tree.nodeCount() <= q * 61, "node count " + tree.nodeCount());
+		final int nodes = tree.nodeCount();
+		for (int k = 0; k < 2000; k++) {
+			final long a = Math.floorMod(rnd.nextLong(), u), b = Math.floorMod(rnd.nextLong(), u);
+			final long l = Math.min(a, b), r = Math.max(a, b);
+			long s = 0;
+			for (final long v : points.subMap(l, r).values()) s += v;
+			check(tree.query(l, r) == s, "large sum");
+			// 累積和が s を超えない最大の右端は、[l, r) の後ろで最初に正の値を持つ点。
+			final Map.Entry<Long, Long> next = points.ceilingEntry(r);
+			long expected = u;
+			for (Map.Entry<Long, Long> e = next; e != null; e = points.higherEntry(e.getKey())) {
+				if (e.getValue() > 0) {
+					expected = e.getKey();
+					break;
+				}
+			}
+			final long limit = s;
+			check(tree.maxRight(l, x -> x <= limit) == expected, "large maxRight");
+		}
+		check(tree.nodeCount() == nodes, "query must not allocate");
+		// 全体への区間加算は根の遅延値だけで済む。
+		tree.apply(0, u, 3);
+		check(tree.queryAll() == points.values().stream().mapToLong(Long::longValue).sum() + 3 * u, "large apply");
+		check(tree.get(u - 1) == points.getOrDefault(u - 1, 0L) + 3 && tree.query(10, 20) == 30 + points.subMap(10L, 20L).values().stream().mapToLong(Long::longValue).sum(), "large get");
+		check(tree.nodeCount() == nodes, "whole-range apply must not allocate");
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,129 @@
+package verify.ds.segmenttree.persistent;
+
+import java.util.*;
+
+import lib.ds.segmenttree.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		for (final int n : new int[] {1, 2, 3, 16, 100, 1000}) testVersions(n);
+		testKth();
+		testCompact();
+	}
+
+	/**
+	 * ランダムなバージョンから分岐させた更新を、バージョンごとの配列と比べる。
+	 */
+	private static void testVersions(final int n) {
+		final Random rnd = new Random(n);
+		final long[] init = new long[n];
+		for (int i = 0; i < n; i++) init[i] = rnd.nextInt(100);
+		final PersistentSegmentTree tree = rnd.nextBoolean() ? new PersistentSegmentTree(init) : new PersistentSegmentTree(n);
+		if (tree.queryAll(0) == 0) Arrays.fill(init, 0);
+		final List<long[]> expected = new ArrayList<>();
+		expected.add(init);
+		for (int round = 0; round < 2000; round++) {
+			final int from = rnd.nextInt(expected.size()), i = rnd.nextInt(n);
+			final long[] a = expected.get(from).clone();
+			final long v = rnd.nextInt(201) - 100;
+			final int version;
+			if (rnd.nextBoolean()) {
+				version = tree.add(from, i, v);
+				a[i] += v;
+			} else {
+				version = tree.set(from, i, v);
+				a[i] = v;
+			}
+			check(version == expected.size() && version == tree.latestVersion(), "version n=" + n);
+			expected.add(a);
+			final int q = rnd.nextInt(expected.size()), l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+			long s = 0;
+			for (int j = l; j < r; j++) s += expected.get(q)[j];
+			check(tree.query(q, l, r) == s, "query n=" + n);
+			check(tree.get(q, i) == expected.get(q)[i], "get n=" + n);
+		}
+		// 1 回の更新で複製する頂点は ceil(log2 n) + 1 個。
+		check(tree.nodeCount() <= 2 * n + 32 + 2000 * (33 - Integer.numberOfLeadingZeros(n)), "node count n=" + n);
+	}
+
+	/**
+	 * 値を座標とした永続セグメント木で、区間の k 番目に小さい値を求める。
+	 */
+	private static void testKth() {
+		final int n = 500, values = 50;
+		final Random rnd = new Random(7);
+		final int[] a = new int[n];
+		final PersistentSegmentTree tree = new PersistentSegmentTree(values);
+		final int[] version = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			a[i] = rnd.nextInt(values);
+			version[i + 1] = tree.add(version[i], a[i], 1);
+		}
+		for (int round = 0; round < 3000; round++) {
+			final int l = rnd.nextInt(n), r = l + 1 + rnd.nextInt(n - l);
+			final int[] sorted = Arrays.copyOfRange(a, l, r);
+			Arrays.sort(sorted);
+			final int k = rnd.nextInt(r - l);
+			check(tree.kth(version[l], version[r], k) == sorted[k], "kth");
+			check(tree.kth(version[l], version[r], r - l) == values, "kth out of range");
+		}
+	}
+
+	/**
+	 * 古いバージョンを破棄して compact() し、残したバージョンの値が変わらず頂点数が減ることを確かめる。
+	 */
+	private static void testCompact() {
+		final int n = 1 << 12;
+		final PersistentSegmentTree tree = new PersistentSegmentTree(n);
+		final long[] a = new long[n];
+		final Random rnd = new Random(3);
+		final long[][] snapshots = new long[4][];
+		final int[] kept = new int[4];
+		for (int round = 0; round < 20; round++) {
+			for (int k = 0; k < 1000; k++) {
+				final int i = rnd.nextInt(n);
+				final long v = rnd.nextInt(1000);
+				tree.add(i, v);
+				a[i] += v;
+			}
+			kept[round % 4] = tree.latestVersion();
+			snapshots[round % 4] = a.clone();
+			// 直近の 4 つの記録と最新以外を捨てる。
+			for (int v = 0; v < tree.latestVersion(); v++) {
+				boolean keep = false;
+				for (final int x : kept) keep |= x == v;
+				if (!keep) {
+					try {
+						tree.discard(v);
+					} catch (final IllegalArgumentException e) {
+						// 破棄済み
+					}
+				}
+			}
+			final int before = tree.nodeCount();
+			tree.compact();
+			check(tree.nodeCount() <= before, "compact shrinks");
+			check(tree.nodeCount() <= 5 * 2 * n, "compact bound " + tree.nodeCount());
+			for (int s = 0; s <= Math.min(round, 3); s++) {
+				for (int l = 0; l < n; l += 97) check(tree.query(kept[s], l, Math.min(n, l + 300)) == sum(snapshots[s], l, Math.min(n, l + 300)), "kept version");
+			}
+		}
+		try {
+			tree.query(0, 0, n);
+			check(false, "discarded version");
+		} catch (final IllegalArgumentException e) {
+			// 期待どおり
+		}
+	}
+
+	private static long sum(final long[] a, final int l, final int r) {
+		long s = 0;
+		for (int i = l; i < r; i++) s += a[i];
+		return s;
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,87 @@
+package verify.ds.segmenttree.specialized;
+
+import java.util.*;
+
+import lib.ds.segmenttree.*;
+
+/**
+ * 和・最小値・最大値の 3 つの木を同じ JVM で交互に使い、{@link IntSegmentTree}（演算のラムダが 3 種類になり呼び出しが megamorphic になる）と、
+ * 特化済みの木（実装クラスの型で呼ぶ場合と、{@link IntSpecializedSegmentTree} を通す場合）の query / set の時間を比べます。
+ * 出力は {@code RESULT,Bench,<方式>,<N>,<最良の ns/操作>} です。
+ */
+public final class Bench {
+	private static final int DEFAULT_N = 1 << 20;
+	private static final int OPS = 1 << 21;
+	private static final int WARMUP = 5;
+	private static final int MEASURE = 5;
+
+	private static long generic(final IntSegmentTree[] trees, final int[] l, final int[] r, final int[] idx, final int[] val) {
+		long sum = 0;
+		for (int k = 0; k < OPS; k++) {
+			final IntSegmentTree t = trees[k % 3];
+			if ((k & 3) == 0) t.set(idx[k], val[k]);
+			else sum += t.query(l[k], r[k]);
+		}
+		return sum;
+	}
+
+	private static long viaInterface(final IntSpecializedSegmentTree[] trees, final int[] l, final int[] r, final int[] idx, final int[] val) {
+		long sum = 0;
+		for (int k = 0; k < OPS; k++) {
+			final IntSpecializedSegmentTree t = trees[k % 3];
+			if ((k & 3) == 0) t.set(idx[k], val[k]);
+			else sum += t.query(l[k], r[k]);
+		}
+		return sum;
+	}
+
+	private static long concrete(final IntSumSegmentTree sum, final IntMinSegmentTree min, final IntMaxSegmentTree max, final int[] l, final int[] r,
+			final int[] idx, final int[] val) {
+		long res = 0;
+		for (int k = 0; k < OPS; k++) {
+			final boolean update = (k & 3) == 0;
+			switch (k % 3) {
+				case 0 -> res += update ? sum.set(idx[k], val[k]) : sum.query(l[k], r[k]);
+				case 1 -> res += update ? min.set(idx[k], val[k]) : min.query(l[k], r[k]);
+				default -> res += update ? max.set(idx[k], val[k]) : max.query(l[k], r[k]);
+			}
+		}
+		return res;
+	}
+
+	public static void main(final String[] args) {
+		final int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_N;
+		final Random rnd = new Random(1);
+		final int[] data = new int[n], l = new int[OPS], r = new int[OPS], idx = new int[OPS], val = new int[OPS];
+		for (int i = 0; i < n; i++) data[i] = rnd.nextInt(1000);
+		for (int k = 0; k < OPS; k++) {
+			final int a = rnd.nextInt(n), b = rnd.nextInt(n);
+			l[k] = Math.min(a, b);
+			r[k] = Math.max(a, b) + 1;
+			idx[k] = rnd.nextInt(n);
+			val[k] = rnd.nextInt(1000);
+		}
+		final IntSegmentTree[] genericTrees = {
+				new IntSegmentTree(data, Integer::sum, 0), new IntSegmentTree(data, Math::min, Integer.MAX_VALUE), new IntSegmentTree(data, Math::max, Integer.MIN_VALUE)};
+		final IntSumSegmentTree sum = new IntSumSegmentTree(data);
+		final IntMinSegmentTree min = new IntMinSegmentTree(data);
+		final IntMaxSegmentTree max = new IntMaxSegmentTree(data);
+		final IntSpecializedSegmentTree[] specialized = {sum, min, max};
+		long check = 0;
+		for (final String kind : new String[] {"generic", "interface", "concrete"}) {
+			long best = Long.MAX_VALUE;
+			for (int rep = 0; rep < WARMUP + MEASURE; rep++) {
+				final long t = System.nanoTime();
+				check += switch (kind) {
+					case "generic" -> generic(genericTrees, l, r, idx, val);
+					case "interface" -> viaInterface(specialized, l, r, idx, val);
+					default -> concrete(sum, min, max, l, r, idx, val);
+				};
+				final long ns = System.nanoTime() - t;
+				if (rep >= WARMUP) best = Math.min(best, ns);
+			}
+			System.out.println("RESULT,Bench," + kind + "," + n + "," + best / OPS);
+		}
+		if (check == 42) System.out.println();
+	}
+}
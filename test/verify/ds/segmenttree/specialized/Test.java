@@ -0,0 +1,89 @@
+package verify.ds.segmenttree.specialized;
+
+import java.util.*;
+import java.util.function.*;
+
+import lib.ds.segmenttree.*;
+import lib.math.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		for (final int n : new int[] {1, 2, 7, 64, 1000}) {
+			for (final SegmentTreeOperator op : SegmentTreeOperator.values()) {
+				testInt(op, n);
+				testLong(op, n);
+			}
+		}
+	}
+
+	private static IntBinaryOperator intOperator(final SegmentTreeOperator op) {
+		return switch (op) {
+			case SUM -> Integer::sum;
+			case MIN -> Math::min;
+			case MAX -> Math::max;
+			case XOR -> (a, b) -> a ^ b;
+			case GCD -> MathUtils::gcd;
+		};
+	}
+
+	private static LongBinaryOperator longOperator(final SegmentTreeOperator op) {
+		return switch (op) {
+			case SUM -> Long::sum;
+			case MIN -> Math::min;
+			case MAX -> Math::max;
+			case XOR -> (a, b) -> a ^ b;
+			case GCD -> MathUtils::gcd;
+		};
+	}
+
+	private static void testInt(final SegmentTreeOperator op, final int n) {
+		final Random rnd = new Random(op.ordinal() * 1000L + n);
+		final int[] data = new int[n];
+		// GCD では小さい値にして、1 以外の最大公約数が出るようにする。
+		for (int i = 0; i < n; i++) data[i] = op == SegmentTreeOperator.GCD ? rnd.nextInt(50) * 6 : rnd.nextInt();
+		final IntSpecializedSegmentTree tree = IntSpecializedSegmentTree.of(op, data);
+		final IntSegmentTree expected = new IntSegmentTree(data, intOperator(op), tree.identity());
+		check(tree.operator() == op && tree.size() == n, "operator " + op);
+		for (int round = 0; round < 2000; round++) {
+			final int i = rnd.nextInt(n), v = op == SegmentTreeOperator.GCD ? rnd.nextInt(50) * 4 : rnd.nextInt();
+			switch (round % 3) {
+				case 0 -> check(tree.set(i, v) == expected.set(i, v), "set " + op);
+				case 1 -> check(tree.add(i, v) == expected.add(i, v), "add " + op);
+				default -> {
+					final int l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+					check(tree.query(l, r) == expected.query(l, r), "query " + op + " n=" + n);
+					final int bound = tree.query(l, r);
+					final IntPredicate tester = x -> op == SegmentTreeOperator.MAX || op == SegmentTreeOperator.SUM ? x <= bound : x >= bound;
+					check(tree.maxRight(l, tester) == expected.maxRight(l, tester), "maxRight " + op);
+					check(tree.minLeft(r, tester) == expected.minLeft(r, tester), "minLeft " + op);
+				}
+			}
+			check(tree.queryAll() == expected.queryAll() && tree.get(i) == expected.get(i), "queryAll " + op);
+		}
+		tree.fill(12);
+		expected.fill(12);
+		for (int l = 0; l <= n; l += Math.max(1, n / 10)) check(tree.query(l, n) == expected.query(l, n), "fill " + op);
+		tree.setAll(i -> i);
+		expected.setAll(i -> i);
+		check(tree.toString().equals(expected.toString()) && tree.queryAll() == expected.queryAll(), "setAll " + op);
+	}
+
+	private static void testLong(final SegmentTreeOperator op, final int n) {
+		final Random rnd = new Random(-op.ordinal() * 1000L - n);
+		final LongSpecializedSegmentTree tree = LongSpecializedSegmentTree.of(op, n);
+		final LongSegmentTree expected = new LongSegmentTree(n, longOperator(op), tree.identity());
+		for (int round = 0; round < 2000; round++) {
+			final int i = rnd.nextInt(n);
+			final long v = op == SegmentTreeOperator.GCD ? rnd.nextInt(1000) * 1_000_000_007L : rnd.nextLong();
+			if (round % 2 == 0) check(tree.set(i, v) == expected.set(i, v), "long set " + op);
+			final int l = rnd.nextInt(n + 1), r = l + rnd.nextInt(n + 1 - l);
+			check(tree.query(l, r) == expected.query(l, r), "long query " + op + " n=" + n);
+			check(tree.queryAll() == expected.queryAll(), "long queryAll " + op);
+		}
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
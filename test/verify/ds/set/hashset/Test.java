@@ -0,0 +1,96 @@
+package verify.ds.set.hashset;
+
+import java.util.*;
+
+import lib.ds.set.*;
+
+public final class Test {
+
+	public static void main(final String[] args) {
+		testIntRandomized();
+		testLongBulk();
+		testClearReuse();
+	}
+
+	private static void testIntRandomized() {
+		final IntHashSet set = new IntHashSet();
+		final HashSet<Integer> expected = new HashSet<>();
+		final Random rnd = new Random(1);
+		for (int step = 0; step < 300000; step++) {
+			final int key = rnd.nextInt(20000) - 10000;
+			final int op = rnd.nextInt(4);
+			if (op < 2) check(set.add(key) == expected.add(key), "add");
+			else if (op == 2) check(set.remove(key) == expected.remove(key), "remove");
+			else check(set.contains(key) == expected.contains(key), "contains");
+			check(set.size() == expected.size(), "size step=" + step);
+			if (step % 50000 == 49999) {
+				final int mod = rnd.nextInt(5) + 2;
+				check(set.removeIf(x -> Math.floorMod(x, mod) == 0) == expected.removeIf(x -> Math.floorMod(x, mod) == 0), "removeIf");
+				check(set.size() == expected.size(), "size after removeIf");
+			}
+		}
+		final HashSet<Integer> seen = new HashSet<>();
+		for (int i = set.nextSlot(0); i >= 0; i = set.nextSlot(i + 1)) check(seen.add(set.keyAt(i)), "slot");
+		check(seen.equals(expected), "nextSlot");
+		seen.clear();
+		set.forEachInt(seen::add);
+		check(seen.equals(expected), "forEachInt");
+		seen.clear();
+		for (final int key : set.toArray()) seen.add(key);
+		check(seen.equals(expected) && set.intStream().count() == expected.size(), "toArray");
+		for (int key = -10001; key <= 10001; key++) check(set.contains(key) == expected.contains(key), "range key=" + key);
+	}
+
+	private static void testLongBulk() {
+		final long[] values = new long[5000];
+		for (int i = 0; i < values.length; i++) values[i] = (long) i * 1_000_000_007L;
+		final LongHashSet set = new LongHashSet(values);
+		check(set.size() == 5000 && !set.addAll(values));
+		check(set.addAll(new long[] {-1, -2, -1}) && set.size() == 5002);
+		final LongHashSet even = new LongHashSet();
+		for (int i = 0; i < 5000; i += 2) even.add(values[i]);
+		even.add(-3);
+		check(set.retainAll(even), "retainAll");
+		check(set.size() == 2500, "retainAll size");
+		for (int i = 0; i < 5000; i++) check(set.contains(values[i]) == (i % 2 == 0), "retainAll key=" + i);
+		check(!set.contains(-1) && !set.contains(-3));
+		check(!set.retainAll(even));
+		check(set.removeAll(new long[] {values[0], values[1]}) && set.size() == 2499);
+		final LongHashSet copy = new LongHashSet();
+		check(copy.addAll(set) && copy.size() == set.size());
+		long sum = 0, expectedSum = 0;
+		for (final PrimitiveIterator.OfLong it = copy.iterator(); it.hasNext(); ) sum += it.nextLong();
+		for (int i = 2; i < 5000; i += 2) expectedSum += values[i];
+		check(sum == expectedSum, "iterator");
+		check(set.removeIf(x -> true) && set.isEmpty());
+	}
+
+	private static void testClearReuse() {
+		final IntHashSet set = new IntHashSet(5000);
+		final HashSet<Integer> expected = new HashSet<>();
+		final Random rnd = new Random(13);
+		for (int round = 0; round < 200; round++) {
+			set.clear();
+			expected.clear();
+			final int count = rnd.nextInt(round % 10 == 0 ? 6000 : 200);
+			final int base = rnd.nextInt(4) * 1000;
+			for (int i = 0; i < count; i++) {
+				final int key = (i & 1) == 0 ? base + i : rnd.nextInt(1 << 16);
+				check(set.add(key) == expected.add(key), "add round=" + round);
+			}
+			for (int i = 0; i < count; i += 5) check(set.remove(base + i) == expected.remove(base + i), "remove round=" + round);
+			for (int key = base - 64; key < base + 6064; key++) check(set.contains(key) == expected.contains(key), "range key=" + key);
+			final HashSet<Integer> seen = new HashSet<>();
+			set.forEachInt(seen::add);
+			check(seen.equals(expected), "forEach round=" + round);
+		}
+	}
+
+	private static void check(final boolean condition) {
+		if (!condition) throw new AssertionError();
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
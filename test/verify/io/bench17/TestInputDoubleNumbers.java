@@ -21,9 +21,25 @@ public static void main(String[] args) {
 				double ms = benchFastScannerFrom(2, buf);
 				System.out.printf("nextDouble2: %.3f ms (buf=%d)%n", ms, buf);
 			}
+			case 3 -> {
+				double ms = benchLibFastScanner(buf);
+				System.out.printf("nextDouble3: %.3f ms (buf=%d)%n", ms, buf);
+			}
 		}
 	}
 
+	private static double benchLibFastScanner(final int bufferSize) {
+		final lib.io.FastScanner sc = new lib.io.FastScanner(System.in, bufferSize);
+		final long t0 = System.nanoTime();
+		int n = (int) sc.nextDouble();
+		double sum = 0;
+		while (n-- > 0) sum += sc.nextDouble();
+		final boolean checksum = sum == sc.nextDouble();
+		final long t1 = System.nanoTime();
+		assert checksum;
+		return (t1 - t0) / 1_000_000.0;
+	}
+
 	private static double benchFastScannerFrom(final int type, final int bufferSize) {
 		try (final FastScanner sc = new FastScanner(bufferSize)) {
 			final long t0 = System.nanoTime();
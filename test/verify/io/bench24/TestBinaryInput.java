@@ -0,0 +1,74 @@
+package verify.io.bench24;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class TestBinaryInput {
+	private static final int DEFAULT_N = 5_000_000;
+	private static final int WARMUP = 5;
+	private static final int MEASURE = 5;
+
+	private static byte[] generate(final String kind, final int n) {
+		final Random rnd = new Random(1);
+		final StringBuilder sb = new StringBuilder();
+		sb.append(n).append('\n');
+		for (int i = 0; i < n; i++) {
+			switch (kind) {
+				case "small" -> sb.append(rnd.nextInt(1_000_000));
+				case "int" -> sb.append(rnd.nextInt());
+				default -> sb.append(rnd.nextLong());
+			}
+			sb.append(i % 10 == 9 ? '\n' : ' ');
+		}
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static long runText(final Path text, final boolean isLong) throws IOException {
+		final long t = System.nanoTime();
+		try (final InputStream in = Files.newInputStream(text)) {
+			final FastScanner sc = new FastScanner(in);
+			final int n = sc.nextInt();
+			if (isLong) sc.nextLong(n);
+			else sc.nextInt(n);
+		}
+		return System.nanoTime() - t;
+	}
+
+	private static long runBinary(final Path binary, final boolean isLong) {
+		final long t = System.nanoTime();
+		try (final BinaryScanner sc = new BinaryScanner(binary)) {
+			final int n = sc.nextInt();
+			if (isLong) sc.nextLong(n);
+			else sc.nextInt(n);
+		}
+		return System.nanoTime() - t;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_N;
+		final Path text = Files.createTempFile("bench", ".txt"), binary = Files.createTempFile("bench", ".bin");
+		try {
+			for (final String kind : new String[]{"small", "int", "long"}) {
+				Files.write(text, generate(kind, n));
+				BinaryInputWriter.convert(text, binary);
+				final boolean isLong = kind.equals("long");
+				for (final boolean isBinary : new boolean[]{false, true}) {
+					long best = Long.MAX_VALUE;
+					for (int r = 0; r < WARMUP + MEASURE; r++) {
+						final long ns = isBinary ? runBinary(binary, isLong) : runText(text, isLong);
+						if (r >= WARMUP) best = Math.min(best, ns);
+					}
+					final long size = Files.size(isBinary ? binary : text);
+					System.out.println("RESULT,TestBinaryInput," + kind + "," + (isBinary ? "binary" : "text") + "," + n + "," + size + "," + best);
+				}
+			}
+		} finally {
+			Files.delete(text);
+			Files.delete(binary);
+		}
+	}
+}
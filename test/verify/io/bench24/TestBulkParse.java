@@ -0,0 +1,62 @@
+package verify.io.bench24;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class TestBulkParse {
+	private static final int DEFAULT_N = 5_000_000;
+	private static final int WARMUP = 5;
+	private static final int MEASURE = 5;
+
+	private static byte[] generate(final String kind, final int n) {
+		final Random rnd = new Random(1);
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			switch (kind) {
+				case "small" -> sb.append(rnd.nextInt(1_000_000));
+				case "int" -> sb.append(rnd.nextInt());
+				default -> sb.append(rnd.nextLong());
+			}
+			sb.append(i % 10 == 9 ? '\n' : ' ');
+		}
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	// vectorized は --add-modules jdk.incubator.vector を付けて実行したときだけ VectorScanner を使い、それ以外は bulk と同じになる。
+	private static long run(final byte[] input, final boolean isLong, final String mode, final int[] ints, final long[] longs) {
+		final InputStream in = new ByteArrayInputStream(input);
+		final FastScanner sc = mode.equals("vectorized") ? FastScanner.vectorized(in) : new FastScanner(in, input.length);
+		final boolean bulk = !mode.equals("scalar");
+		final int n = ints.length;
+		final long t = System.nanoTime();
+		if (isLong) {
+			if (bulk) sc.readLongs(longs, 0, n);
+			else for (int i = 0; i < n; i++) longs[i] = sc.nextLong();
+		} else {
+			if (bulk) sc.readInts(ints, 0, n);
+			else for (int i = 0; i < n; i++) ints[i] = sc.nextInt();
+		}
+		return System.nanoTime() - t;
+	}
+
+	public static void main(final String[] args) {
+		final int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_N;
+		final int[] ints = new int[n];
+		final long[] longs = new long[n];
+		for (final String kind : new String[]{"small", "int", "long"}) {
+			final byte[] input = generate(kind, n);
+			final boolean isLong = kind.equals("long");
+			for (final String mode : new String[]{"scalar", "bulk", "vectorized"}) {
+				long best = Long.MAX_VALUE;
+				for (int r = 0; r < WARMUP + MEASURE; r++) {
+					final long ns = run(input, isLong, mode, ints, longs);
+					if (r >= WARMUP) best = Math.min(best, ns);
+				}
+				System.out.println("RESULT,TestBulkParse," + kind + "," + mode + "," + n + "," + best);
+			}
+		}
+	}
+}
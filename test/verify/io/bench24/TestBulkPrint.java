@@ -0,0 +1,50 @@
+package verify.io.bench24;
+
+import java.io.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class TestBulkPrint {
+	private static final int DEFAULT_H = 1_000_000;
+	private static final int W = 10;
+	private static final int WARMUP = 5;
+	private static final int MEASURE = 5;
+
+	private static long run(final FastPrinter out, final int[][] im, final long[][] lm, final boolean isLong, final boolean bulk) {
+		final long t = System.nanoTime();
+		if (isLong) {
+			if (bulk) out.printMatrix(lm, (byte) ' ');
+			else out.println(lm);
+		} else {
+			if (bulk) out.printMatrix(im, (byte) ' ');
+			else out.println(im);
+		}
+		out.flush();
+		return System.nanoTime() - t;
+	}
+
+	public static void main(final String[] args) {
+		final int h = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_H;
+		final Random rnd = new Random(1);
+		final int[][] im = new int[h][W];
+		final long[][] lm = new long[h][W];
+		for (int r = 0; r < h; r++) {
+			for (int c = 0; c < W; c++) {
+				im[r][c] = rnd.nextInt();
+				lm[r][c] = rnd.nextLong();
+			}
+		}
+		final FastPrinter out = new FastPrinter(OutputStream.nullOutputStream(), 1 << 20, false);
+		for (final boolean isLong : new boolean[]{false, true}) {
+			for (final boolean bulk : new boolean[]{false, true}) {
+				long best = Long.MAX_VALUE;
+				for (int r = 0; r < WARMUP + MEASURE; r++) {
+					final long ns = run(out, im, lm, isLong, bulk);
+					if (r >= WARMUP) best = Math.min(best, ns);
+				}
+				System.out.println("RESULT,TestBulkPrint," + (isLong ? "long" : "int") + "," + (bulk ? "printMatrix" : "println") + "," + h + "x" + W + "," + best);
+			}
+		}
+	}
+}
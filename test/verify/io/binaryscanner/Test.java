@@ -0,0 +1,115 @@
+package verify.io.binaryscanner;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class Test {
+
+	public static void main(final String[] args) throws IOException {
+		final Random rnd = new Random(4);
+		final StringBuilder sb = new StringBuilder();
+		final int n = 3000;
+		final int[] small = new int[n], large = new int[n];
+		final long[] longs = new long[n];
+		for (int i = 0; i < n; i++) {
+			small[i] = rnd.nextInt(100);
+			large[i] = rnd.nextInt();
+			longs[i] = rnd.nextLong();
+		}
+		append(sb, small);
+		append(sb, large);
+		for (final long l : longs) sb.append(l).append(' ');
+		sb.append("\nabc 007 -0 1.5 -2.25e3 ").append(Long.MIN_VALUE).append(' ').append(Long.MAX_VALUE).append(" 9223372036854775808 xyz true\n");
+		append(sb, large);
+		append(sb, small);
+		final byte[] text = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		final Path textFile = Files.createTempFile("binary", ".txt"), binaryFile = Files.createTempFile("binary", ".bin");
+		try {
+			Files.write(textFile, text);
+			BinaryInputWriter.convert(textFile, binaryFile);
+			check(Files.size(binaryFile) < text.length, "compact");
+			try (final BinaryScanner sc = new BinaryScanner(binaryFile)) {
+				checkAll(sc, small, large, longs);
+			}
+			try (final BinaryScanner sc = new BinaryScanner(new ByteArrayInputStream(Files.readAllBytes(binaryFile)))) {
+				checkAll(sc, small, large, longs);
+			}
+			final FastScanner fs = new FastScanner(new ByteArrayInputStream(text));
+			try (final BinaryScanner sc = new BinaryScanner(binaryFile)) {
+				while (sc.hasNext()) check(sc.next().equals(fs.next()), "token");
+				check(!fs.hasNext(), "token count");
+			}
+		} finally {
+			Files.delete(textFile);
+			Files.delete(binaryFile);
+		}
+		try {
+			new BinaryScanner(new ByteArrayInputStream(text));
+			check(false, "header");
+		} catch (final IllegalArgumentException e) {
+			// テキスト入力は拒否される
+		}
+		testLines();
+		System.out.println("pass");
+	}
+
+	// nextLine はトークンの読み込みと混ぜても FastScanner と同じ行を返すこと。
+	private static void testLines() throws IOException {
+		final String text = "3\nabc def ghi\n\n12 34\r\nxyz\n\n\n7 8 9\nlast line";
+		final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		BinaryInputWriter.convert(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), binary);
+		final FastScanner fs = new FastScanner(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+		try (final BinaryScanner sc = new BinaryScanner(new ByteArrayInputStream(binary.toByteArray()))) {
+			check(sc.nextLine().equals(fs.nextLine()), "first line");
+			check(sc.nextChar() == fs.nextChar(), "char");
+			check(sc.nextLine().equals(fs.nextLine()), "rest of token and line");
+			check(sc.nextLine().equals(fs.nextLine()), "empty line");
+			check(sc.nextInt() == fs.nextInt(), "int before line end");
+			check(sc.nextLine().equals(fs.nextLine()), "rest of line");
+			check(sc.next().equals(fs.next()), "token at line end");
+			check(sc.nextLine().equals(fs.nextLine()), "empty line after token");
+			check(sc.nextInt() == fs.nextInt(), "int after empty lines");
+			check(sc.nextLine().equals(fs.nextLine()), "rest after skipped lines");
+			check(sc.nextLine().equals(fs.nextLine()), "line without newline");
+			check(!sc.hasNext(), "eof");
+		}
+	}
+
+	private static void append(final StringBuilder sb, final int[] a) {
+		for (final int x : a) sb.append(x).append(' ');
+		sb.append('\n');
+	}
+
+	private static void checkAll(final BinaryScanner sc, final int[] small, final int[] large, final long[] longs) {
+		final int n = small.length;
+		check(sc.nextInt() == small[0], "first");
+		check(Arrays.equals(sc.nextInt(n - 1), Arrays.copyOfRange(small, 1, n)), "varint column");
+		final IntBuffer view = sc.nextIntView(n / 2);
+		for (int i = 0; i < n / 2; i++) check(view.get(i) == large[i], "int view " + i);
+		for (int i = n / 2; i < n; i++) check(sc.nextLong() == large[i], "int column " + i);
+		check(Arrays.equals(sc.nextLong(n), longs), "long column");
+		check(sc.nextChar() == 'a', "char");
+		check(sc.next().equals("bc"), "rest of token");
+		check(sc.next().equals("007"), "leading zeros");
+		check(sc.nextInt() == 0, "negative zero");
+		check(sc.nextDouble() == 1.5, "double");
+		check(sc.nextDouble() == -2250, "exponent");
+		check(sc.nextLong() == Long.MIN_VALUE, "min long");
+		check(sc.nextLong() == Long.MAX_VALUE, "max long");
+		check(sc.next().equals("9223372036854775808"), "overflow");
+		check(sc.nextChar() == 'x' && sc.nextChar() == 'y' && sc.nextChar() == 'z', "chars");
+		check(sc.nextBoolean(), "boolean");
+		final int[][] mat = sc.nextIntMat(2, n);
+		check(Arrays.equals(mat[0], large) && Arrays.equals(mat[1], small), "matrix");
+		check(!sc.hasNext(), "eof");
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
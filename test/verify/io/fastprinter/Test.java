@@ -0,0 +1,275 @@
+package verify.io.fastprinter;
+
+import java.io.*;
+import java.math.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class Test {
+	private static final int[] BUFFER_SIZES = {1, 64, 100, 1 << 10, 1 << 20};
+
+	public static void main(final String[] args) {
+		if (args.length == 1 && args[0].equals("stdout")) {
+			writeStdout();
+			return;
+		}
+		testAsyncMatchesSync();
+		testFlushOrdering();
+		testAsyncFailure();
+		testLargeStrings();
+		testRedirectedSystemOut();
+		testStdoutChannel();
+		testBulkArrays();
+		testDoubles();
+		testFixedDoubles();
+	}
+
+	private static void write(final FastPrinter fp, final long seed) {
+		final Random rnd = new Random(seed);
+		final int[] arr = new int[300];
+		for (int i = 0; i < arr.length; i++) arr[i] = rnd.nextInt();
+		for (int i = 0; i < 20000; i++) {
+			switch (i % 5) {
+				case 0 -> fp.println(rnd.nextInt());
+				case 1 -> fp.print(rnd.nextLong()).print(' ').println(i);
+				case 2 -> fp.println("x".repeat(rnd.nextInt(200)));
+				case 3 -> fp.println(rnd.nextBoolean());
+				default -> fp.println(arr, 0, rnd.nextInt(arr.length));
+			}
+		}
+	}
+
+	private static void testAsyncMatchesSync() {
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (FastPrinter fp = new FastPrinter(expected)) {
+			write(fp, 1);
+		}
+		for (final int size : BUFFER_SIZES) {
+			final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+			try (FastPrinter fp = new FastPrinter(actual, size, false, true)) {
+				write(fp, 1);
+			}
+			check(Arrays.equals(expected.toByteArray(), actual.toByteArray()), "async output size=" + size);
+		}
+	}
+
+	private static void testFlushOrdering() {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final FastPrinter fp = new FastPrinter(out, 64, false, true);
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			fp.println(i);
+			expected.append(i).append('\n');
+			if (i % 97 == 0) {
+				fp.flush();
+				check(out.toString().contentEquals(expected), "flush i=" + i);
+			}
+		}
+		fp.close();
+		check(out.toString().contentEquals(expected), "close");
+	}
+
+	private static void testAsyncFailure() {
+		final OutputStream broken = new OutputStream() {
+			@Override
+			public void write(final int b) throws IOException {
+				throw new IOException("broken");
+			}
+		};
+		final FastPrinter fp = new FastPrinter(broken, 64, false, true);
+		boolean thrown = false;
+		try {
+			for (int i = 0; i < 1000; i++) fp.println(i);
+			fp.flush();
+		} catch (final RuntimeException e) {
+			thrown = e.getCause() instanceof IOException;
+		}
+		check(thrown, "async failure");
+	}
+
+	private static void writeLarge(final FastPrinter fp) {
+		for (int i = 0; i < 200; i++) {
+			fp.print(i).print(' ');
+			final String s = String.valueOf((char) ('a' + i % 26)).repeat(i * 997 % 100000);
+			if ((i & 1) == 0) fp.println(s);
+			else fp.print(new StringBuilder(s)).println();
+		}
+	}
+
+	private static void testLargeStrings() {
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (FastPrinter fp = new FastPrinter(expected, 1 << 20, false)) {
+			writeLarge(fp);
+		}
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		try (FastPrinter fp = new FastPrinter(stream, 64, false)) {
+			writeLarge(fp);
+		}
+		check(Arrays.equals(expected.toByteArray(), stream.toByteArray()), "large strings stream");
+		for (final boolean async : new boolean[] {false, true}) {
+			try {
+				final File file = File.createTempFile("fastprinter", ".txt");
+				file.deleteOnExit();
+				try (FastPrinter fp = new FastPrinter(new FileOutputStream(file), 1 << 10, false, async)) {
+					writeLarge(fp);
+				}
+				check(Arrays.equals(expected.toByteArray(), java.nio.file.Files.readAllBytes(file.toPath())), "large strings channel async=" + async);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private static void testRedirectedSystemOut() {
+		final PrintStream original = System.out;
+		final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		final String large = "y".repeat(40000);
+		try {
+			System.setOut(new PrintStream(captured, false));
+			final FastPrinter fp = new FastPrinter();
+			fp.println("head").println(large).println("tail");
+			fp.flush();
+			System.out.flush();
+		} finally {
+			System.setOut(original);
+		}
+		check(captured.toString().equals("head\n" + large + "\ntail\n"), "redirected System.out");
+	}
+
+	// 子プロセスで既定の FastPrinter から fd 1 へ直接書き込み、System.out の出力と順序が崩れないこと。
+	private static void testStdoutChannel() {
+		final List<String> command = new ArrayList<>();
+		command.add(ProcessHandle.current().info().command().orElseThrow());
+		command.addAll(java.lang.management.ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.addAll(List.of("-cp", System.getProperty("java.class.path"), Test.class.getName(), "stdout"));
+		try {
+			final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			final byte[] output = process.getInputStream().readAllBytes();
+			check(process.waitFor() == 0, "stdout channel exit");
+			check(new String(output).equals(expectedStdout()), "stdout channel");
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void writeStdout() {
+		System.out.print("before ");
+		final FastPrinter fp = new FastPrinter(64);
+		fp.println("head").println("z".repeat(40000)).print("tail ");
+		fp.flush();
+		System.out.println("after");
+		fp.println("x".repeat(50000));
+		fp.close();
+	}
+
+	private static String expectedStdout() {
+		return "before head\n" + "z".repeat(40000) + "\ntail after\n" + "x".repeat(50000) + "\n";
+	}
+
+	private static void testBulkArrays() {
+		final Random rnd = new Random(2);
+		final int h = 300, w = 37;
+		final int[][] im = new int[h][];
+		final long[][] lm = new long[h][];
+		final int[] flatInt = new int[h * w];
+		final long[] flatLong = new long[h * w];
+		for (int r = 0; r < h; r++) {
+			im[r] = new int[r % 50 == 0 ? 0 : rnd.nextInt(w) + 1];
+			lm[r] = new long[im[r].length];
+			for (int c = 0; c < im[r].length; c++) {
+				final int shift = rnd.nextInt(64);
+				im[r][c] = switch (c % 5) {
+					case 0 -> Integer.MIN_VALUE + rnd.nextInt(2);
+					case 1 -> Integer.MAX_VALUE - rnd.nextInt(2);
+					default -> rnd.nextInt() >> (shift & 31);
+				};
+				lm[r][c] = switch (c % 5) {
+					case 0 -> Long.MIN_VALUE + rnd.nextInt(2);
+					case 1 -> Long.MAX_VALUE - rnd.nextInt(2);
+					default -> rnd.nextLong() >> shift;
+				};
+			}
+			for (int c = 0; c < w; c++) {
+				flatInt[r * w + c] = rnd.nextInt() >> rnd.nextInt(32);
+				flatLong[r * w + c] = rnd.nextLong() >> rnd.nextInt(64);
+			}
+		}
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (FastPrinter fp = new FastPrinter(expected)) {
+			for (final int[] row : im) fp.print(row, ',').println();
+			for (final long[] row : lm) fp.print(row, ',').println();
+			for (int r = 0; r < h; r++) fp.print(flatInt, r * w, r * w + w, ' ').println();
+			for (int r = 0; r < h; r++) fp.print(flatLong, r * w, r * w + w, ' ').println();
+			fp.print(flatInt, 5, 5 + 1000, ' ').println();
+			fp.print(flatLong, 5, 5 + 1000, ' ').println();
+		}
+		for (final int size : BUFFER_SIZES) {
+			final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+			try (FastPrinter fp = new FastPrinter(actual, size, false)) {
+				fp.printMatrix(im, (byte) ',');
+				fp.printMatrix(lm, (byte) ',');
+				fp.printMatrix(flatInt, h, w, (byte) ' ');
+				fp.printMatrix(flatLong, h, w, (byte) ' ');
+				fp.printArray(flatInt, 5, 1000, (byte) ' ').println();
+				fp.printArray(flatLong, 5, 1000, (byte) ' ').println();
+			}
+			check(Arrays.equals(expected.toByteArray(), actual.toByteArray()), "bulk arrays size=" + size);
+		}
+	}
+
+	private static final double[] SPECIAL_DOUBLES = {
+		0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE,
+		2 * Double.MIN_VALUE, 3 * Double.MIN_VALUE, Double.MAX_VALUE, Double.MIN_NORMAL, 1e7, 9999999.0, 1e-3, 9.99e-4,
+		1e23, 1e16, 1e17, 0.1, 0.3, 1.0, 100.0, 1.005, 2.5, 0.125, 123456789012345678.0,
+	};
+
+	private static double randomDouble(final Random rnd, final int i) {
+		return switch (i % 4) {
+			case 0 -> Double.longBitsToDouble(rnd.nextLong());
+			case 1 -> rnd.nextDouble() * Math.pow(10, rnd.nextInt(20) - 10);
+			case 2 -> rnd.nextInt(100000) / 100.0;
+			default -> (double) rnd.nextLong() / (1L << rnd.nextInt(60));
+		};
+	}
+
+	private static void testDoubles() {
+		final Random rnd = new Random(3);
+		final double[] values = new double[200000];
+		for (int i = 0; i < values.length; i++) values[i] = i < SPECIAL_DOUBLES.length ? SPECIAL_DOUBLES[i] : randomDouble(rnd, i);
+		final StringBuilder expected = new StringBuilder();
+		for (final double d : values) expected.append(d).append('\n');
+		for (final double d : values) expected.append(d).append(' ');
+		final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		try (FastPrinter fp = new FastPrinter(actual, 64, false)) {
+			for (final double d : values) fp.println(d);
+			for (final double d : values) fp.print(d).print(' ');
+		}
+		check(actual.toString().contentEquals(expected), "shortest doubles");
+	}
+
+	private static void testFixedDoubles() {
+		final Random rnd = new Random(4);
+		final StringBuilder expected = new StringBuilder();
+		final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		try (FastPrinter fp = new FastPrinter(actual, 64, false)) {
+			for (int i = 0; i < 100000; i++) {
+				double d = i < SPECIAL_DOUBLES.length ? SPECIAL_DOUBLES[i] : randomDouble(rnd, i);
+				if (Double.isNaN(d) || Double.isInfinite(d)) continue;
+				if (Math.abs(d) > 1e40) d %= 1e40;
+				final int n = 1 + rnd.nextInt(20);
+				fp.print(d, n).println();
+				final BigDecimal bd = new BigDecimal(Double.toString(Math.abs(d))).setScale(n, RoundingMode.HALF_UP);
+				expected.append(Double.doubleToRawLongBits(d) < 0 ? "-" : "").append(bd.toPlainString()).append('\n');
+			}
+		}
+		check(actual.toString().contentEquals(expected), "fixed doubles");
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,185 @@
+package verify.io.fastscanner;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class Test {
+	private static final int[] BUFFER_SIZES = {1, 2, 7, 8, 13, 64, 1 << 10, 1 << 20};
+
+	public static void main(final String[] args) {
+		System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "4");
+		testTokensAcrossChunks();
+		testLinesAcrossChunks();
+		testTrailingToken();
+		testBulkRead();
+		testParallelRead();
+		testDoubles();
+	}
+
+	private static void testTokensAcrossChunks() {
+		final Random rnd = new Random(1);
+		final StringBuilder sb = new StringBuilder();
+		final int n = 20000;
+		final long[] expected = new long[n];
+		for (int i = 0; i < n; i++) {
+			final long v = switch (i % 4) {
+				case 0 -> rnd.nextInt();
+				case 1 -> rnd.nextLong();
+				case 2 -> rnd.nextInt(1000) - 500;
+				default -> i % 8 == 3 ? Long.MIN_VALUE + 1 : Long.MAX_VALUE;
+			};
+			expected[i] = v;
+			sb.append(v).append(rnd.nextInt(5) == 0 ? "  \n" : " ");
+		}
+		sb.append("abc xyz\n");
+		final byte[] input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		for (final int size : BUFFER_SIZES) {
+			final FastScanner sc = new FastScanner(new ByteArrayInputStream(input), size);
+			for (int i = 0; i < n; i++) {
+				final long actual = i % 4 == 0 || i % 4 == 2 ? sc.nextInt() : sc.nextLong();
+				check(actual == expected[i], "size=" + size + ", i=" + i);
+			}
+			check(sc.next().equals("abc"), "size=" + size);
+			check(sc.nextChar() == 'x', "size=" + size);
+			check(new String(sc.nextChars()).equals("yz"), "size=" + size);
+			check(!sc.hasNext(), "size=" + size);
+		}
+	}
+
+	private static void testLinesAcrossChunks() {
+		final String input = "3\r\nhello world\r\n\r\nfoo bar baz\nlast";
+		for (final int size : BUFFER_SIZES) {
+			final FastScanner sc = new FastScanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), size);
+			check(sc.nextInt() == 3, "size=" + size);
+			check(sc.nextLine().isEmpty(), "size=" + size);
+			check(sc.nextLine().equals("hello world"), "size=" + size);
+			check(sc.nextLine().isEmpty(), "size=" + size);
+			check(sc.nextLine().equals("foo bar baz"), "size=" + size);
+			check(sc.nextLine().equals("last"), "size=" + size);
+			check(!sc.hasNext(), "size=" + size);
+		}
+	}
+
+	private static void testTrailingToken() {
+		for (final int size : BUFFER_SIZES) {
+			final FastScanner sc = new FastScanner(new ByteArrayInputStream("12345678901 -3.25 true".getBytes(StandardCharsets.US_ASCII)), size);
+			check(sc.nextLong() == 12345678901L, "size=" + size);
+			check(sc.nextDouble() == -3.25, "size=" + size);
+			check(sc.nextBoolean(), "size=" + size);
+			check(!sc.hasNext(), "size=" + size);
+			try {
+				sc.nextInt();
+				check(false, "size=" + size);
+			} catch (final NoSuchElementException ignored) {
+			}
+		}
+	}
+
+	private static void testBulkRead() {
+		final Random rnd = new Random(3);
+		final int h = 300, w = 7;
+		final int[] ints = new int[h * w];
+		final long[] longs = new long[h * w];
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = switch (i % 5) {
+				case 0 -> rnd.nextInt();
+				case 1 -> rnd.nextInt(100);
+				case 2 -> -rnd.nextInt(100000000);
+				case 3 -> i % 10 == 3 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+				default -> 10000000 * (rnd.nextInt(200) - 100);
+			};
+			sb.append(ints[i]).append((i + 1) % w == 0 ? "\n" : " ");
+		}
+		for (int i = 0; i < longs.length; i++) {
+			longs[i] = switch (i % 4) {
+				case 0 -> rnd.nextLong();
+				case 1 -> rnd.nextLong() % 1000000000000000L;
+				case 2 -> i % 8 == 2 ? Long.MIN_VALUE : Long.MAX_VALUE;
+				default -> 1000000000000000000L;
+			};
+			sb.append(longs[i]).append(' ');
+		}
+		final byte[] input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		for (final int size : BUFFER_SIZES) {
+			final FastScanner sc = new FastScanner(new ByteArrayInputStream(input), size);
+			check(Arrays.equals(sc.readIntMatrix(h, w), ints), "ints size=" + size);
+			final long[] dst = new long[longs.length + 2];
+			sc.readLongs(dst, 1, longs.length);
+			check(Arrays.equals(dst, 1, longs.length + 1, longs, 0, longs.length), "longs size=" + size);
+			check(!sc.hasNext(), "size=" + size);
+		}
+	}
+
+	private static void testParallelRead() {
+		final Random rnd = new Random(4);
+		final int n = 1_000_000;
+		final long[] longs = new long[n];
+		final int[] ints = new int[n];
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			longs[i] = rnd.nextLong();
+			sb.append(longs[i]).append(i % 3 == 0 ? "\n" : " ");
+		}
+		for (int i = 0; i < n; i++) {
+			ints[i] = rnd.nextInt() >> rnd.nextInt(32);
+			sb.append(ints[i]).append("  ");
+		}
+		sb.append("end");
+		final byte[] input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		for (final int size : new int[]{1 << 16, 3 << 20, 1 << 26}) {
+			final FastScanner sc = new FastScanner(new ByteArrayInputStream(input), size);
+			check(sc.nextLong() == longs[0], "size=" + size);
+			final long[] a = sc.parallelReadLongs(n - 2);
+			check(Arrays.equals(a, 0, n - 2, longs, 1, n - 1), "longs size=" + size);
+			check(sc.nextLong() == longs[n - 1], "size=" + size);
+			check(Arrays.equals(sc.parallelReadInts(n), ints), "ints size=" + size);
+			check(sc.next().equals("end"), "size=" + size);
+		}
+	}
+
+	private static void testDoubles() {
+		final Random rnd = new Random(6);
+		final String[] special = {
+			"0", "-0", "+1.5", "NaN", "-Infinity", "1e-400", "1e400", "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324",
+			"2.2250738585072011e-308", "1.7976931348623157e308", "1.7976931348623159e308", "9007199254740993", "9007199254740992.5",
+			"3.141592653589793238462643383279", "1e23", "0.000000000000000000000000000000000001", "123456789012345678901234567890", ".5",
+		};
+		final int n = 50000;
+		final String[] tokens = new String[n];
+		for (int i = 0; i < n; i++) {
+			tokens[i] = switch (i % 4) {
+				case 0 -> Double.toString(Double.longBitsToDouble(rnd.nextLong()));
+				case 1 -> String.format("%.6f", rnd.nextDouble() * 1e6);
+				case 2 -> special[rnd.nextInt(special.length)];
+				default -> {
+					final StringBuilder sb = new StringBuilder();
+					if (rnd.nextBoolean()) sb.append('-');
+					for (int k = rnd.nextInt(30); k >= 0; k--) sb.append((char) ('0' + rnd.nextInt(10)));
+					if (rnd.nextBoolean()) {
+						sb.append('.');
+						for (int k = rnd.nextInt(30); k >= 0; k--) sb.append((char) ('0' + rnd.nextInt(10)));
+					}
+					if (rnd.nextInt(3) == 0) sb.append(rnd.nextBoolean() ? 'e' : 'E').append(rnd.nextBoolean() ? "-" : "+").append(rnd.nextInt(400));
+					yield sb.toString();
+				}
+			};
+		}
+		final byte[] input = String.join(" ", tokens).concat("\n").getBytes(StandardCharsets.US_ASCII);
+		for (final int size : BUFFER_SIZES) {
+			final FastScanner sc = new FastScanner(new ByteArrayInputStream(input), size);
+			for (int i = 0; i < n; i++) {
+				final double actual = sc.nextDouble();
+				final double expected = Double.parseDouble(tokens[i]);
+				check(Double.doubleToRawLongBits(actual) == Double.doubleToRawLongBits(expected), "double " + tokens[i] + " size=" + size);
+			}
+		}
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,82 @@
+package verify.io.interactivechannel;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class Test {
+
+	public static void main(final String[] args) throws Exception {
+		testParse();
+		testPipeSession();
+		System.out.println("pass");
+	}
+
+	private static void testParse() {
+		final StringBuilder sb = new StringBuilder();
+		final Random rnd = new Random(3);
+		final int n = 20000;
+		final long[] expected = new long[n];
+		for (int i = 0; i < n; i++) {
+			expected[i] = (i & 1) == 0 ? rnd.nextInt() : rnd.nextLong();
+			sb.append(expected[i]).append(i % 5 == 0 ? "\r\n" : " ");
+		}
+		sb.append(Long.MIN_VALUE).append("\nhello world\r\nabc ").append("x".repeat(100)).append('\n');
+		final byte[] bytes = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		for (final int bufferSize : new int[]{7, 64, 1 << 16}) {
+			final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+			try (final InteractiveChannel ch = new InteractiveChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), Channels.newChannel(sink), bufferSize)) {
+				for (int i = 0; i < n; i++) {
+					final long actual = (i & 1) == 0 ? ch.nextInt() : ch.nextLong();
+					check(actual == expected[i], "bufferSize=" + bufferSize + " i=" + i);
+				}
+				check(ch.nextLong() == Long.MIN_VALUE, "min long");
+				check(ch.nextLine().equals("hello world"), "crlf line");
+				check(ch.next().equals("abc"), "token");
+				check(ch.next().equals("x".repeat(100)), "long token");
+				check(!ch.hasNext(), "eof");
+				ch.print(-12).print(' ').print(Long.MIN_VALUE).print(' ').println(Long.MAX_VALUE).println("y".repeat(100));
+			}
+			check(sink.toString(StandardCharsets.US_ASCII).equals("-12 " + Long.MIN_VALUE + " " + Long.MAX_VALUE + "\n" + "y".repeat(100) + "\n"), "output " + bufferSize);
+		}
+	}
+
+	/**
+	 * 別スレッドのジャッジと {@link Pipe} で対話し、クエリがまとめて送信されることと計測値を確認します。
+	 */
+	private static void testPipeSession() throws Exception {
+		final Pipe toJudge = Pipe.open(), fromJudge = Pipe.open();
+		final int rounds = 200, batch = 50;
+		final Thread judge = Thread.ofPlatform().start(() -> {
+			try (final InteractiveChannel ch = new InteractiveChannel(toJudge.source(), fromJudge.sink())) {
+				while (true) {
+					final String op = ch.next();
+					if (op.equals("!")) break;
+					ch.println(ch.nextLong() * 2);
+				}
+			}
+		});
+		try (final InteractiveChannel ch = new InteractiveChannel(fromJudge.source(), toJudge.sink())) {
+			long x = 1;
+			for (int r = 0; r < rounds; r++) {
+				for (int i = 0; i < batch; i++) ch.print("? ").println(x + i);
+				for (int i = 0; i < batch; i++) check(ch.nextLong() == 2 * (x + i), "answer r=" + r + " i=" + i);
+				x += batch;
+			}
+			check(ch.batches() == rounds, "batches=" + ch.batches());
+			check(ch.roundTrips() == rounds, "roundTrips=" + ch.roundTrips());
+			check(ch.minLatencyNanos() > 0 && ch.minLatencyNanos() <= ch.maxLatencyNanos(), "latency");
+			check(ch.totalLatencyNanos() >= ch.maxLatencyNanos(), "total latency");
+			check(ch.reads() >= rounds, "reads");
+			ch.println("!");
+		}
+		judge.join();
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
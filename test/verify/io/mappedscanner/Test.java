@@ -0,0 +1,95 @@
+package verify.io.mappedscanner;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+import lib.io.*;
+
+public final class Test {
+
+	public static void main(final String[] args) throws IOException {
+		final Random rnd = new Random(2);
+		final StringBuilder sb = new StringBuilder();
+		final int n = 10000;
+		final long[] expected = new long[n];
+		for (int i = 0; i < n; i++) {
+			expected[i] = (i & 1) == 0 ? rnd.nextInt() : rnd.nextLong();
+			sb.append(expected[i]).append(i % 7 == 0 ? "\r\n" : " ");
+		}
+		sb.append("\nhello world\r\n1.5 -2.25 abc 12345678901234567");
+		final byte[] input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		final Path file = Files.createTempFile("mapped", ".txt");
+		try {
+			Files.write(file, input);
+			try (final MappedScanner sc = new MappedScanner(file)) {
+				checkAll(sc, expected);
+			}
+			try (final FileInputStream in = new FileInputStream(file.toFile()); final MappedScanner sc = new MappedScanner(in)) {
+				checkAll(sc, expected);
+			}
+		} finally {
+			Files.delete(file);
+		}
+		try (final MappedScanner sc = new MappedScanner(new ByteArrayInputStream(input))) {
+			checkAll(sc, expected);
+		}
+		testDigitRunAtEnd();
+		testDoubles();
+	}
+
+	// 末尾に空白がなく、8 バイト読み込みの後も数字が続くトークン。
+	private static void testDigitRunAtEnd() throws IOException {
+		final String zeros = "0".repeat(40);
+		final String[] inputs = {zeros + "123", "-" + zeros + "45", "7 " + zeros + "9", "12345678", "-1234567890123456789"};
+		final long[] last = {123, -45, 9, 12345678, -1234567890123456789L};
+		for (int k = 0; k < inputs.length; k++) {
+			final byte[] bytes = inputs[k].getBytes(StandardCharsets.US_ASCII);
+			final Path file = Files.createTempFile("mapped", ".txt");
+			try {
+				Files.write(file, bytes);
+				for (final boolean isLong : new boolean[] {false, true}) {
+					try (final MappedScanner sc = new MappedScanner(file)) {
+						if (k == 2) check(sc.nextInt() == 7, "first token k=" + k);
+						final long actual = isLong ? sc.nextLong() : sc.nextInt();
+						check(actual == (isLong ? last[k] : (int) last[k]), "digit run k=" + k + " long=" + isLong);
+						check(!sc.hasNext(), "eof k=" + k);
+					}
+				}
+			} finally {
+				Files.delete(file);
+			}
+		}
+	}
+
+	private static void testDoubles() {
+		final String[] tokens = {"1e-9", "2.5E+10", "-0.0", "+3.25", "123456789012345678901234", "0.1000000000000000055511151231257827", "NaN", "-Infinity", "4.9e-324", "1.7976931348623157e308"};
+		final byte[] input = String.join(" ", tokens).getBytes(StandardCharsets.US_ASCII);
+		try (final MappedScanner sc = new MappedScanner(new ByteArrayInputStream(input))) {
+			for (final String t : tokens) {
+				final double actual = sc.nextDouble();
+				check(Double.compare(actual, Double.parseDouble(t)) == 0, "double " + t + " -> " + actual);
+			}
+			check(!sc.hasNext(), "double eof");
+		}
+	}
+
+	private static void checkAll(final MappedScanner sc, final long[] expected) {
+		for (int i = 0; i < expected.length; i++) {
+			final long actual = (i & 1) == 0 ? sc.nextInt() : sc.nextLong();
+			check(actual == expected[i], "i=" + i);
+		}
+		check(sc.nextLine().isEmpty(), "rest of line");
+		check(sc.nextLine().equals("hello world"), "line");
+		check(sc.nextDouble() == 1.5, "double");
+		check(sc.nextDouble() == -2.25, "negative double");
+		check(sc.next().equals("abc"), "string");
+		check(sc.nextLong() == 12345678901234567L, "trailing long");
+		check(!sc.hasNext(), "eof");
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}
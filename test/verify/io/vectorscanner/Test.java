@@ -0,0 +1,131 @@
+package verify.io.vectorscanner;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import lib.io.*;
+
+// --add-modules jdk.incubator.vector を付けて実行すると VectorScanner を、付けなければ FastScanner を検証する。
+public final class Test {
+
+	public static void main(final String[] args) {
+		final Random rnd = new Random(4);
+		for (int round = 0; round < 30; round++) {
+			final int n = 1 + rnd.nextInt(round < 10 ? 50 : 5000);
+			final boolean isLong = (round & 1) == 1;
+			// 桁数の多い int だけの入力はベクトル版、短い数を含む入力は FastScanner の readInts で読まれる。
+			final boolean wide = round % 4 == 0;
+			final long[] expected = new long[n];
+			final StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < n; i++) {
+				expected[i] = wide ? rnd.nextInt() : value(rnd, isLong);
+				final int zeros = rnd.nextInt(40) == 0 ? rnd.nextInt(30) : 0;
+				final String s = Long.toString(Math.abs(expected[i]));
+				if (expected[i] < 0) sb.append('-');
+				sb.append("0".repeat(zeros)).append(expected[i] == Long.MIN_VALUE ? s.substring(1) : s);
+				sb.append(separator(rnd));
+			}
+			final byte[] input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+			for (final int step : new int[] {input.length, 1 + rnd.nextInt(100), 1 + rnd.nextInt(5000)}) {
+				final FastScanner sc = FastScanner.vectorized(new Trickle(input, step));
+				// 先頭の数個は 1 個ずつ読み、残りを一括で読む。
+				final int head = Math.min(n, rnd.nextInt(5));
+				for (int i = 0; i < head; i++) {
+					final long actual = isLong ? sc.nextLong() : sc.nextInt();
+					check(actual == expected[i], "head round=" + round + " i=" + i);
+				}
+				if (isLong) {
+					final long[] actual = new long[n];
+					sc.readLongs(actual, head, n - head);
+					for (int i = head; i < n; i++) check(actual[i] == expected[i], "long round=" + round + " step=" + step + " i=" + i);
+				} else {
+					final int[] actual = new int[n];
+					sc.readInts(actual, head, n - head);
+					for (int i = head; i < n; i++) check(actual[i] == expected[i], "int round=" + round + " step=" + step + " i=" + i);
+				}
+				check(!sc.hasNext(), "eof round=" + round);
+			}
+		}
+		testMixed();
+		testTooFew();
+	}
+
+	// 一括読み込みの後に他の型のトークンが続いても位置がずれないこと。
+	private static void testMixed() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) sb.append(i * 7919 - 3000000).append(i % 10 == 9 ? "\n" : " ");
+		sb.append("abc 1.5\n");
+		for (int i = 0; i < 600; i++) sb.append(-1L - i * 1234567890123L).append(' ');
+		sb.append("\n-7");
+		final FastScanner sc = FastScanner.vectorized(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.US_ASCII)));
+		final int[][] mat = sc.nextIntMat(100, 10);
+		for (int i = 0; i < 1000; i++) check(mat[i / 10][i % 10] == i * 7919 - 3000000, "matrix i=" + i);
+		check(sc.next().equals("abc"), "string after ints");
+		check(sc.nextDouble() == 1.5, "double after ints");
+		final long[] longs = sc.nextLong(600);
+		for (int i = 0; i < 600; i++) check(longs[i] == -1L - i * 1234567890123L, "long i=" + i);
+		check(sc.nextInt() == -7, "last token");
+		check(!sc.hasNext(), "eof");
+	}
+
+	private static void testTooFew() {
+		final FastScanner sc = FastScanner.vectorized(new ByteArrayInputStream("1 2 3 ".repeat(100).getBytes(StandardCharsets.US_ASCII)));
+		try {
+			sc.nextInt(301);
+		} catch (final NoSuchElementException e) {
+			return;
+		}
+		throw new AssertionError("too few tokens");
+	}
+
+	private static long value(final Random rnd, final boolean isLong) {
+		return switch (rnd.nextInt(6)) {
+			case 0 -> rnd.nextInt(10) - 5;
+			case 1 -> isLong ? Long.MIN_VALUE + rnd.nextInt(2) : Integer.MIN_VALUE + rnd.nextInt(2);
+			case 2 -> isLong ? Long.MAX_VALUE - rnd.nextInt(2) : Integer.MAX_VALUE - rnd.nextInt(2);
+			case 3 -> rnd.nextInt(1000000) - 500000;
+			default -> isLong ? rnd.nextLong() >> rnd.nextInt(64) : rnd.nextInt() >> rnd.nextInt(32);
+		};
+	}
+
+	private static String separator(final Random rnd) {
+		return switch (rnd.nextInt(8)) {
+			case 0 -> "\r\n";
+			case 1 -> "\n";
+			case 2 -> " ".repeat(1 + rnd.nextInt(70));
+			case 3 -> " \t ";
+			default -> " ";
+		};
+	}
+
+	// 1 回の read で高々 step バイトだけ返し、チャンク境界をトークンの途中に置く。
+	private static final class Trickle extends InputStream {
+		private final byte[] data;
+		private final int step;
+		private int pos = 0;
+
+		Trickle(final byte[] data, final int step) {
+			this.data = data;
+			this.step = step;
+		}
+
+		@Override
+		public int read() {
+			return pos < data.length ? data[pos++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) {
+			if (pos == data.length) return -1;
+			final int n = Math.min(Math.min(len, step), data.length - pos);
+			System.arraycopy(data, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+}